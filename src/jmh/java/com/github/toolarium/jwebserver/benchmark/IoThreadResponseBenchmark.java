@@ -0,0 +1,192 @@
+/*
+ * IoThreadResponseBenchmark.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.benchmark;
+
+import com.github.toolarium.jwebserver.handler.routing.resource.cache.ContentCache;
+import com.github.toolarium.jwebserver.handler.routing.resource.cache.ContentCacheResourceManager;
+import com.github.toolarium.jwebserver.handler.routing.resource.cache.IoThreadResponseHandler;
+import io.undertow.Undertow;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.handlers.resource.PathResourceManager;
+import io.undertow.server.handlers.resource.ResourceHandler;
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Compares the latency of a small cached resource over HTTP/1.1 keep-alive connections: served by the resource handler
+ * after a dispatch to a worker thread and written directly from the IO thread by the {@link IoThreadResponseHandler}.
+ * The sample time mode reports the percentiles, e.g. p0.99, of both variants.
+ *
+ * @author patrick
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class IoThreadResponseBenchmark {
+    private static final String PATH = "/app.js";
+
+    @Param({ "false", "true" })
+    private boolean serveFromIoThread;
+
+    private Path directory;
+    private Undertow server;
+    private int port;
+
+
+    /**
+     * Start the server
+     *
+     * @throws IOException In case of an I/O error
+     */
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("jwebserver-benchmark");
+        Files.writeString(directory.resolve(PATH.substring(1)), "var jwebserver = { name: 'jwebserver', version: 1 };", StandardCharsets.UTF_8);
+
+        ContentCache contentCache = new ContentCache(1024 * 1024, 64 * 1024);
+        ContentCacheResourceManager resourceManager = new ContentCacheResourceManager(new PathResourceManager(directory), contentCache);
+        HttpHandler handler = new ResourceHandler(resourceManager);
+        if (serveFromIoThread) {
+            handler = new IoThreadResponseHandler(handler, resourceManager, contentCache, 60000);
+        }
+
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        server = Undertow.builder().addHttpListener(port, "127.0.0.1").setHandler(handler).build();
+        server.start();
+    }
+
+
+    /**
+     * Stop the server
+     *
+     * @throws IOException In case of an I/O error
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        server.stop();
+        Files.deleteIfExists(directory.resolve(PATH.substring(1)));
+        Files.deleteIfExists(directory);
+    }
+
+
+    /**
+     * Request the resource on a keep-alive connection
+     *
+     * @param connection the connection of the thread
+     * @return the length of the content
+     * @throws IOException In case of an I/O error
+     */
+    @Benchmark
+    public int request(Connection connection) throws IOException {
+        return connection.get(PATH);
+    }
+
+
+    /**
+     * Defines a keep-alive connection per benchmark thread
+     */
+    @State(Scope.Thread)
+    public static class Connection {
+        private Socket socket;
+        private InputStream inputStream;
+        private OutputStream outputStream;
+
+
+        /**
+         * Connect to the server
+         *
+         * @param benchmark the benchmark
+         * @throws IOException In case of an I/O error
+         */
+        @Setup(Level.Trial)
+        public void connect(IoThreadResponseBenchmark benchmark) throws IOException {
+            socket = new Socket("127.0.0.1", benchmark.port);
+            socket.setTcpNoDelay(true);
+            inputStream = new BufferedInputStream(socket.getInputStream());
+            outputStream = socket.getOutputStream();
+        }
+
+
+        /**
+         * Close the connection
+         *
+         * @throws IOException In case of an I/O error
+         */
+        @TearDown(Level.Trial)
+        public void close() throws IOException {
+            socket.close();
+        }
+
+
+        /**
+         * Request a path and read the response
+         *
+         * @param path the path
+         * @return the length of the content
+         * @throws IOException In case of an I/O error
+         */
+        public int get(String path) throws IOException {
+            outputStream.write(("GET " + path + " HTTP/1.1\r\nHost: localhost\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1));
+            outputStream.flush();
+
+            // read the header lines until the empty line
+            int contentLength = 0;
+            StringBuilder line = new StringBuilder();
+            while (true) {
+                int c = inputStream.read();
+                if (c < 0) {
+                    throw new IOException("Connection closed.");
+                }
+
+                if (c == '\n') {
+                    if (line.length() == 0) {
+                        break;
+                    }
+
+                    String header = line.toString().toLowerCase();
+                    if (header.startsWith("content-length:")) {
+                        contentLength = Integer.parseInt(header.substring(15).trim());
+                    }
+                    line.setLength(0);
+                } else if (c != '\r') {
+                    line.append((char) c);
+                }
+            }
+
+            byte[] content = inputStream.readNBytes(contentLength);
+            return content.length;
+        }
+    }
+}
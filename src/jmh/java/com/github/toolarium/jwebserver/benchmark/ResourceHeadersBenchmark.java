@@ -0,0 +1,124 @@
+/*
+ * ResourceHeadersBenchmark.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.benchmark;
+
+import com.github.toolarium.jwebserver.handler.routing.resource.cache.CachedResource;
+import com.github.toolarium.jwebserver.handler.routing.resource.cache.ContentCache;
+import io.undertow.server.handlers.resource.PathResourceManager;
+import io.undertow.server.handlers.resource.Resource;
+import io.undertow.util.HeaderMap;
+import io.undertow.util.Headers;
+import io.undertow.util.MimeMappings;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Compares the response header generation of a static resource as the resource handler does it on every request:
+ * the values of the file system resource (mime lookup, file system access, date formatting) and the precomputed
+ * values of a cached resource. Several threads request the same resource like the workers of keep-alive connections.
+ *
+ * @author patrick
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class ResourceHeadersBenchmark {
+    private static final String PATH = "/app.json";
+
+    private Path directory;
+    private PathResourceManager resourceManager;
+    private ContentCache contentCache;
+
+
+    /**
+     * Create the resource and load it into the content cache
+     *
+     * @throws IOException In case of an I/O error
+     */
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("jwebserver-benchmark");
+        Files.writeString(directory.resolve(PATH.substring(1)), "{ \"name\": \"jwebserver\" }", StandardCharsets.UTF_8);
+        resourceManager = new PathResourceManager(directory);
+        contentCache = new ContentCache(1024 * 1024, 64 * 1024);
+        new CachedResource(resourceManager.getResource(PATH), contentCache).getContent();
+    }
+
+
+    /**
+     * Delete the resource
+     *
+     * @throws IOException In case of an I/O error
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        resourceManager.close();
+        Files.deleteIfExists(directory.resolve(PATH.substring(1)));
+        Files.deleteIfExists(directory);
+    }
+
+
+    /**
+     * The header values of the file system resource
+     *
+     * @return the headers
+     */
+    @Benchmark
+    public HeaderMap computedHeaders() {
+        return applyHeaders(resourceManager.getResource(PATH));
+    }
+
+
+    /**
+     * The precomputed header values of the cached resource
+     *
+     * @return the headers
+     */
+    @Benchmark
+    public HeaderMap precomputedHeaders() {
+        return applyHeaders(new CachedResource(resourceManager.getResource(PATH), contentCache));
+    }
+
+
+    /**
+     * Apply the headers like the resource handler
+     *
+     * @param resource the resource
+     * @return the headers
+     */
+    private HeaderMap applyHeaders(Resource resource) {
+        HeaderMap headers = new HeaderMap();
+        Date lastModified = resource.getLastModified();
+        headers.put(Headers.CONTENT_TYPE, resource.getContentType(MimeMappings.DEFAULT));
+        if (lastModified != null) {
+            headers.put(Headers.LAST_MODIFIED, resource.getLastModifiedString());
+        }
+        headers.put(Headers.CONTENT_LENGTH, resource.getContentLength().longValue());
+        return headers;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * ResourcePathWalkBenchmark.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.benchmark;
+
+import com.github.toolarium.jwebserver.util.ResourceUtil;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+
+/**
+ * Compares the walk over the parent directories of a request path to find a welcome file: the former walk which splits
+ * the path and builds every parent path and candidate by new strings, and the offset based walk on a single buffer of
+ * the {@link ResourceUtil}. The allocations are reported with the gc profiler, e.g. <code>gradlew jmh -Pjmh.profilers=gc</code>
+ * or <code>jmhJar</code> and <code>java -jar ... -prof gc</code>.
+ *
+ * @author patrick
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResourcePathWalkBenchmark {
+    private static final String[] WELCOME_FILES = {"index.html", "index.htm", "default.html", "default.htm"};
+
+    @Param({ "2", "8", "16" })
+    private int depth;
+
+    private String path;
+    private int maxWelcomeFileLength;
+
+
+    /**
+     * Create the request path
+     */
+    @Setup
+    public void setup() {
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            builder.append("/directory").append(i);
+        }
+        path = builder.toString();
+
+        for (String welcomeFile : WELCOME_FILES) {
+            maxWelcomeFileLength = Math.max(maxWelcomeFileLength, welcomeFile.length());
+        }
+    }
+
+
+    /**
+     * The former walk: split, a new string per parent and per candidate
+     *
+     * @param blackhole the blackhole
+     */
+    @Benchmark
+    public void splitWalk(Blackhole blackhole) {
+        String directoryPath = ResourceUtil.getInstance().slashify(path);
+        String[] directorySplit = directoryPath.split("/");
+        for (int i = directorySplit.length - 1; i >= 0; i--) {
+            String parentPath = prepareString(directorySplit, i);
+            for (String possibility : WELCOME_FILES) {
+                blackhole.consume(ResourceUtil.getInstance().canonicalize(ResourceUtil.getInstance().slashify(parentPath) + possibility));
+            }
+        }
+    }
+
+
+    /**
+     * The offset based walk on a single buffer
+     *
+     * @param blackhole the blackhole
+     */
+    @Benchmark
+    public void offsetWalk(Blackhole blackhole) {
+        StringBuilder pathBuffer = ResourceUtil.getInstance().createPathBuffer(path, maxWelcomeFileLength);
+        for (int directoryEnd = pathBuffer.length(); directoryEnd >= 0; directoryEnd = ResourceUtil.getInstance().getParentEnd(pathBuffer, directoryEnd)) {
+            for (String possibility : WELCOME_FILES) {
+                blackhole.consume(ResourceUtil.getInstance().resolve(pathBuffer, directoryEnd, possibility));
+            }
+        }
+    }
+
+
+    /**
+     * The former parent path builder
+     *
+     * @param input the path elements
+     * @param size the number of elements
+     * @return the parent path
+     */
+    private static String prepareString(String[] input, int size) {
+        if (input == null || input.length == 0 || size == 0) {
+            return "/";
+        }
+
+        StringBuilder builder = new StringBuilder();
+        for (int i = 0; (i < input.length && i <= size); i++) {
+            builder.append(input[i]);
+            builder.append("/");
+        }
+        return builder.toString();
+    }
+}
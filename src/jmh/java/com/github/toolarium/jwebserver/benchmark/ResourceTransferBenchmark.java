@@ -0,0 +1,168 @@
+/*
+ * ResourceTransferBenchmark.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.benchmark;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+
+/**
+ * Compares the ways a file is sent to a socket: read into a buffer (the path below the transfer min size), a zero-copy
+ * transfer (sendfile) and a write of a shared memory mapped buffer. The result helps to choose the transferMinSize,
+ * mappedFileMinSize and mappedFileMaxSize of the resource server.
+ *
+ * @author patrick
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResourceTransferBenchmark {
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    @Param({ "1024", "65536", "1048576", "67108864" })
+    private int fileSize;
+
+    private Path file;
+    private MappedByteBuffer mappedBuffer;
+    private ServerSocketChannel serverChannel;
+    private SocketChannel clientChannel;
+    private Thread drainThread;
+
+
+    /**
+     * Create the file and connect a socket with a server which drains all data
+     *
+     * @throws IOException In case of an I/O error
+     */
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        file = Files.createTempFile("jwebserver-benchmark", ".bin");
+        byte[] data = new byte[fileSize];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        Files.write(file, data);
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            mappedBuffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            mappedBuffer.load();
+        }
+
+        serverChannel = ServerSocketChannel.open();
+        serverChannel.bind(new InetSocketAddress("127.0.0.1", 0));
+        clientChannel = SocketChannel.open(serverChannel.getLocalAddress());
+        final SocketChannel acceptedChannel = serverChannel.accept();
+        drainThread = new Thread(() -> {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(256 * 1024);
+            try {
+                while (acceptedChannel.read(buffer) >= 0) {
+                    buffer.clear();
+                }
+            } catch (IOException e) {
+                // NOP, the benchmark is finished
+            }
+        }, "benchmark-drain");
+        drainThread.setDaemon(true);
+        drainThread.start();
+    }
+
+
+    /**
+     * Close the sockets and delete the file
+     *
+     * @throws IOException In case of an I/O error
+     */
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        clientChannel.close();
+        serverChannel.close();
+        Files.deleteIfExists(file);
+    }
+
+
+    /**
+     * Read the file into a buffer and write it to the socket
+     *
+     * @return the number of bytes sent
+     * @throws IOException In case of an I/O error
+     */
+    @Benchmark
+    public long bufferedRead() throws IOException {
+        long count = 0;
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (channel.read(buffer) > 0) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    count += clientChannel.write(buffer);
+                }
+                buffer.clear();
+            }
+        }
+        return count;
+    }
+
+
+    /**
+     * Transfer the file to the socket without copying it into the user space
+     *
+     * @return the number of bytes sent
+     * @throws IOException In case of an I/O error
+     */
+    @Benchmark
+    public long zeroCopyTransfer() throws IOException {
+        long count = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            while (count < size) {
+                count += channel.transferTo(count, size - count, clientChannel);
+            }
+        }
+        return count;
+    }
+
+
+    /**
+     * Write the shared memory mapped buffer to the socket
+     *
+     * @return the number of bytes sent
+     * @throws IOException In case of an I/O error
+     */
+    @Benchmark
+    public long mappedBuffer() throws IOException {
+        long count = 0;
+        ByteBuffer buffer = mappedBuffer.duplicate();
+        while (buffer.hasRemaining()) {
+            count += clientChannel.write(buffer);
+        }
+        return count;
+    }
+}
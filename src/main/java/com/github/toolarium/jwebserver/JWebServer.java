@@ -7,7 +7,9 @@
 package com.github.toolarium.jwebserver;
 import com.github.toolarium.jwebserver.config.IWebServerConfiguration;
 import com.github.toolarium.jwebserver.config.WebServerConfiguration;
+import com.github.toolarium.jwebserver.handler.compression.CompressionHttpHandler;
 import com.github.toolarium.jwebserver.handler.health.HealthHttpHandler;
+import com.github.toolarium.jwebserver.handler.health.IHealthCheck;
 import com.github.toolarium.jwebserver.handler.routing.RoutingHandler;
 import com.github.toolarium.jwebserver.logger.LifecycleLogger;
 import com.github.toolarium.jwebserver.logger.VerboseLevel;
@@ -16,6 +18,10 @@ import com.github.toolarium.jwebserver.logger.logback.LogbackUtil;
 import com.github.toolarium.jwebserver.util.ConfigurationUtil;
 import io.undertow.Handlers;
 import io.undertow.Undertow;
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLContext;
 import org.fusesource.jansi.AnsiConsole;
@@ -66,6 +72,52 @@ public class JWebServer implements Runnable {
     private String welcomeFiles;
     @Option(names = { "--disableResolveParentResourceIfNotFound" }, paramLabel = "disableResolveParentResourceIfNotFound",  description = "Disable the resolution of parent resources if the requested resource can' be found.")    
     private Boolean disableResolveParentResourceIfNotFound;
+    @Option(names = { "--cacheSize" }, paramLabel = "cacheSize", description = "The size in bytes of the in-memory content cache, by default 0 (disabled).")
+    private Integer cacheSize;
+    @Option(names = { "--cacheMaxEntrySize" }, paramLabel = "cacheMaxEntrySize", description = "The max size in bytes of a cached resource, by default 1048576.")
+    private Integer cacheMaxEntrySize;
+    @Option(names = { "--lookupCacheSize" }, paramLabel = "lookupCacheSize", description = "The max number of entries of the resource lookup cache, by default 0 (disabled).")
+    private Integer lookupCacheSize;
+    @Option(names = { "--lookupCacheTimeToLive" }, paramLabel = "lookupCacheTimeToLive", description = "The time to live in milliseconds of a resource lookup cache entry, by default 10000.")
+    private Integer lookupCacheTimeToLive;
+    @Option(names = { "--resourceIndex" }, paramLabel = "resourceIndexEnabled", description = "Resolve the resources from an in-memory index which is built at startup.")
+    private Boolean resourceIndexEnabled;
+    @Option(names = { "--preloadSize" }, paramLabel = "preloadSize", description = "The max size in bytes of the classpath resources which are preloaded into memory at startup, by default 0 (disabled).")
+    private Integer preloadSize;
+    @Option(names = { "--precompressedEncodings" }, paramLabel = "precompressedEncodings", description = "The content encodings of the precompressed sidecar files in the order of preference, e.g. br, zstd, gzip. By default the precompressed files are not served.")
+    private String precompressedEncodings;
+    @Option(names = { "--transferMinSize" }, paramLabel = "transferMinSize", description = "The min size in bytes of a file which is sent by a zero-copy transfer, by default 1024.")
+    private Integer transferMinSize;
+    @Option(names = { "--mappedCacheSize" }, paramLabel = "mappedCacheSize", description = "The max size in bytes of the memory mapped files, by default 0 (disabled).")
+    private Integer mappedCacheSize;
+    @Option(names = { "--mappedFileMinSize" }, paramLabel = "mappedFileMinSize", description = "The min size in bytes of a file to be memory mapped, by default 65536.")
+    private Integer mappedFileMinSize;
+    @Option(names = { "--mappedFileMaxSize" }, paramLabel = "mappedFileMaxSize", description = "The max size in bytes of a file to be memory mapped, by default 16777216.")
+    private Integer mappedFileMaxSize;
+    @Option(names = { "--etagCacheSize" }, paramLabel = "etagCacheSize", description = "The max number of cached content hashes of the strong ETags, by default 0 (disabled).")
+    private Integer etagCacheSize;
+    @Option(names = { "--cacheControl" }, paramLabel = "cacheControl", description = "The Cache-Control rules of the static resources separated by a semicolon, e.g. '*.html: no-cache; image/*: public, max-age=86400'.")
+    private String cacheControl;
+    @Option(names = { "--cacheControlImmutable" }, paramLabel = "cacheControlImmutable", description = "Define to send an immutable Cache-Control header for resources with a content hash in the file name, default false.")
+    private Boolean cacheControlImmutable;
+    @Option(names = { "--listingPageSize" }, paramLabel = "directoryListingPageSize", description = "The default and max number of entries of a directory listing page, by default 1000.")
+    private Integer directoryListingPageSize;
+    @Option(names = { "--listingCacheSize" }, paramLabel = "directoryListingCacheSize", description = "The max number of cached sorted directory listings, by default 16.")
+    private Integer directoryListingCacheSize;
+    @Option(names = { "--layers" }, paramLabel = "resourceLayers", description = "The ordered resource layers which are served as one url space, e.g. override, content, classpath:static. The first layer which contains a path wins, by default only the directory is served.")
+    private String resourceLayers;
+    @Option(names = { "--spa" }, paramLabel = "spaIndex", description = "The index document of a single-page application, e.g. index.html. It answers any unknown route without a file extension.")
+    private String spaIndex;
+    @Option(names = { "--ioThread" }, paramLabel = "serveFromIoThread", description = "Define to write the responses of cached resources directly from the IO thread without a dispatch to a worker thread, default false.")
+    private Boolean serveFromIoThread;
+    @Option(names = { "--ioThreadTimeToLive" }, paramLabel = "ioThreadTimeToLive", description = "The time to live in milliseconds of a response which is written from the IO thread, by default 60000.")
+    private Integer ioThreadTimeToLive;
+    @Option(names = { "--metadataCacheSize" }, paramLabel = "metadataCacheSize", description = "The max number of entries of the file metadata cache, by default 0 (disabled).")
+    private Integer metadataCacheSize;
+    @Option(names = { "--metadataCacheTimeToLive" }, paramLabel = "metadataCacheTimeToLive", description = "The time to live in milliseconds of a file metadata cache entry, by default 2000.")
+    private Integer metadataCacheTimeToLive;
+    @Option(names = { "--generationCheckInterval" }, paramLabel = "generationCheckInterval", description = "The interval in milliseconds in which a switched content directory (symbolic link) is detected, by default 0 (disabled).")
+    private Integer generationCheckInterval;
     
     @Option(names = { "--trustAll" }, paramLabel = "trustAnyCertificate", description = "Define to trust any certificate, default false")
     private Boolean trustAnyCertificate;
@@ -81,6 +133,42 @@ public class JWebServer implements Runnable {
     private Integer maxRequestTime;
     @Option(names = { "--connectionsPerThread" }, paramLabel = "connectionsPerThread", description = "Defines the connections per thread, default 20.")
     private Integer connectionsPerThread;
+    @Option(names = { "--proxyHealthPath" }, paramLabel = "healthCheckPath", description = "The path of the active health check of the proxy hosts, e.g. /q/health, by default disabled.")
+    private String healthCheckPath;
+    @Option(names = { "--proxyHealthInterval" }, paramLabel = "healthCheckInterval", description = "The interval in milliseconds of the active health check of the proxy hosts, by default 5000.")
+    private Integer healthCheckInterval;
+    @Option(names = { "--proxyUnhealthyThreshold" }, paramLabel = "unhealthyThreshold", description = "The number of failed probes in a row after which a proxy host is ejected, by default 3.")
+    private Integer unhealthyThreshold;
+    @Option(names = { "--proxyHealthyThreshold" }, paramLabel = "healthyThreshold", description = "The number of successful probes in a row after which an ejected proxy host is admitted again, by default 2.")
+    private Integer healthyThreshold;
+    @Option(names = { "--proxyBalancing" }, paramLabel = "balancingStrategy", description = "The strategy which selects the proxy host: round-robin, least-outstanding, peak-ewma, power-of-two, consistent-hash or sticky, by default round-robin.")
+    private String balancingStrategy;
+    @Option(names = { "--proxyHashKey" }, paramLabel = "hashKey", description = "The request attribute of the consistent-hash balancing: header:<name>, cookie:<name>, ip or path[:<segments>].")
+    private String hashKey;
+    @Option(names = { "--proxyStickyCookie" }, paramLabel = "stickyCookie", description = "The name of the cookie of the sticky balancing, by default JWEBSERVER_ROUTE.")
+    private String stickyCookie;
+    @Option(names = { "--proxyCacheSize" }, paramLabel = "proxyCacheSize", description = "The size in bytes of the in-memory cache of the proxy responses, by default 0 (disabled).")
+    private Integer proxyCacheSize;
+    @Option(names = { "--proxyCacheMaxEntrySize" }, paramLabel = "proxyCacheMaxEntrySize", description = "The max size in bytes of a cached proxy response, by default 1048576.")
+    private Integer proxyCacheMaxEntrySize;
+    @Option(names = { "--proxyCacheDirectory" }, paramLabel = "proxyCacheDirectory", description = "The directory of the disk tier of the proxy cache, the files are kept in its subdirectory jwebserver-proxy-cache, by default disabled.")
+    private String proxyCacheDirectory;
+    @Option(names = { "--proxyCacheDiskSize" }, paramLabel = "proxyCacheDiskSize", description = "The size in megabytes of the disk tier of the proxy cache, by default 1024.")
+    private Integer proxyCacheDiskSize;
+    @Option(names = { "--proxyCollapseTimeout" }, paramLabel = "proxyCollapseTimeout", description = "The time in milliseconds a request waits for the response of a concurrent identical proxy request, by default 5000 (0 disables the collapsing).")
+    private Integer proxyCollapseTimeout;
+    
+    // compression
+    @Option(names = { "--compression" }, paramLabel = "compression", description = "Enable the gzip / deflate compression of the responses.")
+    private Boolean compression;
+    @Option(names = { "--compressionMinSize" }, paramLabel = "compressionMinSize", description = "The min size in bytes of a response to be compressed, by default 1024.")
+    private Integer compressionMinSize;
+    @Option(names = { "--compressionLevel" }, paramLabel = "compressionLevel", description = "The compression level between 1 (fastest) and 9 (best compression), by default 6.")
+    private Integer compressionLevel;
+    @Option(names = { "--compressionMimeTypes" }, paramLabel = "compressionMimeTypes", description = "The comma-separated compressible mime types, e.g. text/*, application/json, *+json.")
+    private String compressionMimeTypes;
+    @Option(names = { "--compressionCacheSize" }, paramLabel = "compressionCacheSize", description = "The size in bytes of the in-memory store of compressed static resources, by default 10485760.")
+    private Integer compressionCacheSize;
     
     @Option(names = { "--verbose" }, paramLabel = "verboseLevel", defaultValue = "INFO", description = "Specify the verbose level: (${COMPLETION-CANDIDATES}), by default INFO.")
     private VerboseLevel verboseLevel;
@@ -92,6 +180,7 @@ public class JWebServer implements Runnable {
     private WebServerConfiguration configuration;
     private LifecycleLogger lifecycleLogger;
     private transient Undertow server;
+    private transient List<Closeable> closeables;
     private boolean hasError;
     
 
@@ -102,6 +191,7 @@ public class JWebServer implements Runnable {
         configuration = null;
         lifecycleLogger = new LifecycleLogger();
         server = null;
+        closeables = new CopyOnWriteArrayList<>();
         hasError = false;
     }
 
@@ -140,7 +230,30 @@ public class JWebServer implements Runnable {
                     .setDirectory(directory)
                     .setDirectoryListingEnabled(directoryListingEnabled)
                     .setResolveParentResourceIfNotFound(resolveParentResourceIfNotFound)
-                    .setWelcomeFiles(welcomeFiles);
+                    .setWelcomeFiles(welcomeFiles)
+                    .setCacheSize(cacheSize)
+                    .setCacheMaxEntrySize(cacheMaxEntrySize)
+                    .setLookupCacheSize(lookupCacheSize)
+                    .setLookupCacheTimeToLive(lookupCacheTimeToLive)
+                    .setResourceIndexEnabled(resourceIndexEnabled)
+                    .setPreloadSize(preloadSize)
+                    .setPrecompressedEncodings(precompressedEncodings)
+                    .setTransferMinSize(transferMinSize)
+                    .setMappedCacheSize(mappedCacheSize)
+                    .setMappedFileMinSize(mappedFileMinSize)
+                    .setMappedFileMaxSize(mappedFileMaxSize)
+                    .setETagCacheSize(etagCacheSize)
+                    .setCacheControl(cacheControl)
+                    .setCacheControlImmutable(cacheControlImmutable)
+                    .setDirectoryListingPageSize(directoryListingPageSize)
+                    .setDirectoryListingCacheSize(directoryListingCacheSize)
+                    .setResourceLayers(resourceLayers)
+                    .setSpaIndex(spaIndex)
+                    .setServeFromIoThread(serveFromIoThread)
+                    .setIoThreadTimeToLive(ioThreadTimeToLive)
+                    .setMetadataCacheSize(metadataCacheSize)
+                    .setMetadataCacheTimeToLive(metadataCacheTimeToLive)
+                    .setGenerationCheckInterval(generationCheckInterval);
 
             // proxy configuration
             webServerConfiguration.getProxyServerConfiguration()
@@ -148,7 +261,27 @@ public class JWebServer implements Runnable {
                     //.setReuseXForwarded(reuseXForwarded)
                     .setMaxRequestTime(maxRequestTime)
                     .setConnectionsPerThread(connectionsPerThread)
-                    .setProxyHostNames(proxyHostNameList);
+                    .setProxyHostNames(proxyHostNameList)
+                    .setHealthCheckPath(healthCheckPath)
+                    .setHealthCheckInterval(healthCheckInterval)
+                    .setUnhealthyThreshold(unhealthyThreshold)
+                    .setHealthyThreshold(healthyThreshold)
+                    .setBalancingStrategy(balancingStrategy)
+                    .setHashKey(hashKey)
+                    .setStickyCookie(stickyCookie)
+                    .setCacheSize(proxyCacheSize)
+                    .setCacheMaxEntrySize(proxyCacheMaxEntrySize)
+                    .setCacheDirectory(proxyCacheDirectory)
+                    .setCacheDiskSize(proxyCacheDiskSize)
+                    .setCollapseTimeout(proxyCollapseTimeout);
+
+            // compression configuration
+            webServerConfiguration.getCompressionConfiguration()
+                    .setEnabled(compression)
+                    .setMinSize(compressionMinSize)
+                    .setLevel(compressionLevel)
+                    .setMimeTypes(compressionMimeTypes)
+                    .setCacheSize(compressionCacheSize);
 
             setConfiguration(webServerConfiguration);
         }
@@ -227,6 +360,7 @@ public class JWebServer implements Runnable {
         if (isRunning()) {
             server.stop();
             server = null;
+            close();
         } else {
             LOG.warn("Server is already stopped.");
         }
@@ -272,9 +406,10 @@ public class JWebServer implements Runnable {
             io.undertow.server.RoutingHandler routingHandler = Handlers.routing();
             // TODO: routingHandler.setFallbackHandler(RoutingHandlers::notFoundHandler);
             
-            // add routes
-            HealthHttpHandler.addHandler(webServerConfiguration, routingHandler);
-            RoutingHandler.addHandler(webServerConfiguration, routingHandler);
+            // add routes, the health checks of the handlers are reported by the health handler
+            List<IHealthCheck> healthChecks = new CopyOnWriteArrayList<>();
+            HealthHttpHandler.addHandler(webServerConfiguration, routingHandler, healthChecks);
+            RoutingHandler.addHandler(webServerConfiguration, routingHandler, lifecycleLogger, healthChecks, closeables);
             
             // create ssl context with added self-signed certificate in trust store for a SSL client
             
@@ -284,7 +419,7 @@ public class JWebServer implements Runnable {
             
             // set port
             if (webServerConfiguration.getPort() != null) {
-                builder.addHttpListener(webServerConfiguration.getPort(), webServerConfiguration.getHostname(), AccessLogHttpHandler.addHandler(webServerConfiguration, routingHandler));
+                builder.addHttpListener(webServerConfiguration.getPort(), webServerConfiguration.getHostname(), AccessLogHttpHandler.addHandler(webServerConfiguration, CompressionHttpHandler.addHandler(webServerConfiguration, routingHandler)));
             }
             
             // set ssl port
@@ -292,7 +427,7 @@ public class JWebServer implements Runnable {
                 try {
                     SSLContext sslContext = webServerConfiguration.getSSLServerConfiguration().getSSLContext();
                     HttpsURLConnection.setDefaultSSLSocketFactory(sslContext.getSocketFactory());
-                    builder.addHttpsListener(webServerConfiguration.getSecurePort(), webServerConfiguration.getHostname(), sslContext, AccessLogHttpHandler.addHandler(webServerConfiguration, routingHandler));
+                    builder.addHttpsListener(webServerConfiguration.getSecurePort(), webServerConfiguration.getHostname(), sslContext, AccessLogHttpHandler.addHandler(webServerConfiguration, CompressionHttpHandler.addHandler(webServerConfiguration, routingHandler)));
                 } catch (Exception e) {
                     if (!VerboseLevel.NONE.equals(verboseLevel)) {
                         lifecycleLogger.printServerStartup(webServerConfiguration, null);
@@ -319,6 +454,22 @@ public class JWebServer implements Runnable {
                 port = webServerConfiguration.getSecurePort();
             }
             LOG.warn("Could not start server [" + webServerConfiguration.getHostname() + "] on port [" + port + "]\n" + lifecycleLogger.preapreThrowable(ex));
+            close();
+        }
+    }
+
+
+    /**
+     * Close the resources of the handlers: the resource managers, their watcher threads and the background threads of the proxy
+     */
+    private void close() {
+        for (Closeable closeable : closeables) {
+            try {
+                closeable.close();
+            } catch (IOException | RuntimeException e) {
+                LOG.warn("Could not close [" + closeable + "]: " + e.getMessage());
+            }
         }
+        closeables.clear();
     }
 }
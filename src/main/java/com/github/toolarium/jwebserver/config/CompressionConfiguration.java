@@ -0,0 +1,244 @@
+/*
+ * CompressionConfiguration.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.config;
+
+import com.github.toolarium.jwebserver.util.ConfigurationUtil;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Objects;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Implements the {@link ICompressionConfiguration}.
+ * 
+ * @author patrick
+ */
+public class CompressionConfiguration implements ICompressionConfiguration, Serializable {
+    private static final String END_VALUE = "].";
+    
+    private static final Logger LOG = LoggerFactory.getLogger(CompressionConfiguration.class);
+    private static final long serialVersionUID = 2417362947305286135L;
+    private boolean enabled;
+    private int minSize;
+    private int level;
+    private String[] mimeTypes;
+    private int cacheSize;
+    
+
+    /**
+     * Constructor for CompressionConfiguration
+     */
+    public CompressionConfiguration() {
+        this.enabled = false;
+        this.minSize = 1024;
+        this.level = 6;
+        this.mimeTypes = new String[] {"text/*", "application/json", "application/javascript", "application/xml", "image/svg+xml", "*+json", "*+xml"};
+        this.cacheSize = 10 * 1024 * 1024;
+    }
+
+
+    /**
+     * Constructor for CompressionConfiguration
+     *
+     * @param compressionConfiguration the compression configuration
+     */
+    public CompressionConfiguration(ICompressionConfiguration compressionConfiguration) {
+        this.enabled = compressionConfiguration.isEnabled();
+        this.minSize = compressionConfiguration.getMinSize();
+        this.level = compressionConfiguration.getLevel();
+        this.mimeTypes = compressionConfiguration.getMimeTypes();
+        this.cacheSize = compressionConfiguration.getCacheSize();
+    }
+
+    
+    /**
+     * @see com.github.toolarium.jwebserver.config.ICompressionConfiguration#isEnabled()
+     */
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+
+    /**
+     * Set the compression enabled
+     *
+     * @param enabled true to compress the responses
+     * @return this instance
+     */
+    public CompressionConfiguration setEnabled(Boolean enabled) {
+        if (enabled != null) {
+            LOG.debug("Set compression enabled: [" + enabled + END_VALUE);            
+            this.enabled = enabled;
+        }
+        
+        return this;
+    }
+
+    
+    /**
+     * @see com.github.toolarium.jwebserver.config.ICompressionConfiguration#getMinSize()
+     */
+    @Override
+    public int getMinSize() {
+        return minSize;
+    }
+
+    
+    /**
+     * Set the min size in bytes of a response to be compressed
+     *
+     * @param minSize the min size in bytes
+     * @return this instance
+     */
+    public CompressionConfiguration setMinSize(Integer minSize) {
+        if (minSize != null && minSize.intValue() >= 0) {
+            LOG.debug("Set compression minSize: [" + minSize + END_VALUE);            
+            this.minSize = minSize;
+        }
+        
+        return this;
+    }
+
+    
+    /**
+     * @see com.github.toolarium.jwebserver.config.ICompressionConfiguration#getLevel()
+     */
+    @Override
+    public int getLevel() {
+        return level;
+    }
+
+    
+    /**
+     * Set the compression level
+     *
+     * @param level the compression level between 1 and 9
+     * @return this instance
+     */
+    public CompressionConfiguration setLevel(Integer level) {
+        if (level != null && level.intValue() >= 1 && level.intValue() <= 9) {
+            LOG.debug("Set compression level: [" + level + END_VALUE);            
+            this.level = level;
+        }
+        
+        return this;
+    }
+
+    
+    /**
+     * @see com.github.toolarium.jwebserver.config.ICompressionConfiguration#getMimeTypes()
+     */
+    @Override
+    public String[] getMimeTypes() {
+        return mimeTypes;
+    }
+
+    
+    /**
+     * Set the compressible mime types
+     *
+     * @param mimeTypes the compressible mime types
+     * @return this instance
+     */
+    public CompressionConfiguration setMimeTypes(String mimeTypes) {
+        if (mimeTypes != null) {
+            setMimeTypes(ConfigurationUtil.getInstance().parseStringArray(mimeTypes));
+        }
+        return this;
+    }
+
+    
+    /**
+     * Set the compressible mime types
+     *
+     * @param mimeTypes the compressible mime types
+     * @return this instance
+     */
+    public CompressionConfiguration setMimeTypes(String[] mimeTypes) {
+        if (mimeTypes != null) {
+            this.mimeTypes = mimeTypes;
+            
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Set compression mimeTypes: [" + ConfigurationUtil.getInstance().formatArrayAsString(this.mimeTypes) + END_VALUE);            
+            }
+        }
+        return this;
+    }
+
+    
+    /**
+     * @see com.github.toolarium.jwebserver.config.ICompressionConfiguration#getCacheSize()
+     */
+    @Override
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    
+    /**
+     * Set the max size in bytes of the compressed static resources which are kept in memory
+     *
+     * @param cacheSize the max size in bytes, 0 to disable
+     * @return this instance
+     */
+    public CompressionConfiguration setCacheSize(Integer cacheSize) {
+        if (cacheSize != null && cacheSize.intValue() >= 0) {
+            LOG.debug("Set compression cacheSize: [" + cacheSize + END_VALUE);            
+            this.cacheSize = cacheSize;
+        }
+        
+        return this;
+    }
+
+
+    /**
+     * @see java.lang.Object#hashCode()
+     */
+    @Override
+    public int hashCode() {
+        final int prime = 31;
+        int result = 1;
+        result = prime * result + Arrays.hashCode(mimeTypes);
+        result = prime * result + Objects.hash(enabled, minSize, level, cacheSize);
+        return result;
+    }
+
+
+    /**
+     * @see java.lang.Object#equals(java.lang.Object)
+     */
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        
+        if (obj == null) {
+            return false;
+        }
+        
+        if (getClass() != obj.getClass()) {
+            return false;
+        }
+        
+        CompressionConfiguration other = (CompressionConfiguration) obj;
+        return enabled == other.enabled && minSize == other.minSize && level == other.level
+                && Arrays.equals(mimeTypes, other.mimeTypes) && cacheSize == other.cacheSize;
+    }
+
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "CompressionConfiguration [enabled=" + enabled + ", minSize=" + minSize + ", level=" + level
+                + ", mimeTypes=" + Arrays.toString(mimeTypes) + ", cacheSize=" + cacheSize + "]";
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * ICompressionConfiguration.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.config;
+
+
+/**
+ * Defines the response compression configuration
+ *  
+ * @author patrick
+ */
+public interface ICompressionConfiguration {
+    
+    /**
+     * Define if the responses are compressed
+     *
+     * @return true if the responses are compressed
+     */
+    boolean isEnabled();
+    
+    
+    /**
+     * Get the min size in bytes of a response to be compressed. Responses without a content length are always compressed.
+     *
+     * @return the min size in bytes
+     */
+    int getMinSize();
+    
+    
+    /**
+     * Get the compression level between 1 (fastest) and 9 (best compression)
+     *
+     * @return the compression level
+     */
+    int getLevel();
+    
+    
+    /**
+     * Get the compressible mime types. A mime type may start or end with a wildcard, e.g. text/* or *+json.
+     *
+     * @return the compressible mime types
+     */
+    String[] getMimeTypes();
+    
+    
+    /**
+     * Get the max size in bytes of the compressed static resources which are kept in memory. In case of 0 the static 
+     * resources are compressed on every request.
+     *
+     * @return the max size in bytes
+     */
+    int getCacheSize();
+}
@@ -51,4 +51,103 @@ public interface IProxyServerConfiguration {
      * @return the proxy host names
      */
     String[] getProxyHostNames();
+    
+    
+    /**
+     * Get the path of the active health check of the upstream hosts, e.g. /q/health. The hosts are probed periodically, a host which fails the unhealthy threshold in a row is ejected from the selection and admitted again after the healthy threshold of successful probes in a row.
+     *
+     * @return the health check path or null to disable the active health check
+     */
+    String getHealthCheckPath();
+    
+    
+    /**
+     * Get the interval in milliseconds of the active health check of the upstream hosts, it is also the timeout of a probe
+     *
+     * @return the interval in milliseconds
+     */
+    int getHealthCheckInterval();
+    
+    
+    /**
+     * Get the number of failed probes in a row after which an upstream host is ejected from the selection
+     *
+     * @return the unhealthy threshold
+     */
+    int getUnhealthyThreshold();
+    
+    
+    /**
+     * Get the number of successful probes in a row after which an ejected upstream host is admitted again
+     *
+     * @return the healthy threshold
+     */
+    int getHealthyThreshold();
+    
+    
+    /**
+     * Get the strategy which selects the upstream host of a request: round-robin, least-outstanding (the host with the fewest outstanding requests), peak-ewma (the host with the lowest peak exponentially weighted moving average latency, weighted by its outstanding requests), power-of-two (the less loaded host of two random hosts), consistent-hash (the host of the hash key) or sticky (the host of the sticky cookie).
+     *
+     * @return the balancing strategy
+     */
+    String getBalancingStrategy();
+    
+    
+    /**
+     * Get the request attribute of the consistent-hash balancing strategy: header:&lt;name&gt;, cookie:&lt;name&gt;, ip (the client address) or path[:&lt;segments&gt;] (the path prefix). Requests with the same key are sent to the same upstream host, if a host is added or removed only the keys of this host are moved.
+     *
+     * @return the hash key or null
+     */
+    String getHashKey();
+    
+    
+    /**
+     * Get the name of the cookie of the sticky balancing strategy, it contains the route to the upstream host of the session
+     *
+     * @return the cookie name
+     */
+    String getStickyCookie();
+    
+    
+    /**
+     * Get the size in bytes of the in-memory cache of the upstream responses. The cache honours Cache-Control, Expires and Vary of the responses, revalidates them with their ETag or last modified time and serves stale responses for stale-while-revalidate and stale-if-error.
+     * The requests with an Authorization header are not cached, except the basic authentication of this server is enabled: its credentials are ignored by the cache
+     * and still passed to the upstream hosts.
+     *
+     * @return the size in bytes, 0 to disable the cache
+     */
+    int getCacheSize();
+    
+    
+    /**
+     * Get the max size in bytes of a cached upstream response, a bigger response is passed through
+     *
+     * @return the max entry size in bytes
+     */
+    int getCacheMaxEntrySize();
+    
+    
+    /**
+     * Get the directory of the disk tier of the cache of the upstream responses. The responses which are evicted from the in-memory cache are written to its subdirectory
+     * jwebserver-proxy-cache and served memory-mapped.
+     *
+     * @return the directory or null to disable the disk tier
+     */
+    String getCacheDirectory();
+    
+    
+    /**
+     * Get the size in megabytes of the disk tier of the cache of the upstream responses
+     *
+     * @return the size in megabytes
+     */
+    int getCacheDiskSize();
+    
+    
+    /**
+     * Get the time in milliseconds a request waits for the response of a concurrent identical request to the upstream host, it sends its own request after it. The collapsing requires the cache of the upstream responses.
+     *
+     * @return the timeout in milliseconds, 0 to disable the collapsing
+     */
+    int getCollapseTimeout();
 }
@@ -69,4 +69,189 @@ public interface IResourceServerConfiguration {
      * @return the supported file extensions
      */
     String[] getSupportedFileExtensions();
+
+
+    /**
+     * Get the size in bytes of the in-memory content cache. In case of 0 the cache is disabled.
+     *
+     * @return the content cache size in bytes
+     */
+    int getCacheSize();
+
+
+    /**
+     * Get the max size in bytes of a single entry in the content cache. Bigger resources are not cached.
+     *
+     * @return the max size of a cache entry in bytes
+     */
+    int getCacheMaxEntrySize();
+
+
+    /**
+     * Get the max number of entries of the resource lookup cache which keeps missing and resolved resources. In case of 0 the cache is disabled.
+     *
+     * @return the max number of lookup cache entries
+     */
+    int getLookupCacheSize();
+
+
+    /**
+     * Get the time to live in milliseconds of an entry in the resource lookup cache.
+     *
+     * @return the time to live in milliseconds
+     */
+    int getLookupCacheTimeToLive();
+
+
+    /**
+     * Check if the resources are resolved from an in-memory index which is built at startup.
+     *
+     * @return true if the resource index is enabled
+     */
+    boolean isResourceIndexEnabled();
+
+
+    /**
+     * Get the max size in bytes of the classpath resources which are preloaded into memory at startup. In case of 0 the preload is disabled.
+     *
+     * @return the max preload size in bytes
+     */
+    int getPreloadSize();
+
+
+    /**
+     * Get the content encodings of the precompressed sidecar files in the order of preference, e.g. br, zstd, gzip. A sidecar file has the name of the original file with the extension of the encoding (.br, .zst, .gz).
+     *
+     * @return the encodings or null if the precompressed files are not served
+     */
+    String[] getPrecompressedEncodings();
+
+
+    /**
+     * Get the min size in bytes of a file which is sent by a zero-copy transfer (sendfile). Smaller files are read into a buffer.
+     *
+     * @return the min size in bytes of a zero-copy transfer
+     */
+    int getTransferMinSize();
+
+
+    /**
+     * Get the max size in bytes of the memory mapped files. The mapped files are shared across the requests. In case of 0 the files are not mapped.
+     *
+     * @return the max size in bytes of the memory mapped files
+     */
+    int getMappedCacheSize();
+
+
+    /**
+     * Get the min size in bytes of a file to be memory mapped
+     *
+     * @return the min size in bytes of a memory mapped file
+     */
+    int getMappedFileMinSize();
+
+
+    /**
+     * Get the max size in bytes of a file to be memory mapped. Bigger files are sent by a zero-copy transfer.
+     *
+     * @return the max size in bytes of a memory mapped file
+     */
+    int getMappedFileMaxSize();
+
+
+    /**
+     * Get the max number of cached content hashes. The resources get a strong ETag of a content hash which is computed once per path and last modified time. In case of 0 the strong ETags are disabled.
+     *
+     * @return the max number of cached content hashes
+     */
+    int getETagCacheSize();
+
+
+    /**
+     * Get the Cache-Control rules of the static resources. The rules are separated by a semicolon and consist of a selector and the header value, e.g. <code>*.html: no-cache; image/*: public, max-age=86400; /assets/**: public, max-age=3600</code>. The selector is a path glob (starts with a slash), an extension (*.css) or a mime type (image/*), the first matching rule wins.
+     *
+     * @return the Cache-Control rules or null
+     */
+    String getCacheControl();
+
+
+    /**
+     * Check if the resources with a content hash in the file name (e.g. app.3f2a1b9c.js) are immutable. They get the header Cache-Control: public, max-age=31536000, immutable.
+     *
+     * @return true if the fingerprinted resources are immutable
+     */
+    boolean isCacheControlImmutable();
+
+
+    /**
+     * Get the default and max number of entries of a directory listing page
+     *
+     * @return the number of entries of a directory listing page
+     */
+    int getDirectoryListingPageSize();
+
+
+    /**
+     * Get the max number of cached sorted directory listings. A listing is valid as long as the last modified time of the directory doesn't change.
+     *
+     * @return the max number of cached sorted directory listings
+     */
+    int getDirectoryListingCacheSize();
+
+
+    /**
+     * Get the ordered resource layers which are served as one url space, e.g. an override directory, the content directory and a fallback
+     * classpath bundle. The first layer which contains a path wins, a layer with the prefix <code>classpath:</code> is read from the classpath.
+     *
+     * @return the layers or null if only the directory is served
+     */
+    String[] getResourceLayers();
+
+
+    /**
+     * Get the index document of a single-page application, e.g. <code>index.html</code>. In case it is defined, any route without a file extension which can't be resolved is answered by this document, which is held in memory. A path with a file extension is not found as usual.
+     *
+     * @return the index document of a single-page application or null
+     */
+    String getSpaIndex();
+
+
+    /**
+     * Check if the responses of the resources in the content cache are written directly from the IO thread. The cache misses, the large and the memory mapped files are still served by the worker threads.
+     *
+     * @return true if the cached responses are written from the IO thread
+     */
+    boolean isServeFromIoThread();
+
+
+    /**
+     * Get the time to live in milliseconds of a response which is written from the IO thread. It is dropped earlier on any change of the file system or in case its content left the content cache, afterwards the next request validates the resource again on a worker thread.
+     *
+     * @return the time to live in milliseconds
+     */
+    int getIoThreadTimeToLive();
+
+
+    /**
+     * Get the max number of entries of the file metadata cache. It keeps the existence, the type, the size and the last modified time of the probed files, e.g. for a content directory on a network file system. An expired entry is served while it is refreshed by a background thread.
+     *
+     * @return the max number of entries, 0 to disable the metadata cache
+     */
+    int getMetadataCacheSize();
+
+
+    /**
+     * Get the time to live in milliseconds of an entry in the file metadata cache. After the time to live the entry is refreshed in the background, an entry which was not requested for ten times the time to live is read again by the request.
+     *
+     * @return the time to live in milliseconds
+     */
+    int getMetadataCacheTimeToLive();
+
+
+    /**
+     * Get the interval in milliseconds in which the real path of the content directory is checked, e.g. a symbolic link which is switched to a new release directory. A new real path is served as a new content generation: it is indexed and its cache is warmed in the background before it is swapped in atomically.
+     *
+     * @return the interval in milliseconds, 0 to serve the directory without content generations
+     */
+    int getGenerationCheckInterval();
 }
@@ -202,6 +202,14 @@ public interface IWebServerConfiguration {
     ProxyServerConfiguration getProxyServerConfiguration();
     
     
+    /**
+     * Get the compression configuration
+     *
+     * @return the compression configuration
+     */
+    CompressionConfiguration getCompressionConfiguration();
+    
+    
     /**
      * True if it is a proxy server
      *
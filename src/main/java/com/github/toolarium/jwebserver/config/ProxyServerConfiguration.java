@@ -28,6 +28,18 @@ public class ProxyServerConfiguration implements IProxyServerConfiguration, Seri
     private int maxRequestTime;
     private int connectionsPerThread;
     private String[] proxyHostNameList;
+    private String healthCheckPath;
+    private int healthCheckInterval;
+    private int unhealthyThreshold;
+    private int healthyThreshold;
+    private String balancingStrategy;
+    private String hashKey;
+    private String stickyCookie;
+    private int cacheSize;
+    private int cacheMaxEntrySize;
+    private String cacheDirectory;
+    private int cacheDiskSize;
+    private int collapseTimeout;
     
 
     /**
@@ -39,6 +51,18 @@ public class ProxyServerConfiguration implements IProxyServerConfiguration, Seri
         this.maxRequestTime = 30000;
         this.connectionsPerThread = 20;
         this.proxyHostNameList = null;
+        this.healthCheckPath = null;
+        this.healthCheckInterval = 5000;
+        this.unhealthyThreshold = 3;
+        this.healthyThreshold = 2;
+        this.balancingStrategy = "round-robin";
+        this.hashKey = null;
+        this.stickyCookie = "JWEBSERVER_ROUTE";
+        this.cacheSize = 0;
+        this.cacheMaxEntrySize = 1024 * 1024;
+        this.cacheDirectory = null;
+        this.cacheDiskSize = 1024;
+        this.collapseTimeout = 5000;
     }
 
 
@@ -53,6 +77,18 @@ public class ProxyServerConfiguration implements IProxyServerConfiguration, Seri
         this.maxRequestTime = proxyServerConfiguration.getMaxRequestTime();
         this.connectionsPerThread = proxyServerConfiguration.getConnectionsPerThread();
         this.proxyHostNameList = proxyServerConfiguration.getProxyHostNames();
+        this.healthCheckPath = proxyServerConfiguration.getHealthCheckPath();
+        this.healthCheckInterval = proxyServerConfiguration.getHealthCheckInterval();
+        this.unhealthyThreshold = proxyServerConfiguration.getUnhealthyThreshold();
+        this.healthyThreshold = proxyServerConfiguration.getHealthyThreshold();
+        this.balancingStrategy = proxyServerConfiguration.getBalancingStrategy();
+        this.hashKey = proxyServerConfiguration.getHashKey();
+        this.stickyCookie = proxyServerConfiguration.getStickyCookie();
+        this.cacheSize = proxyServerConfiguration.getCacheSize();
+        this.cacheMaxEntrySize = proxyServerConfiguration.getCacheMaxEntrySize();
+        this.cacheDirectory = proxyServerConfiguration.getCacheDirectory();
+        this.cacheDiskSize = proxyServerConfiguration.getCacheDiskSize();
+        this.collapseTimeout = proxyServerConfiguration.getCollapseTimeout();
     }
 
     
@@ -197,6 +233,306 @@ public class ProxyServerConfiguration implements IProxyServerConfiguration, Seri
     }
 
 
+    /**
+     * @see com.github.toolarium.jwebserver.config.IProxyServerConfiguration#getHealthCheckPath()
+     */
+    @Override
+    public String getHealthCheckPath() {
+        return healthCheckPath;
+    }
+
+    
+    /**
+     * Set the path of the active health check of the upstream hosts
+     *
+     * @param healthCheckPath the health check path
+     * @return this instance
+     */
+    public ProxyServerConfiguration setHealthCheckPath(String healthCheckPath) {
+        if (healthCheckPath != null && !healthCheckPath.isBlank()) {
+            LOG.debug("Set healthCheckPath: [" + healthCheckPath + END_VALUE);            
+            this.healthCheckPath = healthCheckPath;
+        }
+        
+        return this;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.config.IProxyServerConfiguration#getHealthCheckInterval()
+     */
+    @Override
+    public int getHealthCheckInterval() {
+        return healthCheckInterval;
+    }
+
+    
+    /**
+     * Set the interval in milliseconds of the active health check of the upstream hosts
+     *
+     * @param healthCheckInterval the interval in milliseconds
+     * @return this instance
+     */
+    public ProxyServerConfiguration setHealthCheckInterval(Integer healthCheckInterval) {
+        if (healthCheckInterval != null && healthCheckInterval.intValue() > 0) {
+            LOG.debug("Set healthCheckInterval: [" + healthCheckInterval + END_VALUE);            
+            this.healthCheckInterval = healthCheckInterval.intValue();
+        }
+        
+        return this;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.config.IProxyServerConfiguration#getUnhealthyThreshold()
+     */
+    @Override
+    public int getUnhealthyThreshold() {
+        return unhealthyThreshold;
+    }
+
+    
+    /**
+     * Set the number of failed probes in a row after which an upstream host is ejected
+     *
+     * @param unhealthyThreshold the unhealthy threshold
+     * @return this instance
+     */
+    public ProxyServerConfiguration setUnhealthyThreshold(Integer unhealthyThreshold) {
+        if (unhealthyThreshold != null && unhealthyThreshold.intValue() > 0) {
+            LOG.debug("Set unhealthyThreshold: [" + unhealthyThreshold + END_VALUE);            
+            this.unhealthyThreshold = unhealthyThreshold.intValue();
+        }
+        
+        return this;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.config.IProxyServerConfiguration#getHealthyThreshold()
+     */
+    @Override
+    public int getHealthyThreshold() {
+        return healthyThreshold;
+    }
+
+    
+    /**
+     * Set the number of successful probes in a row after which an ejected upstream host is admitted again
+     *
+     * @param healthyThreshold the healthy threshold
+     * @return this instance
+     */
+    public ProxyServerConfiguration setHealthyThreshold(Integer healthyThreshold) {
+        if (healthyThreshold != null && healthyThreshold.intValue() > 0) {
+            LOG.debug("Set healthyThreshold: [" + healthyThreshold + END_VALUE);            
+            this.healthyThreshold = healthyThreshold.intValue();
+        }
+        
+        return this;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.config.IProxyServerConfiguration#getBalancingStrategy()
+     */
+    @Override
+    public String getBalancingStrategy() {
+        return balancingStrategy;
+    }
+
+    
+    /**
+     * Set the strategy which selects the upstream host of a request
+     *
+     * @param balancingStrategy the balancing strategy
+     * @return this instance
+     */
+    public ProxyServerConfiguration setBalancingStrategy(String balancingStrategy) {
+        if (balancingStrategy != null && !balancingStrategy.isBlank()) {
+            LOG.debug("Set balancingStrategy: [" + balancingStrategy + END_VALUE);            
+            this.balancingStrategy = balancingStrategy;
+        }
+        
+        return this;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.config.IProxyServerConfiguration#getHashKey()
+     */
+    @Override
+    public String getHashKey() {
+        return hashKey;
+    }
+
+    
+    /**
+     * Set the request attribute of the consistent-hash balancing strategy
+     *
+     * @param hashKey the hash key
+     * @return this instance
+     */
+    public ProxyServerConfiguration setHashKey(String hashKey) {
+        if (hashKey != null && !hashKey.isBlank()) {
+            LOG.debug("Set hashKey: [" + hashKey + END_VALUE);            
+            this.hashKey = hashKey;
+        }
+        
+        return this;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.config.IProxyServerConfiguration#getStickyCookie()
+     */
+    @Override
+    public String getStickyCookie() {
+        return stickyCookie;
+    }
+
+    
+    /**
+     * Set the name of the cookie of the sticky balancing strategy
+     *
+     * @param stickyCookie the cookie name
+     * @return this instance
+     */
+    public ProxyServerConfiguration setStickyCookie(String stickyCookie) {
+        if (stickyCookie != null && !stickyCookie.isBlank()) {
+            LOG.debug("Set stickyCookie: [" + stickyCookie + END_VALUE);            
+            this.stickyCookie = stickyCookie;
+        }
+        
+        return this;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.config.IProxyServerConfiguration#getCacheSize()
+     */
+    @Override
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    
+    /**
+     * Set the size in bytes of the in-memory cache of the upstream responses
+     *
+     * @param cacheSize the size in bytes
+     * @return this instance
+     */
+    public ProxyServerConfiguration setCacheSize(Integer cacheSize) {
+        if (cacheSize != null && cacheSize.intValue() >= 0) {
+            LOG.debug("Set cacheSize: [" + cacheSize + END_VALUE);            
+            this.cacheSize = cacheSize.intValue();
+        }
+        
+        return this;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.config.IProxyServerConfiguration#getCacheMaxEntrySize()
+     */
+    @Override
+    public int getCacheMaxEntrySize() {
+        return cacheMaxEntrySize;
+    }
+
+    
+    /**
+     * Set the max size in bytes of a cached upstream response
+     *
+     * @param cacheMaxEntrySize the max entry size in bytes
+     * @return this instance
+     */
+    public ProxyServerConfiguration setCacheMaxEntrySize(Integer cacheMaxEntrySize) {
+        if (cacheMaxEntrySize != null && cacheMaxEntrySize.intValue() > 0) {
+            LOG.debug("Set cacheMaxEntrySize: [" + cacheMaxEntrySize + END_VALUE);            
+            this.cacheMaxEntrySize = cacheMaxEntrySize.intValue();
+        }
+        
+        return this;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.config.IProxyServerConfiguration#getCacheDirectory()
+     */
+    @Override
+    public String getCacheDirectory() {
+        return cacheDirectory;
+    }
+
+    
+    /**
+     * Set the directory of the disk tier of the cache of the upstream responses
+     *
+     * @param cacheDirectory the directory
+     * @return this instance
+     */
+    public ProxyServerConfiguration setCacheDirectory(String cacheDirectory) {
+        if (cacheDirectory != null && !cacheDirectory.isBlank()) {
+            LOG.debug("Set cacheDirectory: [" + cacheDirectory + END_VALUE);            
+            this.cacheDirectory = cacheDirectory;
+        }
+        
+        return this;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.config.IProxyServerConfiguration#getCacheDiskSize()
+     */
+    @Override
+    public int getCacheDiskSize() {
+        return cacheDiskSize;
+    }
+
+    
+    /**
+     * Set the size in megabytes of the disk tier of the cache of the upstream responses
+     *
+     * @param cacheDiskSize the size in megabytes
+     * @return this instance
+     */
+    public ProxyServerConfiguration setCacheDiskSize(Integer cacheDiskSize) {
+        if (cacheDiskSize != null && cacheDiskSize.intValue() > 0) {
+            LOG.debug("Set cacheDiskSize: [" + cacheDiskSize + END_VALUE);            
+            this.cacheDiskSize = cacheDiskSize.intValue();
+        }
+        
+        return this;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.config.IProxyServerConfiguration#getCollapseTimeout()
+     */
+    @Override
+    public int getCollapseTimeout() {
+        return collapseTimeout;
+    }
+
+    
+    /**
+     * Set the time in milliseconds a request waits for the response of a concurrent identical request to the upstream host
+     *
+     * @param collapseTimeout the timeout in milliseconds
+     * @return this instance
+     */
+    public ProxyServerConfiguration setCollapseTimeout(Integer collapseTimeout) {
+        if (collapseTimeout != null && collapseTimeout.intValue() >= 0) {
+            LOG.debug("Set collapseTimeout: [" + collapseTimeout + END_VALUE);            
+            this.collapseTimeout = collapseTimeout.intValue();
+        }
+        
+        return this;
+    }
+
+
     /**
      * @see java.lang.Object#hashCode()
      */
@@ -205,7 +541,7 @@ public class ProxyServerConfiguration implements IProxyServerConfiguration, Seri
         final int prime = 31;
         int result = 1;
         result = prime * result + Arrays.hashCode(proxyHostNameList);
-        result = prime * result + Objects.hash(connectionsPerThread, maxRequestTime, reuseXForwarded, rewriteHostHeader);
+        result = prime * result + Objects.hash(connectionsPerThread, maxRequestTime, reuseXForwarded, rewriteHostHeader, healthCheckPath, healthCheckInterval, unhealthyThreshold, healthyThreshold, balancingStrategy, hashKey, stickyCookie, cacheSize, cacheMaxEntrySize, cacheDirectory, cacheDiskSize, collapseTimeout);
         return result;
     }
 
@@ -230,7 +566,19 @@ public class ProxyServerConfiguration implements IProxyServerConfiguration, Seri
         ProxyServerConfiguration other = (ProxyServerConfiguration) obj;
         return connectionsPerThread == other.connectionsPerThread && maxRequestTime == other.maxRequestTime
                 && Arrays.equals(proxyHostNameList, other.proxyHostNameList) && reuseXForwarded == other.reuseXForwarded
-                && rewriteHostHeader == other.rewriteHostHeader;
+                && rewriteHostHeader == other.rewriteHostHeader
+                && Objects.equals(healthCheckPath, other.healthCheckPath)
+                && healthCheckInterval == other.healthCheckInterval
+                && unhealthyThreshold == other.unhealthyThreshold
+                && healthyThreshold == other.healthyThreshold
+                && Objects.equals(balancingStrategy, other.balancingStrategy)
+                && Objects.equals(hashKey, other.hashKey)
+                && Objects.equals(stickyCookie, other.stickyCookie)
+                && cacheSize == other.cacheSize
+                && cacheMaxEntrySize == other.cacheMaxEntrySize
+                && Objects.equals(cacheDirectory, other.cacheDirectory)
+                && cacheDiskSize == other.cacheDiskSize
+                && collapseTimeout == other.collapseTimeout;
     }
 
 
@@ -241,6 +589,18 @@ public class ProxyServerConfiguration implements IProxyServerConfiguration, Seri
     public String toString() {
         return "ProxyServerConfiguration [rewriteHostHeader=" + rewriteHostHeader + ", reuseXForwarded="
                 + reuseXForwarded + ", maxRequestTime=" + maxRequestTime + ", connectionsPerThread="
-                + connectionsPerThread + ", proxyHostNameList=" + Arrays.toString(proxyHostNameList) + "]";
+                + connectionsPerThread + ", proxyHostNameList=" + Arrays.toString(proxyHostNameList)
+                + ", healthCheckPath=" + healthCheckPath
+                + ", healthCheckInterval=" + healthCheckInterval
+                + ", unhealthyThreshold=" + unhealthyThreshold
+                + ", healthyThreshold=" + healthyThreshold
+                + ", balancingStrategy=" + balancingStrategy
+                + ", hashKey=" + hashKey
+                + ", stickyCookie=" + stickyCookie
+                + ", cacheSize=" + cacheSize
+                + ", cacheMaxEntrySize=" + cacheMaxEntrySize
+                + ", cacheDirectory=" + cacheDirectory
+                + ", cacheDiskSize=" + cacheDiskSize
+                + ", collapseTimeout=" + collapseTimeout + "]";
     }
 }
@@ -33,6 +33,29 @@ public class ResourceServerConfiguration implements IResourceServerConfiguration
     private boolean resolveParentResourceIfNotFound;
     private String[] welcomeFiles;
     private String[] supportedFileExtensions;
+    private int cacheSize;
+    private int cacheMaxEntrySize;
+    private int lookupCacheSize;
+    private int lookupCacheTimeToLive;
+    private boolean resourceIndexEnabled;
+    private int preloadSize;
+    private String[] precompressedEncodings;
+    private int transferMinSize;
+    private int mappedCacheSize;
+    private int mappedFileMinSize;
+    private int mappedFileMaxSize;
+    private int etagCacheSize;
+    private String cacheControl;
+    private boolean cacheControlImmutable;
+    private int directoryListingPageSize;
+    private int directoryListingCacheSize;
+    private String[] resourceLayers;
+    private String spaIndex;
+    private boolean serveFromIoThread;
+    private int ioThreadTimeToLive;
+    private int metadataCacheSize;
+    private int metadataCacheTimeToLive;
+    private int generationCheckInterval;
     
     
     /**
@@ -46,6 +69,29 @@ public class ResourceServerConfiguration implements IResourceServerConfiguration
         this.resolveParentResourceIfNotFound = true; 
         this.welcomeFiles = new String[] {"index.html", "index.htm", "default.html", "default.htm"};
         this.supportedFileExtensions = null;
+        this.cacheSize = 0;
+        this.cacheMaxEntrySize = 1024 * 1024;
+        this.lookupCacheSize = 0;
+        this.lookupCacheTimeToLive = 10000;
+        this.resourceIndexEnabled = false;
+        this.preloadSize = 0;
+        this.precompressedEncodings = null;
+        this.transferMinSize = 1024;
+        this.mappedCacheSize = 0;
+        this.mappedFileMinSize = 65536;
+        this.mappedFileMaxSize = 16777216;
+        this.etagCacheSize = 0;
+        this.cacheControl = null;
+        this.cacheControlImmutable = false;
+        this.directoryListingPageSize = 1000;
+        this.directoryListingCacheSize = 16;
+        this.resourceLayers = null;
+        this.spaIndex = null;
+        this.serveFromIoThread = false;
+        this.ioThreadTimeToLive = 60000;
+        this.metadataCacheSize = 0;
+        this.metadataCacheTimeToLive = 2000;
+        this.generationCheckInterval = 0;
     }
 
 
@@ -62,6 +108,29 @@ public class ResourceServerConfiguration implements IResourceServerConfiguration
         this.resolveParentResourceIfNotFound = configuration.resolveParentResourceIfNotFound(); 
         this.welcomeFiles = configuration.getWelcomeFiles();
         this.supportedFileExtensions = configuration.getSupportedFileExtensions();
+        this.cacheSize = configuration.getCacheSize();
+        this.cacheMaxEntrySize = configuration.getCacheMaxEntrySize();
+        this.lookupCacheSize = configuration.getLookupCacheSize();
+        this.lookupCacheTimeToLive = configuration.getLookupCacheTimeToLive();
+        this.resourceIndexEnabled = configuration.isResourceIndexEnabled();
+        this.preloadSize = configuration.getPreloadSize();
+        this.precompressedEncodings = configuration.getPrecompressedEncodings();
+        this.transferMinSize = configuration.getTransferMinSize();
+        this.mappedCacheSize = configuration.getMappedCacheSize();
+        this.mappedFileMinSize = configuration.getMappedFileMinSize();
+        this.mappedFileMaxSize = configuration.getMappedFileMaxSize();
+        this.etagCacheSize = configuration.getETagCacheSize();
+        this.cacheControl = configuration.getCacheControl();
+        this.cacheControlImmutable = configuration.isCacheControlImmutable();
+        this.directoryListingPageSize = configuration.getDirectoryListingPageSize();
+        this.directoryListingCacheSize = configuration.getDirectoryListingCacheSize();
+        this.resourceLayers = configuration.getResourceLayers();
+        this.spaIndex = configuration.getSpaIndex();
+        this.serveFromIoThread = configuration.isServeFromIoThread();
+        this.ioThreadTimeToLive = configuration.getIoThreadTimeToLive();
+        this.metadataCacheSize = configuration.getMetadataCacheSize();
+        this.metadataCacheTimeToLive = configuration.getMetadataCacheTimeToLive();
+        this.generationCheckInterval = configuration.getGenerationCheckInterval();
     }
 
 
@@ -282,6 +351,592 @@ public class ResourceServerConfiguration implements IResourceServerConfiguration
     }
 
 
+    /**
+     * @see com.github.toolarium.jwebserver.config.IResourceServerConfiguration#getCacheSize()
+     */
+    @Override
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    
+    /**
+     * Set the size in bytes of the in-memory content cache, 0 to disable the cache
+     *
+     * @param cacheSize the content cache size in bytes
+     * @return the ResourceServerConfiguration
+     */
+    public ResourceServerConfiguration setCacheSize(Integer cacheSize) {
+        if (cacheSize != null && cacheSize.intValue() >= 0) {
+            LOG.debug("Set cacheSize: [" + cacheSize + END_VALUE);
+            this.cacheSize = cacheSize.intValue();
+        }
+        return this;
+    }
+
+    
+    /**
+     * @see com.github.toolarium.jwebserver.config.IResourceServerConfiguration#getCacheMaxEntrySize()
+     */
+    @Override
+    public int getCacheMaxEntrySize() {
+        return cacheMaxEntrySize;
+    }
+
+    
+    /**
+     * Set the max size in bytes of a single entry in the content cache
+     *
+     * @param cacheMaxEntrySize the max size of a cache entry in bytes
+     * @return the ResourceServerConfiguration
+     */
+    public ResourceServerConfiguration setCacheMaxEntrySize(Integer cacheMaxEntrySize) {
+        if (cacheMaxEntrySize != null && cacheMaxEntrySize.intValue() > 0) {
+            LOG.debug("Set cacheMaxEntrySize: [" + cacheMaxEntrySize + END_VALUE);
+            this.cacheMaxEntrySize = cacheMaxEntrySize.intValue();
+        }
+        return this;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.config.IResourceServerConfiguration#getLookupCacheSize()
+     */
+    @Override
+    public int getLookupCacheSize() {
+        return lookupCacheSize;
+    }
+
+    
+    /**
+     * Set the max number of entries of the resource lookup cache, 0 to disable the cache
+     *
+     * @param lookupCacheSize the max number of lookup cache entries
+     * @return the ResourceServerConfiguration
+     */
+    public ResourceServerConfiguration setLookupCacheSize(Integer lookupCacheSize) {
+        if (lookupCacheSize != null && lookupCacheSize.intValue() >= 0) {
+            LOG.debug("Set lookupCacheSize: [" + lookupCacheSize + END_VALUE);
+            this.lookupCacheSize = lookupCacheSize.intValue();
+        }
+        return this;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.config.IResourceServerConfiguration#getLookupCacheTimeToLive()
+     */
+    @Override
+    public int getLookupCacheTimeToLive() {
+        return lookupCacheTimeToLive;
+    }
+
+    
+    /**
+     * Set the time to live in milliseconds of an entry in the resource lookup cache
+     *
+     * @param lookupCacheTimeToLive the time to live in milliseconds
+     * @return the ResourceServerConfiguration
+     */
+    public ResourceServerConfiguration setLookupCacheTimeToLive(Integer lookupCacheTimeToLive) {
+        if (lookupCacheTimeToLive != null && lookupCacheTimeToLive.intValue() > 0) {
+            LOG.debug("Set lookupCacheTimeToLive: [" + lookupCacheTimeToLive + END_VALUE);
+            this.lookupCacheTimeToLive = lookupCacheTimeToLive.intValue();
+        }
+        return this;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.config.IResourceServerConfiguration#isResourceIndexEnabled()
+     */
+    @Override
+    public boolean isResourceIndexEnabled() {
+        return resourceIndexEnabled;
+    }
+
+    
+    /**
+     * Set the resource index enabled
+     *
+     * @param resourceIndexEnabled true to resolve the resources from an in-memory index
+     * @return the ResourceServerConfiguration
+     */
+    public ResourceServerConfiguration setResourceIndexEnabled(Boolean resourceIndexEnabled) {
+        if (resourceIndexEnabled != null) {
+            LOG.debug("Set resourceIndexEnabled: [" + resourceIndexEnabled + END_VALUE);
+            this.resourceIndexEnabled = resourceIndexEnabled.booleanValue();
+        }
+        return this;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.config.IResourceServerConfiguration#getPreloadSize()
+     */
+    @Override
+    public int getPreloadSize() {
+        return preloadSize;
+    }
+
+    
+    /**
+     * Set the max size in bytes of the classpath resources which are preloaded into memory at startup, 0 to disable the preload
+     *
+     * @param preloadSize the max preload size in bytes
+     * @return the ResourceServerConfiguration
+     */
+    public ResourceServerConfiguration setPreloadSize(Integer preloadSize) {
+        if (preloadSize != null && preloadSize.intValue() >= 0) {
+            LOG.debug("Set preloadSize: [" + preloadSize + END_VALUE);
+            this.preloadSize = preloadSize.intValue();
+        }
+        return this;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.config.IResourceServerConfiguration#getPrecompressedEncodings()
+     */
+    @Override
+    public String[] getPrecompressedEncodings() {
+        return precompressedEncodings;
+    }
+
+    
+    /**
+     * Set the precompressed encodings
+     *
+     * @param precompressedEncodings the precompressed encodings
+     * @return the ResourceServerConfiguration
+     */
+    public ResourceServerConfiguration setPrecompressedEncodings(String precompressedEncodings) {
+        if (precompressedEncodings != null) {
+            setPrecompressedEncodings(ConfigurationUtil.getInstance().parseStringArray(precompressedEncodings));
+        }
+        return this;
+    }
+
+    
+    /**
+     * Set the precompressed encodings
+     *
+     * @param precompressedEncodings the precompressed encodings
+     * @return the ResourceServerConfiguration
+     */
+    public ResourceServerConfiguration setPrecompressedEncodings(String[] precompressedEncodings) {
+        if (precompressedEncodings != null) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Set precompressedEncodings: [" + ConfigurationUtil.getInstance().formatArrayAsString(precompressedEncodings) + END_VALUE);            
+            }
+            
+            this.precompressedEncodings = precompressedEncodings;
+        }
+        return this;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.config.IResourceServerConfiguration#getTransferMinSize()
+     */
+    @Override
+    public int getTransferMinSize() {
+        return transferMinSize;
+    }
+
+    
+    /**
+     * Set the min size in bytes of a file which is sent by a zero-copy transfer
+     *
+     * @param transferMinSize the min size in bytes of a zero-copy transfer
+     * @return the ResourceServerConfiguration
+     */
+    public ResourceServerConfiguration setTransferMinSize(Integer transferMinSize) {
+        if (transferMinSize != null && transferMinSize.intValue() >= 0) {
+            LOG.debug("Set transferMinSize: [" + transferMinSize + END_VALUE);
+            this.transferMinSize = transferMinSize.intValue();
+        }
+        return this;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.config.IResourceServerConfiguration#getMappedCacheSize()
+     */
+    @Override
+    public int getMappedCacheSize() {
+        return mappedCacheSize;
+    }
+
+    
+    /**
+     * Set the max size in bytes of the memory mapped files, 0 to disable the memory mapping
+     *
+     * @param mappedCacheSize the max size in bytes of the memory mapped files
+     * @return the ResourceServerConfiguration
+     */
+    public ResourceServerConfiguration setMappedCacheSize(Integer mappedCacheSize) {
+        if (mappedCacheSize != null && mappedCacheSize.intValue() >= 0) {
+            LOG.debug("Set mappedCacheSize: [" + mappedCacheSize + END_VALUE);
+            this.mappedCacheSize = mappedCacheSize.intValue();
+        }
+        return this;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.config.IResourceServerConfiguration#getMappedFileMinSize()
+     */
+    @Override
+    public int getMappedFileMinSize() {
+        return mappedFileMinSize;
+    }
+
+    
+    /**
+     * Set the min size in bytes of a file to be memory mapped
+     *
+     * @param mappedFileMinSize the min size in bytes of a memory mapped file
+     * @return the ResourceServerConfiguration
+     */
+    public ResourceServerConfiguration setMappedFileMinSize(Integer mappedFileMinSize) {
+        if (mappedFileMinSize != null && mappedFileMinSize.intValue() >= 0) {
+            LOG.debug("Set mappedFileMinSize: [" + mappedFileMinSize + END_VALUE);
+            this.mappedFileMinSize = mappedFileMinSize.intValue();
+        }
+        return this;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.config.IResourceServerConfiguration#getMappedFileMaxSize()
+     */
+    @Override
+    public int getMappedFileMaxSize() {
+        return mappedFileMaxSize;
+    }
+
+    
+    /**
+     * Set the max size in bytes of a file to be memory mapped
+     *
+     * @param mappedFileMaxSize the max size in bytes of a memory mapped file
+     * @return the ResourceServerConfiguration
+     */
+    public ResourceServerConfiguration setMappedFileMaxSize(Integer mappedFileMaxSize) {
+        if (mappedFileMaxSize != null && mappedFileMaxSize.intValue() >= 0) {
+            LOG.debug("Set mappedFileMaxSize: [" + mappedFileMaxSize + END_VALUE);
+            this.mappedFileMaxSize = mappedFileMaxSize.intValue();
+        }
+        return this;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.config.IResourceServerConfiguration#getETagCacheSize()
+     */
+    @Override
+    public int getETagCacheSize() {
+        return etagCacheSize;
+    }
+
+    
+    /**
+     * Set the max number of cached content hashes, 0 to disable the strong ETags
+     *
+     * @param etagCacheSize the max number of cached content hashes
+     * @return the ResourceServerConfiguration
+     */
+    public ResourceServerConfiguration setETagCacheSize(Integer etagCacheSize) {
+        if (etagCacheSize != null && etagCacheSize.intValue() >= 0) {
+            LOG.debug("Set etagCacheSize: [" + etagCacheSize + END_VALUE);
+            this.etagCacheSize = etagCacheSize.intValue();
+        }
+        return this;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.config.IResourceServerConfiguration#getCacheControl()
+     */
+    @Override
+    public String getCacheControl() {
+        return cacheControl;
+    }
+
+    
+    /**
+     * Set the Cache-Control rules of the static resources
+     *
+     * @param cacheControl the Cache-Control rules
+     * @return the ResourceServerConfiguration
+     */
+    public ResourceServerConfiguration setCacheControl(String cacheControl) {
+        if (cacheControl != null && !cacheControl.isBlank()) {
+            LOG.debug("Set cacheControl: [" + cacheControl + END_VALUE);
+            this.cacheControl = cacheControl;
+        }
+        return this;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.config.IResourceServerConfiguration#isCacheControlImmutable()
+     */
+    @Override
+    public boolean isCacheControlImmutable() {
+        return cacheControlImmutable;
+    }
+
+    
+    /**
+     * Define if the resources with a content hash in the file name are immutable
+     *
+     * @param cacheControlImmutable true if the fingerprinted resources are immutable
+     * @return the ResourceServerConfiguration
+     */
+    public ResourceServerConfiguration setCacheControlImmutable(Boolean cacheControlImmutable) {
+        if (cacheControlImmutable != null) {
+            LOG.debug("Set cacheControlImmutable: [" + cacheControlImmutable + END_VALUE);
+            this.cacheControlImmutable = cacheControlImmutable.booleanValue();
+        }
+        return this;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.config.IResourceServerConfiguration#getDirectoryListingPageSize()
+     */
+    @Override
+    public int getDirectoryListingPageSize() {
+        return directoryListingPageSize;
+    }
+
+    
+    /**
+     * Set the default and max number of entries of a directory listing page
+     *
+     * @param directoryListingPageSize the number of entries of a directory listing page
+     * @return the ResourceServerConfiguration
+     */
+    public ResourceServerConfiguration setDirectoryListingPageSize(Integer directoryListingPageSize) {
+        if (directoryListingPageSize != null && directoryListingPageSize.intValue() > 0) {
+            LOG.debug("Set directoryListingPageSize: [" + directoryListingPageSize + END_VALUE);
+            this.directoryListingPageSize = directoryListingPageSize.intValue();
+        }
+        return this;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.config.IResourceServerConfiguration#getDirectoryListingCacheSize()
+     */
+    @Override
+    public int getDirectoryListingCacheSize() {
+        return directoryListingCacheSize;
+    }
+
+    
+    /**
+     * Set the max number of cached sorted directory listings
+     *
+     * @param directoryListingCacheSize the max number of cached sorted directory listings
+     * @return the ResourceServerConfiguration
+     */
+    public ResourceServerConfiguration setDirectoryListingCacheSize(Integer directoryListingCacheSize) {
+        if (directoryListingCacheSize != null && directoryListingCacheSize.intValue() >= 0) {
+            LOG.debug("Set directoryListingCacheSize: [" + directoryListingCacheSize + END_VALUE);
+            this.directoryListingCacheSize = directoryListingCacheSize.intValue();
+        }
+        return this;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.config.IResourceServerConfiguration#getResourceLayers()
+     */
+    @Override
+    public String[] getResourceLayers() {
+        return resourceLayers;
+    }
+
+    
+    /**
+     * Set the ordered resource layers
+     *
+     * @param resourceLayers the resource layers
+     * @return the ResourceServerConfiguration
+     */
+    public ResourceServerConfiguration setResourceLayers(String resourceLayers) {
+        if (resourceLayers != null) {
+            setResourceLayers(ConfigurationUtil.getInstance().parseStringArray(resourceLayers));
+        }
+        return this;
+    }
+
+    
+    /**
+     * Set the ordered resource layers
+     *
+     * @param resourceLayers the resource layers
+     * @return the ResourceServerConfiguration
+     */
+    public ResourceServerConfiguration setResourceLayers(String[] resourceLayers) {
+        if (resourceLayers != null) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Set resourceLayers: [" + ConfigurationUtil.getInstance().formatArrayAsString(resourceLayers) + END_VALUE);            
+            }
+            
+            this.resourceLayers = resourceLayers;
+        }
+        return this;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.config.IResourceServerConfiguration#getSpaIndex()
+     */
+    @Override
+    public String getSpaIndex() {
+        return spaIndex;
+    }
+
+    
+    /**
+     * Set the index document of a single-page application
+     *
+     * @param spaIndex the index document of a single-page application
+     * @return the ResourceServerConfiguration
+     */
+    public ResourceServerConfiguration setSpaIndex(String spaIndex) {
+        if (spaIndex != null && !spaIndex.isBlank()) {
+            LOG.debug("Set spaIndex: [" + spaIndex + END_VALUE);
+            this.spaIndex = spaIndex;
+        }
+        return this;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.config.IResourceServerConfiguration#isServeFromIoThread()
+     */
+    @Override
+    public boolean isServeFromIoThread() {
+        return serveFromIoThread;
+    }
+
+    
+    /**
+     * Define if the responses of the resources in the content cache are written directly from the IO thread
+     *
+     * @param serveFromIoThread true if the cached responses are written from the IO thread
+     * @return the ResourceServerConfiguration
+     */
+    public ResourceServerConfiguration setServeFromIoThread(Boolean serveFromIoThread) {
+        if (serveFromIoThread != null) {
+            LOG.debug("Set serveFromIoThread: [" + serveFromIoThread + END_VALUE);
+            this.serveFromIoThread = serveFromIoThread.booleanValue();
+        }
+        return this;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.config.IResourceServerConfiguration#getIoThreadTimeToLive()
+     */
+    @Override
+    public int getIoThreadTimeToLive() {
+        return ioThreadTimeToLive;
+    }
+
+    
+    /**
+     * Set the time to live in milliseconds of a response which is written from the IO thread
+     *
+     * @param ioThreadTimeToLive the time to live in milliseconds
+     * @return the ResourceServerConfiguration
+     */
+    public ResourceServerConfiguration setIoThreadTimeToLive(Integer ioThreadTimeToLive) {
+        if (ioThreadTimeToLive != null && ioThreadTimeToLive.intValue() > 0) {
+            LOG.debug("Set ioThreadTimeToLive: [" + ioThreadTimeToLive + END_VALUE);
+            this.ioThreadTimeToLive = ioThreadTimeToLive.intValue();
+        }
+        return this;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.config.IResourceServerConfiguration#getMetadataCacheSize()
+     */
+    @Override
+    public int getMetadataCacheSize() {
+        return metadataCacheSize;
+    }
+
+    
+    /**
+     * Set the max number of entries of the file metadata cache
+     *
+     * @param metadataCacheSize the max number of entries
+     * @return the ResourceServerConfiguration
+     */
+    public ResourceServerConfiguration setMetadataCacheSize(Integer metadataCacheSize) {
+        if (metadataCacheSize != null && metadataCacheSize.intValue() >= 0) {
+            LOG.debug("Set metadataCacheSize: [" + metadataCacheSize + END_VALUE);
+            this.metadataCacheSize = metadataCacheSize.intValue();
+        }
+        return this;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.config.IResourceServerConfiguration#getMetadataCacheTimeToLive()
+     */
+    @Override
+    public int getMetadataCacheTimeToLive() {
+        return metadataCacheTimeToLive;
+    }
+
+    
+    /**
+     * Set the time to live in milliseconds of an entry in the file metadata cache
+     *
+     * @param metadataCacheTimeToLive the time to live in milliseconds
+     * @return the ResourceServerConfiguration
+     */
+    public ResourceServerConfiguration setMetadataCacheTimeToLive(Integer metadataCacheTimeToLive) {
+        if (metadataCacheTimeToLive != null && metadataCacheTimeToLive.intValue() > 0) {
+            LOG.debug("Set metadataCacheTimeToLive: [" + metadataCacheTimeToLive + END_VALUE);
+            this.metadataCacheTimeToLive = metadataCacheTimeToLive.intValue();
+        }
+        return this;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.config.IResourceServerConfiguration#getGenerationCheckInterval()
+     */
+    @Override
+    public int getGenerationCheckInterval() {
+        return generationCheckInterval;
+    }
+
+    
+    /**
+     * Set the interval in milliseconds in which the real path of the content directory is checked
+     *
+     * @param generationCheckInterval the interval in milliseconds
+     * @return the ResourceServerConfiguration
+     */
+    public ResourceServerConfiguration setGenerationCheckInterval(Integer generationCheckInterval) {
+        if (generationCheckInterval != null && generationCheckInterval.intValue() >= 0) {
+            LOG.debug("Set generationCheckInterval: [" + generationCheckInterval + END_VALUE);
+            this.generationCheckInterval = generationCheckInterval.intValue();
+        }
+        return this;
+    }
+
+
     /**
      * @see java.lang.Object#hashCode()
      */
@@ -291,7 +946,9 @@ public class ResourceServerConfiguration implements IResourceServerConfiguration
         int result = 1;
         result = prime * result + Arrays.hashCode(supportedFileExtensions);
         result = prime * result + Arrays.hashCode(welcomeFiles);
-        result = prime * result + Objects.hash(directory, directoryListingEnabled, resolveParentResourceIfNotFound, isLocalDirectory, readFromClasspath);
+        result = prime * result + Arrays.hashCode(precompressedEncodings);
+        result = prime * result + Arrays.hashCode(resourceLayers);
+        result = prime * result + Objects.hash(directory, directoryListingEnabled, resolveParentResourceIfNotFound, isLocalDirectory, readFromClasspath, cacheSize, cacheMaxEntrySize, lookupCacheSize, lookupCacheTimeToLive, resourceIndexEnabled, preloadSize, transferMinSize, mappedCacheSize, mappedFileMinSize, mappedFileMaxSize, etagCacheSize, cacheControl, cacheControlImmutable, directoryListingPageSize, directoryListingCacheSize, spaIndex, serveFromIoThread, ioThreadTimeToLive, metadataCacheSize, metadataCacheTimeToLive, generationCheckInterval);
         return result;
     }
 
@@ -318,7 +975,29 @@ public class ResourceServerConfiguration implements IResourceServerConfiguration
                 && resolveParentResourceIfNotFound == other.resolveParentResourceIfNotFound                
                 && isLocalDirectory == other.isLocalDirectory && readFromClasspath == other.readFromClasspath
                 && Arrays.equals(supportedFileExtensions, other.supportedFileExtensions)
-                && Arrays.equals(welcomeFiles, other.welcomeFiles);
+                && Arrays.equals(welcomeFiles, other.welcomeFiles)
+                && cacheSize == other.cacheSize && cacheMaxEntrySize == other.cacheMaxEntrySize
+                && lookupCacheSize == other.lookupCacheSize
+                && lookupCacheTimeToLive == other.lookupCacheTimeToLive
+                && resourceIndexEnabled == other.resourceIndexEnabled
+                && preloadSize == other.preloadSize
+                && Arrays.equals(precompressedEncodings, other.precompressedEncodings)
+                && transferMinSize == other.transferMinSize
+                && mappedCacheSize == other.mappedCacheSize
+                && mappedFileMinSize == other.mappedFileMinSize
+                && mappedFileMaxSize == other.mappedFileMaxSize
+                && etagCacheSize == other.etagCacheSize
+                && Objects.equals(cacheControl, other.cacheControl)
+                && cacheControlImmutable == other.cacheControlImmutable
+                && directoryListingPageSize == other.directoryListingPageSize
+                && directoryListingCacheSize == other.directoryListingCacheSize
+                && Arrays.equals(resourceLayers, other.resourceLayers)
+                && Objects.equals(spaIndex, other.spaIndex)
+                && serveFromIoThread == other.serveFromIoThread
+                && ioThreadTimeToLive == other.ioThreadTimeToLive
+                && metadataCacheSize == other.metadataCacheSize
+                && metadataCacheTimeToLive == other.metadataCacheTimeToLive
+                && generationCheckInterval == other.generationCheckInterval;
     }
 
 
@@ -331,6 +1010,28 @@ public class ResourceServerConfiguration implements IResourceServerConfiguration
                 + ", readFromClasspath=" + readFromClasspath + ", directoryListingEnabled=" + directoryListingEnabled
                 + ", resolveParentResourceIfNotFound=" + resolveParentResourceIfNotFound
                 + ", welcomeFiles=" + Arrays.toString(welcomeFiles)
-                + ", supportedFileExtensions=" + Arrays.toString(supportedFileExtensions) + "]";
+                + ", supportedFileExtensions=" + Arrays.toString(supportedFileExtensions)
+                + ", cacheSize=" + cacheSize + ", cacheMaxEntrySize=" + cacheMaxEntrySize
+                + ", lookupCacheSize=" + lookupCacheSize
+                + ", lookupCacheTimeToLive=" + lookupCacheTimeToLive
+                + ", resourceIndexEnabled=" + resourceIndexEnabled
+                + ", preloadSize=" + preloadSize
+                + ", precompressedEncodings=" + Arrays.toString(precompressedEncodings)
+                + ", transferMinSize=" + transferMinSize
+                + ", mappedCacheSize=" + mappedCacheSize
+                + ", mappedFileMinSize=" + mappedFileMinSize
+                + ", mappedFileMaxSize=" + mappedFileMaxSize
+                + ", etagCacheSize=" + etagCacheSize
+                + ", cacheControl=" + cacheControl
+                + ", cacheControlImmutable=" + cacheControlImmutable
+                + ", directoryListingPageSize=" + directoryListingPageSize
+                + ", directoryListingCacheSize=" + directoryListingCacheSize
+                + ", resourceLayers=" + Arrays.toString(resourceLayers)
+                + ", spaIndex=" + spaIndex
+                + ", serveFromIoThread=" + serveFromIoThread
+                + ", ioThreadTimeToLive=" + ioThreadTimeToLive
+                + ", metadataCacheSize=" + metadataCacheSize
+                + ", metadataCacheTimeToLive=" + metadataCacheTimeToLive
+                + ", generationCheckInterval=" + generationCheckInterval + "]";
     }
 }
@@ -42,6 +42,7 @@ public class WebServerConfiguration implements IWebServerConfiguration {
     private SSLServerConfiguration sslServerConfiguration;
     private ResourceServerConfiguration resourceServerConfiguration;
     private ProxyServerConfiguration proxyServerConfiguration;
+    private CompressionConfiguration compressionConfiguration;
 
     
     /**
@@ -63,6 +64,7 @@ public class WebServerConfiguration implements IWebServerConfiguration {
         this.sslServerConfiguration = new SSLServerConfiguration();
         this.resourceServerConfiguration = new ResourceServerConfiguration();
         this.proxyServerConfiguration = new ProxyServerConfiguration();
+        this.compressionConfiguration = new CompressionConfiguration();
     }
 
 
@@ -87,6 +89,7 @@ public class WebServerConfiguration implements IWebServerConfiguration {
         this.sslServerConfiguration = webServerConfiguration.getSSLServerConfiguration();
         this.resourceServerConfiguration = new ResourceServerConfiguration(webServerConfiguration.getResourceServerConfiguration());
         this.proxyServerConfiguration = new ProxyServerConfiguration(webServerConfiguration.getProxyServerConfiguration());
+        this.compressionConfiguration = new CompressionConfiguration(webServerConfiguration.getCompressionConfiguration());
     }
 
     
@@ -442,6 +445,15 @@ public class WebServerConfiguration implements IWebServerConfiguration {
     }
 
 
+    /**
+     * @see com.github.toolarium.jwebserver.config.IWebServerConfiguration#getCompressionConfiguration()
+     */
+    @Override
+    public CompressionConfiguration getCompressionConfiguration() {
+        return compressionConfiguration;
+    }
+
+
     /**
      * @see com.github.toolarium.jwebserver.config.IWebServerConfiguration#isProxyServer()
      */
@@ -495,12 +507,53 @@ public class WebServerConfiguration implements IWebServerConfiguration {
         resourceServerConfiguration.setResolveParentResourceIfNotFound(readProperty(properties, "resolveParentResourceIfNotFound", resourceServerConfiguration.resolveParentResourceIfNotFound(), false));
         resourceServerConfiguration.setWelcomeFiles(readProperty(properties, "welcomeFiles", ConfigurationUtil.getInstance().formatArrayAsString(resourceServerConfiguration.getWelcomeFiles()), false));
         resourceServerConfiguration.setSupportedFileExtensions(readProperty(properties, "supportedFileExtensions", ConfigurationUtil.getInstance().formatArrayAsString(resourceServerConfiguration.getSupportedFileExtensions()), false));
+        resourceServerConfiguration.setCacheSize(readProperty(properties, "cacheSize", resourceServerConfiguration.getCacheSize(), false));
+        resourceServerConfiguration.setCacheMaxEntrySize(readProperty(properties, "cacheMaxEntrySize", resourceServerConfiguration.getCacheMaxEntrySize(), false));
+        resourceServerConfiguration.setLookupCacheSize(readProperty(properties, "lookupCacheSize", resourceServerConfiguration.getLookupCacheSize(), false));
+        resourceServerConfiguration.setLookupCacheTimeToLive(readProperty(properties, "lookupCacheTimeToLive", resourceServerConfiguration.getLookupCacheTimeToLive(), false));
+        resourceServerConfiguration.setResourceIndexEnabled(readProperty(properties, "resourceIndexEnabled", resourceServerConfiguration.isResourceIndexEnabled(), false));
+        resourceServerConfiguration.setPreloadSize(readProperty(properties, "preloadSize", resourceServerConfiguration.getPreloadSize(), false));
+        resourceServerConfiguration.setPrecompressedEncodings(readProperty(properties, "precompressedEncodings", ConfigurationUtil.getInstance().formatArrayAsString(resourceServerConfiguration.getPrecompressedEncodings()), false));
+        resourceServerConfiguration.setTransferMinSize(readProperty(properties, "transferMinSize", resourceServerConfiguration.getTransferMinSize(), false));
+        resourceServerConfiguration.setMappedCacheSize(readProperty(properties, "mappedCacheSize", resourceServerConfiguration.getMappedCacheSize(), false));
+        resourceServerConfiguration.setMappedFileMinSize(readProperty(properties, "mappedFileMinSize", resourceServerConfiguration.getMappedFileMinSize(), false));
+        resourceServerConfiguration.setMappedFileMaxSize(readProperty(properties, "mappedFileMaxSize", resourceServerConfiguration.getMappedFileMaxSize(), false));
+        resourceServerConfiguration.setETagCacheSize(readProperty(properties, "etagCacheSize", resourceServerConfiguration.getETagCacheSize(), false));
+        resourceServerConfiguration.setCacheControl(readProperty(properties, "cacheControl", resourceServerConfiguration.getCacheControl(), false));
+        resourceServerConfiguration.setCacheControlImmutable(readProperty(properties, "cacheControlImmutable", resourceServerConfiguration.isCacheControlImmutable(), false));
+        resourceServerConfiguration.setDirectoryListingPageSize(readProperty(properties, "directoryListingPageSize", resourceServerConfiguration.getDirectoryListingPageSize(), false));
+        resourceServerConfiguration.setDirectoryListingCacheSize(readProperty(properties, "directoryListingCacheSize", resourceServerConfiguration.getDirectoryListingCacheSize(), false));
+        resourceServerConfiguration.setResourceLayers(readProperty(properties, "resourceLayers", ConfigurationUtil.getInstance().formatArrayAsString(resourceServerConfiguration.getResourceLayers()), false));
+        resourceServerConfiguration.setSpaIndex(readProperty(properties, "spaIndex", resourceServerConfiguration.getSpaIndex(), false));
+        resourceServerConfiguration.setServeFromIoThread(readProperty(properties, "serveFromIoThread", resourceServerConfiguration.isServeFromIoThread(), false));
+        resourceServerConfiguration.setIoThreadTimeToLive(readProperty(properties, "ioThreadTimeToLive", resourceServerConfiguration.getIoThreadTimeToLive(), false));
+        resourceServerConfiguration.setMetadataCacheSize(readProperty(properties, "metadataCacheSize", resourceServerConfiguration.getMetadataCacheSize(), false));
+        resourceServerConfiguration.setMetadataCacheTimeToLive(readProperty(properties, "metadataCacheTimeToLive", resourceServerConfiguration.getMetadataCacheTimeToLive(), false));
+        resourceServerConfiguration.setGenerationCheckInterval(readProperty(properties, "generationCheckInterval", resourceServerConfiguration.getGenerationCheckInterval(), false));
         
         proxyServerConfiguration.setRewriteHostHeader(readProperty(properties, "rewriteHostHeader", proxyServerConfiguration.rewriteHostHeader(), true));
         proxyServerConfiguration.setReuseXForwarded(readProperty(properties, "reuseXForwarded", proxyServerConfiguration.reuseXForwarded(), true));
         proxyServerConfiguration.setMaxRequestTime(readProperty(properties, "maxRequestTime", proxyServerConfiguration.getMaxRequestTime(), true));
         proxyServerConfiguration.setConnectionsPerThread(readProperty(properties, "connectionsPerThread", proxyServerConfiguration.getConnectionsPerThread(), true));
         proxyServerConfiguration.setProxyHostNames(readProperty(properties, "proxy", ConfigurationUtil.getInstance().formatArrayAsString(proxyServerConfiguration.getProxyHostNames()), true));
+        proxyServerConfiguration.setHealthCheckPath(readProperty(properties, "healthCheckPath", proxyServerConfiguration.getHealthCheckPath(), true));
+        proxyServerConfiguration.setHealthCheckInterval(readProperty(properties, "healthCheckInterval", proxyServerConfiguration.getHealthCheckInterval(), true));
+        proxyServerConfiguration.setUnhealthyThreshold(readProperty(properties, "unhealthyThreshold", proxyServerConfiguration.getUnhealthyThreshold(), true));
+        proxyServerConfiguration.setHealthyThreshold(readProperty(properties, "healthyThreshold", proxyServerConfiguration.getHealthyThreshold(), true));
+        proxyServerConfiguration.setBalancingStrategy(readProperty(properties, "balancingStrategy", proxyServerConfiguration.getBalancingStrategy(), true));
+        proxyServerConfiguration.setHashKey(readProperty(properties, "hashKey", proxyServerConfiguration.getHashKey(), true));
+        proxyServerConfiguration.setStickyCookie(readProperty(properties, "stickyCookie", proxyServerConfiguration.getStickyCookie(), true));
+        proxyServerConfiguration.setCacheSize(readProperty(properties, "proxyCacheSize", proxyServerConfiguration.getCacheSize(), true));
+        proxyServerConfiguration.setCacheMaxEntrySize(readProperty(properties, "proxyCacheMaxEntrySize", proxyServerConfiguration.getCacheMaxEntrySize(), true));
+        proxyServerConfiguration.setCacheDirectory(readProperty(properties, "proxyCacheDirectory", proxyServerConfiguration.getCacheDirectory(), true));
+        proxyServerConfiguration.setCacheDiskSize(readProperty(properties, "proxyCacheDiskSize", proxyServerConfiguration.getCacheDiskSize(), true));
+        proxyServerConfiguration.setCollapseTimeout(readProperty(properties, "proxyCollapseTimeout", proxyServerConfiguration.getCollapseTimeout(), true));
+
+        compressionConfiguration.setEnabled(readProperty(properties, "compression", compressionConfiguration.isEnabled(), false));
+        compressionConfiguration.setMinSize(readProperty(properties, "compressionMinSize", compressionConfiguration.getMinSize(), false));
+        compressionConfiguration.setLevel(readProperty(properties, "compressionLevel", compressionConfiguration.getLevel(), false));
+        compressionConfiguration.setMimeTypes(readProperty(properties, "compressionMimeTypes", ConfigurationUtil.getInstance().formatArrayAsString(compressionConfiguration.getMimeTypes()), false));
+        compressionConfiguration.setCacheSize(readProperty(properties, "compressionCacheSize", compressionConfiguration.getCacheSize(), false));
         return this;
     }
 
@@ -515,7 +568,7 @@ public class WebServerConfiguration implements IWebServerConfiguration {
                 + ", accessLogFilePattern=" + accessLogFilePattern + ", basicAuthentication=" + basicAuthentication
                 + ", healthPath=" + healthPath + ", ioThreads=" + ioThreads + ", workerThreads=" + workerThreads
                 + ", resourcePath=" + resourcePath + ", resourceServerConfiguration=" + resourceServerConfiguration
-                + ", proxyServerConfiguration=" + proxyServerConfiguration + "]";
+                + ", proxyServerConfiguration=" + proxyServerConfiguration + ", compressionConfiguration=" + compressionConfiguration + "]";
     }
 
 
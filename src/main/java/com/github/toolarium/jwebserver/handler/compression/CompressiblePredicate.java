@@ -0,0 +1,127 @@
+/*
+ * CompressiblePredicate.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.compression;
+
+import io.undertow.predicate.Predicate;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.AttachmentKey;
+import io.undertow.util.HeaderMap;
+import io.undertow.util.Headers;
+import io.undertow.util.StatusCodes;
+
+
+/**
+ * Predicate which is true in case a response is worth to be compressed: the content type is in the list of the 
+ * compressible mime types and the content length is unknown or at least the min size.
+ *
+ * @author patrick
+ */
+public class CompressiblePredicate implements Predicate {
+    /** Marks an exchange of which the response is known not to be worth the compression */
+    public static final AttachmentKey<Boolean> NOT_COMPRESSIBLE = AttachmentKey.create(Boolean.class);
+    private static final String WILDCARD = "*";
+    private final String[] mimeTypes;
+    private final long minSize;
+
+
+    /**
+     * Constructor for CompressiblePredicate
+     *
+     * @param mimeTypes the compressible mime types, a mime type may start or end with a wildcard
+     * @param minSize the min size in bytes
+     */
+    public CompressiblePredicate(final String[] mimeTypes, final long minSize) {
+        if (mimeTypes != null) {
+            this.mimeTypes = new String[mimeTypes.length];
+            for (int i = 0; i < mimeTypes.length; i++) {
+                this.mimeTypes[i] = mimeTypes[i].trim().toLowerCase();
+            }
+        } else {
+            this.mimeTypes = new String[0];
+        }
+        this.minSize = minSize;
+    }
+
+
+    /**
+     * Get the min size in bytes
+     *
+     * @return the min size in bytes
+     */
+    public long getMinSize() {
+        return minSize;
+    }
+
+
+    /**
+     * @see io.undertow.predicate.Predicate#resolve(io.undertow.server.HttpServerExchange)
+     */
+    @Override
+    public boolean resolve(HttpServerExchange exchange) {
+        if (exchange.getAttachment(NOT_COMPRESSIBLE) != null) {
+            return false;
+        }
+
+        int statusCode = exchange.getStatusCode();
+        if (statusCode < StatusCodes.OK || statusCode == StatusCodes.NO_CONTENT || statusCode == StatusCodes.PARTIAL_CONTENT || statusCode == StatusCodes.NOT_MODIFIED) {
+            return false;
+        }
+
+        HeaderMap responseHeaders = exchange.getResponseHeaders();
+        if (responseHeaders.contains(Headers.CONTENT_ENCODING) || !isCompressible(responseHeaders.getFirst(Headers.CONTENT_TYPE))) {
+            return false;
+        }
+
+        String contentLength = responseHeaders.getFirst(Headers.CONTENT_LENGTH);
+        if (contentLength == null) {
+            return true;
+        }
+
+        try {
+            return Long.parseLong(contentLength) >= minSize;
+        } catch (NumberFormatException e) {
+            return false;
+        }
+    }
+
+
+    /**
+     * Check if a content type is compressible
+     *
+     * @param contentType the content type, the parameters are ignored
+     * @return true if it is compressible
+     */
+    public boolean isCompressible(String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+
+        String mimeType = contentType;
+        int index = mimeType.indexOf(';');
+        if (index >= 0) {
+            mimeType = mimeType.substring(0, index);
+        }
+        mimeType = mimeType.trim().toLowerCase();
+
+        for (String pattern : mimeTypes) {
+            if (WILDCARD.equals(pattern)) {
+                return true;
+            } else if (pattern.endsWith(WILDCARD)) {
+                if (mimeType.startsWith(pattern.substring(0, pattern.length() - 1))) {
+                    return true;
+                }
+            } else if (pattern.startsWith(WILDCARD)) {
+                if (mimeType.endsWith(pattern.substring(1))) {
+                    return true;
+                }
+            } else if (pattern.equals(mimeType)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
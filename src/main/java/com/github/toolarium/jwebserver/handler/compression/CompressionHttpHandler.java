@@ -0,0 +1,84 @@
+/*
+ * CompressionHttpHandler.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.compression;
+
+import com.github.toolarium.jwebserver.config.ICompressionConfiguration;
+import com.github.toolarium.jwebserver.config.IWebServerConfiguration;
+import com.github.toolarium.jwebserver.util.ResourceUtil;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.encoding.ContentEncodingRepository;
+import io.undertow.server.handlers.encoding.EncodingHandler;
+import io.undertow.util.Headers;
+
+
+/**
+ * Compresses the responses with the encodings of the {@link ContentEncoderFactory}. A response which is already 
+ * encoded, e.g. a compressed static resource, is passed unchanged. The compressible responses get a 
+ * <code>Vary: Accept-Encoding</code> header whether they are compressed or not. In case no encoder was chosen the 
+ * <code>Content-Encoding: identity</code> header of the encoding handler is removed, it must not be sent.
+ *  
+ * @author patrick
+ */
+public class CompressionHttpHandler implements HttpHandler {
+    private static final String IDENTITY = "identity";
+    private final HttpHandler next;
+    private final CompressiblePredicate compressiblePredicate;
+
+
+    /**
+     * Constructor for CompressionHttpHandler
+     *
+     * @param next the next handler
+     * @param compressiblePredicate the compressible predicate
+     */
+    public CompressionHttpHandler(final HttpHandler next, final CompressiblePredicate compressiblePredicate) {
+        this.next = next;
+        this.compressiblePredicate = compressiblePredicate;
+    }
+
+    
+    /**
+     * Add the compression handler
+     *
+     * @param webServerConfiguration the web server configuration
+     * @param handlerToWrap the handler to wrap
+     * @return the handler
+     */
+    public static HttpHandler addHandler(final IWebServerConfiguration webServerConfiguration, final HttpHandler handlerToWrap) {
+        ICompressionConfiguration configuration = webServerConfiguration.getCompressionConfiguration();
+        if (!configuration.isEnabled()) {
+            return handlerToWrap;
+        }
+        
+        CompressiblePredicate compressiblePredicate = new CompressiblePredicate(configuration.getMimeTypes(), configuration.getMinSize());
+        ContentEncodingRepository contentEncodingRepository = new ContentEncodingRepository();
+        for (IContentEncoder contentEncoder : ContentEncoderFactory.getInstance().getContentEncoders()) {
+            contentEncodingRepository.addEncodingHandler(contentEncoder.getName(), contentEncoder.createContentEncodingProvider(configuration.getLevel()), contentEncoder.getPriority(), compressiblePredicate);
+        }
+        
+        return new CompressionHttpHandler(new EncodingHandler(handlerToWrap, contentEncodingRepository), compressiblePredicate);
+    }
+
+    
+    /**
+     * @see io.undertow.server.HttpHandler#handleRequest(io.undertow.server.HttpServerExchange)
+     */
+    @Override
+    public void handleRequest(HttpServerExchange exchange) throws Exception {
+        exchange.addResponseCommitListener(ex -> {
+            if (IDENTITY.equalsIgnoreCase(ex.getResponseHeaders().getFirst(Headers.CONTENT_ENCODING))) {
+                ex.getResponseHeaders().remove(Headers.CONTENT_ENCODING);
+            }
+
+            if (compressiblePredicate.isCompressible(ex.getResponseHeaders().getFirst(Headers.CONTENT_TYPE))) {
+                ResourceUtil.getInstance().addVaryAcceptEncoding(ex.getResponseHeaders());
+            }
+        });
+        
+        next.handleRequest(exchange);
+    }
+}
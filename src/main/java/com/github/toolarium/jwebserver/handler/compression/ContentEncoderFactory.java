@@ -0,0 +1,80 @@
+/*
+ * ContentEncoderFactory.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.compression;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceConfigurationError;
+import java.util.ServiceLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Provides the available content encoders: gzip, deflate and the ones which are registered by the {@link ServiceLoader}.
+ * A registered encoder replaces a built-in encoder with the same name.
+ *  
+ * @author patrick
+ */
+public final class ContentEncoderFactory {
+    private static final Logger LOG = LoggerFactory.getLogger(ContentEncoderFactory.class);
+    private final List<IContentEncoder> contentEncoders;
+
+    
+    /**
+     * Private class, the only instance of the singelton which will be created by accessing the holder class.
+     */
+    private static final class HOLDER {
+        static final ContentEncoderFactory INSTANCE = new ContentEncoderFactory();
+    }
+
+    
+    /**
+     * Constructor
+     */
+    private ContentEncoderFactory() {
+        Map<String, IContentEncoder> encoders = new LinkedHashMap<>();
+        encoders.put(GzipContentEncoder.GZIP, new GzipContentEncoder());
+        encoders.put(DeflateContentEncoder.DEFLATE, new DeflateContentEncoder());
+        
+        try {
+            for (IContentEncoder contentEncoder : ServiceLoader.load(IContentEncoder.class, ContentEncoderFactory.class.getClassLoader())) {
+                LOG.debug("Found content encoder [" + contentEncoder.getName() + "]: " + contentEncoder.getClass().getName());
+                encoders.put(contentEncoder.getName().toLowerCase(), contentEncoder);
+            }
+        } catch (ServiceConfigurationError e) {
+            LOG.warn("Could not load the content encoders: " + e.getMessage(), e);
+        }
+        
+        List<IContentEncoder> result = new ArrayList<>(encoders.values());
+        result.sort(Comparator.comparingInt(IContentEncoder::getPriority).reversed());
+        contentEncoders = Collections.unmodifiableList(result);
+    }
+
+    
+    /**
+     * Get the instance
+     *
+     * @return the instance
+     */
+    public static ContentEncoderFactory getInstance() {
+        return HOLDER.INSTANCE;
+    }
+
+    
+    /**
+     * Get the content encoders ordered by their priority, the highest first
+     *
+     * @return the content encoders
+     */
+    public List<IContentEncoder> getContentEncoders() {
+        return contentEncoders;
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * DeflateContentEncoder.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.compression;
+
+import io.undertow.server.handlers.encoding.ContentEncodingProvider;
+import io.undertow.server.handlers.encoding.DeflateEncodingProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+
+/**
+ * The deflate content encoder, the data is encoded in the zlib format
+ *
+ * @author patrick
+ */
+public class DeflateContentEncoder implements IContentEncoder {
+    /** The name of the encoding */
+    public static final String DEFLATE = "deflate";
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.compression.IContentEncoder#getName()
+     */
+    @Override
+    public String getName() {
+        return DEFLATE;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.compression.IContentEncoder#getPriority()
+     */
+    @Override
+    public int getPriority() {
+        return 10;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.compression.IContentEncoder#createContentEncodingProvider(int)
+     */
+    @Override
+    public ContentEncodingProvider createContentEncodingProvider(int level) {
+        return new DeflateEncodingProvider(level);
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.compression.IContentEncoder#encode(byte[], int)
+     */
+    @Override
+    public byte[] encode(byte[] data, int level) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(Math.max(32, data.length / 2));
+        Deflater deflater = new Deflater(level);
+        try (DeflaterOutputStream deflaterOutputStream = new DeflaterOutputStream(outputStream, deflater)) {
+            deflaterOutputStream.write(data);
+        } finally {
+            deflater.end();
+        }
+        return outputStream.toByteArray();
+    }
+}
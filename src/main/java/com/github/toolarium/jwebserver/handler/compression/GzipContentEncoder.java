@@ -0,0 +1,67 @@
+/*
+ * GzipContentEncoder.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.compression;
+
+import io.undertow.server.handlers.encoding.ContentEncodingProvider;
+import io.undertow.server.handlers.encoding.GzipEncodingProvider;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.GZIPOutputStream;
+
+
+/**
+ * The gzip content encoder
+ *
+ * @author patrick
+ */
+public class GzipContentEncoder implements IContentEncoder {
+    /** The name of the encoding */
+    public static final String GZIP = "gzip";
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.compression.IContentEncoder#getName()
+     */
+    @Override
+    public String getName() {
+        return GZIP;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.compression.IContentEncoder#getPriority()
+     */
+    @Override
+    public int getPriority() {
+        return 50;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.compression.IContentEncoder#createContentEncodingProvider(int)
+     */
+    @Override
+    public ContentEncodingProvider createContentEncodingProvider(int level) {
+        return new GzipEncodingProvider(level);
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.compression.IContentEncoder#encode(byte[], int)
+     */
+    @Override
+    public byte[] encode(byte[] data, int level) throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream(Math.max(32, data.length / 2));
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(outputStream) {
+            {
+                def.setLevel(level);
+            }
+        }) {
+            gzipOutputStream.write(data);
+        }
+        return outputStream.toByteArray();
+    }
+}
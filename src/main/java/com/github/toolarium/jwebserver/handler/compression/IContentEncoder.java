@@ -0,0 +1,54 @@
+/*
+ * IContentEncoder.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.compression;
+
+import io.undertow.server.handlers.encoding.ContentEncodingProvider;
+import java.io.IOException;
+
+
+/**
+ * Defines a content encoder. Additional encoders, e.g. for brotli or zstd, can be registered with the 
+ * {@link java.util.ServiceLoader} in <code>META-INF/services/com.github.toolarium.jwebserver.handler.compression.IContentEncoder</code>.
+ *
+ * @author patrick
+ */
+public interface IContentEncoder {
+    
+    /**
+     * Get the name of the content encoding, e.g. gzip
+     *
+     * @return the name of the content encoding
+     */
+    String getName();
+    
+    
+    /**
+     * Get the priority. In case a client accepts several encodings the one with the highest priority is used.
+     *
+     * @return the priority
+     */
+    int getPriority();
+    
+    
+    /**
+     * Create the provider which encodes a response stream
+     *
+     * @param level the compression level between 1 and 9
+     * @return the content encoding provider
+     */
+    ContentEncodingProvider createContentEncodingProvider(int level);
+    
+    
+    /**
+     * Encode data
+     *
+     * @param data the data
+     * @param level the compression level between 1 and 9
+     * @return the encoded data
+     * @throws IOException In case of an I/O error
+     */
+    byte[] encode(byte[] data, int level) throws IOException;
+}
@@ -10,50 +10,153 @@ import io.undertow.server.HttpHandler;
 import io.undertow.server.HttpServerExchange;
 import io.undertow.server.RoutingHandler;
 import io.undertow.util.Headers;
+import io.undertow.util.StatusCodes;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 
 
 /**
  * Implements the health handler
- *  
+ *
  * @author patrick
  */
 public final class HealthHttpHandler implements HttpHandler {
-    
-    
+    private static final char QUOTE = '"';
+    private final List<IHealthCheck> healthChecks;
+
+
+    /**
+     * Constructor for HealthHttpHandler
+     *
+     * @param healthChecks the health checks, e.g. of the proxy hosts
+     */
+    public HealthHttpHandler(final List<IHealthCheck> healthChecks) {
+        this.healthChecks = healthChecks;
+    }
+
+
     /**
      * @see io.undertow.server.HttpHandler#handleRequest(io.undertow.server.HttpServerExchange)
      */
     @Override
     public void handleRequest(HttpServerExchange exchange) throws Exception {
         exchange.getResponseHeaders().put(Headers.CONTENT_TYPE, "application/json");
-        exchange.getResponseSender().send("{ \"status\": \"UP\" }");
+        if (healthChecks.isEmpty()) {
+            exchange.getResponseSender().send("{ \"status\": \"UP\" }");
+            return;
+        }
 
         /*
         {
             "status": "UP",
             "checks": [
                 {
-                    "name": "I'm alive",
-                    "status": "UP"
+                    "name": "proxy",
+                    "status": "UP",
+                    "data": { "http://host:8080": "UP" }
                 }
             ]
         }
         */
+        boolean up = true;
+        StringBuilder checks = new StringBuilder();
+        for (IHealthCheck healthCheck : healthChecks) {
+            boolean checkUp = healthCheck.isUp();
+            up = up && checkUp;
+            if (checks.length() > 0) {
+                checks.append(", ");
+            }
+
+            checks.append("{ \"name\": ");
+            appendString(checks, healthCheck.getName());
+            checks.append(", \"status\": ");
+            appendString(checks, toStatus(checkUp));
+            Map<String, String> data = healthCheck.getData();
+            if (data != null && !data.isEmpty()) {
+                checks.append(", \"data\": { ");
+                boolean first = true;
+                for (Map.Entry<String, String> entry : data.entrySet()) {
+                    if (!first) {
+                        checks.append(", ");
+                    }
+                    first = false;
+                    appendString(checks, entry.getKey());
+                    checks.append(": ");
+                    appendString(checks, entry.getValue());
+                }
+                checks.append(" }");
+            }
+            checks.append(" }");
+        }
+
+        if (!up) {
+            exchange.setStatusCode(StatusCodes.SERVICE_UNAVAILABLE);
+        }
+        exchange.getResponseSender().send("{ \"status\": \"" + toStatus(up) + "\", \"checks\": [ " + checks + " ] }");
     }
 
 
     /**
-     * Add basic authentication
+     * Add the health handler
      *
      * @param webServerConfiguration the web server configuration
      * @param routingHandler the routing handler
      * @return the handler
      */
     public static RoutingHandler addHandler(final IWebServerConfiguration webServerConfiguration, RoutingHandler routingHandler) {
+        return addHandler(webServerConfiguration, routingHandler, Collections.emptyList());
+    }
+
+
+    /**
+     * Add the health handler
+     *
+     * @param webServerConfiguration the web server configuration
+     * @param routingHandler the routing handler
+     * @param healthChecks the health checks, they can be added afterwards
+     * @return the handler
+     */
+    public static RoutingHandler addHandler(final IWebServerConfiguration webServerConfiguration, RoutingHandler routingHandler, final List<IHealthCheck> healthChecks) {
         if (webServerConfiguration.hasHealthCheck()) {
-            routingHandler.get(webServerConfiguration.getHealthPath(), new HealthHttpHandler());
+            routingHandler.get(webServerConfiguration.getHealthPath(), new HealthHttpHandler(healthChecks));
         }
         return routingHandler;
     }
+
+
+    /**
+     * Get the status
+     *
+     * @param up true if it is up
+     * @return the status
+     */
+    private static String toStatus(boolean up) {
+        if (up) {
+            return "UP";
+        }
+        return "DOWN";
+    }
+
+
+    /**
+     * Append an escaped json string
+     *
+     * @param builder the builder
+     * @param value the value
+     */
+    private static void appendString(StringBuilder builder, String value) {
+        builder.append(QUOTE);
+        if (value != null) {
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == QUOTE || c == '\\') {
+                    builder.append('\\');
+                }
+                builder.append(c);
+            }
+        }
+        builder.append(QUOTE);
+    }
 }
@@ -0,0 +1,40 @@
+/*
+ * IHealthCheck.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.health;
+
+import java.util.Map;
+
+
+/**
+ * Defines a health check which is reported by the health handler
+ *
+ * @author patrick
+ */
+public interface IHealthCheck {
+
+    /**
+     * Get the name of the check
+     *
+     * @return the name
+     */
+    String getName();
+
+
+    /**
+     * Check if the checked component is up
+     *
+     * @return true if it is up
+     */
+    boolean isUp();
+
+
+    /**
+     * Get the details of the check, e.g. the state of the upstream hosts
+     *
+     * @return the details or null
+     */
+    Map<String, String> getData();
+}
@@ -7,9 +7,19 @@ package com.github.toolarium.jwebserver.handler.routing;
 
 import com.github.toolarium.jwebserver.config.IWebServerConfiguration;
 import com.github.toolarium.jwebserver.handler.auth.BasicAuthenticationHttpHandler;
+import com.github.toolarium.jwebserver.handler.health.IHealthCheck;
+import com.github.toolarium.jwebserver.handler.routing.proxy.BalancingProxyClient;
 import com.github.toolarium.jwebserver.handler.routing.proxy.ProxyHandler;
+import com.github.toolarium.jwebserver.handler.routing.proxy.cache.ProxyCacheHandler;
 import com.github.toolarium.jwebserver.handler.routing.resource.ResourceHandler;
+import com.github.toolarium.jwebserver.handler.routing.resource.cache.IoThreadResponseHandler;
+import com.github.toolarium.jwebserver.handler.routing.resource.listing.DirectoryListingHandler;
+import com.github.toolarium.jwebserver.logger.LifecycleLogger;
+import io.undertow.server.HttpHandler;
 import io.undertow.util.Methods;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.List;
 
 
 /**
@@ -36,16 +46,50 @@ public final class RoutingHandler {
      *
      * @param webServerConfiguration the web server configuration
      * @param routinrgHandler the routing handler
+     * @param lifecycleLogger the lifecycle logger or null
      * @return the handler
      */
-    public static io.undertow.server.RoutingHandler addHandler(final IWebServerConfiguration webServerConfiguration, final io.undertow.server.RoutingHandler routinrgHandler) { 
+    public static io.undertow.server.RoutingHandler addHandler(final IWebServerConfiguration webServerConfiguration, final io.undertow.server.RoutingHandler routinrgHandler, final LifecycleLogger lifecycleLogger) { 
+        return addHandler(webServerConfiguration, routinrgHandler, lifecycleLogger, new ArrayList<>());
+    }
+
+    
+    /**
+     * Add handler
+     *
+     * @param webServerConfiguration the web server configuration
+     * @param routinrgHandler the routing handler
+     * @param lifecycleLogger the lifecycle logger or null
+     * @param healthChecks the health checks, the checks of the handlers are added
+     * @return the handler
+     */
+    public static io.undertow.server.RoutingHandler addHandler(final IWebServerConfiguration webServerConfiguration, final io.undertow.server.RoutingHandler routinrgHandler, final LifecycleLogger lifecycleLogger, final List<IHealthCheck> healthChecks) { 
+        return addHandler(webServerConfiguration, routinrgHandler, lifecycleLogger, healthChecks, new ArrayList<>());
+    }
+
+    
+    /**
+     * Add handler
+     *
+     * @param webServerConfiguration the web server configuration
+     * @param routinrgHandler the routing handler
+     * @param lifecycleLogger the lifecycle logger or null
+     * @param healthChecks the health checks, the checks of the handlers are added
+     * @param closeables the resources to close on stop, the background threads and resource managers of the handlers are added
+     * @return the handler
+     */
+    public static io.undertow.server.RoutingHandler addHandler(final IWebServerConfiguration webServerConfiguration, final io.undertow.server.RoutingHandler routinrgHandler, final LifecycleLogger lifecycleLogger, final List<IHealthCheck> healthChecks, final List<Closeable> closeables) { 
         String resourcePath = webServerConfiguration.getResourcePath();
         if (resourcePath == null || resourcePath.isBlank()) {
             resourcePath = SLASH;
         }
 
         if (webServerConfiguration.isProxyServer()) {
-            io.undertow.server.handlers.proxy.ProxyHandler proxyHandler = ProxyHandler.createProxyHandler(webServerConfiguration);
+            BalancingProxyClient proxyClient = ProxyHandler.createProxyClient(webServerConfiguration, healthChecks, closeables);
+            HttpHandler proxyHandler = ProxyCacheHandler.addHandler(webServerConfiguration, proxyClient, ProxyHandler.createProxyHandler(webServerConfiguration, proxyClient));
+            if (proxyHandler instanceof Closeable) {
+                closeables.add((Closeable) proxyHandler);
+            }
             routinrgHandler.add(Methods.GET, resourcePath + STAR, BasicAuthenticationHttpHandler.addHandler(webServerConfiguration, proxyHandler));
             routinrgHandler.add(Methods.PUT, resourcePath + STAR, BasicAuthenticationHttpHandler.addHandler(webServerConfiguration, proxyHandler));
             routinrgHandler.add(Methods.PATCH, resourcePath + STAR, BasicAuthenticationHttpHandler.addHandler(webServerConfiguration, proxyHandler));
@@ -54,9 +98,12 @@ public final class RoutingHandler {
             routinrgHandler.add(Methods.HEAD, resourcePath + STAR, BasicAuthenticationHttpHandler.addHandler(webServerConfiguration, proxyHandler));
             routinrgHandler.add(Methods.OPTIONS, resourcePath + STAR, BasicAuthenticationHttpHandler.addHandler(webServerConfiguration, proxyHandler));
         } else {
-            io.undertow.server.handlers.resource.ResourceHandler resourceHandler = ResourceHandler.createResourceHandler(webServerConfiguration);
-            routinrgHandler.add(Methods.GET, resourcePath + STAR, BasicAuthenticationHttpHandler.addHandler(webServerConfiguration, resourceHandler));
-            routinrgHandler.add(Methods.HEAD, resourcePath + STAR, BasicAuthenticationHttpHandler.addHandler(webServerConfiguration, resourceHandler));
+            io.undertow.server.handlers.resource.ResourceHandler resourceHandler = ResourceHandler.createResourceHandler(webServerConfiguration, lifecycleLogger);
+            closeables.add(resourceHandler.getResourceManager());
+            HttpHandler handler = DirectoryListingHandler.addHandler(webServerConfiguration, resourceHandler);
+            handler = IoThreadResponseHandler.addHandler(webServerConfiguration, resourceHandler, handler);
+            routinrgHandler.add(Methods.GET, resourcePath + STAR, BasicAuthenticationHttpHandler.addHandler(webServerConfiguration, handler));
+            routinrgHandler.add(Methods.HEAD, resourcePath + STAR, BasicAuthenticationHttpHandler.addHandler(webServerConfiguration, handler));
         }
 
         //routinrgHandler.setFallbackHandler(new RedirectHandler(resourcePath));
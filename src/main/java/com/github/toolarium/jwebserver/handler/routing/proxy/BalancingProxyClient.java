@@ -0,0 +1,125 @@
+/*
+ * BalancingProxyClient.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.proxy;
+
+import com.github.toolarium.jwebserver.handler.routing.proxy.balancing.IBalancingStrategy;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.proxy.ProxyCallback;
+import io.undertow.server.handlers.proxy.ProxyClient;
+import io.undertow.server.handlers.proxy.ProxyConnection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+
+/**
+ * Balances the requests over the available upstream hosts. The available hosts are kept as an immutable snapshot which
+ * is replaced only if the availability of a host changes, the selection on the request path reads it without a lock.
+ * In case all hosts are ejected the requests are balanced over all hosts. The host is selected by the balancing
+ * strategy, the outstanding requests and the latency of the hosts are tracked for it.
+ *
+ * @author patrick
+ */
+public class BalancingProxyClient implements ProxyClient {
+    private final ProxyHost[] hosts;
+    private final IBalancingStrategy balancingStrategy;
+    private volatile ProxyHost[] availableHosts;
+
+
+    /**
+     * Constructor for BalancingProxyClient
+     *
+     * @param hosts the upstream hosts
+     * @param balancingStrategy the balancing strategy
+     */
+    public BalancingProxyClient(final List<ProxyHost> hosts, final IBalancingStrategy balancingStrategy) {
+        this.hosts = hosts.toArray(new ProxyHost[hosts.size()]);
+        this.balancingStrategy = balancingStrategy;
+        this.availableHosts = this.hosts;
+    }
+
+
+    /**
+     * Get the upstream hosts
+     *
+     * @return the hosts
+     */
+    public ProxyHost[] getHosts() {
+        return hosts;
+    }
+
+
+    /**
+     * Get the available upstream hosts
+     *
+     * @return the available hosts
+     */
+    public ProxyHost[] getAvailableHosts() {
+        return availableHosts;
+    }
+
+
+    /**
+     * Rebuild the snapshot of the available hosts, it is called after the availability of a host changed
+     */
+    public synchronized void updateAvailableHosts() {
+        List<ProxyHost> result = new ArrayList<>();
+        for (ProxyHost host : hosts) {
+            if (host.isAvailable()) {
+                result.add(host);
+            }
+        }
+
+        if (result.isEmpty()) {
+            // fail open: a request to an ejected host is better than no request at all
+            availableHosts = hosts;
+        } else {
+            availableHosts = result.toArray(new ProxyHost[result.size()]);
+        }
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.proxy.ProxyClient#findTarget(io.undertow.server.HttpServerExchange)
+     */
+    @Override
+    public ProxyTarget findTarget(HttpServerExchange exchange) {
+        final ProxyHost[] candidates = availableHosts;
+        if (candidates.length == 0) {
+            return null;
+        }
+
+        return balancingStrategy.select(candidates, exchange);
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.proxy.ProxyClient#getConnection(io.undertow.server.handlers.proxy.ProxyClient.ProxyTarget,
+     *      io.undertow.server.HttpServerExchange, io.undertow.server.handlers.proxy.ProxyCallback, long, java.util.concurrent.TimeUnit)
+     */
+    @Override
+    public void getConnection(ProxyTarget target, HttpServerExchange exchange, ProxyCallback<ProxyConnection> callback, long timeout, TimeUnit timeUnit) {
+        if (!(target instanceof ProxyHost)) {
+            callback.couldNotResolveBackend(exchange);
+            return;
+        }
+
+        final ProxyHost host = (ProxyHost) target;
+        final ProxyTarget hostTarget = host.getClient().findTarget(exchange);
+        if (hostTarget == null) {
+            callback.couldNotResolveBackend(exchange);
+            return;
+        }
+
+        final long start = System.nanoTime();
+        host.requestStarted();
+        exchange.addExchangeCompleteListener((completedExchange, nextListener) -> {
+            host.requestFinished(System.nanoTime() - start);
+            nextListener.proceed();
+        });
+        host.getClient().getConnection(hostTarget, exchange, callback, timeout, timeUnit);
+    }
+}
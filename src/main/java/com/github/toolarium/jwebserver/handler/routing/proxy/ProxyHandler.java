@@ -7,11 +7,22 @@ package com.github.toolarium.jwebserver.handler.routing.proxy;
 
 import com.github.toolarium.jwebserver.config.IProxyServerConfiguration;
 import com.github.toolarium.jwebserver.config.IWebServerConfiguration;
+import com.github.toolarium.jwebserver.handler.health.IHealthCheck;
+import com.github.toolarium.jwebserver.handler.routing.proxy.balancing.ConsistentHashBalancingStrategy;
+import com.github.toolarium.jwebserver.handler.routing.proxy.balancing.IBalancingStrategy;
+import com.github.toolarium.jwebserver.handler.routing.proxy.balancing.LeastOutstandingBalancingStrategy;
+import com.github.toolarium.jwebserver.handler.routing.proxy.balancing.PeakEwmaBalancingStrategy;
+import com.github.toolarium.jwebserver.handler.routing.proxy.balancing.PowerOfTwoChoicesBalancingStrategy;
+import com.github.toolarium.jwebserver.handler.routing.proxy.balancing.RoundRobinBalancingStrategy;
+import com.github.toolarium.jwebserver.handler.routing.proxy.balancing.StickyBalancingStrategy;
 import io.undertow.UndertowOptions;
 import io.undertow.protocols.ssl.UndertowXnioSsl;
 import io.undertow.server.handlers.proxy.LoadBalancingProxyClient;
+import java.io.Closeable;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
+import java.util.List;
 import javax.net.ssl.SSLContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,6 +35,18 @@ import org.xnio.Xnio;
  * @author patrick
  */
 public final class ProxyHandler {
+    /** The round-robin balancing strategy */
+    public static final String ROUND_ROBIN = "round-robin";
+    /** The least outstanding requests balancing strategy */
+    public static final String LEAST_OUTSTANDING = "least-outstanding";
+    /** The peak EWMA latency balancing strategy */
+    public static final String PEAK_EWMA = "peak-ewma";
+    /** The power of two random choices balancing strategy */
+    public static final String POWER_OF_TWO = "power-of-two";
+    /** The consistent hash balancing strategy */
+    public static final String CONSISTENT_HASH = "consistent-hash";
+    /** The sticky cookie balancing strategy */
+    public static final String STICKY = "sticky";
     private static final Logger LOG = LoggerFactory.getLogger(ProxyHandler.class);
 
     
@@ -42,9 +65,55 @@ public final class ProxyHandler {
      * @return the proxy handler
      */
     public static io.undertow.server.handlers.proxy.ProxyHandler createProxyHandler(final IWebServerConfiguration webServerConfiguration) {
+        return createProxyHandler(webServerConfiguration, new ArrayList<>());
+    }
+
+
+    /**
+     * Get the proxy handler
+     *
+     * @param webServerConfiguration the configuration
+     * @param healthChecks the health checks, the active health check of the proxy hosts is added
+     * @return the proxy handler
+     */
+    public static io.undertow.server.handlers.proxy.ProxyHandler createProxyHandler(final IWebServerConfiguration webServerConfiguration, final List<IHealthCheck> healthChecks) {
+        return createProxyHandler(webServerConfiguration, createProxyClient(webServerConfiguration, healthChecks, new ArrayList<>()));
+    }
+
+
+    /**
+     * Get the proxy handler
+     *
+     * @param webServerConfiguration the configuration
+     * @param proxyClient the balancing proxy client
+     * @return the proxy handler
+     */
+    public static io.undertow.server.handlers.proxy.ProxyHandler createProxyHandler(final IWebServerConfiguration webServerConfiguration, final BalancingProxyClient proxyClient) {
+        IProxyServerConfiguration configuration = webServerConfiguration.getProxyServerConfiguration();
+        return io.undertow.server.handlers.proxy.ProxyHandler.builder()
+                .setProxyClient(proxyClient)
+                .setMaxRequestTime(configuration.getMaxRequestTime())
+                .setReuseXForwarded(configuration.reuseXForwarded())
+                .setRewriteHostHeader(configuration.rewriteHostHeader())
+                //.addRequestHeader(Headers.SSL_CLIENT_CERT, "%{SSL_CLIENT_CERT}", ProxyHandler.class.getClassLoader()) // ExchangeAttributes.constant(
+                //.addRequestHeader(Headers.SSL_CIPHER, "%{SSL_CIPHER}", ProxyHandler.class.getClassLoader())
+                //.addRequestHeader(Headers.SSL_SESSION_ID, "%{SSL_SESSION_ID}", ProxyHandler.class.getClassLoader())
+                .build();
+    }
+
+
+    /**
+     * Create the balancing proxy client of the upstream hosts
+     *
+     * @param webServerConfiguration the configuration
+     * @param healthChecks the health checks, the active health check of the proxy hosts is added
+     * @param closeables the resources to close on stop, the active health check of the proxy hosts is added
+     * @return the balancing proxy client
+     */
+    public static BalancingProxyClient createProxyClient(final IWebServerConfiguration webServerConfiguration, final List<IHealthCheck> healthChecks, final List<Closeable> closeables) {
         IProxyServerConfiguration configuration = webServerConfiguration.getProxyServerConfiguration();
-        LoadBalancingProxyClient loadBalancer = new LoadBalancingProxyClient()
-                .setConnectionsPerThread(configuration.getConnectionsPerThread()); // TODO: timeToLive .setTtl(timeToLive)
+        List<ProxyHost> hosts = new ArrayList<>();
+        SSLContext sslContext = null;
 
         String[] hostNames = configuration.getProxyHostNames();
         if (hostNames != null && hostNames.length > 0) {
@@ -52,38 +121,70 @@ public final class ProxyHandler {
                 if (hostName != null && !hostName.isBlank()) {
                     try {
                         URI uri = new URI(hostName);
-                        SSLContext sslContext = null;
+                        SSLContext hostSslContext = null;
                         if (uri.getScheme() == null || uri.getScheme().isBlank()) {
                             LOG.warn("Could not found schema in uri [" + hostName + "]!");
                         } else if (uri.getScheme().endsWith("s")) {
                             try {
-                                sslContext = webServerConfiguration.getSSLServerConfiguration().getSSLContext();
+                                hostSslContext = webServerConfiguration.getSSLServerConfiguration().getSSLContext();
+                                sslContext = hostSslContext;
                             } catch (Exception e) {
-                                loadBalancer.addHost(uri);
                                 LOG.warn("Could not initialize the SSL contect: " + e.getMessage(), e);
                             } 
                         }
                         
-                        if (sslContext != null) {
-                            loadBalancer.addHost(uri, null, new UndertowXnioSsl(Xnio.getInstance(), OptionMap.EMPTY, sslContext), OptionMap.create(UndertowOptions.ENABLE_HTTP2, true));
+                        // every host has its own connection pool, the selection of the host is done by the balancing proxy client
+                        LoadBalancingProxyClient hostClient = new LoadBalancingProxyClient()
+                                .setConnectionsPerThread(configuration.getConnectionsPerThread());
+                        if (hostSslContext != null) {
+                            hostClient.addHost(uri, null, new UndertowXnioSsl(Xnio.getInstance(), OptionMap.EMPTY, hostSslContext), OptionMap.create(UndertowOptions.ENABLE_HTTP2, true));
                         } else {
-                            loadBalancer.addHost(uri);
+                            hostClient.addHost(uri);
                         }
+                        hosts.add(new ProxyHost(uri, hostClient));
                     } catch (URISyntaxException e) {
                         LOG.warn("Could not parse uri: " + hostName);
                     }
                 }
             }
         }
+
+        BalancingProxyClient proxyClient = new BalancingProxyClient(hosts, createBalancingStrategy(configuration));
+        if (configuration.getHealthCheckPath() != null && !hosts.isEmpty()) {
+            ProxyHealthChecker healthChecker = new ProxyHealthChecker(proxyClient, configuration.getHealthCheckPath(), configuration.getHealthCheckInterval(),
+                                                                      configuration.getUnhealthyThreshold(), configuration.getHealthyThreshold(), sslContext);
+            healthChecks.add(healthChecker);
+            closeables.add(healthChecker);
+            healthChecker.start();
+        }
         
-        return io.undertow.server.handlers.proxy.ProxyHandler.builder()
-                .setProxyClient(loadBalancer)
-                .setMaxRequestTime(configuration.getMaxRequestTime())
-                .setReuseXForwarded(configuration.reuseXForwarded())
-                .setRewriteHostHeader(configuration.rewriteHostHeader())
-                //.addRequestHeader(Headers.SSL_CLIENT_CERT, "%{SSL_CLIENT_CERT}", ProxyHandler.class.getClassLoader()) // ExchangeAttributes.constant(
-                //.addRequestHeader(Headers.SSL_CIPHER, "%{SSL_CIPHER}", ProxyHandler.class.getClassLoader())
-                //.addRequestHeader(Headers.SSL_SESSION_ID, "%{SSL_SESSION_ID}", ProxyHandler.class.getClassLoader())
-                .build();
+        return proxyClient;
+    }
+
+
+    /**
+     * Create the balancing strategy
+     *
+     * @param configuration the proxy server configuration
+     * @return the balancing strategy, by default round-robin
+     */
+    public static IBalancingStrategy createBalancingStrategy(final IProxyServerConfiguration configuration) {
+        String name = configuration.getBalancingStrategy();
+        if (name == null || name.isBlank() || ROUND_ROBIN.equalsIgnoreCase(name.trim())) {
+            return new RoundRobinBalancingStrategy();
+        } else if (LEAST_OUTSTANDING.equalsIgnoreCase(name.trim())) {
+            return new LeastOutstandingBalancingStrategy();
+        } else if (PEAK_EWMA.equalsIgnoreCase(name.trim())) {
+            return new PeakEwmaBalancingStrategy();
+        } else if (POWER_OF_TWO.equalsIgnoreCase(name.trim())) {
+            return new PowerOfTwoChoicesBalancingStrategy();
+        } else if (CONSISTENT_HASH.equalsIgnoreCase(name.trim())) {
+            return new ConsistentHashBalancingStrategy(configuration.getHashKey(), new RoundRobinBalancingStrategy());
+        } else if (STICKY.equalsIgnoreCase(name.trim())) {
+            return new StickyBalancingStrategy(configuration.getStickyCookie(), new LeastOutstandingBalancingStrategy());
+        }
+
+        LOG.warn("Unknown balancing strategy [" + name + "], use " + ROUND_ROBIN + ".");
+        return new RoundRobinBalancingStrategy();
     }
 }
@@ -0,0 +1,208 @@
+/*
+ * ProxyHealthChecker.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.proxy;
+
+import com.github.toolarium.jwebserver.handler.health.IHealthCheck;
+import java.io.Closeable;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import javax.net.ssl.SSLContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Probes the upstream hosts of the proxy periodically with a GET request on the health check path. A response with
+ * a status below 400 is a successful probe. The probes run in the background, an ejected host is removed from the
+ * selection of the balancing proxy client and admitted again after it recovered.
+ *
+ * @author patrick
+ */
+public class ProxyHealthChecker implements IHealthCheck, Runnable, Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(ProxyHealthChecker.class);
+    private final BalancingProxyClient proxyClient;
+    private final String healthCheckPath;
+    private final int interval;
+    private final int unhealthyThreshold;
+    private final int healthyThreshold;
+    private final HttpClient httpClient;
+    private Thread checkerThread;
+
+
+    /**
+     * Constructor for ProxyHealthChecker
+     *
+     * @param proxyClient the balancing proxy client
+     * @param healthCheckPath the health check path of the hosts
+     * @param interval the interval in milliseconds, it is also the timeout of a probe
+     * @param unhealthyThreshold the number of failed probes in a row to eject a host
+     * @param healthyThreshold the number of successful probes in a row to admit a host again
+     * @param sslContext the ssl context of the https hosts or null
+     */
+    public ProxyHealthChecker(final BalancingProxyClient proxyClient, final String healthCheckPath, final int interval, final int unhealthyThreshold, final int healthyThreshold, final SSLContext sslContext) {
+        this.proxyClient = proxyClient;
+        this.healthCheckPath = healthCheckPath;
+        this.interval = Math.max(1, interval);
+        this.unhealthyThreshold = Math.max(1, unhealthyThreshold);
+        this.healthyThreshold = Math.max(1, healthyThreshold);
+
+        HttpClient.Builder builder = HttpClient.newBuilder().connectTimeout(Duration.ofMillis(this.interval)).followRedirects(HttpClient.Redirect.NEVER);
+        if (sslContext != null) {
+            builder.sslContext(sslContext);
+        }
+        this.httpClient = builder.build();
+        this.checkerThread = null;
+    }
+
+
+    /**
+     * Start the periodic probes
+     */
+    public synchronized void start() {
+        if (checkerThread == null) {
+            checkerThread = new Thread(this, "jwebserver-proxy-health");
+            checkerThread.setDaemon(true);
+            checkerThread.start();
+        }
+    }
+
+
+    /**
+     * Stop the periodic probes
+     */
+    public synchronized void stop() {
+        if (checkerThread != null) {
+            checkerThread.interrupt();
+            checkerThread = null;
+        }
+    }
+
+
+    /**
+     * @see java.io.Closeable#close()
+     */
+    @Override
+    public void close() {
+        stop();
+    }
+
+
+    /**
+     * Probe all hosts once and wait for the results
+     */
+    public void probe() {
+        List<CompletableFuture<Void>> probes = new ArrayList<>();
+        for (ProxyHost host : proxyClient.getHosts()) {
+            HttpRequest request = HttpRequest.newBuilder(resolve(host.getUri())).timeout(Duration.ofMillis(interval)).GET().build();
+            probes.add(httpClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((response, e) -> {
+                        record(host, e == null && response.statusCode() < 400);
+                        return null;
+                    }));
+        }
+
+        CompletableFuture.allOf(probes.toArray(new CompletableFuture<?>[0])).join();
+    }
+
+
+    /**
+     * @see java.lang.Runnable#run()
+     */
+    @Override
+    public void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                probe();
+                Thread.sleep(interval);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.health.IHealthCheck#getName()
+     */
+    @Override
+    public String getName() {
+        return "proxy";
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.health.IHealthCheck#isUp()
+     */
+    @Override
+    public boolean isUp() {
+        for (ProxyHost host : proxyClient.getHosts()) {
+            if (host.isAvailable()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.health.IHealthCheck#getData()
+     */
+    @Override
+    public Map<String, String> getData() {
+        Map<String, String> data = new LinkedHashMap<>();
+        for (ProxyHost host : proxyClient.getHosts()) {
+            if (host.isAvailable()) {
+                data.put(host.getUri().toString(), "UP");
+            } else {
+                data.put(host.getUri().toString(), "EJECTED");
+            }
+        }
+        return data;
+    }
+
+
+    /**
+     * Record the result of a probe
+     *
+     * @param host the host
+     * @param success true if the probe was successful
+     */
+    protected void record(ProxyHost host, boolean success) {
+        if (!host.recordProbe(success, unhealthyThreshold, healthyThreshold)) {
+            return;
+        }
+
+        if (host.isAvailable()) {
+            LOG.info("Proxy host [" + host.getUri() + "] is healthy again, admit it.");
+        } else {
+            LOG.warn("Proxy host [" + host.getUri() + "] failed " + unhealthyThreshold + " health checks, eject it.");
+        }
+        proxyClient.updateAvailableHosts();
+    }
+
+
+    /**
+     * Resolve the health check uri of a host
+     *
+     * @param uri the uri of the host
+     * @return the health check uri
+     */
+    private URI resolve(URI uri) {
+        String path = healthCheckPath;
+        if (!path.startsWith("/")) {
+            path = "/" + path;
+        }
+        return uri.resolve(path);
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * ProxyHost.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.proxy;
+
+import io.undertow.server.handlers.proxy.LoadBalancingProxyClient;
+import io.undertow.server.handlers.proxy.ProxyClient;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Defines an upstream host of the proxy. The connections are pooled by its own client, the host keeps the state of
+ * the active health check and the load statistics of the balancing strategies. The statistics are updated lock-free
+ * on the request path.
+ *
+ * @author patrick
+ */
+public class ProxyHost implements ProxyClient.ProxyTarget {
+    private static final double DECAY_TIME = TimeUnit.SECONDS.toNanos(10);
+    private static final long PENALTY = Long.MAX_VALUE >> 16;
+    private final URI uri;
+    private final String route;
+    private final LoadBalancingProxyClient client;
+    private final AtomicInteger failures;
+    private final AtomicInteger successes;
+    private final AtomicInteger outstanding;
+    private final AtomicLong latency;
+    private final AtomicLong latencyTimestamp;
+    private volatile boolean available;
+
+
+    /**
+     * Constructor for ProxyHost
+     *
+     * @param uri the uri of the host
+     * @param client the client which holds the connection pool of the host
+     */
+    public ProxyHost(final URI uri, final LoadBalancingProxyClient client) {
+        this.uri = uri;
+        this.route = Integer.toHexString(uri.toString().hashCode());
+        this.client = client;
+        this.failures = new AtomicInteger();
+        this.successes = new AtomicInteger();
+        this.outstanding = new AtomicInteger();
+        this.latency = new AtomicLong(Double.doubleToLongBits(0d));
+        this.latencyTimestamp = new AtomicLong(System.nanoTime());
+        this.available = true;
+    }
+
+
+    /**
+     * Get the uri of the host
+     *
+     * @return the uri
+     */
+    public URI getUri() {
+        return uri;
+    }
+
+
+    /**
+     * Get the route of the host, it identifies the host in a sticky cookie without revealing its uri
+     *
+     * @return the route
+     */
+    public String getRoute() {
+        return route;
+    }
+
+
+    /**
+     * Get the client which holds the connection pool of the host
+     *
+     * @return the client
+     */
+    public LoadBalancingProxyClient getClient() {
+        return client;
+    }
+
+
+    /**
+     * Check if the host is available, an ejected host is not selected
+     *
+     * @return true if it is available
+     */
+    public boolean isAvailable() {
+        return available;
+    }
+
+
+    /**
+     * Record the result of a probe. The host is ejected after the unhealthy threshold of failed probes in a row and
+     * admitted again after the healthy threshold of successful probes in a row.
+     *
+     * @param success true if the probe was successful
+     * @param unhealthyThreshold the number of failed probes in a row to eject the host
+     * @param healthyThreshold the number of successful probes in a row to admit the host again
+     * @return true if the availability of the host changed
+     */
+    public boolean recordProbe(boolean success, int unhealthyThreshold, int healthyThreshold) {
+        if (success) {
+            failures.set(0);
+            if (!available && successes.incrementAndGet() >= healthyThreshold) {
+                successes.set(0);
+                available = true;
+                return true;
+            }
+        } else {
+            successes.set(0);
+            if (available && failures.incrementAndGet() >= unhealthyThreshold) {
+                failures.set(0);
+                available = false;
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Record the start of a request to the host
+     */
+    public void requestStarted() {
+        outstanding.incrementAndGet();
+    }
+
+
+    /**
+     * Record the end of a request to the host
+     *
+     * @param latencyNanos the latency of the request in nanoseconds
+     */
+    public void requestFinished(long latencyNanos) {
+        outstanding.decrementAndGet();
+        recordLatency(latencyNanos, System.nanoTime());
+    }
+
+
+    /**
+     * Get the number of outstanding requests
+     *
+     * @return the number of outstanding requests
+     */
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+
+    /**
+     * Get the peak exponentially weighted moving average of the latency. A higher latency is taken over immediately,
+     * a lower latency decays the average over time.
+     *
+     * @return the latency in nanoseconds, 0 if no request was measured yet
+     */
+    public double getLatency() {
+        return Double.longBitsToDouble(latency.get());
+    }
+
+
+    /**
+     * Get the cost of the host for the peak EWMA strategy: the latency weighted by the outstanding requests. A host
+     * without a measured latency is cheap as long as it has no outstanding request.
+     *
+     * @return the cost
+     */
+    public double getCost() {
+        final double currentLatency = getLatency();
+        final int currentOutstanding = Math.max(0, outstanding.get());
+        if (currentLatency == 0d) {
+            if (currentOutstanding == 0) {
+                return 0d;
+            }
+            return PENALTY + currentOutstanding;
+        }
+
+        return currentLatency * (currentOutstanding + 1);
+    }
+
+
+    /**
+     * Record a measured latency
+     *
+     * @param latencyNanos the latency in nanoseconds
+     * @param now the current time in nanoseconds
+     */
+    protected void recordLatency(long latencyNanos, long now) {
+        final double value = Math.max(0L, latencyNanos);
+        while (true) {
+            final long currentBits = latency.get();
+            final double current = Double.longBitsToDouble(currentBits);
+            final long elapsed = Math.max(0L, now - latencyTimestamp.get());
+
+            double next = value;
+            if (value < current) {
+                double weight = Math.exp(-elapsed / DECAY_TIME);
+                next = current * weight + value * (1d - weight);
+            }
+
+            if (latency.compareAndSet(currentBits, Double.doubleToLongBits(next))) {
+                latencyTimestamp.set(now);
+                return;
+            }
+        }
+    }
+
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "ProxyHost [uri=" + uri + ", available=" + available + ", outstanding=" + outstanding + ", latency=" + Math.round(getLatency()) + "]";
+    }
+}
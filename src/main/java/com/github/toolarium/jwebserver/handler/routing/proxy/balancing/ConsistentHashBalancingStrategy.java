@@ -0,0 +1,165 @@
+/*
+ * ConsistentHashBalancingStrategy.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.proxy.balancing;
+
+import com.github.toolarium.jwebserver.handler.routing.proxy.ProxyHost;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.Cookie;
+import java.net.InetSocketAddress;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Selects the upstream host by a consistent hash of a request attribute: header:&lt;name&gt;, cookie:&lt;name&gt;,
+ * ip or path[:&lt;segments&gt;]. Requests with the same key are sent to the same host, e.g. to keep the per-user
+ * caches of the backends warm. The ring is rebuilt only if the available hosts change, an ejected host moves only
+ * its own keys. A request without the key is balanced by the fallback strategy.
+ *
+ * @author patrick
+ */
+public class ConsistentHashBalancingStrategy implements IBalancingStrategy {
+    /** The header key type */
+    public static final String HEADER = "header";
+    /** The cookie key type */
+    public static final String COOKIE = "cookie";
+    /** The client address key type */
+    public static final String IP = "ip";
+    /** The path prefix key type */
+    public static final String PATH = "path";
+    private static final Logger LOG = LoggerFactory.getLogger(ConsistentHashBalancingStrategy.class);
+    private static final int VIRTUAL_NODES = 160;
+    private static final char SEPARATOR = ':';
+    private final String type;
+    private final String name;
+    private final int segments;
+    private final IBalancingStrategy fallback;
+    private volatile HashRing ring;
+
+
+    /**
+     * Constructor for ConsistentHashBalancingStrategy
+     *
+     * @param hashKey the request attribute of the hash, e.g. header:X-User
+     * @param fallback the strategy of the requests without the key
+     */
+    public ConsistentHashBalancingStrategy(final String hashKey, final IBalancingStrategy fallback) {
+        this.fallback = fallback;
+        this.ring = null;
+
+        String keyType = null;
+        String keyName = null;
+        int keySegments = 1;
+        if (hashKey != null && !hashKey.isBlank()) {
+            String key = hashKey.trim();
+            int idx = key.indexOf(SEPARATOR);
+            keyType = key.toLowerCase();
+            if (idx >= 0) {
+                keyType = key.substring(0, idx).trim().toLowerCase();
+                keyName = key.substring(idx + 1).trim();
+            }
+
+            if (PATH.equals(keyType) && keyName != null) {
+                try {
+                    keySegments = Math.max(1, Integer.parseInt(keyName));
+                } catch (NumberFormatException e) {
+                    LOG.warn("Invalid number of path segments in the hash key [" + hashKey + "], use 1.");
+                }
+            }
+        }
+
+        if (!IP.equals(keyType) && !PATH.equals(keyType) && !((HEADER.equals(keyType) || COOKIE.equals(keyType)) && keyName != null && !keyName.isEmpty())) {
+            LOG.warn("Invalid hash key [" + hashKey + "], the requests are balanced without a hash.");
+            keyType = null;
+        }
+
+        this.type = keyType;
+        this.name = keyName;
+        this.segments = keySegments;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.proxy.balancing.IBalancingStrategy#select(com.github.toolarium.jwebserver.handler.routing.proxy.ProxyHost[], io.undertow.server.HttpServerExchange)
+     */
+    @Override
+    public ProxyHost select(ProxyHost[] hosts, HttpServerExchange exchange) {
+        final String key = getKey(exchange);
+        if (key == null) {
+            return fallback.select(hosts, exchange);
+        }
+
+        return getRing(hosts).get(key);
+    }
+
+
+    /**
+     * Get the hash ring of the hosts, it is rebuilt only if the snapshot of the available hosts changed
+     *
+     * @param hosts the hosts
+     * @return the hash ring
+     */
+    protected HashRing getRing(ProxyHost[] hosts) {
+        HashRing current = ring;
+        if (current == null || current.getHosts() != hosts) {
+            current = new HashRing(hosts, VIRTUAL_NODES);
+            ring = current;
+        }
+        return current;
+    }
+
+
+    /**
+     * Get the key of a request
+     *
+     * @param exchange the exchange
+     * @return the key or null
+     */
+    protected String getKey(HttpServerExchange exchange) {
+        if (type == null || exchange == null) {
+            return null;
+        }
+
+        if (HEADER.equals(type)) {
+            return exchange.getRequestHeaders().getFirst(name);
+        } else if (COOKIE.equals(type)) {
+            Cookie cookie = exchange.getRequestCookie(name);
+            if (cookie == null) {
+                return null;
+            }
+            return cookie.getValue();
+        } else if (IP.equals(type)) {
+            InetSocketAddress address = exchange.getSourceAddress();
+            if (address == null || address.getAddress() == null) {
+                return null;
+            }
+            return address.getAddress().getHostAddress();
+        }
+
+        return getPathPrefix(exchange.getRelativePath());
+    }
+
+
+    /**
+     * Get the prefix of a path with the configured number of segments, e.g. /tenant of /tenant/a/b
+     *
+     * @param path the path
+     * @return the path prefix
+     */
+    protected String getPathPrefix(String path) {
+        if (path == null) {
+            return null;
+        }
+
+        int count = 0;
+        for (int i = 1; i < path.length(); i++) {
+            if (path.charAt(i) == '/' && ++count == segments) {
+                return path.substring(0, i);
+            }
+        }
+        return path;
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * HashRing.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.proxy.balancing;
+
+import com.github.toolarium.jwebserver.handler.routing.proxy.ProxyHost;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Comparator;
+
+
+/**
+ * Consistent hash ring of the upstream hosts. Every host is placed with a number of virtual nodes on the ring, a key
+ * belongs to the next node clockwise. If a host is added or removed only the keys of its nodes are moved. The ring is
+ * immutable.
+ *
+ * @author patrick
+ */
+public class HashRing {
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private final ProxyHost[] hosts;
+    private final long[] points;
+    private final ProxyHost[] pointHosts;
+
+
+    /**
+     * Constructor for HashRing
+     *
+     * @param hosts the hosts
+     * @param virtualNodes the number of virtual nodes of a host
+     */
+    public HashRing(final ProxyHost[] hosts, final int virtualNodes) {
+        this.hosts = hosts;
+
+        final int size = hosts.length * virtualNodes;
+        Integer[] order = new Integer[size];
+        long[] hashes = new long[size];
+        for (int i = 0; i < hosts.length; i++) {
+            final String name = hosts[i].getUri().toString();
+            for (int v = 0; v < virtualNodes; v++) {
+                int index = i * virtualNodes + v;
+                order[index] = index;
+                hashes[index] = hash(name + "#" + v);
+            }
+        }
+        Arrays.sort(order, Comparator.comparingLong(index -> hashes[index]));
+
+        this.points = new long[size];
+        this.pointHosts = new ProxyHost[size];
+        for (int i = 0; i < size; i++) {
+            points[i] = hashes[order[i]];
+            pointHosts[i] = hosts[order[i] / virtualNodes];
+        }
+    }
+
+
+    /**
+     * Get the hosts of the ring
+     *
+     * @return the hosts
+     */
+    public ProxyHost[] getHosts() {
+        return hosts;
+    }
+
+
+    /**
+     * Get the host of a key
+     *
+     * @param key the key
+     * @return the host or null if the ring is empty
+     */
+    public ProxyHost get(String key) {
+        if (points.length == 0) {
+            return null;
+        }
+
+        int index = Arrays.binarySearch(points, hash(key));
+        if (index < 0) {
+            index = -index - 1;
+        }
+        if (index >= points.length) {
+            index = 0;
+        }
+        return pointHosts[index];
+    }
+
+
+    /**
+     * Calculate the 64 bit hash of a key: FNV-1a with the finalizer of MurmurHash3 for an even distribution
+     *
+     * @param key the key
+     * @return the hash
+     */
+    public static long hash(String key) {
+        long h = FNV_OFFSET;
+        for (byte b : key.getBytes(StandardCharsets.UTF_8)) {
+            h ^= b & 0xff;
+            h *= FNV_PRIME;
+        }
+
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,28 @@
+/*
+ * IBalancingStrategy.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.proxy.balancing;
+
+import com.github.toolarium.jwebserver.handler.routing.proxy.ProxyHost;
+import io.undertow.server.HttpServerExchange;
+
+
+/**
+ * Defines the strategy which selects the upstream host of a request. It is called on the request path and must not
+ * block.
+ *
+ * @author patrick
+ */
+public interface IBalancingStrategy {
+
+    /**
+     * Select the upstream host of a request
+     *
+     * @param hosts the available hosts, not empty
+     * @param exchange the exchange
+     * @return the selected host
+     */
+    ProxyHost select(ProxyHost[] hosts, HttpServerExchange exchange);
+}
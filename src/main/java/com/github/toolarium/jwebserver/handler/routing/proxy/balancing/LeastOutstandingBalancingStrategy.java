@@ -0,0 +1,49 @@
+/*
+ * LeastOutstandingBalancingStrategy.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.proxy.balancing;
+
+import com.github.toolarium.jwebserver.handler.routing.proxy.ProxyHost;
+import io.undertow.server.HttpServerExchange;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Selects the upstream host with the fewest outstanding requests. The scan starts at a rotating offset, hosts with
+ * the same number of outstanding requests are selected one after the other.
+ *
+ * @author patrick
+ */
+public class LeastOutstandingBalancingStrategy implements IBalancingStrategy {
+    private final AtomicInteger counter;
+
+
+    /**
+     * Constructor for LeastOutstandingBalancingStrategy
+     */
+    public LeastOutstandingBalancingStrategy() {
+        this.counter = new AtomicInteger();
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.proxy.balancing.IBalancingStrategy#select(com.github.toolarium.jwebserver.handler.routing.proxy.ProxyHost[], io.undertow.server.HttpServerExchange)
+     */
+    @Override
+    public ProxyHost select(ProxyHost[] hosts, HttpServerExchange exchange) {
+        final int offset = Math.floorMod(counter.getAndIncrement(), hosts.length);
+        ProxyHost result = hosts[offset];
+        int min = result.getOutstanding();
+        for (int i = 1; i < hosts.length && min > 0; i++) {
+            ProxyHost host = hosts[(offset + i) % hosts.length];
+            int outstanding = host.getOutstanding();
+            if (outstanding < min) {
+                result = host;
+                min = outstanding;
+            }
+        }
+        return result;
+    }
+}
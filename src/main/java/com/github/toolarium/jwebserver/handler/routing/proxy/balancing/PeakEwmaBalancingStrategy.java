@@ -0,0 +1,49 @@
+/*
+ * PeakEwmaBalancingStrategy.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.proxy.balancing;
+
+import com.github.toolarium.jwebserver.handler.routing.proxy.ProxyHost;
+import io.undertow.server.HttpServerExchange;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Selects the upstream host with the lowest cost: its peak exponentially weighted moving average latency weighted by
+ * its outstanding requests. A slow or saturated host gets less traffic until its latency recovers.
+ *
+ * @author patrick
+ */
+public class PeakEwmaBalancingStrategy implements IBalancingStrategy {
+    private final AtomicInteger counter;
+
+
+    /**
+     * Constructor for PeakEwmaBalancingStrategy
+     */
+    public PeakEwmaBalancingStrategy() {
+        this.counter = new AtomicInteger();
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.proxy.balancing.IBalancingStrategy#select(com.github.toolarium.jwebserver.handler.routing.proxy.ProxyHost[], io.undertow.server.HttpServerExchange)
+     */
+    @Override
+    public ProxyHost select(ProxyHost[] hosts, HttpServerExchange exchange) {
+        final int offset = Math.floorMod(counter.getAndIncrement(), hosts.length);
+        ProxyHost result = hosts[offset];
+        double min = result.getCost();
+        for (int i = 1; i < hosts.length; i++) {
+            ProxyHost host = hosts[(offset + i) % hosts.length];
+            double cost = host.getCost();
+            if (cost < min) {
+                result = host;
+                min = cost;
+            }
+        }
+        return result;
+    }
+}
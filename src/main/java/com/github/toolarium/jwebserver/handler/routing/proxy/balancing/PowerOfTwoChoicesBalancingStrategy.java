@@ -0,0 +1,42 @@
+/*
+ * PowerOfTwoChoicesBalancingStrategy.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.proxy.balancing;
+
+import com.github.toolarium.jwebserver.handler.routing.proxy.ProxyHost;
+import io.undertow.server.HttpServerExchange;
+import java.util.concurrent.ThreadLocalRandom;
+
+
+/**
+ * Selects two random upstream hosts and takes the one with fewer outstanding requests. It avoids the herd behaviour
+ * of the least outstanding strategy, where all requests go to the same idle host, with a constant effort.
+ *
+ * @author patrick
+ */
+public class PowerOfTwoChoicesBalancingStrategy implements IBalancingStrategy {
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.proxy.balancing.IBalancingStrategy#select(com.github.toolarium.jwebserver.handler.routing.proxy.ProxyHost[], io.undertow.server.HttpServerExchange)
+     */
+    @Override
+    public ProxyHost select(ProxyHost[] hosts, HttpServerExchange exchange) {
+        if (hosts.length == 1) {
+            return hosts[0];
+        }
+
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final int first = random.nextInt(hosts.length);
+        int second = random.nextInt(hosts.length - 1);
+        if (second >= first) {
+            second++;
+        }
+
+        if (hosts[second].getOutstanding() < hosts[first].getOutstanding()) {
+            return hosts[second];
+        }
+        return hosts[first];
+    }
+}
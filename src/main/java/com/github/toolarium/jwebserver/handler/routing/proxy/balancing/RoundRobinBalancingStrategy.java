@@ -0,0 +1,37 @@
+/*
+ * RoundRobinBalancingStrategy.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.proxy.balancing;
+
+import com.github.toolarium.jwebserver.handler.routing.proxy.ProxyHost;
+import io.undertow.server.HttpServerExchange;
+import java.util.concurrent.atomic.AtomicInteger;
+
+
+/**
+ * Selects the upstream hosts one after the other
+ *
+ * @author patrick
+ */
+public class RoundRobinBalancingStrategy implements IBalancingStrategy {
+    private final AtomicInteger counter;
+
+
+    /**
+     * Constructor for RoundRobinBalancingStrategy
+     */
+    public RoundRobinBalancingStrategy() {
+        this.counter = new AtomicInteger();
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.proxy.balancing.IBalancingStrategy#select(com.github.toolarium.jwebserver.handler.routing.proxy.ProxyHost[], io.undertow.server.HttpServerExchange)
+     */
+    @Override
+    public ProxyHost select(ProxyHost[] hosts, HttpServerExchange exchange) {
+        return hosts[Math.floorMod(counter.getAndIncrement(), hosts.length)];
+    }
+}
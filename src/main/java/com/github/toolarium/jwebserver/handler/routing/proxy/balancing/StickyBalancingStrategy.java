@@ -0,0 +1,60 @@
+/*
+ * StickyBalancingStrategy.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.proxy.balancing;
+
+import com.github.toolarium.jwebserver.handler.routing.proxy.ProxyHost;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.Cookie;
+import io.undertow.server.handlers.CookieImpl;
+
+
+/**
+ * Keeps a session on the same upstream host with a cookie which contains the route of the host. A request without
+ * the cookie or with the route of a host which is not available is balanced by the fallback strategy and gets a new
+ * cookie.
+ *
+ * @author patrick
+ */
+public class StickyBalancingStrategy implements IBalancingStrategy {
+    private final String cookieName;
+    private final IBalancingStrategy fallback;
+
+
+    /**
+     * Constructor for StickyBalancingStrategy
+     *
+     * @param cookieName the name of the cookie
+     * @param fallback the strategy of the requests without a valid cookie
+     */
+    public StickyBalancingStrategy(final String cookieName, final IBalancingStrategy fallback) {
+        this.cookieName = cookieName;
+        this.fallback = fallback;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.proxy.balancing.IBalancingStrategy#select(com.github.toolarium.jwebserver.handler.routing.proxy.ProxyHost[], io.undertow.server.HttpServerExchange)
+     */
+    @Override
+    public ProxyHost select(ProxyHost[] hosts, HttpServerExchange exchange) {
+        if (exchange == null) {
+            return fallback.select(hosts, exchange);
+        }
+
+        Cookie cookie = exchange.getRequestCookie(cookieName);
+        if (cookie != null && cookie.getValue() != null) {
+            for (ProxyHost host : hosts) {
+                if (host.getRoute().equals(cookie.getValue())) {
+                    return host;
+                }
+            }
+        }
+
+        ProxyHost host = fallback.select(hosts, exchange);
+        exchange.setResponseCookie(new CookieImpl(cookieName, host.getRoute()).setPath("/").setHttpOnly(true));
+        return host;
+    }
+}
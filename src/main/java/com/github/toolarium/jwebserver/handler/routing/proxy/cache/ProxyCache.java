@@ -0,0 +1,490 @@
+/*
+ * ProxyCache.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.proxy.cache;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * Shared cache of the upstream responses with a bounded in-memory tier and an optional memory-mapped disk tier. The
+ * entries which are evicted from the memory tier are written to the disk tier by a background thread, they are served
+ * from memory until they are written. A response with a Vary header is stored as variant: the key contains the values
+ * of the request headers which are named by the Vary header. The keys of the cached variants are indexed by the key
+ * of the request, the index entry is removed with the last variant.
+ *
+ * @author patrick
+ */
+public class ProxyCache implements Closeable {
+    private static final char VARIANT_SEPARATOR = '\n';
+    private final int maxEntrySize;
+    private final ProxyCacheTier memoryTier;
+    private final ProxyDiskCacheTier diskTier;
+    private final ConcurrentHashMap<String, Variants> variants;
+    private final ConcurrentHashMap<String, ProxyCacheEntry> demotions;
+    private final AtomicLong demotionSize;
+    private final ExecutorService demotionExecutor;
+
+
+    /**
+     * Constructor for ProxyCache
+     *
+     * @param maxSize the max size of the memory tier in bytes
+     * @param maxEntrySize the max size of a response body in bytes
+     * @param directory the directory of the disk tier or null
+     * @param maxDiskSize the max size of the disk tier in bytes
+     * @throws IOException In case the directory of the disk tier can't be prepared
+     */
+    public ProxyCache(final long maxSize, final int maxEntrySize, final Path directory, final long maxDiskSize) throws IOException {
+        this.maxEntrySize = maxEntrySize;
+        this.variants = new ConcurrentHashMap<>();
+        this.demotions = new ConcurrentHashMap<>();
+        this.demotionSize = new AtomicLong(0);
+        this.memoryTier = new ProxyCacheTier(maxSize, this::removedFromMemory);
+        if (directory != null && maxDiskSize > 0) {
+            this.diskTier = new ProxyDiskCacheTier(directory, maxDiskSize, (entry, evicted) -> removeIfUncached(entry.getKey()));
+            this.demotionExecutor = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "jwebserver-proxy-cache-demotion");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.diskTier = null;
+            this.demotionExecutor = null;
+        }
+    }
+
+
+    /**
+     * Get the max size of a response body in bytes
+     *
+     * @return the max entry size
+     */
+    public int getMaxEntrySize() {
+        return maxEntrySize;
+    }
+
+
+    /**
+     * Get the memory tier
+     *
+     * @return the memory tier
+     */
+    public ProxyCacheTier getMemoryTier() {
+        return memoryTier;
+    }
+
+
+    /**
+     * Get the disk tier
+     *
+     * @return the disk tier or null
+     */
+    public ProxyDiskCacheTier getDiskTier() {
+        return diskTier;
+    }
+
+
+    /**
+     * Get the cached response of a request
+     *
+     * @param baseKey the key of the request, e.g. its uri
+     * @param requestHeaders the request headers, the names are case insensitive
+     * @return the entry or null
+     */
+    public ProxyCacheEntry get(String baseKey, Map<String, List<String>> requestHeaders) {
+        String key = getKey(baseKey, requestHeaders);
+        ProxyCacheEntry entry = memoryTier.get(key);
+        if (entry == null) {
+            entry = demotions.get(key);
+        }
+        if (entry == null && diskTier != null) {
+            entry = diskTier.get(key);
+        }
+        return entry;
+    }
+
+
+    /**
+     * Get the key of a request, it contains the values of the request headers which are named by the last stored Vary
+     * header of the request
+     *
+     * @param baseKey the key of the request, e.g. its uri
+     * @param requestHeaders the request headers, the names are case insensitive
+     * @return the key
+     */
+    public String getKey(String baseKey, Map<String, List<String>> requestHeaders) {
+        Variants current = variants.get(baseKey);
+        if (current == null) {
+            return baseKey;
+        }
+        return getVariantKey(baseKey, current.varyHeaders, requestHeaders);
+    }
+
+
+    /**
+     * Check if an entry is the variant of a request
+     *
+     * @param baseKey the key of the request, e.g. its uri
+     * @param entry the entry
+     * @param requestHeaders the request headers, the names are case insensitive
+     * @return true if the entry matches the request
+     */
+    public boolean matches(String baseKey, ProxyCacheEntry entry, Map<String, List<String>> requestHeaders) {
+        return entry.getKey().equals(getVariantKey(baseKey, getVaryHeaders(entry.getHeaders()), requestHeaders));
+    }
+
+
+    /**
+     * Create the entry of a response, it is not stored yet
+     *
+     * @param baseKey the key of the request, e.g. its uri
+     * @param requestHeaders the request headers, the names are case insensitive
+     * @param statusCode the status code
+     * @param responseHeaders the response headers
+     * @param body the body
+     * @param requestTime the time in milliseconds when the request was sent
+     * @param responseTime the time in milliseconds when the response was received
+     * @return the entry
+     */
+    public ProxyCacheEntry createEntry(String baseKey, Map<String, List<String>> requestHeaders, int statusCode, Map<String, List<String>> responseHeaders, byte[] body, long requestTime, long responseTime) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(body.length);
+        buffer.put(body);
+        buffer.flip();
+        return new ProxyCacheEntry(getVariantKey(baseKey, getVaryHeaders(responseHeaders), requestHeaders), statusCode, responseHeaders, buffer, null, requestTime, responseTime);
+    }
+
+
+    /**
+     * Put an entry into the cache
+     *
+     * @param baseKey the key of the request, e.g. its uri
+     * @param entry the entry
+     * @return the stored entry or null in case it is too big
+     */
+    public ProxyCacheEntry put(String baseKey, ProxyCacheEntry entry) {
+        if (entry.getBody().remaining() > maxEntrySize) {
+            return null;
+        }
+
+        ProxyCacheEntry memoryEntry = entry;
+        if (entry.getFile() != null) {
+            // a revalidated entry of the disk tier moves back into the memory tier
+            ByteBuffer body = entry.getBody();
+            ByteBuffer buffer = ByteBuffer.allocateDirect(body.remaining());
+            buffer.put(body);
+            buffer.flip();
+            memoryEntry = entry.withBody(buffer, null);
+        }
+
+        // the key is indexed before it is stored, so an immediate eviction finds it
+        final String key = memoryEntry.getKey();
+        final List<String> varyHeaders = getVaryHeaders(entry.getHeaders());
+        register(baseKey, varyHeaders, key);
+        ProxyCacheEntry storedEntry = memoryTier.put(memoryEntry);
+        if (storedEntry != null) {
+            register(baseKey, varyHeaders, key);
+
+            // the former versions are dropped
+            removeDemotion(key);
+            if (diskTier != null) {
+                diskTier.remove(key);
+            }
+        }
+
+        removeIfUncached(key);
+        return storedEntry;
+    }
+
+
+    /**
+     * Invalidate all cached responses of a request, e.g. after an unsafe request
+     *
+     * @param baseKey the key of the request, e.g. its uri
+     */
+    public void invalidate(String baseKey) {
+        Variants current = variants.remove(baseKey);
+        if (current == null) {
+            return;
+        }
+
+        for (String key : current.keys) {
+            memoryTier.remove(key);
+            removeDemotion(key);
+            if (diskTier != null) {
+                diskTier.remove(key);
+            }
+        }
+    }
+
+
+    /**
+     * Remove all cached responses
+     */
+    public void clear() {
+        variants.clear();
+        memoryTier.clear();
+        demotions.clear();
+        demotionSize.set(0);
+        if (diskTier != null) {
+            diskTier.clear();
+        }
+    }
+
+
+    /**
+     * Stop the background thread of the disk tier and remove all cached responses
+     *
+     * @see java.io.Closeable#close()
+     */
+    @Override
+    public void close() {
+        if (demotionExecutor != null) {
+            demotionExecutor.shutdownNow();
+        }
+        clear();
+    }
+
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        StringBuilder result = new StringBuilder("ProxyCache [maxEntrySize=").append(maxEntrySize)
+                .append(", memory=").append(memoryTier.getCurrentSize()).append("/").append(memoryTier.getMaxSize());
+        if (diskTier != null) {
+            result.append(", disk=").append(diskTier.getCurrentSize()).append("/").append(diskTier.getMaxSize());
+        }
+        return result.append("]").toString();
+    }
+
+
+    /**
+     * Called after an entry was removed from the memory tier, an evicted entry is moved to the disk tier
+     *
+     * @param entry the removed entry
+     * @param evicted true if it was evicted
+     */
+    private void removedFromMemory(ProxyCacheEntry entry, boolean evicted) {
+        if (!evicted || diskTier == null || !demote(entry)) {
+            removeIfUncached(entry.getKey());
+        }
+    }
+
+
+    /**
+     * Pass an evicted entry to the background thread which writes it to the disk tier. The entries which wait to be
+     * written are limited to the size of the memory tier.
+     *
+     * @param entry the evicted entry
+     * @return true if the entry will be written
+     */
+    private boolean demote(ProxyCacheEntry entry) {
+        final String key = entry.getKey();
+        final Variants current = variants.get(getBaseKey(key));
+        if (current == null || !current.keys.contains(key) || demotionSize.get() + entry.getSize() > memoryTier.getMaxSize()) {
+            return false;
+        }
+
+        demotionSize.addAndGet(entry.getSize());
+        ProxyCacheEntry previous = demotions.put(key, entry);
+        if (previous != null) {
+            demotionSize.addAndGet(-previous.getSize());
+        }
+
+        try {
+            demotionExecutor.execute(() -> writeToDisk(current, entry));
+            return true;
+        } catch (RejectedExecutionException e) {
+            // the cache was closed
+            removeDemotion(key);
+            return false;
+        }
+    }
+
+
+    /**
+     * Write an evicted entry to the disk tier, it is dropped in case it was invalidated or stored again meanwhile
+     *
+     * @param demotedVariants the variants of the request when the entry was evicted
+     * @param entry the entry
+     */
+    private void writeToDisk(Variants demotedVariants, ProxyCacheEntry entry) {
+        final String key = entry.getKey();
+        if (!demotions.remove(key, entry)) {
+            return;
+        }
+
+        demotionSize.addAndGet(-entry.getSize());
+        if (variants.get(getBaseKey(key)) == demotedVariants && !memoryTier.contains(key) && diskTier.put(entry) != null) {
+            if (variants.get(getBaseKey(key)) != demotedVariants || !demotedVariants.keys.contains(key) || memoryTier.contains(key)) {
+                // invalidated or stored again while it was written
+                diskTier.remove(key);
+            }
+        }
+        removeIfUncached(key);
+    }
+
+
+    /**
+     * Remove an entry which waits to be written to the disk tier
+     *
+     * @param key the key
+     */
+    private void removeDemotion(String key) {
+        ProxyCacheEntry entry = demotions.remove(key);
+        if (entry != null) {
+            demotionSize.addAndGet(-entry.getSize());
+        }
+    }
+
+
+    /**
+     * Add the key of a variant to the index of its request
+     *
+     * @param baseKey the key of the request
+     * @param varyHeaders the names of the vary headers of the variant
+     * @param key the key of the variant
+     */
+    private void register(String baseKey, List<String> varyHeaders, String key) {
+        variants.compute(baseKey, (k, current) -> {
+            Variants result = current;
+            if (result == null) {
+                result = new Variants();
+            }
+            result.varyHeaders = varyHeaders;
+            result.keys.add(key);
+            return result;
+        });
+    }
+
+
+    /**
+     * Remove the key of a variant from the index in case it is in no tier, the index entry of the request is removed
+     * with its last variant
+     *
+     * @param key the key of the variant
+     */
+    private void removeIfUncached(String key) {
+        variants.computeIfPresent(getBaseKey(key), (baseKey, current) -> {
+            if (!isCached(key)) {
+                current.keys.remove(key);
+            }
+
+            if (current.keys.isEmpty()) {
+                return null;
+            }
+            return current;
+        });
+    }
+
+
+    /**
+     * Check if a variant is cached
+     *
+     * @param key the key of the variant
+     * @return true if it is in a tier or waits to be written to the disk tier
+     */
+    private boolean isCached(String key) {
+        return memoryTier.contains(key) || demotions.containsKey(key) || (diskTier != null && diskTier.contains(key));
+    }
+
+
+    /**
+     * Get the key of the request of a variant
+     *
+     * @param key the key of the variant
+     * @return the key of the request
+     */
+    private static String getBaseKey(String key) {
+        int index = key.indexOf(VARIANT_SEPARATOR);
+        if (index < 0) {
+            return key;
+        }
+        return key.substring(0, index);
+    }
+
+
+    /**
+     * Get the lower case names of the headers of the vary header of a response
+     *
+     * @param responseHeaders the response headers
+     * @return the header names
+     */
+    private static List<String> getVaryHeaders(Map<String, List<String>> responseHeaders) {
+        List<String> result = new ArrayList<>();
+        for (Map.Entry<String, List<String>> header : responseHeaders.entrySet()) {
+            if (ProxyCacheEntry.VARY.equalsIgnoreCase(header.getKey())) {
+                for (String value : header.getValue()) {
+                    for (String name : value.split(",")) {
+                        if (!name.isBlank()) {
+                            result.add(name.trim().toLowerCase(Locale.ROOT));
+                        }
+                    }
+                }
+            }
+        }
+        Collections.sort(result);
+        return result;
+    }
+
+
+    /**
+     * Get the key of a variant
+     *
+     * @param baseKey the key of the request
+     * @param varyHeaders the names of the vary headers or null
+     * @param requestHeaders the request headers, the names are case insensitive
+     * @return the key of the variant
+     */
+    private static String getVariantKey(String baseKey, List<String> varyHeaders, Map<String, List<String>> requestHeaders) {
+        if (varyHeaders == null || varyHeaders.isEmpty()) {
+            return baseKey;
+        }
+
+        StringBuilder key = new StringBuilder(baseKey);
+        for (String name : varyHeaders) {
+            key.append(VARIANT_SEPARATOR).append(name).append(':');
+            List<String> values = requestHeaders.get(name);
+            if (values != null) {
+                key.append(String.join(",", values));
+            }
+        }
+        return key.toString();
+    }
+
+
+    /**
+     * The variants of a request: the vary headers of its last stored response and the keys of its cached variants
+     */
+    private static class Variants {
+        private final Set<String> keys;
+        private volatile List<String> varyHeaders;
+
+
+        /**
+         * Constructor for Variants
+         */
+        Variants() {
+            this.keys = ConcurrentHashMap.newKeySet();
+            this.varyHeaders = null;
+        }
+    }
+}
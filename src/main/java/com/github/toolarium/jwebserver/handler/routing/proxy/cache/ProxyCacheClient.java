@@ -0,0 +1,134 @@
+/*
+ * ProxyCacheClient.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.proxy.cache;
+
+import com.github.toolarium.jwebserver.handler.routing.proxy.BalancingProxyClient;
+import com.github.toolarium.jwebserver.handler.routing.proxy.ProxyHost;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.proxy.ProxyClient;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import javax.net.ssl.SSLContext;
+
+
+/**
+ * Sends the requests of the proxy cache to the upstream hosts. The host is selected by the balancing proxy client and
+ * its load statistics are tracked. The conditional headers of the client are not forwarded, a stored response is
+ * revalidated with its own validators.
+ *
+ * @author patrick
+ */
+public class ProxyCacheClient {
+    private static final Set<String> EXCLUDED_HEADERS = Set.of("connection", "content-length", "date", "expect", "from", "host", "http2-settings",
+            "if-match", "if-modified-since", "if-none-match", "if-range", "if-unmodified-since", "keep-alive", "proxy-authorization", "proxy-connection",
+            "range", "te", "trailer", "transfer-encoding", "upgrade", "via", "warning");
+    private final BalancingProxyClient proxyClient;
+    private final HttpClient httpClient;
+    private final long timeout;
+
+
+    /**
+     * Constructor for ProxyCacheClient
+     *
+     * @param proxyClient the balancing proxy client
+     * @param timeout the timeout of a request in milliseconds, 0 or less for no timeout
+     * @param sslContext the ssl context of the https hosts or null
+     */
+    public ProxyCacheClient(final BalancingProxyClient proxyClient, final long timeout, final SSLContext sslContext) {
+        this.proxyClient = proxyClient;
+        this.timeout = timeout;
+
+        HttpClient.Builder builder = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).followRedirects(HttpClient.Redirect.NEVER);
+        if (sslContext != null) {
+            builder.sslContext(sslContext);
+        }
+        this.httpClient = builder.build();
+    }
+
+
+    /**
+     * Send a GET request to an upstream host
+     *
+     * @param exchange the exchange which selects the host or null for a background request
+     * @param requestUri the request uri with the query string
+     * @param headers the headers to forward
+     * @param storedEntry the stored entry which is revalidated or null
+     * @return the response, the body must be closed
+     * @throws IOException In case the host can't be reached
+     */
+    public HttpResponse<InputStream> send(HttpServerExchange exchange, String requestUri, Map<String, List<String>> headers, ProxyCacheEntry storedEntry) throws IOException {
+        ProxyClient.ProxyTarget target = proxyClient.findTarget(exchange);
+        if (!(target instanceof ProxyHost)) {
+            throw new IOException("No proxy host available.");
+        }
+
+        final ProxyHost host = (ProxyHost) target;
+        final HttpRequest.Builder builder;
+        try {
+            builder = HttpRequest.newBuilder(toUri(host.getUri(), requestUri)).GET();
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid request uri [" + requestUri + "]: " + e.getMessage(), e);
+        }
+
+        if (timeout > 0) {
+            builder.timeout(Duration.ofMillis(timeout));
+        }
+
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            if (!EXCLUDED_HEADERS.contains(header.getKey().toLowerCase(Locale.ROOT))) {
+                for (String value : header.getValue()) {
+                    builder.header(header.getKey(), value);
+                }
+            }
+        }
+
+        if (storedEntry != null && storedEntry.getETag() != null) {
+            builder.header("If-None-Match", storedEntry.getETag());
+        }
+        if (storedEntry != null && storedEntry.getLastModified() != null) {
+            builder.header("If-Modified-Since", storedEntry.getLastModified());
+        }
+
+        final long start = System.nanoTime();
+        host.requestStarted();
+        try {
+            return httpClient.send(builder.build(), HttpResponse.BodyHandlers.ofInputStream());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted request to [" + host.getUri() + "].");
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid request to [" + host.getUri() + "]: " + e.getMessage(), e);
+        } finally {
+            host.requestFinished(System.nanoTime() - start);
+        }
+    }
+
+
+    /**
+     * Resolve the request uri on the upstream host
+     *
+     * @param hostUri the uri of the host
+     * @param requestUri the request uri
+     * @return the upstream uri
+     */
+    private URI toUri(URI hostUri, String requestUri) {
+        String base = hostUri.toString();
+        if (base.endsWith("/")) {
+            base = base.substring(0, base.length() - 1);
+        }
+        return URI.create(base + requestUri);
+    }
+}
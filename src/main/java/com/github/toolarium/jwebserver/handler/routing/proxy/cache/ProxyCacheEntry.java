@@ -0,0 +1,451 @@
+/*
+ * ProxyCacheEntry.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.proxy.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+
+/**
+ * Defines a cached upstream response. The freshness is calculated as defined by RFC 9111 for a shared cache: the
+ * lifetime is taken from s-maxage, max-age or Expires and the age from the Date and Age headers. An entry is immutable,
+ * a revalidation creates a new entry with the same body.
+ *
+ * @author patrick
+ */
+public class ProxyCacheEntry {
+    /** The cache-control header */
+    public static final String CACHE_CONTROL = "cache-control";
+    /** The vary header */
+    public static final String VARY = "vary";
+    private static final Set<Integer> CACHEABLE_STATUS_CODES = Set.of(200, 203, 204, 300, 301, 308, 404, 410);
+    private static final int HEADER_OVERHEAD = 256;
+    private final String key;
+    private final int statusCode;
+    private final Map<String, List<String>> headers;
+    private final ByteBuffer body;
+    private final Path file;
+    private final long requestTime;
+    private final long responseTime;
+    private final long initialAge;
+    private final long freshnessLifetime;
+    private final long staleWhileRevalidate;
+    private final long staleIfError;
+    private final boolean noCache;
+    private final boolean mustRevalidate;
+    private volatile long lastAccess;
+
+
+    /**
+     * Constructor for ProxyCacheEntry
+     *
+     * @param key the key of the entry
+     * @param statusCode the status code
+     * @param headers the response headers
+     * @param body the body
+     * @param file the file of the body in the disk tier or null
+     * @param requestTime the time in milliseconds when the request was sent
+     * @param responseTime the time in milliseconds when the response was received
+     */
+    public ProxyCacheEntry(final String key, final int statusCode, final Map<String, List<String>> headers, final ByteBuffer body, final Path file, final long requestTime, final long responseTime) {
+        this.key = key;
+        this.statusCode = statusCode;
+        this.headers = Collections.unmodifiableMap(toHeaderMap(headers));
+        this.body = body;
+        this.file = file;
+        this.requestTime = requestTime;
+        this.responseTime = responseTime;
+
+        Map<String, String> cacheControl = parseCacheControl(joinHeader(this.headers, CACHE_CONTROL));
+        long date = parseDate(getHeader("date"), responseTime);
+        long apparentAge = Math.max(0L, responseTime - date);
+        long correctedAge = parseSeconds(getHeader("age"), 0L) * 1000L + (responseTime - requestTime);
+        this.initialAge = Math.max(apparentAge, correctedAge);
+
+        long lifetime = 0;
+        if (cacheControl.containsKey("s-maxage")) {
+            lifetime = parseSeconds(cacheControl.get("s-maxage"), 0L) * 1000L;
+        } else if (cacheControl.containsKey("max-age")) {
+            lifetime = parseSeconds(cacheControl.get("max-age"), 0L) * 1000L;
+        } else if (getHeader("expires") != null) {
+            lifetime = Math.max(0L, parseDate(getHeader("expires"), date) - date);
+        }
+        this.freshnessLifetime = lifetime;
+        this.staleWhileRevalidate = parseSeconds(cacheControl.get("stale-while-revalidate"), 0L) * 1000L;
+        this.staleIfError = parseSeconds(cacheControl.get("stale-if-error"), 0L) * 1000L;
+        this.noCache = cacheControl.containsKey("no-cache");
+        this.mustRevalidate = cacheControl.containsKey("must-revalidate") || cacheControl.containsKey("proxy-revalidate");
+        this.lastAccess = 0;
+    }
+
+
+    /**
+     * Get the key of the entry
+     *
+     * @return the key
+     */
+    public String getKey() {
+        return key;
+    }
+
+
+    /**
+     * Get the status code
+     *
+     * @return the status code
+     */
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+
+    /**
+     * Get the response headers
+     *
+     * @return the headers, the names are case insensitive
+     */
+    public Map<String, List<String>> getHeaders() {
+        return headers;
+    }
+
+
+    /**
+     * Get the first value of a response header
+     *
+     * @param name the name
+     * @return the value or null
+     */
+    public String getHeader(String name) {
+        List<String> values = headers.get(name);
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        return values.get(0);
+    }
+
+
+    /**
+     * Get the body
+     *
+     * @return a read-only view of the body
+     */
+    public ByteBuffer getBody() {
+        return body.asReadOnlyBuffer();
+    }
+
+
+    /**
+     * Get the file of the body in the disk tier
+     *
+     * @return the file or null
+     */
+    public Path getFile() {
+        return file;
+    }
+
+
+    /**
+     * Get the entity tag
+     *
+     * @return the entity tag or null
+     */
+    public String getETag() {
+        return getHeader("etag");
+    }
+
+
+    /**
+     * Get the last modified header
+     *
+     * @return the last modified header or null
+     */
+    public String getLastModified() {
+        return getHeader("last-modified");
+    }
+
+
+    /**
+     * Check if the entry can be revalidated with a conditional request
+     *
+     * @return true if it has an entity tag or a last modified time
+     */
+    public boolean hasValidator() {
+        return getETag() != null || getLastModified() != null;
+    }
+
+
+    /**
+     * Get the current age of the entry
+     *
+     * @param now the current time in milliseconds
+     * @return the age in milliseconds
+     */
+    public long getAge(long now) {
+        return initialAge + Math.max(0L, now - responseTime);
+    }
+
+
+    /**
+     * Check if the entry is fresh and can be served without a revalidation
+     *
+     * @param now the current time in milliseconds
+     * @return true if it is fresh
+     */
+    public boolean isFresh(long now) {
+        return !noCache && getAge(now) < freshnessLifetime;
+    }
+
+
+    /**
+     * Check if the stale entry can be served while it is revalidated in the background
+     *
+     * @param now the current time in milliseconds
+     * @return true if it can be served
+     */
+    public boolean isStaleWhileRevalidate(long now) {
+        return !noCache && !mustRevalidate && getAge(now) < freshnessLifetime + staleWhileRevalidate;
+    }
+
+
+    /**
+     * Check if the stale entry can be served in case the upstream host fails
+     *
+     * @param now the current time in milliseconds
+     * @return true if it can be served
+     */
+    public boolean isStaleIfError(long now) {
+        return !mustRevalidate && getAge(now) < freshnessLifetime + staleIfError;
+    }
+
+
+    /**
+     * Get the size of the entry in bytes
+     *
+     * @return the size
+     */
+    public long getSize() {
+        long size = HEADER_OVERHEAD + body.remaining();
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            size += header.getKey().length();
+            for (String value : header.getValue()) {
+                size += value.length();
+            }
+        }
+        return size;
+    }
+
+
+    /**
+     * Get the last access tick
+     *
+     * @return the last access tick
+     */
+    public long getLastAccess() {
+        return lastAccess;
+    }
+
+
+    /**
+     * Update the last access tick
+     *
+     * @param tick the current access tick
+     */
+    public void touch(long tick) {
+        this.lastAccess = tick;
+    }
+
+
+    /**
+     * Create the entry with another body, e.g. the memory mapped file of the disk tier
+     *
+     * @param newBody the new body
+     * @param newFile the file of the body or null
+     * @return the new entry
+     */
+    public ProxyCacheEntry withBody(ByteBuffer newBody, Path newFile) {
+        return new ProxyCacheEntry(key, statusCode, headers, newBody, newFile, requestTime, responseTime);
+    }
+
+
+    /**
+     * Create the revalidated entry: the headers of the not modified response replace the stored headers, the body is
+     * kept.
+     *
+     * @param notModifiedHeaders the headers of the not modified response
+     * @param requestTime the time in milliseconds when the request was sent
+     * @param newResponseTime the time in milliseconds when the response was received
+     * @return the revalidated entry
+     */
+    public ProxyCacheEntry revalidate(Map<String, List<String>> notModifiedHeaders, long requestTime, long newResponseTime) {
+        Map<String, List<String>> mergedHeaders = toHeaderMap(headers);
+        for (Map.Entry<String, List<String>> header : notModifiedHeaders.entrySet()) {
+            String name = header.getKey().toLowerCase(Locale.ROOT);
+            if (!"content-length".equals(name) && !"transfer-encoding".equals(name) && !"content-encoding".equals(name)) {
+                mergedHeaders.put(name, header.getValue());
+            }
+        }
+        return new ProxyCacheEntry(key, statusCode, mergedHeaders, body, file, requestTime, newResponseTime);
+    }
+
+
+    /**
+     * Check if a response can be stored by a shared cache
+     *
+     * @param statusCode the status code
+     * @param headers the response headers
+     * @return true if it can be stored
+     */
+    public static boolean isStorable(int statusCode, Map<String, List<String>> headers) {
+        if (!CACHEABLE_STATUS_CODES.contains(statusCode)) {
+            return false;
+        }
+
+        Map<String, List<String>> headerMap = toHeaderMap(headers);
+        if (headerMap.containsKey("set-cookie") || headerMap.containsKey("content-range")) {
+            return false;
+        }
+
+        List<String> vary = headerMap.get(VARY);
+        if (vary != null && String.join(",", vary).contains("*")) {
+            return false;
+        }
+
+        Map<String, String> cacheControl = parseCacheControl(joinHeader(headerMap, CACHE_CONTROL));
+        if (cacheControl.containsKey("no-store") || cacheControl.containsKey("private")) {
+            return false;
+        }
+
+        // without an explicit lifetime the response is stored only if it can be revalidated
+        return cacheControl.containsKey("s-maxage") || cacheControl.containsKey("max-age") || headerMap.containsKey("expires")
+                || headerMap.containsKey("etag") || headerMap.containsKey("last-modified");
+    }
+
+
+    /**
+     * Parse a cache-control header
+     *
+     * @param value the header value
+     * @return the directives with their lower case names, a directive without a value has an empty value
+     */
+    public static Map<String, String> parseCacheControl(String value) {
+        Map<String, String> result = new HashMap<>();
+        if (value == null || value.isBlank()) {
+            return result;
+        }
+
+        for (String directive : value.split(",")) {
+            String name = directive.trim();
+            String directiveValue = "";
+            int idx = name.indexOf('=');
+            if (idx >= 0) {
+                directiveValue = name.substring(idx + 1).trim();
+                if (directiveValue.length() >= 2 && directiveValue.startsWith("\"") && directiveValue.endsWith("\"")) {
+                    directiveValue = directiveValue.substring(1, directiveValue.length() - 1);
+                }
+                name = name.substring(0, idx).trim();
+            }
+
+            if (!name.isEmpty()) {
+                result.put(name.toLowerCase(Locale.ROOT), directiveValue);
+            }
+        }
+        return result;
+    }
+
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "ProxyCacheEntry [key=" + key + ", statusCode=" + statusCode + ", size=" + body.remaining() + ", freshnessLifetime=" + freshnessLifetime + ", file=" + file + "]";
+    }
+
+
+    /**
+     * Copy the headers into a map with case insensitive names
+     *
+     * @param headers the headers
+     * @return the header map
+     */
+    private static Map<String, List<String>> toHeaderMap(Map<String, List<String>> headers) {
+        Map<String, List<String>> result = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        if (headers != null) {
+            for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+                if (header.getKey() != null) {
+                    result.put(header.getKey().toLowerCase(Locale.ROOT), List.copyOf(header.getValue()));
+                }
+            }
+        }
+        return result;
+    }
+
+
+    /**
+     * Get the values of a header joined by a comma
+     *
+     * @param headers the headers
+     * @param name the name
+     * @return the value or null
+     */
+    private static String joinHeader(Map<String, List<String>> headers, String name) {
+        List<String> values = headers.get(name);
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        return String.join(",", values);
+    }
+
+
+    /**
+     * Parse a number of seconds
+     *
+     * @param value the value
+     * @param defaultValue the default value
+     * @return the seconds
+     */
+    private static long parseSeconds(String value, long defaultValue) {
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+
+        try {
+            return Math.max(0L, Long.parseLong(value.trim()));
+        } catch (NumberFormatException e) {
+            return defaultValue;
+        }
+    }
+
+
+    /**
+     * Parse a http date
+     *
+     * @param value the value
+     * @param defaultValue the default value in milliseconds
+     * @return the time in milliseconds, an invalid date is in the past
+     */
+    private static long parseDate(String value, long defaultValue) {
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+
+        try {
+            return ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            return 0L;
+        }
+    }
+}
@@ -0,0 +1,680 @@
+/*
+ * ProxyCacheHandler.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.proxy.cache;
+
+import com.github.toolarium.jwebserver.config.IProxyServerConfiguration;
+import com.github.toolarium.jwebserver.config.IWebServerConfiguration;
+import com.github.toolarium.jwebserver.handler.routing.proxy.BalancingProxyClient;
+import com.github.toolarium.jwebserver.handler.routing.proxy.ProxyHost;
+import com.github.toolarium.jwebserver.handler.routing.resource.cache.SingleFlight;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.util.HeaderValues;
+import io.undertow.util.Headers;
+import io.undertow.util.HttpString;
+import io.undertow.util.Methods;
+import io.undertow.util.StatusCodes;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.net.ssl.SSLContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Shared HTTP cache in front of the proxy handler. A cacheable GET request is answered from the cache as long as the
+ * stored response is fresh, otherwise it is fetched or revalidated with a conditional request. A stale response is
+ * served while it is revalidated in the background (stale-while-revalidate) or in case the upstream host fails
+ * (stale-if-error). All other requests are passed to the proxy handler, an unsafe request invalidates the stored
+ * responses of its uri. A request with an Authorization header is not cacheable, except the credentials were consumed
+ * by the basic authentication of this server: they don't make the response private and are still passed to the upstream host.
+ *
+ * @author patrick
+ */
+public class ProxyCacheHandler implements HttpHandler, Closeable {
+    /** The cache status header */
+    public static final HttpString X_CACHE = new HttpString("X-Cache");
+    /** A fresh response from the cache */
+    public static final String HIT = "HIT";
+    /** A response from the upstream host */
+    public static final String MISS = "MISS";
+    /** A stored response which was revalidated by the upstream host */
+    public static final String REVALIDATED = "REVALIDATED";
+    /** A stale response from the cache */
+    public static final String STALE = "STALE";
+    private static final Logger LOG = LoggerFactory.getLogger(ProxyCacheHandler.class);
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("age", "connection", "content-length", "keep-alive", "proxy-connection", "te", "trailer",
+            "transfer-encoding", "upgrade", "x-cache");
+    private static final int BUFFER_SIZE = 8192;
+    private final HttpHandler next;
+    private final ProxyCache cache;
+    private final ProxyCacheClient client;
+    private final boolean reuseXForwarded;
+    private final boolean ignoreAuthorization;
+    private final long collapseTimeout;
+    private final SingleFlight<UpstreamResponse> collapsedRequests;
+    private final Set<String> revalidations;
+    private final ExecutorService revalidationExecutor;
+
+
+    /**
+     * Constructor for ProxyCacheHandler
+     *
+     * @param next the proxy handler
+     * @param cache the cache
+     * @param client the client of the upstream hosts
+     * @param reuseXForwarded true to append the client address to an existing X-Forwarded-For header
+     * @param ignoreAuthorization true to cache the requests with an Authorization header, e.g. in case it was consumed by the basic authentication of this server
+     * @param collapseTimeout the time in milliseconds a request waits for the response of a concurrent identical request, 0 to disable the collapsing
+     */
+    public ProxyCacheHandler(final HttpHandler next, final ProxyCache cache, final ProxyCacheClient client, final boolean reuseXForwarded, final boolean ignoreAuthorization, final long collapseTimeout) {
+        this.next = next;
+        this.cache = cache;
+        this.client = client;
+        this.reuseXForwarded = reuseXForwarded;
+        this.ignoreAuthorization = ignoreAuthorization;
+        this.collapseTimeout = collapseTimeout;
+        this.collapsedRequests = new SingleFlight<>();
+        this.revalidations = ConcurrentHashMap.newKeySet();
+        this.revalidationExecutor = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "jwebserver-proxy-revalidation");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+
+    /**
+     * Get the cache
+     *
+     * @return the cache
+     */
+    public ProxyCache getCache() {
+        return cache;
+    }
+
+
+    /**
+     * Stop the background revalidations and close the cache
+     *
+     * @see java.io.Closeable#close()
+     */
+    @Override
+    public void close() {
+        revalidationExecutor.shutdownNow();
+        cache.close();
+    }
+
+
+    /**
+     * @see io.undertow.server.HttpHandler#handleRequest(io.undertow.server.HttpServerExchange)
+     */
+    @Override
+    public void handleRequest(HttpServerExchange exchange) throws Exception {
+        final HttpString method = exchange.getRequestMethod();
+        if (!Methods.GET.equals(method) && !Methods.HEAD.equals(method)) {
+            if (!Methods.OPTIONS.equals(method)) {
+                cache.invalidate(getRequestUri(exchange));
+            }
+            next.handleRequest(exchange);
+            return;
+        }
+
+        if (!isCacheable(exchange)) {
+            next.handleRequest(exchange);
+            return;
+        }
+
+        if (exchange.isInIoThread()) {
+            // the upstream request is sent blocking
+            exchange.dispatch(this);
+            return;
+        }
+
+        final long now = System.currentTimeMillis();
+        final String key = getRequestUri(exchange);
+        final Map<String, List<String>> requestHeaders = getRequestHeaders(exchange);
+        final ProxyCacheEntry entry = cache.get(key, requestHeaders);
+        if (entry != null && !isNoCache(requestHeaders)) {
+            if (entry.isFresh(now)) {
+                send(exchange, entry, now, HIT);
+                return;
+            }
+
+            if (entry.isStaleWhileRevalidate(now)) {
+                send(exchange, entry, now, STALE);
+                revalidate(key, requestHeaders, getForwardHeaders(exchange, requestHeaders), entry);
+                return;
+            }
+        }
+
+        if (Methods.HEAD.equals(method)) {
+            next.handleRequest(exchange);
+            return;
+        }
+
+        fetch(exchange, key, requestHeaders, entry);
+    }
+
+
+    /**
+     * Add the proxy cache handler
+     *
+     * @param webServerConfiguration the web server configuration
+     * @param proxyClient the balancing proxy client
+     * @param proxyHandler the proxy handler
+     * @return the handler
+     */
+    public static HttpHandler addHandler(final IWebServerConfiguration webServerConfiguration, final BalancingProxyClient proxyClient, final HttpHandler proxyHandler) {
+        final IProxyServerConfiguration configuration = webServerConfiguration.getProxyServerConfiguration();
+        if (configuration.getCacheSize() <= 0) {
+            return proxyHandler;
+        }
+
+        ProxyCache cache;
+        try {
+            Path directory = null;
+            if (configuration.getCacheDirectory() != null) {
+                directory = Paths.get(configuration.getCacheDirectory());
+            }
+            cache = new ProxyCache(configuration.getCacheSize(), configuration.getCacheMaxEntrySize(), directory, configuration.getCacheDiskSize() * 1024L * 1024L);
+        } catch (IOException e) {
+            LOG.warn("Could not prepare the disk tier of the proxy cache in [" + configuration.getCacheDirectory() + "], use only the memory tier: " + e.getMessage());
+            try {
+                cache = new ProxyCache(configuration.getCacheSize(), configuration.getCacheMaxEntrySize(), null, 0);
+            } catch (IOException ex) {
+                return proxyHandler;
+            }
+        }
+
+        SSLContext sslContext = null;
+        for (ProxyHost host : proxyClient.getHosts()) {
+            if (sslContext == null && host.getUri().getScheme() != null && host.getUri().getScheme().endsWith("s")) {
+                try {
+                    sslContext = webServerConfiguration.getSSLServerConfiguration().getSSLContext();
+                } catch (Exception e) {
+                    LOG.warn("Could not initialize the SSL contect: " + e.getMessage(), e);
+                }
+            }
+        }
+
+        ProxyCacheClient client = new ProxyCacheClient(proxyClient, configuration.getMaxRequestTime(), sslContext);
+        return new ProxyCacheHandler(proxyHandler, cache, client, configuration.reuseXForwarded(), webServerConfiguration.hasBasicAuthentication(), configuration.getCollapseTimeout());
+    }
+
+
+    /**
+     * Fetch a response from the upstream host, it is stored in case it is cacheable. Concurrent identical requests are
+     * collapsed: the first one is sent to the upstream host and its response is fanned out to the others, which wait
+     * at most the collapse timeout before they send their own request.
+     *
+     * @param exchange the exchange
+     * @param key the key of the request
+     * @param requestHeaders the request headers
+     * @param entry the stored entry or null
+     * @throws IOException In case of an I/O error
+     */
+    protected void fetch(HttpServerExchange exchange, String key, Map<String, List<String>> requestHeaders, ProxyCacheEntry entry) throws IOException {
+        final AtomicBoolean loaded = new AtomicBoolean();
+        UpstreamResponse response = null;
+        try {
+            if (collapseTimeout > 0) {
+                response = collapsedRequests.load(cache.getKey(key, requestHeaders), collapseTimeout, () -> {
+                    loaded.set(true);
+                    return load(exchange, key, requestHeaders, entry);
+                });
+
+                if (response != null && !loaded.get() && !cache.matches(key, response.getEntry(), requestHeaders)) {
+                    // the collapsed request got another variant of the response
+                    response = null;
+                }
+            }
+
+            if (response == null && !loaded.get()) {
+                response = load(exchange, key, requestHeaders, entry);
+            }
+        } catch (IOException e) {
+            if (exchange.isResponseStarted()) {
+                throw e;
+            }
+
+            final long now = System.currentTimeMillis();
+            if (entry != null && entry.isStaleIfError(now)) {
+                LOG.debug("Serve stale response of [" + key + "], the upstream request failed: " + e.getMessage());
+                send(exchange, entry, now, STALE);
+                return;
+            }
+
+            LOG.debug("Upstream request of [" + key + "] failed: " + e.getMessage(), e);
+            exchange.setStatusCode(StatusCodes.SERVICE_UNAVAILABLE);
+            exchange.endExchange();
+            return;
+        }
+
+        if (response != null) {
+            send(exchange, response.getEntry(), System.currentTimeMillis(), response.getCacheStatus());
+        }
+    }
+
+
+    /**
+     * Send a request to the upstream host. A response which can't be shared with other requests is streamed to the
+     * exchange directly.
+     *
+     * @param exchange the exchange
+     * @param key the key of the request
+     * @param requestHeaders the request headers
+     * @param entry the stored entry or null
+     * @return the response to send or null in case it was streamed already
+     * @throws IOException In case the upstream host can't be reached
+     */
+    protected UpstreamResponse load(HttpServerExchange exchange, String key, Map<String, List<String>> requestHeaders, ProxyCacheEntry entry) throws IOException {
+        final long requestTime = System.currentTimeMillis();
+        HttpResponse<InputStream> response = client.send(exchange, key, getForwardHeaders(exchange, requestHeaders), validatorOf(entry));
+        final long responseTime = System.currentTimeMillis();
+        try (InputStream body = response.body()) {
+            final int statusCode = response.statusCode();
+            final Map<String, List<String>> responseHeaders = response.headers().map();
+            if (statusCode == StatusCodes.NOT_MODIFIED && entry != null) {
+                return new UpstreamResponse(store(key, entry.revalidate(responseHeaders, requestTime, responseTime)), REVALIDATED);
+            }
+
+            if (statusCode >= StatusCodes.INTERNAL_SERVER_ERROR && entry != null && entry.isStaleIfError(responseTime)) {
+                LOG.debug("Serve stale response of [" + key + "], the upstream host answered " + statusCode + ".");
+                return new UpstreamResponse(entry, STALE);
+            }
+
+            if (!ProxyCacheEntry.isStorable(statusCode, responseHeaders)) {
+                stream(exchange, statusCode, responseHeaders, new byte[0], body);
+                return null;
+            }
+
+            byte[] data = read(body, cache.getMaxEntrySize() + 1);
+            if (data.length > cache.getMaxEntrySize()) {
+                stream(exchange, statusCode, responseHeaders, data, body);
+                return null;
+            }
+
+            return new UpstreamResponse(store(key, cache.createEntry(key, requestHeaders, statusCode, responseHeaders, data, requestTime, responseTime)), MISS);
+        }
+    }
+
+
+    /**
+     * Revalidate a stale entry in the background, a revalidation of the same request is not started twice
+     *
+     * @param key the key of the request
+     * @param requestHeaders the request headers
+     * @param forwardHeaders the headers to forward
+     * @param entry the stale entry
+     */
+    protected void revalidate(String key, Map<String, List<String>> requestHeaders, Map<String, List<String>> forwardHeaders, ProxyCacheEntry entry) {
+        if (!revalidations.add(entry.getKey())) {
+            return;
+        }
+
+        revalidationExecutor.execute(() -> {
+            try {
+                final long requestTime = System.currentTimeMillis();
+                HttpResponse<InputStream> response = client.send(null, key, forwardHeaders, validatorOf(entry));
+                final long responseTime = System.currentTimeMillis();
+                try (InputStream body = response.body()) {
+                    final int statusCode = response.statusCode();
+                    final Map<String, List<String>> responseHeaders = response.headers().map();
+                    if (statusCode == StatusCodes.NOT_MODIFIED) {
+                        store(key, entry.revalidate(responseHeaders, requestTime, responseTime));
+                    } else if (ProxyCacheEntry.isStorable(statusCode, responseHeaders)) {
+                        byte[] data = read(body, cache.getMaxEntrySize() + 1);
+                        if (data.length <= cache.getMaxEntrySize()) {
+                            store(key, cache.createEntry(key, requestHeaders, statusCode, responseHeaders, data, requestTime, responseTime));
+                        }
+                    } else if (statusCode < StatusCodes.INTERNAL_SERVER_ERROR) {
+                        cache.invalidate(key);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                LOG.debug("Could not revalidate [" + key + "]: " + e.getMessage(), e);
+            } finally {
+                revalidations.remove(entry.getKey());
+            }
+        });
+    }
+
+
+    /**
+     * Send a stored response
+     *
+     * @param exchange the exchange
+     * @param entry the entry
+     * @param now the current time in milliseconds
+     * @param cacheStatus the cache status
+     */
+    protected void send(HttpServerExchange exchange, ProxyCacheEntry entry, long now, String cacheStatus) {
+        boolean notModified = isNotModified(exchange, entry);
+        if (notModified) {
+            exchange.setStatusCode(StatusCodes.NOT_MODIFIED);
+        } else {
+            exchange.setStatusCode(entry.getStatusCode());
+        }
+
+        copyResponseHeaders(exchange, entry.getHeaders());
+        exchange.getResponseHeaders().put(Headers.AGE, Long.toString(entry.getAge(now) / 1000L));
+        exchange.getResponseHeaders().put(X_CACHE, cacheStatus);
+
+        if (notModified) {
+            exchange.endExchange();
+            return;
+        }
+
+        exchange.setResponseContentLength(entry.getBody().remaining());
+        if (Methods.HEAD.equals(exchange.getRequestMethod())) {
+            exchange.endExchange();
+            return;
+        }
+
+        exchange.getResponseSender().send(entry.getBody());
+    }
+
+
+    /**
+     * Stream an upstream response which is not stored
+     *
+     * @param exchange the exchange
+     * @param statusCode the status code
+     * @param responseHeaders the response headers
+     * @param data the data which was already read
+     * @param body the rest of the body
+     * @throws IOException In case of an I/O error
+     */
+    protected void stream(HttpServerExchange exchange, int statusCode, Map<String, List<String>> responseHeaders, byte[] data, InputStream body) throws IOException {
+        exchange.setStatusCode(statusCode);
+        copyResponseHeaders(exchange, responseHeaders);
+        exchange.getResponseHeaders().put(X_CACHE, MISS);
+        List<String> contentLength = responseHeaders.get("content-length");
+        if (contentLength != null && !contentLength.isEmpty()) {
+            exchange.getResponseHeaders().put(Headers.CONTENT_LENGTH, contentLength.get(0));
+        }
+
+        exchange.startBlocking();
+        try (OutputStream out = exchange.getOutputStream()) {
+            out.write(data);
+            body.transferTo(out);
+        }
+    }
+
+
+    /**
+     * Store an entry in the cache
+     *
+     * @param key the key of the request
+     * @param entry the entry
+     * @return the stored entry or the entry itself in case it could not be stored
+     */
+    protected ProxyCacheEntry store(String key, ProxyCacheEntry entry) {
+        ProxyCacheEntry storedEntry = cache.put(key, entry);
+        if (storedEntry == null) {
+            return entry;
+        }
+        return storedEntry;
+    }
+
+
+    /**
+     * Check if a request can be answered by the cache
+     *
+     * @param exchange the exchange
+     * @return true if it is cacheable
+     */
+    protected boolean isCacheable(HttpServerExchange exchange) {
+        if ((!ignoreAuthorization && exchange.getRequestHeaders().contains(Headers.AUTHORIZATION)) || exchange.getRequestHeaders().contains(Headers.RANGE)
+                || exchange.getRequestHeaders().contains(Headers.UPGRADE)) {
+            return false;
+        }
+
+        HeaderValues cacheControl = exchange.getRequestHeaders().get(Headers.CACHE_CONTROL);
+        return cacheControl == null || !ProxyCacheEntry.parseCacheControl(String.join(",", cacheControl)).containsKey("no-store");
+    }
+
+
+    /**
+     * Check if the client requests a revalidation
+     *
+     * @param requestHeaders the request headers
+     * @return true if the stored response must not be served without a revalidation
+     */
+    protected boolean isNoCache(Map<String, List<String>> requestHeaders) {
+        List<String> values = requestHeaders.get(ProxyCacheEntry.CACHE_CONTROL);
+        if (values != null) {
+            Map<String, String> cacheControl = ProxyCacheEntry.parseCacheControl(String.join(",", values));
+            if (cacheControl.containsKey("no-cache") || "0".equals(cacheControl.get("max-age"))) {
+                return true;
+            }
+        }
+
+        List<String> pragma = requestHeaders.get("pragma");
+        return values == null && pragma != null && String.join(",", pragma).toLowerCase(Locale.ROOT).contains("no-cache");
+    }
+
+
+    /**
+     * Check if the client has the stored response already
+     *
+     * @param exchange the exchange
+     * @param entry the entry
+     * @return true if it is not modified
+     */
+    protected boolean isNotModified(HttpServerExchange exchange, ProxyCacheEntry entry) {
+        if (entry.getStatusCode() != StatusCodes.OK) {
+            return false;
+        }
+
+        HeaderValues ifNoneMatch = exchange.getRequestHeaders().get(Headers.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            if (entry.getETag() == null) {
+                return false;
+            }
+
+            final String etag = weak(entry.getETag());
+            for (String value : ifNoneMatch) {
+                for (String tag : value.split(",")) {
+                    if ("*".equals(tag.trim()) || etag.equals(weak(tag.trim()))) {
+                        return true;
+                    }
+                }
+            }
+            return false;
+        }
+
+        String ifModifiedSince = exchange.getRequestHeaders().getFirst(Headers.IF_MODIFIED_SINCE);
+        return ifModifiedSince != null && ifModifiedSince.equals(entry.getLastModified());
+    }
+
+
+    /**
+     * Get the request uri with the query string, it is the key of the request
+     *
+     * @param exchange the exchange
+     * @return the request uri
+     */
+    protected String getRequestUri(HttpServerExchange exchange) {
+        String queryString = exchange.getQueryString();
+        if (queryString == null || queryString.isEmpty()) {
+            return exchange.getRequestURI();
+        }
+        return exchange.getRequestURI() + "?" + queryString;
+    }
+
+
+    /**
+     * Copy the request headers
+     *
+     * @param exchange the exchange
+     * @return the request headers with case insensitive names
+     */
+    protected Map<String, List<String>> getRequestHeaders(HttpServerExchange exchange) {
+        Map<String, List<String>> result = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (HeaderValues values : exchange.getRequestHeaders()) {
+            result.put(values.getHeaderName().toString().toLowerCase(Locale.ROOT), new ArrayList<>(values));
+        }
+        return result;
+    }
+
+
+    /**
+     * Get the headers to forward to the upstream host: the request headers with the X-Forwarded headers
+     *
+     * @param exchange the exchange
+     * @param requestHeaders the request headers
+     * @return the headers to forward
+     */
+    protected Map<String, List<String>> getForwardHeaders(HttpServerExchange exchange, Map<String, List<String>> requestHeaders) {
+        Map<String, List<String>> result = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        result.putAll(requestHeaders);
+
+        InetSocketAddress sourceAddress = exchange.getSourceAddress();
+        if (sourceAddress != null && sourceAddress.getAddress() != null) {
+            String forwardedFor = sourceAddress.getAddress().getHostAddress();
+            List<String> existing = requestHeaders.get("x-forwarded-for");
+            if (reuseXForwarded && existing != null && !existing.isEmpty()) {
+                forwardedFor = String.join(", ", existing) + ", " + forwardedFor;
+            }
+            result.put("x-forwarded-for", List.of(forwardedFor));
+        }
+
+        if (!reuseXForwarded || !requestHeaders.containsKey("x-forwarded-proto")) {
+            result.put("x-forwarded-proto", List.of(exchange.getRequestScheme()));
+        }
+
+        List<String> host = requestHeaders.get("host");
+        if (host != null && !host.isEmpty() && (!reuseXForwarded || !requestHeaders.containsKey("x-forwarded-host"))) {
+            result.put("x-forwarded-host", List.of(host.get(0)));
+        }
+        return result;
+    }
+
+
+    /**
+     * Copy response headers to the exchange, the hop-by-hop headers are skipped
+     *
+     * @param exchange the exchange
+     * @param headers the headers
+     */
+    private void copyResponseHeaders(HttpServerExchange exchange, Map<String, List<String>> headers) {
+        for (Map.Entry<String, List<String>> header : headers.entrySet()) {
+            final String name = header.getKey().toLowerCase(Locale.ROOT);
+            if (!name.startsWith(":") && !HOP_BY_HOP_HEADERS.contains(name)) {
+                exchange.getResponseHeaders().putAll(new HttpString(header.getKey()), header.getValue());
+            }
+        }
+    }
+
+
+    /**
+     * Get the entry to revalidate
+     *
+     * @param entry the entry or null
+     * @return the entry in case it has a validator, otherwise null
+     */
+    private static ProxyCacheEntry validatorOf(ProxyCacheEntry entry) {
+        if (entry != null && entry.hasValidator()) {
+            return entry;
+        }
+        return null;
+    }
+
+
+    /**
+     * Get the weak representation of an entity tag for the weak comparison
+     *
+     * @param etag the entity tag
+     * @return the entity tag without the weak prefix
+     */
+    private static String weak(String etag) {
+        if (etag.startsWith("W/")) {
+            return etag.substring(2);
+        }
+        return etag;
+    }
+
+
+    /**
+     * Read at most a number of bytes of a stream
+     *
+     * @param in the input stream
+     * @param maxBytes the max number of bytes
+     * @return the read bytes
+     * @throws IOException In case of an I/O error
+     */
+    private static byte[] read(InputStream in, int maxBytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.min(BUFFER_SIZE, maxBytes));
+        byte[] buffer = new byte[BUFFER_SIZE];
+        int remaining = maxBytes;
+        int count;
+        while (remaining > 0 && (count = in.read(buffer, 0, Math.min(buffer.length, remaining))) >= 0) {
+            out.write(buffer, 0, count);
+            remaining -= count;
+        }
+        return out.toByteArray();
+    }
+
+
+    /**
+     * Defines a response of the upstream host which can be shared by collapsed requests
+     */
+    protected static final class UpstreamResponse {
+        private final ProxyCacheEntry entry;
+        private final String cacheStatus;
+
+
+        /**
+         * Constructor for UpstreamResponse
+         *
+         * @param entry the entry
+         * @param cacheStatus the cache status
+         */
+        UpstreamResponse(final ProxyCacheEntry entry, final String cacheStatus) {
+            this.entry = entry;
+            this.cacheStatus = cacheStatus;
+        }
+
+
+        /**
+         * Get the entry
+         *
+         * @return the entry
+         */
+        public ProxyCacheEntry getEntry() {
+            return entry;
+        }
+
+
+        /**
+         * Get the cache status
+         *
+         * @return the cache status
+         */
+        public String getCacheStatus() {
+            return cacheStatus;
+        }
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * ProxyCacheTier.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.proxy.cache;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Tier of the proxy cache with a total byte budget. In case the budget is exceeded the least recently used entries are
+ * evicted. Every removed entry is passed to the removal listener, it is called outside of the eviction lock.
+ *
+ * @author patrick
+ */
+public class ProxyCacheTier {
+    private static final Logger LOG = LoggerFactory.getLogger(ProxyCacheTier.class);
+    private final long maxSize;
+    private final ConcurrentHashMap<String, ProxyCacheEntry> entries;
+    private final AtomicLong currentSize;
+    private final AtomicLong accessTick;
+    private final IRemovalListener removalListener;
+
+
+    /**
+     * Constructor for ProxyCacheTier
+     *
+     * @param maxSize the max size of the tier in bytes
+     * @param removalListener the listener of the removed entries or null
+     */
+    public ProxyCacheTier(final long maxSize, final IRemovalListener removalListener) {
+        this.maxSize = maxSize;
+        this.entries = new ConcurrentHashMap<>();
+        this.currentSize = new AtomicLong(0);
+        this.accessTick = new AtomicLong(0);
+        this.removalListener = removalListener;
+    }
+
+
+    /**
+     * Get the max size of the tier in bytes
+     *
+     * @return the max size
+     */
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+
+    /**
+     * Get the current size of the tier in bytes
+     *
+     * @return the current size
+     */
+    public long getCurrentSize() {
+        return currentSize.get();
+    }
+
+
+    /**
+     * Get the number of entries
+     *
+     * @return the number of entries
+     */
+    public int getEntryCount() {
+        return entries.size();
+    }
+
+
+    /**
+     * Check if the tier contains an entry
+     *
+     * @param key the key
+     * @return true if it contains the entry
+     */
+    public boolean contains(String key) {
+        return entries.containsKey(key);
+    }
+
+
+    /**
+     * Get an entry
+     *
+     * @param key the key
+     * @return the entry or null
+     */
+    public ProxyCacheEntry get(String key) {
+        ProxyCacheEntry entry = entries.get(key);
+        if (entry != null) {
+            entry.touch(accessTick.incrementAndGet());
+        }
+        return entry;
+    }
+
+
+    /**
+     * Put an entry into the tier and evict entries in case the budget is exceeded
+     *
+     * @param entry the entry
+     * @return the stored entry or null in case it could not be stored
+     */
+    public ProxyCacheEntry put(ProxyCacheEntry entry) {
+        if (entry == null || entry.getSize() > maxSize) {
+            return null;
+        }
+
+        ProxyCacheEntry storedEntry = store(entry);
+        if (storedEntry == null) {
+            return null;
+        }
+
+        storedEntry.touch(accessTick.incrementAndGet());
+        ProxyCacheEntry previous = entries.put(storedEntry.getKey(), storedEntry);
+        currentSize.addAndGet(storedEntry.getSize());
+        if (previous != null) {
+            currentSize.addAndGet(-previous.getSize());
+            removed(previous);
+            notifyRemoval(previous, false);
+        }
+
+        if (currentSize.get() > maxSize) {
+            evict();
+        }
+        return storedEntry;
+    }
+
+
+    /**
+     * Remove an entry
+     *
+     * @param key the key
+     */
+    public void remove(String key) {
+        ProxyCacheEntry entry = entries.get(key);
+        if (entry != null && remove(entry)) {
+            notifyRemoval(entry, false);
+        }
+    }
+
+
+    /**
+     * Remove all entries
+     */
+    public void clear() {
+        for (ProxyCacheEntry entry : new ArrayList<>(entries.values())) {
+            if (remove(entry)) {
+                notifyRemoval(entry, false);
+            }
+        }
+    }
+
+
+    /**
+     * Store an entry, e.g. write its body to a file
+     *
+     * @param entry the entry
+     * @return the entry to keep or null in case it could not be stored
+     */
+    protected ProxyCacheEntry store(ProxyCacheEntry entry) {
+        return entry;
+    }
+
+
+    /**
+     * Called after an entry was removed from the tier
+     *
+     * @param entry the removed entry
+     */
+    protected void removed(ProxyCacheEntry entry) {
+        // NOP
+    }
+
+
+    /**
+     * Remove an entry
+     *
+     * @param entry the entry to remove
+     * @return true if it was removed
+     */
+    private boolean remove(ProxyCacheEntry entry) {
+        if (entries.remove(entry.getKey(), entry)) {
+            currentSize.addAndGet(-entry.getSize());
+            removed(entry);
+            return true;
+        }
+        return false;
+    }
+
+
+    /**
+     * Evict the least recently used entries until the tier fits into the budget again, the removal listener is called
+     * after the eviction
+     */
+    private void evict() {
+        List<ProxyCacheEntry> evicted = new ArrayList<>();
+        synchronized (this) {
+            if (currentSize.get() <= maxSize) {
+                return;
+            }
+
+            // snapshot the access ticks, they may change while sorting
+            List<Map.Entry<Long, ProxyCacheEntry>> candidates = new ArrayList<>(entries.size());
+            for (ProxyCacheEntry entry : entries.values()) {
+                candidates.add(new AbstractMap.SimpleImmutableEntry<>(entry.getLastAccess(), entry));
+            }
+            candidates.sort(Map.Entry.comparingByKey());
+
+            for (Map.Entry<Long, ProxyCacheEntry> candidate : candidates) {
+                if (currentSize.get() <= maxSize) {
+                    break;
+                }
+
+                ProxyCacheEntry entry = candidate.getValue();
+                if (remove(entry)) {
+                    if (LOG.isDebugEnabled()) {
+                        LOG.debug("Evict proxy response [" + entry.getKey() + "].");
+                    }
+                    evicted.add(entry);
+                }
+            }
+        }
+
+        for (ProxyCacheEntry entry : evicted) {
+            notifyRemoval(entry, true);
+        }
+    }
+
+
+    /**
+     * Notify the removal listener
+     *
+     * @param entry the removed entry
+     * @param evicted true if the entry was evicted
+     */
+    private void notifyRemoval(ProxyCacheEntry entry, boolean evicted) {
+        if (removalListener != null) {
+            removalListener.onRemoval(entry, evicted);
+        }
+    }
+
+
+    /**
+     * Defines the listener of the entries which were removed from a tier
+     */
+    @FunctionalInterface
+    public interface IRemovalListener {
+        /**
+         * Called after an entry was removed
+         *
+         * @param entry the removed entry
+         * @param evicted true if it was evicted to fit into the budget, false if it was removed or replaced
+         */
+        void onRemoval(ProxyCacheEntry entry, boolean evicted);
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * ProxyDiskCacheTier.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.proxy.cache;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Disk tier of the proxy cache. The body of an entry is written to a file in the subdirectory {@value #SUBDIRECTORY}
+ * of the cache directory and served memory mapped, the headers are kept in memory. The files of a former run are
+ * removed from the subdirectory on startup, the other files of the cache directory are not touched.
+ *
+ * @author patrick
+ */
+public class ProxyDiskCacheTier extends ProxyCacheTier {
+    /** The subdirectory of the cache directory which contains the files of the tier */
+    public static final String SUBDIRECTORY = "jwebserver-proxy-cache";
+    private static final Logger LOG = LoggerFactory.getLogger(ProxyDiskCacheTier.class);
+    private static final String FILE_EXTENSION = ".cache";
+    private final Path directory;
+    private final AtomicLong fileCounter;
+
+
+    /**
+     * Constructor for ProxyDiskCacheTier
+     *
+     * @param directory the cache directory
+     * @param maxSize the max size of the tier in bytes
+     * @param removalListener the listener of the removed entries or null
+     * @throws IOException In case the directory can't be prepared
+     */
+    public ProxyDiskCacheTier(final Path directory, final long maxSize, final IRemovalListener removalListener) throws IOException {
+        super(maxSize, removalListener);
+        this.directory = Files.createDirectories(directory.resolve(SUBDIRECTORY));
+        this.fileCounter = new AtomicLong();
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(this.directory, "*" + FILE_EXTENSION)) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+
+    /**
+     * Get the directory of the files of the tier
+     *
+     * @return the directory
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.proxy.cache.ProxyCacheTier#store(com.github.toolarium.jwebserver.handler.routing.proxy.cache.ProxyCacheEntry)
+     */
+    @Override
+    protected ProxyCacheEntry store(ProxyCacheEntry entry) {
+        Path file = directory.resolve(Long.toHexString(fileCounter.incrementAndGet()) + FILE_EXTENSION);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer body = entry.getBody();
+            while (body.hasRemaining()) {
+                channel.write(body);
+            }
+
+            // the mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return entry.withBody(buffer, file);
+        } catch (IOException e) {
+            LOG.debug("Could not write proxy response [" + entry.getKey() + "] to [" + file + "]: " + e.getMessage(), e);
+            delete(file);
+            return null;
+        }
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.proxy.cache.ProxyCacheTier#removed(com.github.toolarium.jwebserver.handler.routing.proxy.cache.ProxyCacheEntry)
+     */
+    @Override
+    protected void removed(ProxyCacheEntry entry) {
+        if (entry.getFile() != null) {
+            delete(entry.getFile());
+        }
+    }
+
+
+    /**
+     * Delete a file, a mapping which is still in use keeps its content
+     *
+     * @param file the file
+     */
+    private void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            LOG.debug("Could not delete [" + file + "]: " + e.getMessage(), e);
+        }
+    }
+}
@@ -7,8 +7,14 @@ package com.github.toolarium.jwebserver.handler.routing.resource;
 
 import com.github.toolarium.jwebserver.config.IResourceServerConfiguration;
 import com.github.toolarium.jwebserver.config.IWebServerConfiguration;
+import com.github.toolarium.jwebserver.handler.routing.resource.cache.ResourceLookup;
+import com.github.toolarium.jwebserver.handler.routing.resource.cache.ResourceLookupCache;
+import com.github.toolarium.jwebserver.handler.routing.resource.index.IResourceIndex;
+import com.github.toolarium.jwebserver.handler.routing.resource.index.IndexedResource;
+import com.github.toolarium.jwebserver.handler.routing.resource.index.ResourceIndexEntry;
 import com.github.toolarium.jwebserver.util.ResourceUtil;
 import io.undertow.server.handlers.resource.Resource;
+import io.undertow.server.handlers.resource.URLResource;
 import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
@@ -26,6 +32,9 @@ public class ClassPathResourceManager extends io.undertow.server.handlers.resour
     private static final Logger LOG = LoggerFactory.getLogger(ClassPathResourceManager.class);
     private final IResourceServerConfiguration configuration;
     private List<String> welcomeFiles;
+    private int maxWelcomeFileLength;
+    private ResourceLookupCache lookupCache;
+    private IResourceIndex resourceIndex;
 
 
     /**
@@ -39,6 +48,9 @@ public class ClassPathResourceManager extends io.undertow.server.handlers.resour
         super(classLoader, prefix);
         this.configuration = webServerConfiguration.getResourceServerConfiguration();
         this.welcomeFiles = Collections.emptyList();
+        this.maxWelcomeFileLength = 0;
+        this.lookupCache = null;
+        this.resourceIndex = null;
     }
     
     
@@ -50,15 +62,96 @@ public class ClassPathResourceManager extends io.undertow.server.handlers.resour
     public void setWelcomeFiles(String[] welcomeFiles) {
         if (welcomeFiles != null) {
             this.welcomeFiles = Arrays.asList(welcomeFiles);
+            this.maxWelcomeFileLength = 0;
+            for (String welcomeFile : welcomeFiles) {
+                this.maxWelcomeFileLength = Math.max(maxWelcomeFileLength, welcomeFile.length());
+            }
         }
     }
 
+
+    /**
+     * Set the lookup cache which keeps the missing and resolved resources
+     *
+     * @param lookupCache the lookup cache or null to disable it
+     */
+    public void setLookupCache(ResourceLookupCache lookupCache) {
+        this.lookupCache = lookupCache;
+    }
+
+
+    /**
+     * Set the resource index. In case it is set the resources are resolved from the index without accessing the class loader.
+     *
+     * @param resourceIndex the resource index or null to disable it
+     */
+    public void setResourceIndex(IResourceIndex resourceIndex) {
+        this.resourceIndex = resourceIndex;
+    }
+
     
     /**
      * @see io.undertow.server.handlers.resource.ClassPathResourceManager#getResource(java.lang.String)
      */
     @Override
     public Resource getResource(String path) throws IOException {
+        if (lookupCache == null) {
+            return resolveResource(path);
+        }
+
+        ResourceLookup lookup = lookupCache.get(path);
+        if (lookup != null) {
+            if (!lookup.isFound()) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Resource [" + path + "] not found (cached).");
+                }
+                return null;
+            }
+
+            Resource resource = super.getResource(lookup.getResolvedPath());
+            if (resource != null) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Resource [" + path + "] resolved to [" + lookup.getResolvedPath() + "] (cached).");
+                }
+                return resource;
+            }
+
+            lookupCache.invalidate(path);
+        }
+
+        Resource resource = resolveResource(path);
+        lookupCache.put(path, resource);
+        return resource;
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.ClassPathResourceManager#close()
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (resourceIndex != null) {
+                resourceIndex.close();
+            }
+        } finally {
+            super.close();
+        }
+    }
+
+
+    /**
+     * Resolve the resource, in case it can't be found the supported file extensions and the welcome files of the parents are tested.
+     *
+     * @param path the path
+     * @return the resource or null
+     * @throws IOException In case of an I/O error
+     */
+    protected Resource resolveResource(String path) throws IOException {
+        if (resourceIndex != null) {
+            return resolveResourceFromIndex(path);
+        }
+        
         Resource resource = super.getResource(path);
 
         if (LOG.isDebugEnabled()) {
@@ -85,18 +178,15 @@ public class ClassPathResourceManager extends io.undertow.server.handlers.resour
 
         resource = handleDirectory(path, resource);
         if (configuration.resolveParentResourceIfNotFound()) {
-            if (resource == null || (resource.isDirectory() && !path.endsWith("/"))) {
-                final String directoryPath = ResourceUtil.getInstance().slashify(path);
-                
+            if ((resource == null && configuration.getSpaIndex() == null) || (resource != null && resource.isDirectory() && !path.endsWith("/"))) {
                 if (LOG.isDebugEnabled()) {
                     LOG.debug("Test welcome files: " + welcomeFiles);
                 }
                 
-                Resource indexResource = null;
-                String[] directorySplit = directoryPath.split("/");
-                for (int i = directorySplit.length - 1; i >= 0; i--) {
-                    String parentPath = ResourceUtil.getInstance().prepareString(directorySplit, i);
-                    indexResource = getIndexFiles(parentPath);
+                // walk up the parents on offsets of a single buffer
+                StringBuilder pathBuffer = ResourceUtil.getInstance().createPathBuffer(path, maxWelcomeFileLength);
+                for (int directoryEnd = pathBuffer.length(); directoryEnd >= 0; directoryEnd = ResourceUtil.getInstance().getParentEnd(pathBuffer, directoryEnd)) {
+                    Resource indexResource = getIndexFiles(pathBuffer, directoryEnd);
                     if (indexResource != null) {
                         resource = indexResource;
                         break;
@@ -109,6 +199,55 @@ public class ClassPathResourceManager extends io.undertow.server.handlers.resour
     }
 
 
+    /**
+     * Resolve the resource from the resource index. The directories are known by the index, the zero length heuristic of {@link #handleDirectory(String, Resource)} is not needed.
+     *
+     * @param path the path
+     * @return the resource or null
+     */
+    protected Resource resolveResourceFromIndex(String path) {
+        ResourceIndexEntry entry = resourceIndex.get(path);
+        String resolvedPath = path;
+
+        // in case no resource found, try with supported file extensions
+        if (entry == null && path.indexOf('.') < 0 && configuration.getSupportedFileExtensions() != null && configuration.getSupportedFileExtensions().length > 0) {
+            for (String supportedFileExtension : configuration.getSupportedFileExtensions()) {
+                entry = resourceIndex.get(path + supportedFileExtension);
+                if (entry != null) {
+                    resolvedPath = path + supportedFileExtension;
+                    break;
+                }
+            }
+        }
+
+        if (configuration.resolveParentResourceIfNotFound() && ((entry == null && configuration.getSpaIndex() == null) || (entry != null && entry.isDirectory() && !path.endsWith("/")))) {
+            String directoryPath = path;
+            if (entry != null) {
+                directoryPath = entry.getPath();
+            }
+            
+            ResourceIndexEntry indexEntry = resourceIndex.resolveWelcomeFile(directoryPath);
+            if (indexEntry != null) {
+                entry = indexEntry;
+                resolvedPath = "/" + indexEntry.getPath();
+            }
+        }
+
+        if (entry == null || entry.getUrl() == null) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Resource not found in index [" + path + "].");
+            }
+            return null;
+        }
+
+        Resource resource = new IndexedResource(new URLResource(entry.getUrl(), resolvedPath), entry);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Request resource from index [" + path + "]" + ResourceUtil.getInstance().toString(resource));
+        }
+        return resource;
+    }
+
+
     /**
      * Handle directory resource proper
      *
@@ -154,22 +293,24 @@ public class ClassPathResourceManager extends io.undertow.server.handlers.resour
 
     
     /**
-     * Get the index file
+     * Get the index file of a directory
      *
-     * @param base the base path
+     * @param pathBuffer the path buffer
+     * @param directoryEnd the end of the directory in the path buffer, including its trailing slash
      * @return the resource
      * @throws IOException In case of an I/O error
      */
-    protected Resource getIndexFiles(final String base) throws IOException {
+    protected Resource getIndexFiles(final StringBuilder pathBuffer, final int directoryEnd) throws IOException {
         for (String possibility : welcomeFiles) {
+            String indexPath = ResourceUtil.getInstance().resolve(pathBuffer, directoryEnd, possibility);
             if (LOG.isDebugEnabled()) {
-                LOG.debug("Test resource [" + base + "] [" + ResourceUtil.getInstance().canonicalize(ResourceUtil.getInstance().slashify(base) + possibility) + "]");
+                LOG.debug("Test resource [" + indexPath + "]");
             }
             
-            Resource indexResource = handleDirectory(base, super.getResource(ResourceUtil.getInstance().canonicalize(ResourceUtil.getInstance().slashify(base) + possibility)));
+            Resource indexResource = handleDirectory(indexPath, super.getResource(indexPath));
             if (indexResource != null) {
                 if (LOG.isDebugEnabled()) {
-                    LOG.debug("Request resource [" + base + "]" + ResourceUtil.getInstance().toString(indexResource));
+                    LOG.debug("Request resource [" + indexPath + "]" + ResourceUtil.getInstance().toString(indexResource));
                 }
                 return indexResource;
             }
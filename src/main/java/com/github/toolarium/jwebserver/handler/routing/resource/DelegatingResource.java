@@ -0,0 +1,211 @@
+/*
+ * DelegatingResource.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource;
+
+import io.undertow.io.IoCallback;
+import io.undertow.io.Sender;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.resource.RangeAwareResource;
+import io.undertow.server.handlers.resource.Resource;
+import io.undertow.util.ETag;
+import io.undertow.util.MimeMappings;
+import java.io.File;
+import java.net.URL;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+
+
+/**
+ * Base class of a resource which delegates all calls to an underlying resource.
+ *
+ * @author patrick
+ */
+public class DelegatingResource implements RangeAwareResource {
+    private final Resource delegate;
+
+
+    /**
+     * Constructor for DelegatingResource
+     *
+     * @param delegate the underlying resource
+     */
+    public DelegatingResource(final Resource delegate) {
+        this.delegate = delegate;
+    }
+
+
+    /**
+     * Get the underlying resource
+     *
+     * @return the underlying resource
+     */
+    public Resource getDelegate() {
+        return delegate;
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.Resource#getPath()
+     */
+    @Override
+    public String getPath() {
+        return delegate.getPath();
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.Resource#getLastModified()
+     */
+    @Override
+    public Date getLastModified() {
+        return delegate.getLastModified();
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.Resource#getLastModifiedString()
+     */
+    @Override
+    public String getLastModifiedString() {
+        return delegate.getLastModifiedString();
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.Resource#getETag()
+     */
+    @Override
+    public ETag getETag() {
+        return delegate.getETag();
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.Resource#getName()
+     */
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.Resource#isDirectory()
+     */
+    @Override
+    public boolean isDirectory() {
+        return delegate.isDirectory();
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.Resource#list()
+     */
+    @Override
+    public List<Resource> list() {
+        return delegate.list();
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.Resource#getContentType(io.undertow.util.MimeMappings)
+     */
+    @Override
+    public String getContentType(MimeMappings mimeMappings) {
+        return delegate.getContentType(mimeMappings);
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.Resource#serve(io.undertow.io.Sender, io.undertow.server.HttpServerExchange, io.undertow.io.IoCallback)
+     */
+    @Override
+    public void serve(Sender sender, HttpServerExchange exchange, IoCallback completionCallback) {
+        delegate.serve(sender, exchange, completionCallback);
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.Resource#getContentLength()
+     */
+    @Override
+    public Long getContentLength() {
+        return delegate.getContentLength();
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.Resource#getCacheKey()
+     */
+    @Override
+    public String getCacheKey() {
+        return delegate.getCacheKey();
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.Resource#getFile()
+     */
+    @Override
+    public File getFile() {
+        return delegate.getFile();
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.Resource#getFilePath()
+     */
+    @Override
+    public Path getFilePath() {
+        return delegate.getFilePath();
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.Resource#getResourceManagerRoot()
+     */
+    @Override
+    public File getResourceManagerRoot() {
+        return delegate.getResourceManagerRoot();
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.Resource#getResourceManagerRootPath()
+     */
+    @Override
+    public Path getResourceManagerRootPath() {
+        return delegate.getResourceManagerRootPath();
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.Resource#getUrl()
+     */
+    @Override
+    public URL getUrl() {
+        return delegate.getUrl();
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.RangeAwareResource#serveRange(io.undertow.io.Sender, io.undertow.server.HttpServerExchange, long, long, io.undertow.io.IoCallback)
+     */
+    @Override
+    public void serveRange(Sender sender, HttpServerExchange exchange, long start, long end, IoCallback completionCallback) {
+        ((RangeAwareResource) delegate).serveRange(sender, exchange, start, end, completionCallback);
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.RangeAwareResource#isRangeSupported()
+     */
+    @Override
+    public boolean isRangeSupported() {
+        return delegate instanceof RangeAwareResource && ((RangeAwareResource) delegate).isRangeSupported();
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * OverlayResourceManager.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource;
+
+import com.github.toolarium.jwebserver.config.IResourceServerConfiguration;
+import com.github.toolarium.jwebserver.config.IWebServerConfiguration;
+import com.github.toolarium.jwebserver.handler.routing.resource.index.ClassPathResourceIndex;
+import com.github.toolarium.jwebserver.handler.routing.resource.index.FileResourceIndex;
+import com.github.toolarium.jwebserver.handler.routing.resource.index.IResourceIndex;
+import com.github.toolarium.jwebserver.handler.routing.resource.index.OverlayResourceIndex;
+import com.github.toolarium.jwebserver.handler.routing.resource.index.OverlayResourceIndexEntry;
+import com.github.toolarium.jwebserver.handler.routing.resource.index.ResourceIndexEntry;
+import com.github.toolarium.jwebserver.util.ResourceUtil;
+import io.undertow.server.handlers.resource.Resource;
+import io.undertow.server.handlers.resource.ResourceChangeListener;
+import io.undertow.server.handlers.resource.ResourceManager;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Serves one url space from ordered resource layers, e.g. an override directory, the content directory and a fallback 
+ * classpath bundle. The paths are resolved by the merged {@link OverlayResourceIndex}: a lookup is one hash probe
+ * which selects the layer, a missing resource is answered without accessing any layer.
+ *
+ * @author patrick
+ */
+public class OverlayResourceManager implements ResourceManager {
+    /** The prefix of a classpath layer */
+    public static final String CLASSPATH_PREFIX = "classpath:";
+    private static final Logger LOG = LoggerFactory.getLogger(OverlayResourceManager.class);
+    private static final String SLASH = "/";
+    private final IResourceServerConfiguration configuration;
+    private final List<ResourceManager> layers;
+    private final OverlayResourceIndex resourceIndex;
+
+
+    /**
+     * Constructor for OverlayResourceManager
+     *
+     * @param webServerConfiguration the web server configuration
+     * @param layers the resource managers of the layers in the order of precedence
+     * @param resourceIndex the merged index of the layers
+     */
+    public OverlayResourceManager(final IWebServerConfiguration webServerConfiguration, final List<ResourceManager> layers, final OverlayResourceIndex resourceIndex) {
+        this.configuration = webServerConfiguration.getResourceServerConfiguration();
+        this.layers = layers;
+        this.resourceIndex = resourceIndex;
+    }
+
+
+    /**
+     * Create the overlay resource manager of the configured resource layers
+     *
+     * @param webServerConfiguration the web server configuration
+     * @param classLoader the class loader of the classpath layers
+     * @return the overlay resource manager
+     * @throws IOException In case a layer can't be indexed
+     */
+    public static OverlayResourceManager createOverlayResourceManager(final IWebServerConfiguration webServerConfiguration, final ClassLoader classLoader) throws IOException {
+        IResourceServerConfiguration configuration = webServerConfiguration.getResourceServerConfiguration();
+        List<ResourceManager> layers = new ArrayList<>();
+        List<IResourceIndex> indexes = new ArrayList<>();
+        try {
+            for (String layer : configuration.getResourceLayers()) {
+                if (layer.startsWith(CLASSPATH_PREFIX)) {
+                    String prefix = layer.substring(CLASSPATH_PREFIX.length()).trim();
+                    ClassPathResourceIndex index = new ClassPathResourceIndex(classLoader, prefix, null);
+                    indexes.add(index);
+                    index.build();
+                    layers.add(new io.undertow.server.handlers.resource.ClassPathResourceManager(classLoader, prefix));
+                } else {
+                    io.undertow.server.handlers.resource.PathResourceManager pathResourceManager = new io.undertow.server.handlers.resource.PathResourceManager(Paths.get(layer), configuration.getTransferMinSize());
+                    FileResourceIndex index = new FileResourceIndex(pathResourceManager.getBasePath(), null);
+                    indexes.add(index);
+                    index.start();
+                    layers.add(pathResourceManager);
+                }
+            }
+        } catch (IOException e) {
+            for (IResourceIndex index : indexes) {
+                index.close();
+            }
+            throw e;
+        }
+
+        List<String> welcomeFiles = null;
+        if (configuration.getWelcomeFiles() != null) {
+            welcomeFiles = Arrays.asList(configuration.getWelcomeFiles());
+        }
+
+        OverlayResourceIndex resourceIndex = new OverlayResourceIndex(indexes, welcomeFiles);
+        resourceIndex.build();
+        return new OverlayResourceManager(webServerConfiguration, layers, resourceIndex);
+    }
+
+
+    /**
+     * Get the merged index
+     *
+     * @return the merged index
+     */
+    public OverlayResourceIndex getResourceIndex() {
+        return resourceIndex;
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.ResourceManager#getResource(java.lang.String)
+     */
+    @Override
+    public Resource getResource(String path) throws IOException {
+        ResourceIndexEntry entry = resourceIndex.get(path);
+
+        // in case no resource found, try with supported file extensions
+        if (entry == null && path.indexOf('.') < 0 && configuration.getSupportedFileExtensions() != null && configuration.getSupportedFileExtensions().length > 0) {
+            for (String supportedFileExtension : configuration.getSupportedFileExtensions()) {
+                entry = resourceIndex.get(path + supportedFileExtension);
+                if (entry != null) {
+                    break;
+                }
+            }
+        }
+
+        if (entry == null) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Resource not found in overlay [" + path + "].");
+            }
+            return null;
+        }
+
+        if (configuration.resolveParentResourceIfNotFound() && entry.isDirectory() && !path.endsWith(SLASH)) {
+            ResourceIndexEntry indexEntry = resourceIndex.resolveWelcomeFile(entry.getPath());
+            if (indexEntry != null) {
+                entry = indexEntry;
+            }
+        }
+
+        String resolvedPath = entry.getPath();
+        if (entry.isDirectory() && !resolvedPath.isEmpty()) {
+            // the layer must not resolve a welcome file on its own
+            resolvedPath += SLASH;
+        }
+
+        Resource resource = layers.get(((OverlayResourceIndexEntry) entry).getLayer()).getResource(resolvedPath);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Request resource from layer " + ((OverlayResourceIndexEntry) entry).getLayer() + " [" + path + "]" + ResourceUtil.getInstance().toString(resource));
+        }
+        return resource;
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.ResourceManager#isResourceChangeListenerSupported()
+     */
+    @Override
+    public boolean isResourceChangeListenerSupported() {
+        for (ResourceManager layer : layers) {
+            if (layer.isResourceChangeListenerSupported()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.ResourceManager#registerResourceChangeListener(io.undertow.server.handlers.resource.ResourceChangeListener)
+     */
+    @Override
+    public void registerResourceChangeListener(ResourceChangeListener listener) {
+        // the layers share one url space, the changes of each supporting layer are forwarded
+        for (ResourceManager layer : layers) {
+            if (layer.isResourceChangeListenerSupported()) {
+                layer.registerResourceChangeListener(listener);
+            }
+        }
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.ResourceManager#removeResourceChangeListener(io.undertow.server.handlers.resource.ResourceChangeListener)
+     */
+    @Override
+    public void removeResourceChangeListener(ResourceChangeListener listener) {
+        for (ResourceManager layer : layers) {
+            if (layer.isResourceChangeListenerSupported()) {
+                layer.removeResourceChangeListener(listener);
+            }
+        }
+    }
+
+
+    /**
+     * @see java.io.Closeable#close()
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            resourceIndex.close();
+        } finally {
+            for (ResourceManager layer : layers) {
+                layer.close();
+            }
+        }
+    }
+}
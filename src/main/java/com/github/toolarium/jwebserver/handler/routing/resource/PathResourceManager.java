@@ -7,8 +7,18 @@ package com.github.toolarium.jwebserver.handler.routing.resource;
 
 import com.github.toolarium.jwebserver.config.IResourceServerConfiguration;
 import com.github.toolarium.jwebserver.config.IWebServerConfiguration;
+import com.github.toolarium.jwebserver.handler.routing.resource.cache.MetadataResource;
+import com.github.toolarium.jwebserver.handler.routing.resource.cache.ResourceLookup;
+import com.github.toolarium.jwebserver.handler.routing.resource.cache.ResourceLookupCache;
+import com.github.toolarium.jwebserver.handler.routing.resource.cache.ResourceMetadata;
+import com.github.toolarium.jwebserver.handler.routing.resource.cache.ResourceMetadataCache;
+import com.github.toolarium.jwebserver.handler.routing.resource.index.IResourceIndex;
+import com.github.toolarium.jwebserver.handler.routing.resource.index.IndexedResource;
+import com.github.toolarium.jwebserver.handler.routing.resource.index.ResourceIndexEntry;
 import com.github.toolarium.jwebserver.util.ResourceUtil;
+import io.undertow.server.handlers.resource.PathResource;
 import io.undertow.server.handlers.resource.Resource;
+import java.io.IOException;
 import java.nio.file.Path;
 import java.util.Arrays;
 import java.util.Collections;
@@ -26,6 +36,10 @@ public class PathResourceManager extends io.undertow.server.handlers.resource.Pa
     private static final Logger LOG = LoggerFactory.getLogger(PathResourceManager.class);
     private final IResourceServerConfiguration configuration;
     private List<String> welcomeFiles;
+    private int maxWelcomeFileLength;
+    private ResourceLookupCache lookupCache;
+    private ResourceMetadataCache metadataCache;
+    private IResourceIndex resourceIndex;
 
     
     /**
@@ -39,6 +53,10 @@ public class PathResourceManager extends io.undertow.server.handlers.resource.Pa
         super(base, transferMinSize);
         this.configuration = webServerConfiguration.getResourceServerConfiguration();
         this.welcomeFiles = Collections.emptyList();
+        this.maxWelcomeFileLength = 0;
+        this.lookupCache = null;
+        this.metadataCache = null;
+        this.resourceIndex = null;
     }
 
     
@@ -50,16 +68,91 @@ public class PathResourceManager extends io.undertow.server.handlers.resource.Pa
     public void setWelcomeFiles(String[] welcomeFiles) {
         if (welcomeFiles != null) {
             this.welcomeFiles = Arrays.asList(welcomeFiles);
+            this.maxWelcomeFileLength = 0;
+            for (String welcomeFile : welcomeFiles) {
+                this.maxWelcomeFileLength = Math.max(maxWelcomeFileLength, welcomeFile.length());
+            }
         }
     }
 
 
+    /**
+     * Set the lookup cache which keeps the missing and resolved resources
+     *
+     * @param lookupCache the lookup cache or null to disable it
+     */
+    public void setLookupCache(ResourceLookupCache lookupCache) {
+        this.lookupCache = lookupCache;
+    }
+
+
+    /**
+     * Set the metadata cache which keeps the result of the file system access of a path
+     *
+     * @param metadataCache the metadata cache or null to disable it
+     */
+    public void setMetadataCache(ResourceMetadataCache metadataCache) {
+        this.metadataCache = metadataCache;
+    }
+
+
+    /**
+     * Set the resource index. In case it is set the resources are resolved from the index without accessing the file system.
+     *
+     * @param resourceIndex the resource index or null to disable it
+     */
+    public void setResourceIndex(IResourceIndex resourceIndex) {
+        this.resourceIndex = resourceIndex;
+    }
+
+
     /**
      * @see io.undertow.server.handlers.resource.PathResourceManager#getResource(java.lang.String)
      */
     @Override
-    public Resource getResource(String path)  {
-        Resource resource = super.getResource(path);
+    public Resource getResource(String path) {
+        if (lookupCache == null) {
+            return resolveResource(path);
+        }
+
+        ResourceLookup lookup = lookupCache.get(path);
+        if (lookup != null) {
+            if (!lookup.isFound()) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Resource [" + path + "] not found (cached).");
+                }
+                return null;
+            }
+
+            Resource resource = getFileResource(lookup.getResolvedPath());
+            if (resource != null) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Resource [" + path + "] resolved to [" + lookup.getResolvedPath() + "] (cached).");
+                }
+                return resource;
+            }
+
+            lookupCache.invalidate(path);
+        }
+
+        Resource resource = resolveResource(path);
+        lookupCache.put(path, resource);
+        return resource;
+    }
+
+
+    /**
+     * Resolve the resource, in case it can't be found the supported file extensions and the welcome files of the parents are tested.
+     *
+     * @param path the path
+     * @return the resource or null
+     */
+    protected Resource resolveResource(String path) {
+        if (resourceIndex != null) {
+            return resolveResourceFromIndex(path);
+        }
+        
+        Resource resource = getFileResource(path);
 
         if (LOG.isDebugEnabled()) {
             LOG.debug("Request resource [" + path + "]" + ResourceUtil.getInstance().toString(resource));
@@ -72,7 +165,7 @@ public class PathResourceManager extends io.undertow.server.handlers.resource.Pa
                     LOG.debug("Check resource [" + path + "] with extension [" + supportedFileExtension + "].");
                 }
                 
-                resource = super.getResource(path + supportedFileExtension);
+                resource = getFileResource(path + supportedFileExtension);
                 if (resource != null) {
                     if (LOG.isDebugEnabled()) {
                         LOG.debug("Found resource [" + path + supportedFileExtension + "] in  [" + resource.getUrl() + "] " + resource.getContentLength());
@@ -85,17 +178,14 @@ public class PathResourceManager extends io.undertow.server.handlers.resource.Pa
 
         if (configuration.resolveParentResourceIfNotFound()) {
             if (resource != null && resource.isDirectory() && !path.endsWith("/")) {
-                final String directoryPath = ResourceUtil.getInstance().slashify(path);
-                
                 if (LOG.isDebugEnabled()) {
                     LOG.debug("Test welcome files: " + welcomeFiles);
                 }
                 
-                Resource indexResource = null;
-                String[] directorySplit = directoryPath.split("/");
-                for (int i = directorySplit.length - 1; i >= 0; i--) {
-                    String parentPath = ResourceUtil.getInstance().prepareString(directorySplit, i);
-                    indexResource = getIndexFiles(parentPath);
+                // walk up the parents on offsets of a single buffer
+                StringBuilder pathBuffer = ResourceUtil.getInstance().createPathBuffer(path, maxWelcomeFileLength);
+                for (int directoryEnd = pathBuffer.length(); directoryEnd >= 0; directoryEnd = ResourceUtil.getInstance().getParentEnd(pathBuffer, directoryEnd)) {
+                    Resource indexResource = getIndexFiles(pathBuffer, directoryEnd);
                     if (indexResource != null) {
                         resource = indexResource;
                         break;
@@ -109,21 +199,72 @@ public class PathResourceManager extends io.undertow.server.handlers.resource.Pa
 
 
     /**
-     * Get the index file
+     * Resolve the resource from the resource index
      *
-     * @param base the base path
+     * @param path the path
+     * @return the resource or null
+     */
+    protected Resource resolveResourceFromIndex(String path) {
+        ResourceIndexEntry entry = resourceIndex.get(path);
+        String resolvedPath = path;
+
+        // in case no resource found, try with supported file extensions
+        if (entry == null && path.indexOf('.') < 0 && configuration.getSupportedFileExtensions() != null && configuration.getSupportedFileExtensions().length > 0) {
+            for (String supportedFileExtension : configuration.getSupportedFileExtensions()) {
+                entry = resourceIndex.get(path + supportedFileExtension);
+                if (entry != null) {
+                    resolvedPath = path + supportedFileExtension;
+                    break;
+                }
+            }
+        }
+
+        if (entry == null) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Resource not found in index [" + path + "].");
+            }
+            return null;
+        }
+
+        if (configuration.resolveParentResourceIfNotFound() && entry.isDirectory() && !path.endsWith("/")) {
+            ResourceIndexEntry indexEntry = resourceIndex.resolveWelcomeFile(entry.getPath());
+            if (indexEntry != null) {
+                entry = indexEntry;
+                resolvedPath = indexEntry.getPath();
+            }
+        }
+
+        if (resolvedPath.startsWith("/")) {
+            resolvedPath = resolvedPath.substring(1);
+        }
+        
+        // the meta data is answered from the index entry, the file is only accessed to serve the content
+        Resource resource = new IndexedResource(new PathResource(getBasePath().resolve(entry.getPath()), this, resolvedPath, null), entry);
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Request resource from index [" + path + "]" + ResourceUtil.getInstance().toString(resource));
+        }
+        return resource;
+    }
+
+    
+    /**
+     * Get the index file of a directory
+     *
+     * @param pathBuffer the path buffer
+     * @param directoryEnd the end of the directory in the path buffer, including its trailing slash
      * @return the resource
      */
-    protected Resource getIndexFiles(final String base) {
+    protected Resource getIndexFiles(final StringBuilder pathBuffer, final int directoryEnd) {
         for (String possibility : welcomeFiles) {
+            String indexPath = ResourceUtil.getInstance().resolve(pathBuffer, directoryEnd, possibility);
             if (LOG.isDebugEnabled()) {
-                LOG.debug("Test resource [" + base + "] [" + ResourceUtil.getInstance().canonicalize(ResourceUtil.getInstance().slashify(base) + possibility) + "]");
+                LOG.debug("Test resource [" + indexPath + "]");
             }
             
-            Resource indexResource = super.getResource(ResourceUtil.getInstance().canonicalize(ResourceUtil.getInstance().slashify(base) + possibility));
+            Resource indexResource = getFileResource(indexPath);
             if (indexResource != null) {
                 if (LOG.isDebugEnabled()) {
-                    LOG.debug("Request resource index found [" + base + "]" + ResourceUtil.getInstance().toString(indexResource));
+                    LOG.debug("Request resource index found [" + indexPath + "]" + ResourceUtil.getInstance().toString(indexResource));
                 }
                 return indexResource;
             }
@@ -131,4 +272,55 @@ public class PathResourceManager extends io.undertow.server.handlers.resource.Pa
         
         return null;
     }
+
+
+    /**
+     * Get the resource of a file. In case the metadata cache is set, the existence, type, size and last modified time
+     * are answered from the cache.
+     *
+     * @param path the path
+     * @return the resource or null
+     */
+    protected Resource getFileResource(String path) {
+        if (metadataCache == null) {
+            return super.getResource(path);
+        }
+
+        ResourceMetadata metadata = metadataCache.get(path, this::loadMetadata);
+        if (!metadata.exists()) {
+            return null;
+        }
+
+        return new MetadataResource(metadata);
+    }
+
+
+    /**
+     * Read the metadata of a file from the file system
+     *
+     * @param path the path
+     * @return the metadata
+     */
+    protected ResourceMetadata loadMetadata(String path) {
+        return ResourceMetadata.read(super.getResource(path));
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.PathResourceManager#close()
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            if (metadataCache != null) {
+                metadataCache.close();
+            }
+
+            if (resourceIndex != null) {
+                resourceIndex.close();
+            }
+        } finally {
+            super.close();
+        }
+    }
 }
@@ -5,11 +5,43 @@
  */
 package com.github.toolarium.jwebserver.handler.routing.resource;
 
+import com.github.toolarium.jwebserver.config.ICompressionConfiguration;
 import com.github.toolarium.jwebserver.config.IResourceServerConfiguration;
 import com.github.toolarium.jwebserver.config.IWebServerConfiguration;
+import com.github.toolarium.jwebserver.handler.compression.CompressiblePredicate;
+import com.github.toolarium.jwebserver.handler.compression.ContentEncoderFactory;
 import com.github.toolarium.jwebserver.handler.routing.RoutingHandler;
+import com.github.toolarium.jwebserver.handler.routing.resource.archive.ArchiveResourceManager;
+import com.github.toolarium.jwebserver.handler.routing.resource.cache.ContentCache;
+import com.github.toolarium.jwebserver.handler.routing.resource.cache.ContentCacheResourceManager;
+import com.github.toolarium.jwebserver.handler.routing.resource.cache.ETagCache;
+import com.github.toolarium.jwebserver.handler.routing.resource.cache.ETagResourceSupplier;
+import com.github.toolarium.jwebserver.handler.routing.resource.cache.MappedFileResourceManager;
+import com.github.toolarium.jwebserver.handler.routing.resource.cache.ResourceLookupCache;
+import com.github.toolarium.jwebserver.handler.routing.resource.cache.ResourceMetadataCache;
+import com.github.toolarium.jwebserver.handler.routing.resource.cachecontrol.CacheControlPolicy;
+import com.github.toolarium.jwebserver.handler.routing.resource.cachecontrol.CacheControlResourceSupplier;
+import com.github.toolarium.jwebserver.handler.routing.resource.compression.CompressedResourceSupplier;
+import com.github.toolarium.jwebserver.handler.routing.resource.compression.PreCompressedResourceSupplier;
+import com.github.toolarium.jwebserver.handler.routing.resource.generation.ContentGenerationResourceHandler;
+import com.github.toolarium.jwebserver.handler.routing.resource.generation.ContentGenerationResourceManager;
+import com.github.toolarium.jwebserver.handler.routing.resource.index.ClassPathResourceIndex;
+import com.github.toolarium.jwebserver.handler.routing.resource.index.FileResourceIndex;
+import com.github.toolarium.jwebserver.handler.routing.resource.index.ResourceIndexEntry;
+import com.github.toolarium.jwebserver.logger.LifecycleLogger;
 import io.undertow.Handlers;
+import io.undertow.server.handlers.resource.DefaultResourceSupplier;
+import io.undertow.server.handlers.resource.ResourceManager;
+import io.undertow.server.handlers.resource.ResourceSupplier;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 
 /**
@@ -18,7 +50,7 @@ import java.nio.file.Paths;
  * @author patrick
  */
 public final class ResourceHandler {
-    
+    private static final Logger LOG = LoggerFactory.getLogger(ResourceHandler.class);
     
     /**
      * Constructor for ResourceHandler
@@ -32,29 +64,166 @@ public final class ResourceHandler {
      * Create resource handler
      *
      * @param webServerConfiguration the web server configuration
+     * @param lifecycleLogger the lifecycle logger or null
      * @return the resource handler
      */
-    public static io.undertow.server.handlers.resource.ResourceHandler createResourceHandler(final IWebServerConfiguration webServerConfiguration) {
+    public static io.undertow.server.handlers.resource.ResourceHandler createResourceHandler(final IWebServerConfiguration webServerConfiguration, final LifecycleLogger lifecycleLogger) {
         IResourceServerConfiguration configuration = webServerConfiguration.getResourceServerConfiguration();
         String path = configuration.getDirectory();
                 
-        io.undertow.server.handlers.resource.ResourceHandler resourceHandler;
-        if (webServerConfiguration.getResourceServerConfiguration().readFromClasspath()) {
+        ResourceLookupCache lookupCache = null;
+        if (configuration.getLookupCacheSize() > 0) {
+            lookupCache = new ResourceLookupCache(configuration.getLookupCacheSize(), configuration.getLookupCacheTimeToLive());
+        }
+        
+        // warm mode: the classpath resources are preloaded into the content cache
+        final boolean preload = configuration.readFromClasspath() && configuration.getPreloadSize() > 0;
+        ClassPathResourceIndex preloadIndex = null;
+        ContentGenerationResourceManager generationResourceManager = null;
+
+        ResourceManager resourceManager = createOverlayResourceManager(webServerConfiguration);
+        if (resourceManager != null) {
+            if (configuration.getMappedCacheSize() > 0) {
+                resourceManager = new MappedFileResourceManager(resourceManager, new ContentCache(configuration.getMappedCacheSize(), configuration.getMappedFileMaxSize()), configuration.getMappedFileMinSize());
+            }
+        } else if (webServerConfiguration.getResourceServerConfiguration().readFromClasspath()) {
             if (path == null) {
                 path = "";
             }
             
             ClassPathResourceManager classResourceManager = new ClassPathResourceManager(webServerConfiguration, ResourceHandler.class.getClassLoader(), path);
             classResourceManager.setWelcomeFiles(configuration.getWelcomeFiles());
-            resourceHandler = Handlers.resource(classResourceManager);
+            classResourceManager.setLookupCache(lookupCache);
+            if (configuration.isResourceIndexEnabled() || preload) {
+                ClassPathResourceIndex resourceIndex = new ClassPathResourceIndex(ResourceHandler.class.getClassLoader(), path, getWelcomeFiles(configuration));
+                try {
+                    resourceIndex.build();
+                    if (configuration.isResourceIndexEnabled()) {
+                        // a path which is not in the index is not found, without the index it is resolved by the class loader
+                        classResourceManager.setResourceIndex(resourceIndex);
+                    }
+                    preloadIndex = resourceIndex;
+                } catch (IOException e) {
+                    LOG.warn("Could not build the resource index of the classpath [" + path + "], resolve the resources from the class loader: " + e.getMessage());
+                }
+            }
+            resourceManager = classResourceManager;
+        } else if (path != null && ArchiveResourceManager.isArchive(Paths.get(path))) {
+            resourceManager = createArchiveResourceManager(webServerConfiguration, path);
         } else {
             if (path == null) {
                 path = ".";
             }
             
-            PathResourceManager pathResourceManager = new PathResourceManager(webServerConfiguration, Paths.get(path), 10);
-            pathResourceManager.setWelcomeFiles(configuration.getWelcomeFiles());
-            resourceHandler = Handlers.resource(pathResourceManager);
+            if (configuration.getGenerationCheckInterval() > 0) {
+                // the real directory behind the content directory is served as a content generation which is swapped atomically
+                generationResourceManager = new ContentGenerationResourceManager(Paths.get(path), root -> createGenerationResourceManager(webServerConfiguration, root), configuration.getGenerationCheckInterval());
+                try {
+                    generationResourceManager.start();
+                    resourceManager = generationResourceManager;
+                    
+                    // the lookups are cached per generation
+                    lookupCache = null;
+                } catch (IOException e) {
+                    LOG.warn("Could not resolve the content directory [" + path + "], serve it without content generations: " + e.getMessage());
+                    generationResourceManager = null;
+                    resourceManager = createPathResourceManager(webServerConfiguration, Paths.get(path), lookupCache);
+                }
+            } else {
+                resourceManager = createPathResourceManager(webServerConfiguration, Paths.get(path), lookupCache);
+            }
+
+            if (configuration.getMappedCacheSize() > 0) {
+                // the mid-size files are mapped once and shared across the requests
+                resourceManager = new MappedFileResourceManager(resourceManager, new ContentCache(configuration.getMappedCacheSize(), configuration.getMappedFileMaxSize()), configuration.getMappedFileMinSize());
+            }
+        }
+
+        if (lookupCache != null && resourceManager.isResourceChangeListenerSupported()) {
+            // clear the lookups on any change of the file system
+            resourceManager.registerResourceChangeListener(lookupCache);
+        }
+
+        ICompressionConfiguration compressionConfiguration = webServerConfiguration.getCompressionConfiguration();
+        CompressiblePredicate compressiblePredicate = new CompressiblePredicate(compressionConfiguration.getMimeTypes(), compressionConfiguration.getMinSize());
+        if (configuration.getCacheSize() > 0 || preload) {
+            // the preloaded resources are kept together with their gzip variants
+            CompressiblePredicate preloadPredicate = null;
+            if (preload) {
+                preloadPredicate = compressiblePredicate;
+            }
+            
+            long cacheSize = Math.max(configuration.getCacheSize(), configuration.getPreloadSize());
+            ContentCacheResourceManager contentCacheResourceManager = new ContentCacheResourceManager(resourceManager, new ContentCache(cacheSize, configuration.getCacheMaxEntrySize(), preloadPredicate, compressionConfiguration.getLevel()));
+            if (preloadIndex != null) {
+                preload(contentCacheResourceManager, preloadIndex, configuration.getPreloadSize(), lifecycleLogger);
+            }
+            if (generationResourceManager != null) {
+                // the next generation is warmed with the hot resources of the current one before it is swapped in
+                generationResourceManager.setContentCache(contentCacheResourceManager.getContentCache());
+            }
+            resourceManager = contentCacheResourceManager;
+        }
+        
+        if (configuration.getSpaIndex() != null) {
+            // the unknown routes of a single-page application are answered by the index document held in memory
+            SpaResourceManager spaResourceManager = new SpaResourceManager(resourceManager, configuration.getSpaIndex(), configuration.getCacheMaxEntrySize(), compressiblePredicate, compressionConfiguration.getLevel());
+            if (!spaResourceManager.preload()) {
+                LOG.warn("Could not load the index document [" + spaResourceManager.getIndexPath() + "] of the single-page application into memory.");
+            }
+            resourceManager = spaResourceManager;
+        }
+        
+        io.undertow.server.handlers.resource.ResourceHandler resourceHandler;
+        if (generationResourceManager != null) {
+            resourceHandler = new ContentGenerationResourceHandler(resourceManager, generationResourceManager);
+        } else {
+            resourceHandler = Handlers.resource(resourceManager);
+        }
+        ResourceSupplier resourceSupplier = null;
+        if (configuration.getPrecompressedEncodings() != null && configuration.getPrecompressedEncodings().length > 0) {
+            PreCompressedResourceSupplier preCompressedResourceSupplier = new PreCompressedResourceSupplier(resourceManager, configuration.getPrecompressedEncodings());
+            if (resourceManager.isResourceChangeListenerSupported()) {
+                // probe the sidecar files again on any change of the file system
+                resourceManager.registerResourceChangeListener(preCompressedResourceSupplier);
+            }
+            resourceSupplier = preCompressedResourceSupplier;
+        }
+        
+        if (compressionConfiguration.isEnabled() && compressionConfiguration.getCacheSize() > 0) {
+            if (resourceSupplier == null) {
+                resourceSupplier = new DefaultResourceSupplier(resourceManager);
+            }
+
+            // the static resources are compressed once, the other responses by the compression handler
+            resourceSupplier = new CompressedResourceSupplier(resourceSupplier, 
+                                                              ContentEncoderFactory.getInstance().getContentEncoders(), 
+                                                              compressiblePredicate, 
+                                                              compressionConfiguration.getLevel(), 
+                                                              new ContentCache(compressionConfiguration.getCacheSize(), configuration.getCacheMaxEntrySize()));
+        }
+        
+        if (configuration.getETagCacheSize() > 0) {
+            if (resourceSupplier == null) {
+                resourceSupplier = new DefaultResourceSupplier(resourceManager);
+            }
+
+            // strong content hash ETags of all variants, the conditional requests are answered from the cached tags
+            resourceSupplier = new ETagResourceSupplier(resourceSupplier, new ETagCache(configuration.getETagCacheSize()));
+        }
+
+        CacheControlPolicy cacheControlPolicy = new CacheControlPolicy(CacheControlPolicy.parseRules(configuration.getCacheControl()), configuration.isCacheControlImmutable());
+        if (!cacheControlPolicy.isEmpty()) {
+            if (resourceSupplier == null) {
+                resourceSupplier = new DefaultResourceSupplier(resourceManager);
+            }
+
+            // the header values are built once, they are also set on a not modified response
+            resourceSupplier = new CacheControlResourceSupplier(resourceSupplier, cacheControlPolicy);
+        }
+
+        if (resourceSupplier != null) {
+            resourceHandler.setResourceSupplier(resourceSupplier);
         }
 
         if (webServerConfiguration.getResourceServerConfiguration().getWelcomeFiles() != null) {
@@ -70,4 +239,145 @@ public final class ResourceHandler {
         
         return resourceHandler;
     }
+
+
+    /**
+     * Create the resource manager of a content directory
+     *
+     * @param webServerConfiguration the web server configuration
+     * @param base the content directory
+     * @param lookupCache the lookup cache or null
+     * @return the resource manager
+     */
+    private static PathResourceManager createPathResourceManager(final IWebServerConfiguration webServerConfiguration, final Path base, final ResourceLookupCache lookupCache) {
+        IResourceServerConfiguration configuration = webServerConfiguration.getResourceServerConfiguration();
+        PathResourceManager pathResourceManager = new PathResourceManager(webServerConfiguration, base, configuration.getTransferMinSize());
+        pathResourceManager.setWelcomeFiles(configuration.getWelcomeFiles());
+        pathResourceManager.setLookupCache(lookupCache);
+        if (configuration.getMetadataCacheSize() > 0) {
+            // the file system access of the recently requested paths is answered from memory, e.g. on a network file system
+            ResourceMetadataCache metadataCache = new ResourceMetadataCache(configuration.getMetadataCacheSize(), configuration.getMetadataCacheTimeToLive());
+            pathResourceManager.setMetadataCache(metadataCache);
+            pathResourceManager.registerResourceChangeListener(metadataCache);
+        }
+        if (configuration.isResourceIndexEnabled()) {
+            FileResourceIndex resourceIndex = new FileResourceIndex(pathResourceManager.getBasePath(), getWelcomeFiles(configuration));
+            try {
+                resourceIndex.start();
+                pathResourceManager.setResourceIndex(resourceIndex);
+            } catch (IOException e) {
+                LOG.warn("Could not build the resource index of [" + base + "], resolve the resources from the file system: " + e.getMessage());
+            }
+        }
+        return pathResourceManager;
+    }
+
+
+    /**
+     * Create the resource manager of a content generation, it has its own index and lookup caches
+     *
+     * @param webServerConfiguration the web server configuration
+     * @param root the real path of the content directory
+     * @return the resource manager
+     */
+    private static ResourceManager createGenerationResourceManager(final IWebServerConfiguration webServerConfiguration, final Path root) {
+        IResourceServerConfiguration configuration = webServerConfiguration.getResourceServerConfiguration();
+        ResourceLookupCache lookupCache = null;
+        if (configuration.getLookupCacheSize() > 0) {
+            lookupCache = new ResourceLookupCache(configuration.getLookupCacheSize(), configuration.getLookupCacheTimeToLive());
+        }
+        
+        PathResourceManager pathResourceManager = createPathResourceManager(webServerConfiguration, root, lookupCache);
+        if (lookupCache != null) {
+            pathResourceManager.registerResourceChangeListener(lookupCache);
+        }
+        return pathResourceManager;
+    }
+
+
+    /**
+     * Create the resource manager of an archive
+     *
+     * @param webServerConfiguration the web server configuration
+     * @param path the path of the archive
+     * @return the resource manager
+     */
+    private static ResourceManager createArchiveResourceManager(final IWebServerConfiguration webServerConfiguration, final String path) {
+        ArchiveResourceManager archiveResourceManager = new ArchiveResourceManager(webServerConfiguration, Paths.get(path));
+        try {
+            archiveResourceManager.start();
+            return archiveResourceManager;
+        } catch (IOException e) {
+            LOG.warn("Could not read the archive [" + path + "], no resources are served: " + e.getMessage());
+            try {
+                archiveResourceManager.close();
+            } catch (IOException ex) {
+                LOG.debug("Could not close the archive [" + path + "]: " + ex.getMessage());
+            }
+            return ResourceManager.EMPTY_RESOURCE_MANAGER;
+        }
+    }
+
+
+    /**
+     * Create the overlay resource manager in case resource layers are configured
+     *
+     * @param webServerConfiguration the web server configuration
+     * @return the overlay resource manager or null
+     */
+    private static ResourceManager createOverlayResourceManager(final IWebServerConfiguration webServerConfiguration) {
+        String[] resourceLayers = webServerConfiguration.getResourceServerConfiguration().getResourceLayers();
+        if (resourceLayers == null || resourceLayers.length == 0) {
+            return null;
+        }
+        
+        try {
+            return OverlayResourceManager.createOverlayResourceManager(webServerConfiguration, ResourceHandler.class.getClassLoader());
+        } catch (IOException e) {
+            LOG.warn("Could not build the resource layers " + Arrays.toString(resourceLayers) + ", serve the directory [" + webServerConfiguration.getResourceServerConfiguration().getDirectory() + "]: " + e.getMessage());
+            return null;
+        }
+    }
+
+
+    /**
+     * Preload the files of the index into the content cache
+     *
+     * @param contentCacheResourceManager the content cache resource manager
+     * @param resourceIndex the resource index
+     * @param preloadSize the max size in bytes to preload
+     * @param lifecycleLogger the lifecycle logger or null
+     */
+    private static void preload(final ContentCacheResourceManager contentCacheResourceManager, final ClassPathResourceIndex resourceIndex, final long preloadSize, final LifecycleLogger lifecycleLogger) {
+        final long start = System.currentTimeMillis();
+        List<String> paths = new ArrayList<>();
+        for (ResourceIndexEntry entry : resourceIndex.getEntries()) {
+            if (!entry.isDirectory()) {
+                paths.add(RoutingHandler.SLASH + entry.getPath());
+            }
+        }
+        Collections.sort(paths);
+
+        int count = contentCacheResourceManager.preload(paths, preloadSize);
+        String information = count + " resources, " + contentCacheResourceManager.getContentCache().getCurrentSize() + " bytes in " + (System.currentTimeMillis() - start) + "ms";
+        LOG.info("Preloaded " + information + ".");
+        if (lifecycleLogger != null) {
+            lifecycleLogger.addStartupInformation("Preload", information);
+        }
+    }
+
+
+    /**
+     * Get the welcome files
+     *
+     * @param configuration the resource server configuration
+     * @return the welcome files or null
+     */
+    private static List<String> getWelcomeFiles(final IResourceServerConfiguration configuration) {
+        if (configuration.getWelcomeFiles() == null) {
+            return null;
+        }
+        
+        return Arrays.asList(configuration.getWelcomeFiles());
+    }
 }
@@ -0,0 +1,195 @@
+/*
+ * SpaResourceManager.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource;
+
+import com.github.toolarium.jwebserver.handler.compression.CompressiblePredicate;
+import com.github.toolarium.jwebserver.handler.routing.RoutingHandler;
+import com.github.toolarium.jwebserver.handler.routing.resource.cache.CachedResource;
+import com.github.toolarium.jwebserver.handler.routing.resource.cache.ContentCache;
+import io.undertow.server.handlers.resource.Resource;
+import io.undertow.server.handlers.resource.ResourceChangeEvent;
+import io.undertow.server.handlers.resource.ResourceChangeListener;
+import io.undertow.server.handlers.resource.ResourceManager;
+import java.io.IOException;
+import java.util.Collection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Resource manager of a single-page application. Any route without a file extension which can't be resolved by the
+ * underlying resource manager is answered by the index document. The index document is held in memory together with
+ * its gzip variant, the parents of the route are not probed. A path with a file extension, e.g. a missing asset, is
+ * not found as usual.
+ *
+ * @author patrick
+ */
+public class SpaResourceManager implements ResourceManager, ResourceChangeListener {
+    private static final Logger LOG = LoggerFactory.getLogger(SpaResourceManager.class);
+    private final ResourceManager delegate;
+    private final String indexPath;
+    private final ContentCache contentCache;
+    private volatile Resource indexResource;
+
+
+    /**
+     * Constructor for SpaResourceManager
+     *
+     * @param delegate the underlying resource manager
+     * @param indexPath the path of the index document
+     * @param maxSize the max size of the index document in bytes which is held in memory
+     * @param compressiblePredicate the predicate of the compressible content
+     * @param compressionLevel the compression level of the gzip variant
+     */
+    public SpaResourceManager(final ResourceManager delegate, final String indexPath, final int maxSize, final CompressiblePredicate compressiblePredicate, final int compressionLevel) {
+        this.delegate = delegate;
+        if (indexPath.startsWith(RoutingHandler.SLASH)) {
+            this.indexPath = indexPath;
+        } else {
+            this.indexPath = RoutingHandler.SLASH + indexPath;
+        }
+
+        this.contentCache = new ContentCache(maxSize, maxSize, compressiblePredicate, compressionLevel);
+        this.indexResource = null;
+
+        if (delegate.isResourceChangeListenerSupported()) {
+            // resolve the index document again on any change of the file system
+            delegate.registerResourceChangeListener(this);
+        }
+    }
+
+
+    /**
+     * Get the path of the index document
+     *
+     * @return the path of the index document
+     */
+    public String getIndexPath() {
+        return indexPath;
+    }
+
+
+    /**
+     * Load the index document into memory
+     *
+     * @return true if the index document is held in memory
+     */
+    public boolean preload() {
+        CachedResource resource = getIndexResource();
+        return resource != null && resource.getContent() != null;
+    }
+
+
+    /**
+     * Check if a path is the path of an asset, the last segment contains a file extension
+     *
+     * @param path the path
+     * @return true if it is the path of an asset
+     */
+    public static boolean isAsset(String path) {
+        if (path == null) {
+            return false;
+        }
+
+        return path.indexOf('.', path.lastIndexOf('/') + 1) >= 0;
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.ResourceManager#getResource(java.lang.String)
+     */
+    @Override
+    public Resource getResource(String path) throws IOException {
+        Resource resource = delegate.getResource(path);
+        if (resource != null || isAsset(path)) {
+            return resource;
+        }
+
+        resource = getIndexResource();
+        if (LOG.isDebugEnabled() && resource != null) {
+            LOG.debug("Answer route [" + path + "] with the index document [" + indexPath + "].");
+        }
+        return resource;
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.ResourceChangeListener#handleChanges(java.util.Collection)
+     */
+    @Override
+    public void handleChanges(Collection<ResourceChangeEvent> changes) {
+        indexResource = null;
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.ResourceManager#isResourceChangeListenerSupported()
+     */
+    @Override
+    public boolean isResourceChangeListenerSupported() {
+        return delegate.isResourceChangeListenerSupported();
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.ResourceManager#registerResourceChangeListener(io.undertow.server.handlers.resource.ResourceChangeListener)
+     */
+    @Override
+    public void registerResourceChangeListener(ResourceChangeListener listener) {
+        delegate.registerResourceChangeListener(listener);
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.ResourceManager#removeResourceChangeListener(io.undertow.server.handlers.resource.ResourceChangeListener)
+     */
+    @Override
+    public void removeResourceChangeListener(ResourceChangeListener listener) {
+        delegate.removeResourceChangeListener(listener);
+    }
+
+
+    /**
+     * @see java.io.Closeable#close()
+     */
+    @Override
+    public void close() throws IOException {
+        contentCache.clear();
+        delegate.close();
+    }
+
+
+    /**
+     * Get the index document, it is resolved once and its content is revalidated by the last modified time on every request
+     *
+     * @return the index document or null
+     */
+    protected CachedResource getIndexResource() {
+        Resource resource = indexResource;
+        if (resource != null) {
+            return new CachedResource(resource, contentCache);
+        }
+
+        try {
+            resource = delegate.getResource(indexPath);
+            if (resource == null || resource.isDirectory()) {
+                LOG.debug("Index document [" + indexPath + "] of the single-page application not found.");
+                return null;
+            }
+
+            // a cached resource validates its content once, the underlying resource is kept across the requests
+            while (resource instanceof CachedResource) {
+                resource = ((CachedResource) resource).getDelegate();
+            }
+
+            indexResource = resource;
+            return new CachedResource(resource, contentCache);
+        } catch (IOException e) {
+            LOG.debug("Could not resolve the index document [" + indexPath + "]: " + e.getMessage(), e);
+            return null;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+/*
+ * ArchiveEntry.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.archive;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+
+/**
+ * Entry of the central directory of an archive. The offset of the data is resolved from the local header on the
+ * first access and kept afterwards.
+ *
+ * @author patrick
+ */
+public class ArchiveEntry {
+    /** The compression method of a stored entry */
+    public static final int STORED = 0;
+    
+    /** The compression method of a deflated entry */
+    public static final int DEFLATED = 8;
+    
+    private final String path;
+    private final boolean directory;
+    private final int method;
+    private final long crc;
+    private final long compressedSize;
+    private final long size;
+    private final long lastModified;
+    private final long localHeaderOffset;
+    private final List<ArchiveEntry> children;
+    private volatile long dataOffset;
+
+
+    /**
+     * Constructor for ArchiveEntry
+     *
+     * @param path the path without leading and trailing slash
+     * @param directory true if it is a directory
+     * @param method the compression method
+     * @param crc the crc32 of the uncompressed data
+     * @param compressedSize the compressed size
+     * @param size the uncompressed size
+     * @param lastModified the last modified time
+     * @param localHeaderOffset the offset of the local header or -1 for a directory without own entry
+     */
+    public ArchiveEntry(final String path, final boolean directory, final int method, final long crc, final long compressedSize, final long size, final long lastModified, final long localHeaderOffset) {
+        this.path = path;
+        this.directory = directory;
+        this.method = method;
+        this.crc = crc;
+        this.compressedSize = compressedSize;
+        this.size = size;
+        this.lastModified = lastModified;
+        this.localHeaderOffset = localHeaderOffset;
+        if (directory) {
+            this.children = new ArrayList<>();
+        } else {
+            this.children = Collections.emptyList();
+        }
+        this.dataOffset = -1;
+    }
+
+
+    /**
+     * Get the path
+     *
+     * @return the path without leading and trailing slash, the root is an empty string
+     */
+    public String getPath() {
+        return path;
+    }
+
+
+    /**
+     * Get the name
+     *
+     * @return the name
+     */
+    public String getName() {
+        return path.substring(path.lastIndexOf('/') + 1);
+    }
+
+
+    /**
+     * Check if the entry is a directory
+     *
+     * @return true if it is a directory
+     */
+    public boolean isDirectory() {
+        return directory;
+    }
+
+
+    /**
+     * Get the compression method
+     *
+     * @return the compression method, {@link #STORED} or {@link #DEFLATED}
+     */
+    public int getMethod() {
+        return method;
+    }
+
+
+    /**
+     * Get the crc32 of the uncompressed data
+     *
+     * @return the crc32
+     */
+    public long getCrc() {
+        return crc;
+    }
+
+
+    /**
+     * Get the compressed size
+     *
+     * @return the compressed size
+     */
+    public long getCompressedSize() {
+        return compressedSize;
+    }
+
+
+    /**
+     * Get the uncompressed size
+     *
+     * @return the uncompressed size
+     */
+    public long getSize() {
+        return size;
+    }
+
+
+    /**
+     * Get the last modified time
+     *
+     * @return the last modified time
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+
+    /**
+     * Get the offset of the local header
+     *
+     * @return the offset of the local header or -1 for a directory without own entry
+     */
+    public long getLocalHeaderOffset() {
+        return localHeaderOffset;
+    }
+
+
+    /**
+     * Get the children of a directory
+     *
+     * @return the children
+     */
+    public List<ArchiveEntry> getChildren() {
+        return children;
+    }
+
+
+    /**
+     * Get the offset of the data
+     *
+     * @return the offset of the data or -1 if it is not yet resolved
+     */
+    public long getDataOffset() {
+        return dataOffset;
+    }
+
+
+    /**
+     * Set the offset of the data
+     *
+     * @param dataOffset the offset of the data
+     */
+    void setDataOffset(long dataOffset) {
+        this.dataOffset = dataOffset;
+    }
+
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "ArchiveEntry [path=" + path + ", directory=" + directory + ", method=" + method + ", compressedSize=" + compressedSize + ", size=" + size + "]";
+    }
+}
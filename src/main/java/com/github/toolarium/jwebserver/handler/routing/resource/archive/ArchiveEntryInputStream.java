@@ -0,0 +1,90 @@
+/*
+ * ArchiveEntryInputStream.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.archive;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+
+/**
+ * Reads a region of a shared {@link FileChannel} with positional reads, the position of the channel is not changed.
+ *
+ * @author patrick
+ */
+public class ArchiveEntryInputStream extends InputStream {
+    private final FileChannel channel;
+    private final long end;
+    private boolean padding;
+    private long position;
+
+
+    /**
+     * Constructor for ArchiveEntryInputStream
+     *
+     * @param channel the channel
+     * @param position the start position
+     * @param length the length of the region
+     * @param padding true to return an additional zero byte at the end, it is required by an inflater without zlib header
+     */
+    public ArchiveEntryInputStream(final FileChannel channel, final long position, final long length, final boolean padding) {
+        this.channel = channel;
+        this.position = position;
+        this.end = position + length;
+        this.padding = padding;
+    }
+
+
+    /**
+     * @see java.io.InputStream#read()
+     */
+    @Override
+    public int read() throws IOException {
+        byte[] data = new byte[1];
+        if (read(data, 0, 1) < 0) {
+            return -1;
+        }
+        return data[0] & 0xff;
+    }
+
+
+    /**
+     * @see java.io.InputStream#read(byte[], int, int)
+     */
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+
+        if (position >= end) {
+            if (padding) {
+                padding = false;
+                buffer[offset] = 0;
+                return 1;
+            }
+            return -1;
+        }
+
+        int count = channel.read(ByteBuffer.wrap(buffer, offset, (int) Math.min(length, end - position)), position);
+        if (count < 0) {
+            return -1;
+        }
+
+        position += count;
+        return count;
+    }
+
+
+    /**
+     * @see java.io.InputStream#available()
+     */
+    @Override
+    public int available() {
+        return (int) Math.min(Integer.MAX_VALUE, end - position);
+    }
+}
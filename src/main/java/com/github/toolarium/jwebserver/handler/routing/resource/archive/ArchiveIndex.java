@@ -0,0 +1,476 @@
+/*
+ * ArchiveIndex.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.archive;
+
+import com.github.toolarium.jwebserver.handler.routing.resource.index.AbstractResourceIndex;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.DateTimeException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+import java.util.zip.ZipException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * In-memory index of a zip or jar archive. The central directory is parsed once, the data of the entries is read 
+ * with positional reads of a shared {@link FileChannel}. The index is reference counted: the channel is closed when 
+ * the index was closed and the last request which still serves from it has released it.
+ *
+ * @author patrick
+ */
+public class ArchiveIndex implements Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(ArchiveIndex.class);
+    private static final int END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06054b50;
+    private static final int END_OF_CENTRAL_DIRECTORY_SIZE = 22;
+    private static final int ZIP64_LOCATOR_SIGNATURE = 0x07064b50;
+    private static final int ZIP64_LOCATOR_SIZE = 20;
+    private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE = 0x06064b50;
+    private static final int ZIP64_END_OF_CENTRAL_DIRECTORY_SIZE = 56;
+    private static final int ZIP64_EXTRA_FIELD = 0x0001;
+    private static final int CENTRAL_HEADER_SIGNATURE = 0x02014b50;
+    private static final int CENTRAL_HEADER_SIZE = 46;
+    private static final int LOCAL_HEADER_SIGNATURE = 0x04034b50;
+    private static final int LOCAL_HEADER_SIZE = 30;
+    private static final int MAX_COMMENT_SIZE = 0xffff;
+    private static final long ZIP64_MAGIC = 0xffffffffL;
+    private static final int ENCRYPTED_FLAG = 0x01;
+    private static final char SEPARATOR = '/';
+    private static final long IMPLICIT = -1;
+    private final Path archive;
+    private final FileChannel channel;
+    private final Map<String, ArchiveEntry> entries;
+    private final long lastModified;
+    private final long size;
+    private final Object fileKey;
+    private final AtomicInteger references;
+    private final AtomicBoolean closed;
+
+
+    /**
+     * Constructor for ArchiveIndex
+     *
+     * @param archive the archive
+     * @param channel the channel of the archive
+     * @param attributes the attributes of the archive
+     * @throws IOException In case the archive can't be read
+     */
+    protected ArchiveIndex(final Path archive, final FileChannel channel, final BasicFileAttributes attributes) throws IOException {
+        this.archive = archive;
+        this.channel = channel;
+        this.lastModified = attributes.lastModifiedTime().toMillis();
+        this.size = attributes.size();
+        this.fileKey = attributes.fileKey();
+        this.references = new AtomicInteger(1);
+        this.closed = new AtomicBoolean(false);
+        this.entries = readCentralDirectory();
+    }
+
+
+    /**
+     * Open an archive and read its central directory
+     *
+     * @param archive the archive
+     * @return the index
+     * @throws IOException In case the archive can't be read
+     */
+    public static ArchiveIndex open(Path archive) throws IOException {
+        final long start = System.currentTimeMillis();
+        FileChannel channel = FileChannel.open(archive, StandardOpenOption.READ);
+        try {
+            // the attributes are read after the open, a replaced file is detected by the watcher
+            ArchiveIndex archiveIndex = new ArchiveIndex(archive, channel, Files.readAttributes(archive, BasicFileAttributes.class));
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Indexed " + archiveIndex.size() + " entries of archive [" + archive + "] in " + (System.currentTimeMillis() - start) + "ms.");
+            }
+            return archiveIndex;
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        } catch (RuntimeException e) {
+            // a malformed archive which passed the validation of the parser
+            channel.close();
+            throw new ZipException("Invalid archive [" + archive + "]: " + e);
+        }
+    }
+
+
+    /**
+     * Get an entry
+     *
+     * @param path the path, a leading or trailing slash is ignored
+     * @return the entry or null if it does not exist
+     */
+    public ArchiveEntry get(String path) {
+        return entries.get(AbstractResourceIndex.toKey(path));
+    }
+
+
+    /**
+     * Get the number of entries
+     *
+     * @return the number of entries
+     */
+    public int size() {
+        return entries.size();
+    }
+
+
+    /**
+     * Get the archive
+     *
+     * @return the archive
+     */
+    public Path getArchive() {
+        return archive;
+    }
+
+
+    /**
+     * Get the channel of the archive. It must only be used between {@link #retain()} and {@link #release()}.
+     *
+     * @return the channel
+     */
+    public FileChannel getChannel() {
+        return channel;
+    }
+
+
+    /**
+     * Check if the index was read from the current state of the archive file
+     *
+     * @param attributes the current attributes of the archive file
+     * @return true if the archive file is unchanged
+     */
+    public boolean isCurrent(BasicFileAttributes attributes) {
+        return attributes.lastModifiedTime().toMillis() == lastModified && attributes.size() == size
+                && (fileKey == null || fileKey.equals(attributes.fileKey()));
+    }
+
+
+    /**
+     * Retain the index for a request
+     *
+     * @return false if the index was already closed
+     */
+    public boolean retain() {
+        while (true) {
+            int count = references.get();
+            if (count <= 0) {
+                return false;
+            }
+
+            if (references.compareAndSet(count, count + 1)) {
+                return true;
+            }
+        }
+    }
+
+
+    /**
+     * Release the index after a request. The channel is closed by the last release after the index was closed.
+     */
+    public void release() {
+        if (references.decrementAndGet() == 0) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LOG.debug("Could not close archive [" + archive + "]: " + e.getMessage());
+            }
+        }
+    }
+
+
+    /**
+     * @see java.io.Closeable#close()
+     */
+    @Override
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            release();
+        }
+    }
+
+
+    /**
+     * Get the offset of the data of an entry
+     *
+     * @param entry the entry
+     * @return the offset of the data
+     * @throws IOException In case of an I/O error
+     */
+    public long getDataOffset(ArchiveEntry entry) throws IOException {
+        long dataOffset = entry.getDataOffset();
+        if (dataOffset < 0) {
+            if (entry.getLocalHeaderOffset() < 0 || entry.getLocalHeaderOffset() + LOCAL_HEADER_SIZE > channel.size()) {
+                throw new ZipException("Invalid local header offset of [" + entry.getPath() + "] in archive [" + archive + "].");
+            }
+
+            ByteBuffer header = read(entry.getLocalHeaderOffset(), LOCAL_HEADER_SIZE);
+            if (header.getInt(0) != LOCAL_HEADER_SIGNATURE) {
+                throw new ZipException("Invalid local header of [" + entry.getPath() + "] in archive [" + archive + "].");
+            }
+
+            dataOffset = entry.getLocalHeaderOffset() + LOCAL_HEADER_SIZE + Short.toUnsignedInt(header.getShort(26)) + Short.toUnsignedInt(header.getShort(28));
+            entry.setDataOffset(dataOffset);
+        }
+        return dataOffset;
+    }
+
+
+    /**
+     * Open the uncompressed content of an entry
+     *
+     * @param entry the entry
+     * @return the input stream
+     * @throws IOException In case of an I/O error
+     */
+    public InputStream newInputStream(ArchiveEntry entry) throws IOException {
+        final long dataOffset = getDataOffset(entry);
+        if (entry.getMethod() == ArchiveEntry.STORED) {
+            return new ArchiveEntryInputStream(channel, dataOffset, entry.getSize(), false);
+        }
+
+        // the inflater without zlib header needs an extra dummy byte at the end of the input
+        final Inflater inflater = new Inflater(true);
+        return new InflaterInputStream(new ArchiveEntryInputStream(channel, dataOffset, entry.getCompressedSize(), true), inflater) {
+            /**
+             * @see java.util.zip.InflaterInputStream#close()
+             */
+            @Override
+            public void close() throws IOException {
+                try {
+                    super.close();
+                } finally {
+                    inflater.end();
+                }
+            }
+        };
+    }
+
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "ArchiveIndex [archive=" + archive + ", entries=" + entries.size() + "]";
+    }
+
+
+    /**
+     * Read the central directory
+     *
+     * @return the entries
+     * @throws IOException In case of an I/O error
+     */
+    private Map<String, ArchiveEntry> readCentralDirectory() throws IOException {
+        final long archiveSize = channel.size();
+        final int tailSize = (int) Math.min(archiveSize, END_OF_CENTRAL_DIRECTORY_SIZE + MAX_COMMENT_SIZE);
+        final ByteBuffer tail = read(archiveSize - tailSize, tailSize);
+
+        int position = -1;
+        for (int i = tailSize - END_OF_CENTRAL_DIRECTORY_SIZE; i >= 0; i--) {
+            if (tail.getInt(i) == END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+                position = i;
+                break;
+            }
+        }
+
+        if (position < 0) {
+            throw new ZipException("No central directory found in archive [" + archive + "].");
+        }
+
+        long entryCount = Short.toUnsignedInt(tail.getShort(position + 10));
+        long centralDirectorySize = Integer.toUnsignedLong(tail.getInt(position + 12));
+        long centralDirectoryOffset = Integer.toUnsignedLong(tail.getInt(position + 16));
+
+        final long endOffset = archiveSize - tailSize + position;
+        if (endOffset >= ZIP64_LOCATOR_SIZE) {
+            ByteBuffer locator = read(endOffset - ZIP64_LOCATOR_SIZE, ZIP64_LOCATOR_SIZE);
+            if (locator.getInt(0) == ZIP64_LOCATOR_SIGNATURE) {
+                final long zip64EndOffset = locator.getLong(8);
+                if (zip64EndOffset < 0 || zip64EndOffset + ZIP64_END_OF_CENTRAL_DIRECTORY_SIZE > endOffset) {
+                    throw new ZipException("Invalid zip64 end of central directory offset in archive [" + archive + "].");
+                }
+
+                ByteBuffer zip64End = read(zip64EndOffset, ZIP64_END_OF_CENTRAL_DIRECTORY_SIZE);
+                if (zip64End.getInt(0) != ZIP64_END_OF_CENTRAL_DIRECTORY_SIGNATURE) {
+                    throw new ZipException("Invalid zip64 end of central directory in archive [" + archive + "].");
+                }
+
+                entryCount = zip64End.getLong(32);
+                centralDirectorySize = zip64End.getLong(40);
+                centralDirectoryOffset = zip64End.getLong(48);
+            }
+        }
+
+        if (entryCount < 0 || centralDirectoryOffset < 0 || centralDirectorySize < 0 || centralDirectorySize > Integer.MAX_VALUE
+                || centralDirectoryOffset + centralDirectorySize > archiveSize) {
+            throw new ZipException("Invalid central directory in archive [" + archive + "].");
+        }
+
+        final ByteBuffer centralDirectory = channel.map(FileChannel.MapMode.READ_ONLY, centralDirectoryOffset, centralDirectorySize).order(ByteOrder.LITTLE_ENDIAN);
+        final Map<String, ArchiveEntry> result = new HashMap<>((int) Math.min(entryCount, centralDirectorySize / CENTRAL_HEADER_SIZE) * 4 / 3 + 1);
+        result.put("", new ArchiveEntry("", true, ArchiveEntry.STORED, 0, 0, 0, lastModified, IMPLICIT));
+
+        int offset = 0;
+        for (long i = 0; i < entryCount; i++) {
+            if (offset + CENTRAL_HEADER_SIZE > centralDirectory.limit() || centralDirectory.getInt(offset) != CENTRAL_HEADER_SIGNATURE) {
+                throw new ZipException("Invalid central directory header " + i + " in archive [" + archive + "].");
+            }
+
+            final int flags = Short.toUnsignedInt(centralDirectory.getShort(offset + 8));
+            final int method = Short.toUnsignedInt(centralDirectory.getShort(offset + 10));
+            final int time = Short.toUnsignedInt(centralDirectory.getShort(offset + 12));
+            final int date = Short.toUnsignedInt(centralDirectory.getShort(offset + 14));
+            final long crc = Integer.toUnsignedLong(centralDirectory.getInt(offset + 16));
+            long compressedSize = Integer.toUnsignedLong(centralDirectory.getInt(offset + 20));
+            long size = Integer.toUnsignedLong(centralDirectory.getInt(offset + 24));
+            final int nameLength = Short.toUnsignedInt(centralDirectory.getShort(offset + 28));
+            final int extraLength = Short.toUnsignedInt(centralDirectory.getShort(offset + 30));
+            final int commentLength = Short.toUnsignedInt(centralDirectory.getShort(offset + 32));
+            long localHeaderOffset = Integer.toUnsignedLong(centralDirectory.getInt(offset + 42));
+            if (offset + CENTRAL_HEADER_SIZE + nameLength + extraLength + commentLength > centralDirectory.limit()) {
+                throw new ZipException("Invalid length of central directory header " + i + " in archive [" + archive + "].");
+            }
+
+            final byte[] nameBytes = new byte[nameLength];
+            centralDirectory.position(offset + CENTRAL_HEADER_SIZE);
+            centralDirectory.get(nameBytes);
+            final String name = new String(nameBytes, StandardCharsets.UTF_8);
+
+            // the zip64 extra field contains the values which don't fit into the header
+            int extraOffset = offset + CENTRAL_HEADER_SIZE + nameLength;
+            final int extraEnd = extraOffset + extraLength;
+            while (extraOffset + 4 <= extraEnd) {
+                final int headerId = Short.toUnsignedInt(centralDirectory.getShort(extraOffset));
+                final int dataSize = Short.toUnsignedInt(centralDirectory.getShort(extraOffset + 2));
+                if (headerId == ZIP64_EXTRA_FIELD) {
+                    final int fieldEnd = Math.min(extraOffset + 4 + dataSize, extraEnd);
+                    int fieldOffset = extraOffset + 4;
+                    if (size == ZIP64_MAGIC && fieldOffset + 8 <= fieldEnd) {
+                        size = centralDirectory.getLong(fieldOffset);
+                        fieldOffset += 8;
+                    }
+                    if (compressedSize == ZIP64_MAGIC && fieldOffset + 8 <= fieldEnd) {
+                        compressedSize = centralDirectory.getLong(fieldOffset);
+                        fieldOffset += 8;
+                    }
+                    if (localHeaderOffset == ZIP64_MAGIC && fieldOffset + 8 <= fieldEnd) {
+                        localHeaderOffset = centralDirectory.getLong(fieldOffset);
+                    }
+                }
+                extraOffset += 4 + dataSize;
+            }
+
+            offset = extraEnd + commentLength;
+            if (size < 0 || compressedSize < 0 || localHeaderOffset < 0 || localHeaderOffset >= archiveSize) {
+                throw new ZipException("Invalid size or offset of [" + name + "] in archive [" + archive + "].");
+            }
+
+            final boolean directory = !name.isEmpty() && name.charAt(name.length() - 1) == SEPARATOR;
+            final String key = AbstractResourceIndex.toKey(name);
+            if (key.isEmpty() || (flags & ENCRYPTED_FLAG) != 0 || (!directory && method != ArchiveEntry.STORED && method != ArchiveEntry.DEFLATED)) {
+                LOG.debug("Unsupported entry [" + name + "] in archive [" + archive + "], it is not served.");
+                continue;
+            }
+
+            ArchiveEntry entry = new ArchiveEntry(key, directory, method, crc, compressedSize, size, toMillis(date, time), localHeaderOffset);
+            ArchiveEntry existing = result.get(key);
+            if (existing == null) {
+                result.put(key, entry);
+                addToParent(result, entry, false);
+            } else if (directory && existing.isDirectory() && existing.getLocalHeaderOffset() == IMPLICIT) {
+                // an implicit parent directory is replaced by its own entry
+                entry.getChildren().addAll(existing.getChildren());
+                result.put(key, entry);
+                addToParent(result, entry, true);
+            }
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Add an entry to its parent directory, the missing parent directories are created
+     *
+     * @param entries the entries
+     * @param entry the entry
+     * @param replace true if the entry replaces an implicit directory of the same path
+     */
+    private void addToParent(Map<String, ArchiveEntry> entries, ArchiveEntry entry, boolean replace) {
+        String parentKey = AbstractResourceIndex.getParentKey(entry.getPath());
+        ArchiveEntry parent = entries.get(parentKey);
+        if (parent == null) {
+            parent = new ArchiveEntry(parentKey, true, ArchiveEntry.STORED, 0, 0, 0, entry.getLastModified(), IMPLICIT);
+            entries.put(parentKey, parent);
+            addToParent(entries, parent, false);
+        } else if (!parent.isDirectory()) {
+            LOG.debug("Entry [" + entry.getPath() + "] in archive [" + archive + "] has a file as parent, it is not listed.");
+            return;
+        }
+
+        if (replace) {
+            parent.getChildren().removeIf(child -> child.getPath().equals(entry.getPath()));
+        }
+        parent.getChildren().add(entry);
+    }
+
+
+    /**
+     * Read a part of the archive
+     *
+     * @param position the position
+     * @param length the length
+     * @return the buffer in little endian order
+     * @throws IOException In case of an I/O error
+     */
+    private ByteBuffer read(long position, int length) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ByteOrder.LITTLE_ENDIAN);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new ZipException("Unexpected end of archive [" + archive + "].");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+
+    /**
+     * Convert a dos date and time
+     *
+     * @param date the dos date
+     * @param time the dos time
+     * @return the time in milliseconds
+     */
+    private long toMillis(int date, int time) {
+        try {
+            return LocalDateTime.of(1980 + ((date >> 9) & 0x7f), (date >> 5) & 0x0f, date & 0x1f, (time >> 11) & 0x1f, (time >> 5) & 0x3f, (time & 0x1f) * 2)
+                    .atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        } catch (DateTimeException e) {
+            return lastModified;
+        }
+    }
+}
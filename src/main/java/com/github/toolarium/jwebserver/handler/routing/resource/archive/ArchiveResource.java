@@ -0,0 +1,554 @@
+/*
+ * ArchiveResource.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.archive;
+
+import com.github.toolarium.jwebserver.util.ResourceUtil;
+import io.undertow.io.IoCallback;
+import io.undertow.io.Sender;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.resource.Resource;
+import io.undertow.util.DateUtils;
+import io.undertow.util.ETag;
+import io.undertow.util.Headers;
+import io.undertow.util.MimeMappings;
+import io.undertow.util.StatusCodes;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLConnection;
+import java.net.URLStreamHandler;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Resource of an entry of an archive. A stored entry is sent from the archive, a large one from a mapped region. A 
+ * deflated entry is sent as it is with a gzip frame in case the client accepts gzip, otherwise it is inflated on the fly.
+ * The archive is released and the completion callback is called once the response was sent.
+ *
+ * @author patrick
+ */
+public class ArchiveResource implements Resource {
+    private static final Logger LOG = LoggerFactory.getLogger(ArchiveResource.class);
+    private static final String GZIP = "gzip";
+    private static final byte[] GZIP_HEADER = {0x1f, (byte) 0x8b, 8, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+    private static final int GZIP_TRAILER_SIZE = 8;
+    private static final int BUFFER_SIZE = 16384;
+    private static final int MAP_THRESHOLD = 65536;
+    private static final String SLASH = "/";
+    private final ArchiveResourceManager resourceManager;
+    private final ArchiveIndex archiveIndex;
+    private final ArchiveEntry entry;
+    private final String path;
+
+
+    /**
+     * Constructor for ArchiveResource
+     *
+     * @param resourceManager the resource manager
+     * @param archiveIndex the index which contains the entry
+     * @param entry the entry
+     * @param path the path
+     */
+    public ArchiveResource(final ArchiveResourceManager resourceManager, final ArchiveIndex archiveIndex, final ArchiveEntry entry, final String path) {
+        this.resourceManager = resourceManager;
+        this.archiveIndex = archiveIndex;
+        this.entry = entry;
+        this.path = path;
+    }
+
+
+    /**
+     * Get the entry
+     *
+     * @return the entry
+     */
+    public ArchiveEntry getEntry() {
+        return entry;
+    }
+
+
+    /**
+     * Check if the gzip frame of a deflated entry is served
+     *
+     * @param exchange the http server exchange
+     * @return true if the deflated data is served as gzip
+     */
+    public boolean isGzipServed(HttpServerExchange exchange) {
+        return !entry.isDirectory() && entry.getMethod() == ArchiveEntry.DEFLATED && entry.getCompressedSize() <= Integer.MAX_VALUE
+                && ResourceUtil.getInstance().acceptsEncoding(exchange.getRequestHeaders().get(Headers.ACCEPT_ENCODING), GZIP);
+    }
+
+
+    /**
+     * Open the uncompressed content
+     *
+     * @return the input stream
+     * @throws IOException In case of an I/O error
+     */
+    public InputStream openStream() throws IOException {
+        if (!archiveIndex.retain()) {
+            throw new ClosedChannelException();
+        }
+
+        try {
+            return new FilterInputStream(archiveIndex.newInputStream(entry)) {
+                private boolean closed = false;
+
+                /**
+                 * @see java.io.FilterInputStream#close()
+                 */
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        if (!closed) {
+                            closed = true;
+                            archiveIndex.release();
+                        }
+                    }
+                }
+            };
+        } catch (IOException | RuntimeException e) {
+            archiveIndex.release();
+            throw e;
+        }
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.Resource#getPath()
+     */
+    @Override
+    public String getPath() {
+        return path;
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.Resource#getLastModified()
+     */
+    @Override
+    public Date getLastModified() {
+        return new Date(entry.getLastModified());
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.Resource#getLastModifiedString()
+     */
+    @Override
+    public String getLastModifiedString() {
+        return DateUtils.toDateString(getLastModified());
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.Resource#getETag()
+     */
+    @Override
+    public ETag getETag() {
+        if (entry.isDirectory()) {
+            return null;
+        }
+
+        // the crc of the central directory, it is weak since the encoded variants share it
+        return new ETag(true, Long.toHexString(entry.getSize()) + "-" + Long.toHexString(entry.getCrc()));
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.Resource#getName()
+     */
+    @Override
+    public String getName() {
+        return entry.getName();
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.Resource#isDirectory()
+     */
+    @Override
+    public boolean isDirectory() {
+        return entry.isDirectory();
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.Resource#list()
+     */
+    @Override
+    public List<Resource> list() {
+        String parentPath = path;
+        if (!parentPath.endsWith(SLASH)) {
+            parentPath += SLASH;
+        }
+
+        List<Resource> result = new ArrayList<>();
+        for (ArchiveEntry child : entry.getChildren()) {
+            result.add(new ArchiveResource(resourceManager, archiveIndex, child, parentPath + child.getName()));
+        }
+        return result;
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.Resource#getContentType(io.undertow.util.MimeMappings)
+     */
+    @Override
+    public String getContentType(MimeMappings mimeMappings) {
+        String name = entry.getName();
+        int index = name.lastIndexOf('.');
+        if (index < 0 || index == name.length() - 1) {
+            return null;
+        }
+
+        return mimeMappings.getMimeType(name.substring(index + 1));
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.Resource#serve(io.undertow.io.Sender, io.undertow.server.HttpServerExchange, io.undertow.io.IoCallback)
+     */
+    @Override
+    public void serve(Sender sender, HttpServerExchange exchange, IoCallback completionCallback) {
+        if (!archiveIndex.retain()) {
+            // the archive was replaced since the lookup
+            serveCurrent(sender, exchange, completionCallback);
+            return;
+        }
+
+        // the index is released when the response is sent
+        final IoCallback callback = new ReleaseCallback(completionCallback);
+        try {
+            final boolean gzip = isGzipServed(exchange);
+            if (entry.getMethod() == ArchiveEntry.DEFLATED) {
+                ResourceUtil.getInstance().addVaryAcceptEncoding(exchange.getResponseHeaders());
+            }
+
+            if (gzip) {
+                exchange.getResponseHeaders().put(Headers.CONTENT_ENCODING, GZIP);
+                exchange.setResponseContentLength(GZIP_HEADER.length + entry.getCompressedSize() + GZIP_TRAILER_SIZE);
+            } else {
+                exchange.setResponseContentLength(entry.getSize());
+            }
+
+            if (entry.getMethod() == ArchiveEntry.STORED && entry.getSize() <= Integer.MAX_VALUE) {
+                sender.send(readData(archiveIndex.getDataOffset(entry), entry.getSize()), callback);
+            } else if (entry.getMethod() == ArchiveEntry.STORED) {
+                new StreamCallback(new ArchiveEntryInputStream(archiveIndex.getChannel(), archiveIndex.getDataOffset(entry), entry.getSize(), false), callback).onComplete(exchange, sender);
+            } else if (gzip) {
+                ByteBuffer trailer = ByteBuffer.allocate(GZIP_TRAILER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+                trailer.putInt((int) entry.getCrc()).putInt((int) entry.getSize()).flip();
+                sender.send(new ByteBuffer[] {ByteBuffer.wrap(GZIP_HEADER), readData(archiveIndex.getDataOffset(entry), entry.getCompressedSize()), trailer}, callback);
+            } else {
+                new StreamCallback(archiveIndex.newInputStream(entry), callback).onComplete(exchange, sender);
+            }
+        } catch (IOException e) {
+            LOG.debug("Could not serve [" + entry.getPath() + "] of archive [" + archiveIndex.getArchive() + "]: " + e.getMessage());
+            callback.onException(exchange, sender, e);
+        }
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.Resource#getContentLength()
+     */
+    @Override
+    public Long getContentLength() {
+        if (entry.isDirectory()) {
+            return null;
+        }
+        return entry.getSize();
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.Resource#getCacheKey()
+     */
+    @Override
+    public String getCacheKey() {
+        // the crc keeps the cached content of an unchanged entry valid across a replacement of the archive
+        return archiveIndex.getArchive() + "!/" + entry.getPath() + "#" + Long.toHexString(entry.getCrc());
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.Resource#getFile()
+     */
+    @Override
+    public File getFile() {
+        return null;
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.Resource#getFilePath()
+     */
+    @Override
+    public Path getFilePath() {
+        return null;
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.Resource#getResourceManagerRoot()
+     */
+    @Override
+    public File getResourceManagerRoot() {
+        return null;
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.Resource#getResourceManagerRootPath()
+     */
+    @Override
+    public Path getResourceManagerRootPath() {
+        return null;
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.Resource#getUrl()
+     */
+    @Override
+    public URL getUrl() {
+        try {
+            // the content is read from the index and not from a cached jar file of the url connection
+            return new URL(null, "jar:" + archiveIndex.getArchive().toUri() + "!/" + entry.getPath(), new URLStreamHandler() {
+                /**
+                 * @see java.net.URLStreamHandler#openConnection(java.net.URL)
+                 */
+                @Override
+                protected URLConnection openConnection(URL url) {
+                    return new URLConnection(url) {
+                        /**
+                         * @see java.net.URLConnection#connect()
+                         */
+                        @Override
+                        public void connect() {
+                            connected = true;
+                        }
+
+                        /**
+                         * @see java.net.URLConnection#getInputStream()
+                         */
+                        @Override
+                        public InputStream getInputStream() throws IOException {
+                            return openStream();
+                        }
+
+                        /**
+                         * @see java.net.URLConnection#getContentLengthLong()
+                         */
+                        @Override
+                        public long getContentLengthLong() {
+                            return entry.getSize();
+                        }
+
+                        /**
+                         * @see java.net.URLConnection#getLastModified()
+                         */
+                        @Override
+                        public long getLastModified() {
+                            return entry.getLastModified();
+                        }
+                    };
+                }
+            });
+        } catch (MalformedURLException e) {
+            LOG.debug("Invalid url of [" + entry.getPath() + "]: " + e.getMessage());
+            return null;
+        }
+    }
+
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "ArchiveResource [archive=" + archiveIndex.getArchive() + ", entry=" + entry + "]";
+    }
+
+
+    /**
+     * Serve the resource of the current archive
+     *
+     * @param sender the sender
+     * @param exchange the http server exchange
+     * @param completionCallback the completion callback
+     */
+    private void serveCurrent(Sender sender, HttpServerExchange exchange, IoCallback completionCallback) {
+        Resource current = resourceManager.getResource(path);
+        if (current == null || current.isDirectory()) {
+            exchange.setStatusCode(StatusCodes.NOT_FOUND);
+            completionCallback.onComplete(exchange, sender);
+            return;
+        }
+
+        current.serve(sender, exchange, completionCallback);
+    }
+
+
+    /**
+     * Read the data of an entry, a large region is mapped instead of copied
+     *
+     * @param position the position in the archive
+     * @param length the length
+     * @return the data
+     * @throws IOException In case of an I/O error
+     */
+    private ByteBuffer readData(long position, long length) throws IOException {
+        final FileChannel channel = archiveIndex.getChannel();
+        if (length > MAP_THRESHOLD) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int) length);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                throw new EOFException("Unexpected end of [" + entry.getPath() + "] in archive [" + archiveIndex.getArchive() + "].");
+            }
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+
+    /**
+     * Releases the index once the response was sent and passes the result to the completion callback
+     */
+    private class ReleaseCallback implements IoCallback {
+        private final IoCallback completionCallback;
+        private boolean released;
+
+
+        /**
+         * Constructor for ReleaseCallback
+         *
+         * @param completionCallback the completion callback
+         */
+        ReleaseCallback(final IoCallback completionCallback) {
+            this.completionCallback = completionCallback;
+            this.released = false;
+        }
+
+
+        /**
+         * @see io.undertow.io.IoCallback#onComplete(io.undertow.server.HttpServerExchange, io.undertow.io.Sender)
+         */
+        @Override
+        public void onComplete(HttpServerExchange exchange, Sender sender) {
+            release();
+            completionCallback.onComplete(exchange, sender);
+        }
+
+
+        /**
+         * @see io.undertow.io.IoCallback#onException(io.undertow.server.HttpServerExchange, io.undertow.io.Sender, java.io.IOException)
+         */
+        @Override
+        public void onException(HttpServerExchange exchange, Sender sender, IOException exception) {
+            release();
+            completionCallback.onException(exchange, sender, exception);
+        }
+
+
+        /**
+         * Release the index once
+         */
+        private void release() {
+            if (!released) {
+                released = true;
+                archiveIndex.release();
+            }
+        }
+    }
+
+
+    /**
+     * Sends a stream in chunks, the next chunk is read when the previous one was written
+     */
+    private static class StreamCallback implements IoCallback {
+        private final InputStream inputStream;
+        private final IoCallback completionCallback;
+        private final byte[] buffer;
+
+
+        /**
+         * Constructor for StreamCallback
+         *
+         * @param inputStream the input stream
+         * @param completionCallback the completion callback
+         */
+        StreamCallback(final InputStream inputStream, final IoCallback completionCallback) {
+            this.inputStream = inputStream;
+            this.completionCallback = completionCallback;
+            this.buffer = new byte[BUFFER_SIZE];
+        }
+
+
+        /**
+         * @see io.undertow.io.IoCallback#onComplete(io.undertow.server.HttpServerExchange, io.undertow.io.Sender)
+         */
+        @Override
+        public void onComplete(HttpServerExchange exchange, Sender sender) {
+            int count;
+            try {
+                count = inputStream.read(buffer);
+            } catch (IOException e) {
+                onException(exchange, sender, e);
+                return;
+            }
+
+            if (count < 0) {
+                close();
+                completionCallback.onComplete(exchange, sender);
+                return;
+            }
+
+            sender.send(ByteBuffer.wrap(buffer, 0, count), this);
+        }
+
+
+        /**
+         * @see io.undertow.io.IoCallback#onException(io.undertow.server.HttpServerExchange, io.undertow.io.Sender, java.io.IOException)
+         */
+        @Override
+        public void onException(HttpServerExchange exchange, Sender sender, IOException exception) {
+            close();
+            completionCallback.onException(exchange, sender, exception);
+        }
+
+
+        /**
+         * Close the input stream
+         */
+        private void close() {
+            try {
+                inputStream.close();
+            } catch (IOException e) {
+                LOG.debug("Could not close the archive entry stream: " + e.getMessage());
+            }
+        }
+    }
+}
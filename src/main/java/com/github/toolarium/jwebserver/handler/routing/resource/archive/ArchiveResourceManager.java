@@ -0,0 +1,298 @@
+/*
+ * ArchiveResourceManager.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.archive;
+
+import com.github.toolarium.jwebserver.config.IResourceServerConfiguration;
+import com.github.toolarium.jwebserver.config.IWebServerConfiguration;
+import com.github.toolarium.jwebserver.handler.routing.resource.index.AbstractResourceIndex;
+import io.undertow.server.handlers.resource.Resource;
+import io.undertow.server.handlers.resource.ResourceChangeEvent;
+import io.undertow.server.handlers.resource.ResourceChangeListener;
+import io.undertow.server.handlers.resource.ResourceManager;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Serves a static site directly from a zip or jar archive. The central directory is read once into an 
+ * {@link ArchiveIndex}. The directory of the archive is watched, in case the archive is replaced the new archive 
+ * is indexed and swapped in atomically; the requests which are still served from the former archive complete.
+ *
+ * @author patrick
+ */
+public class ArchiveResourceManager implements ResourceManager, Runnable {
+    private static final Logger LOG = LoggerFactory.getLogger(ArchiveResourceManager.class);
+    private static final String[] ARCHIVE_EXTENSIONS = {".zip", ".jar", ".war"};
+    private static final byte[] ZIP_SIGNATURE = {'P', 'K', 3, 4};
+    private final IResourceServerConfiguration configuration;
+    private final Path archive;
+    private final List<ResourceChangeListener> listeners;
+    private volatile ArchiveIndex archiveIndex;
+    private WatchService watchService;
+    private Thread watcherThread;
+
+
+    /**
+     * Constructor for ArchiveResourceManager
+     *
+     * @param webServerConfiguration the web server configuration
+     * @param archive the archive
+     */
+    public ArchiveResourceManager(final IWebServerConfiguration webServerConfiguration, final Path archive) {
+        this.configuration = webServerConfiguration.getResourceServerConfiguration();
+        this.archive = archive.toAbsolutePath().normalize();
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.archiveIndex = null;
+        this.watchService = null;
+        this.watcherThread = null;
+    }
+
+
+    /**
+     * Check if a path is an archive which can be served
+     *
+     * @param path the path
+     * @return true if it is a file with a zip, jar or war extension or which starts with the zip signature
+     */
+    public static boolean isArchive(Path path) {
+        if (path == null || !Files.isRegularFile(path)) {
+            return false;
+        }
+
+        String name = path.getFileName().toString().toLowerCase(Locale.ROOT);
+        for (String archiveExtension : ARCHIVE_EXTENSIONS) {
+            if (name.endsWith(archiveExtension)) {
+                return true;
+            }
+        }
+
+        try (InputStream inputStream = Files.newInputStream(path)) {
+            byte[] signature = new byte[ZIP_SIGNATURE.length];
+            return inputStream.readNBytes(signature, 0, signature.length) == signature.length && Arrays.equals(signature, ZIP_SIGNATURE);
+        } catch (IOException e) {
+            LOG.debug("Could not read [" + path + "]: " + e.getMessage());
+            return false;
+        }
+    }
+
+
+    /**
+     * Index the archive and start watching its directory
+     *
+     * @throws IOException In case the archive can't be read
+     */
+    public synchronized void start() throws IOException {
+        archiveIndex = ArchiveIndex.open(archive);
+
+        Path directory = archive.getParent();
+        watchService = directory.getFileSystem().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        watcherThread = new Thread(this, "jwebserver-archive-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+    }
+
+
+    /**
+     * Get the current index of the archive
+     *
+     * @return the index
+     */
+    public ArchiveIndex getArchiveIndex() {
+        return archiveIndex;
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.ResourceManager#getResource(java.lang.String)
+     */
+    @Override
+    public Resource getResource(String path) {
+        final ArchiveIndex current = archiveIndex;
+        ArchiveEntry entry = current.get(path);
+
+        // in case no resource found, try with supported file extensions
+        if (entry == null && path.indexOf('.') < 0 && configuration.getSupportedFileExtensions() != null && configuration.getSupportedFileExtensions().length > 0) {
+            for (String supportedFileExtension : configuration.getSupportedFileExtensions()) {
+                entry = current.get(path + supportedFileExtension);
+                if (entry != null) {
+                    break;
+                }
+            }
+        }
+
+        if (entry == null) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Resource not found in archive [" + path + "].");
+            }
+            return null;
+        }
+
+        String resolvedPath = path;
+        if (configuration.resolveParentResourceIfNotFound() && entry.isDirectory() && !path.endsWith("/")) {
+            ArchiveEntry welcomeFile = resolveWelcomeFile(current, entry.getPath());
+            if (welcomeFile != null) {
+                entry = welcomeFile;
+                resolvedPath = welcomeFile.getPath();
+            }
+        }
+
+        return new ArchiveResource(this, current, entry, resolvedPath);
+    }
+
+
+    /**
+     * Resolve the welcome file of a directory, in case the directory has none the parents are tested
+     *
+     * @param current the index of the archive
+     * @param directoryKey the key of the directory
+     * @return the welcome file or null
+     */
+    protected ArchiveEntry resolveWelcomeFile(ArchiveIndex current, String directoryKey) {
+        if (configuration.getWelcomeFiles() == null) {
+            return null;
+        }
+
+        String key = directoryKey;
+        while (true) {
+            for (String welcomeFile : configuration.getWelcomeFiles()) {
+                String welcomeFileKey = welcomeFile;
+                if (!key.isEmpty()) {
+                    welcomeFileKey = key + "/" + welcomeFile;
+                }
+
+                ArchiveEntry entry = current.get(welcomeFileKey);
+                if (entry != null && !entry.isDirectory()) {
+                    return entry;
+                }
+            }
+
+            if (key.isEmpty()) {
+                return null;
+            }
+
+            key = AbstractResourceIndex.getParentKey(key);
+        }
+    }
+
+
+    /**
+     * @see java.lang.Runnable#run()
+     */
+    @Override
+    public void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey watchKey = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : watchKey.pollEvents()) {
+                    changed = changed || event.kind() == StandardWatchEventKinds.OVERFLOW || archive.getFileName().equals(event.context());
+                }
+                watchKey.reset();
+
+                if (changed) {
+                    reload();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // NOP, the resource manager was closed
+        }
+    }
+
+
+    /**
+     * Index the archive again in case it was replaced or modified and swap the index. An incomplete archive is
+     * ignored, it is indexed on the next event.
+     */
+    protected synchronized void reload() {
+        try {
+            if (archiveIndex != null && archiveIndex.isCurrent(Files.readAttributes(archive, BasicFileAttributes.class))) {
+                return;
+            }
+
+            ArchiveIndex previous = archiveIndex;
+            archiveIndex = ArchiveIndex.open(archive);
+            LOG.info("Reloaded archive [" + archive + "] with " + archiveIndex.size() + " entries.");
+            if (previous != null) {
+                previous.close();
+            }
+
+            for (ResourceChangeListener listener : listeners) {
+                listener.handleChanges(Collections.singletonList(new ResourceChangeEvent("", ResourceChangeEvent.Type.MODIFIED)));
+            }
+        } catch (NoSuchFileException e) {
+            LOG.debug("Archive [" + archive + "] is missing, keep serving the former archive.");
+        } catch (IOException e) {
+            LOG.debug("Could not index archive [" + archive + "], keep serving the former archive: " + e.getMessage());
+        }
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.ResourceManager#isResourceChangeListenerSupported()
+     */
+    @Override
+    public boolean isResourceChangeListenerSupported() {
+        return true;
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.ResourceManager#registerResourceChangeListener(io.undertow.server.handlers.resource.ResourceChangeListener)
+     */
+    @Override
+    public void registerResourceChangeListener(ResourceChangeListener listener) {
+        listeners.add(listener);
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.ResourceManager#removeResourceChangeListener(io.undertow.server.handlers.resource.ResourceChangeListener)
+     */
+    @Override
+    public void removeResourceChangeListener(ResourceChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+
+    /**
+     * @see java.io.Closeable#close()
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (watcherThread != null) {
+            watcherThread.interrupt();
+            watcherThread = null;
+        }
+
+        if (watchService != null) {
+            watchService.close();
+            watchService = null;
+        }
+
+        if (archiveIndex != null) {
+            archiveIndex.close();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+/*
+ * CachedContent.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.cache;
+
+import java.nio.ByteBuffer;
+
+
+/**
+ * Defines a cached content entry of the {@link ContentCache}.
+ *
+ * @author patrick
+ */
+public class CachedContent {
+    private final String key;
+    private final long lastModified;
+    private final ByteBuffer content;
+    private final ByteBuffer gzipContent;
+    private volatile long lastAccess;
+    private volatile boolean referenced;
+    private volatile ResourceHeaders headers;
+
+
+    /**
+     * Constructor for CachedContent
+     *
+     * @param key the key
+     * @param lastModified the last modified time of the content
+     * @param content the content
+     * @param gzipContent the gzip compressed content or null
+     * @param lastAccess the access tick
+     */
+    public CachedContent(final String key, final long lastModified, final ByteBuffer content, final ByteBuffer gzipContent, final long lastAccess) {
+        this.key = key;
+        this.lastModified = lastModified;
+        this.content = content.asReadOnlyBuffer();
+        if (gzipContent != null) {
+            this.gzipContent = gzipContent.asReadOnlyBuffer();
+        } else {
+            this.gzipContent = null;
+        }
+        this.lastAccess = lastAccess;
+    }
+
+
+    /**
+     * Get the key
+     *
+     * @return the key
+     */
+    public String getKey() {
+        return key;
+    }
+
+
+    /**
+     * Get the last modified time of the content
+     *
+     * @return the last modified time
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+
+    /**
+     * Get the content. Every call returns an independent view, it can be consumed by the caller.
+     *
+     * @return the content
+     */
+    public ByteBuffer getContent() {
+        return content.duplicate();
+    }
+
+
+    /**
+     * Get the size of the content in bytes
+     *
+     * @return the size
+     */
+    public int getSize() {
+        return content.capacity();
+    }
+
+
+    /**
+     * Get the gzip compressed content. Every call returns an independent view, it can be consumed by the caller.
+     *
+     * @return the gzip compressed content or null if there is no compressed variant
+     */
+    public ByteBuffer getGzipContent() {
+        if (gzipContent == null) {
+            return null;
+        }
+        
+        return gzipContent.duplicate();
+    }
+
+
+    /**
+     * Get the used memory in bytes of all variants
+     *
+     * @return the used memory
+     */
+    public int getMemorySize() {
+        if (gzipContent == null) {
+            return content.capacity();
+        }
+        
+        return content.capacity() + gzipContent.capacity();
+    }
+
+
+    /**
+     * Get the last access tick
+     *
+     * @return the last access tick
+     */
+    public long getLastAccess() {
+        return lastAccess;
+    }
+
+
+    /**
+     * Get the precomputed response header values
+     *
+     * @return the header values or null if they are not yet computed
+     */
+    public ResourceHeaders getHeaders() {
+        return headers;
+    }
+
+
+    /**
+     * Set the precomputed response header values
+     *
+     * @param headers the header values
+     */
+    void setHeaders(ResourceHeaders headers) {
+        this.headers = headers;
+    }
+
+
+    /**
+     * Mark the content as accessed
+     *
+     * @param accessTick the access tick
+     */
+    void touch(long accessTick) {
+        this.lastAccess = accessTick;
+        this.referenced = true;
+    }
+
+
+    /**
+     * Clear the reference bit of the clock eviction
+     *
+     * @return true if the content was accessed since the last clear
+     */
+    boolean clearReferenced() {
+        if (!referenced) {
+            return false;
+        }
+
+        referenced = false;
+        return true;
+    }
+
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "CachedContent [key=" + key + ", lastModified=" + lastModified + ", size=" + getSize() + ", memorySize=" + getMemorySize() + ", lastAccess=" + lastAccess + "]";
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * CachedETag.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.cache;
+
+import io.undertow.util.ETag;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Defines the strong ETag of a resource which is kept in the {@link ETagCache}.
+ *
+ * @author patrick
+ */
+public class CachedETag {
+    private final long lastModified;
+    private final ETag etag;
+    private final ConcurrentHashMap<String, ETag> variants;
+
+
+    /**
+     * Constructor for CachedETag
+     *
+     * @param lastModified the last modified time of the resource
+     * @param etag the ETag
+     */
+    public CachedETag(final long lastModified, final ETag etag) {
+        this.lastModified = lastModified;
+        this.etag = etag;
+        this.variants = new ConcurrentHashMap<>(2);
+    }
+
+
+    /**
+     * Get the last modified time of the resource the ETag was computed of
+     *
+     * @return the last modified time
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+
+    /**
+     * Get the ETag
+     *
+     * @return the ETag
+     */
+    public ETag getETag() {
+        return etag;
+    }
+
+
+    /**
+     * Get the ETag of a content encoded variant, the tag gets a suffix of the encoding
+     *
+     * @param encoding the content encoding or null
+     * @return the ETag
+     */
+    public ETag getETag(String encoding) {
+        if (etag == null || encoding == null) {
+            return etag;
+        }
+
+        ETag variant = variants.get(encoding);
+        if (variant == null) {
+            variant = new ETag(false, etag.getTag() + "-" + encoding);
+            variants.putIfAbsent(encoding, variant);
+        }
+        return variant;
+    }
+
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "CachedETag [lastModified=" + lastModified + ", etag=" + etag + "]";
+    }
+}
@@ -0,0 +1,293 @@
+/*
+ * CachedResource.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.cache;
+
+import com.github.toolarium.jwebserver.handler.compression.GzipContentEncoder;
+import com.github.toolarium.jwebserver.handler.routing.resource.DelegatingResource;
+import com.github.toolarium.jwebserver.util.ResourceUtil;
+import io.undertow.io.IoCallback;
+import io.undertow.io.Sender;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.resource.Resource;
+import io.undertow.util.Headers;
+import io.undertow.util.MimeMappings;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Date;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Resource which serves its content from the {@link ContentCache}.
+ *
+ * @author patrick
+ */
+public class CachedResource extends DelegatingResource {
+    private static final Logger LOG = LoggerFactory.getLogger(CachedResource.class);
+    private static final String GZIP = GzipContentEncoder.GZIP;
+    private static final GzipContentEncoder GZIP_CONTENT_ENCODER = new GzipContentEncoder();
+    private final ContentCache contentCache;
+    private CachedContent resolvedContent;
+    private boolean contentResolved;
+
+
+    /**
+     * Constructor for CachedResource
+     *
+     * @param delegate the underlying resource
+     * @param contentCache the content cache
+     */
+    public CachedResource(final Resource delegate, final ContentCache contentCache) {
+        super(delegate);
+        this.contentCache = contentCache;
+    }
+
+
+    /**
+     * Get the cached content, in case it is not cached it will be read from the underlying resource.
+     *
+     * @return the cached content or null if it can't be cached
+     */
+    public CachedContent getContent() {
+        // a resource instance serves a single request, the content is validated once
+        if (!contentResolved) {
+            resolvedContent = resolveContent();
+            contentResolved = true;
+        }
+        return resolvedContent;
+    }
+
+
+    /**
+     * Get the precomputed response header values, they are computed once per cached content
+     *
+     * @return the header values or null if the content can't be cached
+     */
+    public ResourceHeaders getHeaders() {
+        CachedContent cachedContent = getContent();
+        if (cachedContent == null) {
+            return null;
+        }
+
+        ResourceHeaders headers = cachedContent.getHeaders();
+        if (headers == null) {
+            headers = ResourceHeaders.create(getDelegate(), cachedContent);
+            cachedContent.setHeaders(headers);
+        }
+        return headers;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.DelegatingResource#getLastModified()
+     */
+    @Override
+    public Date getLastModified() {
+        ResourceHeaders headers = getHeaders();
+        if (headers == null) {
+            return super.getLastModified();
+        }
+        return headers.getLastModified();
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.DelegatingResource#getLastModifiedString()
+     */
+    @Override
+    public String getLastModifiedString() {
+        ResourceHeaders headers = getHeaders();
+        if (headers == null) {
+            return super.getLastModifiedString();
+        }
+        return headers.getLastModifiedString();
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.DelegatingResource#getContentType(io.undertow.util.MimeMappings)
+     */
+    @Override
+    public String getContentType(MimeMappings mimeMappings) {
+        ResourceHeaders headers = null;
+        if (mimeMappings == MimeMappings.DEFAULT) {
+            headers = getHeaders();
+        }
+
+        if (headers == null) {
+            return super.getContentType(mimeMappings);
+        }
+        return headers.getContentType();
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.DelegatingResource#getContentLength()
+     */
+    @Override
+    public Long getContentLength() {
+        ResourceHeaders headers = getHeaders();
+        if (headers == null) {
+            return super.getContentLength();
+        }
+        return headers.getContentLength();
+    }
+
+
+    /**
+     * Resolve the cached content, in case it is not cached it will be read from the underlying resource.
+     *
+     * @return the cached content or null if it can't be cached
+     */
+    protected CachedContent resolveContent() {
+        final String key = getKey();
+        final long lastModified = ResourceUtil.getInstance().getLastModified(getDelegate());
+        try {
+            // the concurrent requests of a missing content await a single load
+            return contentCache.get(key, lastModified, () -> {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Load content of [" + key + "] into cache.");
+                }
+
+                return loadContent(key, lastModified);
+            });
+        } catch (IOException e) {
+            LOG.debug("Could not read content of [" + key + "]: " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.DelegatingResource#serve(io.undertow.io.Sender, io.undertow.server.HttpServerExchange, io.undertow.io.IoCallback)
+     */
+    @Override
+    public void serve(Sender sender, HttpServerExchange exchange, IoCallback completionCallback) {
+        CachedContent content = getContent();
+        if (content == null) {
+            super.serve(sender, exchange, completionCallback);
+            return;
+        }
+
+        ByteBuffer gzipContent = content.getGzipContent();
+        if (gzipContent != null) {
+            ResourceUtil.getInstance().addVaryAcceptEncoding(exchange.getResponseHeaders());
+            if (ResourceUtil.getInstance().acceptsEncoding(exchange.getRequestHeaders().get(Headers.ACCEPT_ENCODING), GZIP)) {
+                exchange.getResponseHeaders().put(Headers.CONTENT_ENCODING, GZIP);
+                exchange.setResponseContentLength(gzipContent.remaining());
+                sender.send(gzipContent, completionCallback);
+                return;
+            }
+        }
+
+        exchange.setResponseContentLength(content.getSize());
+        sender.send(content.getContent(), completionCallback);
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.DelegatingResource#serveRange(io.undertow.io.Sender, io.undertow.server.HttpServerExchange, long, long, io.undertow.io.IoCallback)
+     */
+    @Override
+    public void serveRange(Sender sender, HttpServerExchange exchange, long start, long end, IoCallback completionCallback) {
+        CachedContent content = getContent();
+        if (content == null || end >= content.getSize()) {
+            super.serveRange(sender, exchange, start, end, completionCallback);
+            return;
+        }
+
+        ByteBuffer buffer = content.getContent();
+        buffer.limit((int) end + 1);
+        buffer.position((int) start);
+        sender.send(buffer, completionCallback);
+    }
+
+
+    /**
+     * Check if the gzip variant of the content is served to a request
+     *
+     * @param exchange the http server exchange
+     * @return true if the gzip variant is served
+     */
+    public boolean isGzipServed(HttpServerExchange exchange) {
+        CachedContent content = getContent();
+        return content != null && content.getGzipContent() != null
+                && ResourceUtil.getInstance().acceptsEncoding(exchange.getRequestHeaders().get(Headers.ACCEPT_ENCODING), GZIP);
+    }
+
+
+    /**
+     * Check if the content cache keeps a gzip variant of compressible content
+     *
+     * @return true if the compression is enabled
+     */
+    public boolean isCompressionEnabled() {
+        return contentCache.isCompressionEnabled();
+    }
+
+
+    /**
+     * Get the content cache
+     *
+     * @return the content cache
+     */
+    protected ContentCache getContentCache() {
+        return contentCache;
+    }
+
+
+    /**
+     * Read the content of the underlying resource and put it into the content cache
+     *
+     * @param key the cache key
+     * @param lastModified the last modified time of the resource
+     * @return the cached content or null if it can't be cached
+     * @throws IOException In case of an I/O error
+     */
+    protected CachedContent loadContent(String key, long lastModified) throws IOException {
+        byte[] data = ResourceUtil.getInstance().readContent(getDelegate());
+        return contentCache.put(key, lastModified, data, compress(data));
+    }
+
+
+    /**
+     * Compress the data in case the compression is enabled and the content type is compressible
+     *
+     * @param data the data
+     * @return the gzip compressed data or null if there is no worthwhile compressed variant
+     */
+    protected byte[] compress(byte[] data) {
+        if (!contentCache.isCompressionEnabled() || data.length == 0 || !contentCache.getCompressiblePredicate().isCompressible(getDelegate().getContentType(MimeMappings.DEFAULT))) {
+            return null;
+        }
+
+        try {
+            byte[] gzipData = GZIP_CONTENT_ENCODER.encode(data, contentCache.getCompressionLevel());
+            if (gzipData.length < data.length) {
+                return gzipData;
+            }
+        } catch (IOException e) {
+            LOG.debug("Could not compress content of [" + getKey() + "]: " + e.getMessage(), e);
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Get the cache key
+     *
+     * @return the cache key
+     */
+    protected String getKey() {
+        String key = getCacheKey();
+        if (key == null) {
+            key = getPath();
+        }
+        return key;
+    }
+}
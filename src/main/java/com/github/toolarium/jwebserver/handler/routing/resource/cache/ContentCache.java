@@ -0,0 +1,454 @@
+/*
+ * ContentCache.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.cache;
+
+import com.github.toolarium.jwebserver.handler.compression.CompressiblePredicate;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * In-memory content cache with a total byte budget. The content is kept in direct (off-heap) buffers.
+ * Entries are validated against the last modified time of the resource and in case the budget is
+ * exceeded the entries which were not used recently are evicted. The eviction is a clock: a hit only sets
+ * the reference bit of the entry, the eviction passes the entries in insertion order and gives a referenced
+ * entry a second chance.
+ *
+ * @author patrick
+ */
+public class ContentCache {
+    private static final Logger LOG = LoggerFactory.getLogger(ContentCache.class);
+    private static final int MIN_PATHS = 1024;
+    private final long maxSize;
+    private final int maxEntrySize;
+    private final CompressiblePredicate compressiblePredicate;
+    private final int compressionLevel;
+    private final ConcurrentHashMap<String, CachedContent> entries;
+    private final ConcurrentLinkedQueue<CachedContent> clock;
+    private final AtomicInteger removedInClock;
+    private final ConcurrentHashMap<String, String> paths;
+    private final AtomicLong currentSize;
+    private final AtomicLong accessTick;
+    private final SingleFlight<CachedContent> loads;
+
+
+    /**
+     * Constructor for ContentCache
+     *
+     * @param maxSize the max size of the cache in bytes
+     * @param maxEntrySize the max size of a single entry in bytes
+     */
+    public ContentCache(final long maxSize, final int maxEntrySize) {
+        this(maxSize, maxEntrySize, null, 0);
+    }
+
+
+    /**
+     * Constructor for ContentCache
+     *
+     * @param maxSize the max size of the cache in bytes
+     * @param maxEntrySize the max size of a single entry in bytes
+     * @param compressiblePredicate the predicate of the compressible content of which a gzip compressed variant is kept or null
+     * @param compressionLevel the compression level
+     */
+    public ContentCache(final long maxSize, final int maxEntrySize, final CompressiblePredicate compressiblePredicate, final int compressionLevel) {
+        this.maxSize = maxSize;
+        this.maxEntrySize = (int) Math.min(maxEntrySize, maxSize);
+        this.compressiblePredicate = compressiblePredicate;
+        this.compressionLevel = compressionLevel;
+        this.entries = new ConcurrentHashMap<>();
+        this.clock = new ConcurrentLinkedQueue<>();
+        this.removedInClock = new AtomicInteger();
+        this.paths = new ConcurrentHashMap<>();
+        this.currentSize = new AtomicLong(0);
+        this.accessTick = new AtomicLong(0);
+        this.loads = new SingleFlight<>();
+    }
+
+
+    /**
+     * Get the max size of the cache in bytes
+     *
+     * @return the max size
+     */
+    public long getMaxSize() {
+        return maxSize;
+    }
+
+
+    /**
+     * Get the max size of a single entry in bytes
+     *
+     * @return the max entry size
+     */
+    public int getMaxEntrySize() {
+        return maxEntrySize;
+    }
+
+
+    /**
+     * Check if a gzip compressed variant of compressible content is kept
+     *
+     * @return true if the compression is enabled
+     */
+    public boolean isCompressionEnabled() {
+        return compressiblePredicate != null;
+    }
+
+
+    /**
+     * Get the predicate of the compressible content
+     *
+     * @return the predicate or null if the compression is not enabled
+     */
+    public CompressiblePredicate getCompressiblePredicate() {
+        return compressiblePredicate;
+    }
+
+
+    /**
+     * Get the compression level
+     *
+     * @return the compression level
+     */
+    public int getCompressionLevel() {
+        return compressionLevel;
+    }
+
+
+    /**
+     * Get the current size of the cache in bytes
+     *
+     * @return the current size
+     */
+    public long getCurrentSize() {
+        return currentSize.get();
+    }
+
+
+    /**
+     * Get the number of cached entries
+     *
+     * @return the number of entries
+     */
+    public int getEntryCount() {
+        return entries.size();
+    }
+
+
+    /**
+     * Get the keys of the cached entries
+     *
+     * @return a snapshot of the keys
+     */
+    public Set<String> getKeys() {
+        return new HashSet<>(entries.keySet());
+    }
+
+
+    /**
+     * Get a cached content. In case the last modified time don't match the content is invalidated.
+     *
+     * @param key the key
+     * @param lastModified the current last modified time of the resource
+     * @return the content or null
+     */
+    public CachedContent get(String key, long lastModified) {
+        CachedContent content = entries.get(key);
+        if (content == null) {
+            return null;
+        }
+
+        if (content.getLastModified() != lastModified) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Invalidate modified content [" + key + "].");
+            }
+
+            remove(content);
+            return null;
+        }
+
+        content.touch(accessTick.incrementAndGet());
+        return content;
+    }
+
+
+    /**
+     * Get a cached content, in case it is not cached it is loaded by the loader. The concurrent loads of the same key
+     * and last modified time are coalesced into one load, the other callers await its result.
+     *
+     * @param key the key
+     * @param lastModified the current last modified time of the resource
+     * @param loader the loader which reads the content and puts it into the cache
+     * @return the content or null in case it can't be cached
+     * @throws IOException In case of an I/O error
+     */
+    public CachedContent get(String key, long lastModified, SingleFlight.ILoader<CachedContent> loader) throws IOException {
+        CachedContent content = get(key, lastModified);
+        if (content != null) {
+            return content;
+        }
+
+        return loads.load(key + "@" + lastModified, () -> {
+            // a load of the same key may have completed in the meantime
+            CachedContent loadedContent = get(key, lastModified);
+            if (loadedContent != null) {
+                return loadedContent;
+            }
+            return loader.load();
+        });
+    }
+
+
+    /**
+     * Put a content into the cache
+     *
+     * @param key the key
+     * @param lastModified the last modified time of the resource
+     * @param data the data
+     * @return the cached content or null in case the data is too big to be cached
+     */
+    public CachedContent put(String key, long lastModified, byte[] data) {
+        return put(key, lastModified, data, null);
+    }
+
+
+    /**
+     * Put a content into the cache
+     *
+     * @param key the key
+     * @param lastModified the last modified time of the resource
+     * @param data the data
+     * @param gzipData the gzip compressed data or null
+     * @return the cached content or null in case the data is too big to be cached
+     */
+    public CachedContent put(String key, long lastModified, byte[] data, byte[] gzipData) {
+        if (data == null || data.length > maxEntrySize) {
+            return null;
+        }
+
+        ByteBuffer gzipBuffer = null;
+        if (gzipData != null) {
+            gzipBuffer = toBuffer(gzipData);
+        }
+
+        return put(new CachedContent(key, lastModified, toBuffer(data), gzipBuffer, accessTick.incrementAndGet()));
+    }
+
+
+    /**
+     * Put a content into the cache. The buffer is kept as it is, e.g. a memory mapped file, and must not be modified afterwards.
+     *
+     * @param key the key
+     * @param lastModified the last modified time of the resource
+     * @param buffer the content
+     * @return the cached content or null in case the content is too big to be cached
+     */
+    public CachedContent put(String key, long lastModified, ByteBuffer buffer) {
+        if (buffer == null || buffer.remaining() > maxEntrySize) {
+            return null;
+        }
+
+        return put(new CachedContent(key, lastModified, buffer, null, accessTick.incrementAndGet()));
+    }
+
+
+    /**
+     * Remember the key of a requested path, the content of a path which no longer exists can be invalidated by the
+     * path. Only the path of the resource itself is remembered and not the paths which are resolved to it, e.g. to a
+     * welcome file or a parent, there is no bound of them. The remembered paths of evicted entries are dropped once
+     * they outnumber the entries.
+     *
+     * @param path the requested path
+     * @param resourcePath the path of the resolved resource
+     * @param key the key of the content
+     */
+    public void registerPath(String path, String resourcePath, String key) {
+        if (path == null || key == null || !isSamePath(path, resourcePath) || key.equals(paths.put(path, key))) {
+            return;
+        }
+
+        if (paths.size() > MIN_PATHS + 2 * entries.size()) {
+            paths.values().removeIf(pathKey -> !entries.containsKey(pathKey));
+        }
+    }
+
+
+    /**
+     * Invalidate the cached content of a requested path, e.g. in case the resource no longer exists
+     *
+     * @param path the requested path
+     */
+    public void invalidatePath(String path) {
+        if (path == null) {
+            return;
+        }
+
+        String key = paths.remove(path);
+        if (key != null) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Invalidate content of removed resource [" + path + "].");
+            }
+            invalidate(key);
+        }
+    }
+
+
+    /**
+     * Invalidate a cached content
+     *
+     * @param key the key
+     */
+    public void invalidate(String key) {
+        CachedContent content = entries.get(key);
+        if (content != null) {
+            remove(content);
+        }
+    }
+
+
+    /**
+     * Clear the cache
+     */
+    public void clear() {
+        for (CachedContent content : new ArrayList<>(entries.values())) {
+            remove(content);
+        }
+    }
+
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "ContentCache [maxSize=" + maxSize + ", maxEntrySize=" + maxEntrySize + ", compressionEnabled=" + isCompressionEnabled() + ", compressionLevel=" + compressionLevel + ", currentSize=" + currentSize.get() + ", entries=" + entries.size() + "]";
+    }
+
+
+    /**
+     * Check if a requested path names the resource itself, the leading slash is optional
+     *
+     * @param path the requested path
+     * @param resourcePath the path of the resource
+     * @return true if it is the same path
+     */
+    private static boolean isSamePath(String path, String resourcePath) {
+        if (resourcePath == null) {
+            return false;
+        }
+
+        int offset = 0;
+        if (path.startsWith("/")) {
+            offset = 1;
+        }
+        int resourceOffset = 0;
+        if (resourcePath.startsWith("/")) {
+            resourceOffset = 1;
+        }
+        return path.length() - offset == resourcePath.length() - resourceOffset && path.regionMatches(offset, resourcePath, resourceOffset, path.length() - offset);
+    }
+
+
+    /**
+     * Put a content into the cache and evict entries in case the budget is exceeded
+     *
+     * @param content the content
+     * @return the content
+     */
+    private CachedContent put(CachedContent content) {
+        CachedContent previous = entries.put(content.getKey(), content);
+        clock.offer(content);
+        currentSize.addAndGet(content.getMemorySize());
+        if (previous != null) {
+            currentSize.addAndGet(-previous.getMemorySize());
+            removedFromClock();
+        }
+
+        if (currentSize.get() > maxSize) {
+            evict();
+        }
+
+        return content;
+    }
+
+
+    /**
+     * Remove a content
+     *
+     * @param content the content to remove
+     */
+    private void remove(CachedContent content) {
+        if (entries.remove(content.getKey(), content)) {
+            currentSize.addAndGet(-content.getMemorySize());
+            removedFromClock();
+        }
+    }
+
+
+    /**
+     * Count a content which is removed from the cache but still in the clock. In case they outnumber the entries the
+     * clock is purged, otherwise the clock would keep the buffers of the removed content.
+     */
+    private void removedFromClock() {
+        if (removedInClock.incrementAndGet() > entries.size()) {
+            removedInClock.set(0);
+            clock.removeIf(content -> entries.get(content.getKey()) != content);
+        }
+    }
+
+
+    /**
+     * Copy data into a direct buffer
+     *
+     * @param data the data
+     * @return the buffer
+     */
+    private ByteBuffer toBuffer(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(data.length);
+        buffer.put(data);
+        buffer.flip();
+        return buffer;
+    }
+
+
+    /**
+     * Evict the entries which were not used recently until the cache fits into the budget again. A referenced entry
+     * loses its reference bit and moves to the end of the clock, every entry is passed at most twice.
+     */
+    private synchronized void evict() {
+        while (currentSize.get() > maxSize) {
+            CachedContent content = clock.poll();
+            if (content == null) {
+                return;
+            }
+
+            if (entries.get(content.getKey()) != content) {
+                // removed or replaced in the meantime
+                continue;
+            }
+
+            if (content.clearReferenced()) {
+                clock.offer(content);
+                continue;
+            }
+
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Evict content [" + content.getKey() + "].");
+            }
+            remove(content);
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * ContentCacheResourceManager.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.cache;
+
+import io.undertow.server.handlers.resource.Resource;
+import io.undertow.server.handlers.resource.ResourceChangeListener;
+import io.undertow.server.handlers.resource.ResourceManager;
+import java.io.IOException;
+import java.util.Collection;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Resource manager which keeps the content of the resources of an underlying resource manager in the {@link ContentCache}.
+ *
+ * @author patrick
+ */
+public class ContentCacheResourceManager implements ResourceManager {
+    private static final Logger LOG = LoggerFactory.getLogger(ContentCacheResourceManager.class);
+    private final ResourceManager delegate;
+    private final ContentCache contentCache;
+
+
+    /**
+     * Constructor for ContentCacheResourceManager
+     *
+     * @param delegate the underlying resource manager
+     * @param contentCache the content cache
+     */
+    public ContentCacheResourceManager(final ResourceManager delegate, final ContentCache contentCache) {
+        this.delegate = delegate;
+        this.contentCache = contentCache;
+    }
+
+
+    /**
+     * Get the content cache
+     *
+     * @return the content cache
+     */
+    public ContentCache getContentCache() {
+        return contentCache;
+    }
+
+
+    /**
+     * Preload the content of resources into the cache
+     *
+     * @param paths the paths of the resources
+     * @param maxSize the max size in bytes to preload
+     * @return the number of preloaded resources
+     */
+    public int preload(Collection<String> paths, long maxSize) {
+        int count = 0;
+        for (String path : paths) {
+            if (contentCache.getCurrentSize() >= maxSize) {
+                LOG.info("Preload limit of " + maxSize + " bytes reached, remaining resources are loaded on demand.");
+                break;
+            }
+
+            try {
+                Resource resource = getResource(path);
+                if (resource instanceof CachedResource && ((CachedResource) resource).getContent() != null) {
+                    count++;
+                }
+            } catch (IOException e) {
+                LOG.debug("Could not preload [" + path + "]: " + e.getMessage(), e);
+            }
+        }
+
+        return count;
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.ResourceManager#getResource(java.lang.String)
+     */
+    @Override
+    public Resource getResource(String path) throws IOException {
+        Resource resource = delegate.getResource(path);
+        if (resource == null) {
+            // the resource was removed, its content must not wait for the eviction
+            contentCache.invalidatePath(path);
+            return null;
+        }
+
+        if (resource.isDirectory()) {
+            return resource;
+        }
+
+        Long contentLength = resource.getContentLength();
+        if (contentLength == null || contentLength.longValue() > contentCache.getMaxEntrySize()) {
+            return resource;
+        }
+
+        CachedResource cachedResource = new CachedResource(resource, contentCache);
+        contentCache.registerPath(path, resource.getPath(), cachedResource.getKey());
+        return cachedResource;
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.ResourceManager#isResourceChangeListenerSupported()
+     */
+    @Override
+    public boolean isResourceChangeListenerSupported() {
+        return delegate.isResourceChangeListenerSupported();
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.ResourceManager#registerResourceChangeListener(io.undertow.server.handlers.resource.ResourceChangeListener)
+     */
+    @Override
+    public void registerResourceChangeListener(ResourceChangeListener listener) {
+        delegate.registerResourceChangeListener(listener);
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.ResourceManager#removeResourceChangeListener(io.undertow.server.handlers.resource.ResourceChangeListener)
+     */
+    @Override
+    public void removeResourceChangeListener(ResourceChangeListener listener) {
+        delegate.removeResourceChangeListener(listener);
+    }
+
+
+    /**
+     * @see java.io.Closeable#close()
+     */
+    @Override
+    public void close() throws IOException {
+        contentCache.clear();
+        delegate.close();
+    }
+}
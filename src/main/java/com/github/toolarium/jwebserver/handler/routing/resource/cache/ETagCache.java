@@ -0,0 +1,165 @@
+/*
+ * ETagCache.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.cache;
+
+import com.github.toolarium.jwebserver.util.ResourceUtil;
+import io.undertow.server.handlers.resource.Resource;
+import io.undertow.util.ETag;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.CRC32C;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Bounded cache of strong ETags. The tag is a hash of the content which is computed once per path and last modified
+ * time, a conditional request is answered from the cache without reading the resource again. In case the cache is full
+ * an arbitrary entry is replaced.
+ *
+ * @author patrick
+ */
+public class ETagCache {
+    private static final Logger LOG = LoggerFactory.getLogger(ETagCache.class);
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private final int maxEntries;
+    private final ConcurrentHashMap<String, CachedETag> entries;
+    private final SingleFlight<ETag> computations;
+
+
+    /**
+     * Constructor for ETagCache
+     *
+     * @param maxEntries the max number of entries
+     */
+    public ETagCache(final int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new ConcurrentHashMap<>();
+        this.computations = new SingleFlight<>();
+    }
+
+
+    /**
+     * Get the strong ETag of a resource. In case the last modified time changed the hash is computed again.
+     *
+     * @param key the key
+     * @param resource the resource
+     * @return the ETag or null if the content can't be read
+     */
+    public ETag get(String key, Resource resource) {
+        return get(key, resource, null);
+    }
+
+
+    /**
+     * Get the strong ETag of a content encoded variant of a resource. The tag of the variant is built once per ETag.
+     *
+     * @param key the key
+     * @param resource the resource
+     * @param encoding the content encoding of the variant or null
+     * @return the ETag or null if the content can't be read
+     */
+    public ETag get(String key, Resource resource, String encoding) {
+        final long lastModified = ResourceUtil.getInstance().getLastModified(resource);
+        CachedETag entry = entries.get(key);
+        if (entry != null && entry.getLastModified() == lastModified) {
+            return entry.getETag(encoding);
+        }
+
+        ETag etag;
+        try {
+            // the concurrent requests of a missing tag await a single hash computation
+            etag = computations.load(key + "@" + lastModified, () -> createETag(resource));
+        } catch (IOException e) {
+            LOG.debug("Could not compute the ETag of [" + key + "]: " + e.getMessage(), e);
+            return null;
+        }
+
+        if (entry == null && entries.size() >= maxEntries) {
+            Iterator<String> iterator = entries.keySet().iterator();
+            if (iterator.hasNext()) {
+                entries.remove(iterator.next());
+            }
+        }
+
+        CachedETag cachedETag = new CachedETag(lastModified, etag);
+        entries.put(key, cachedETag);
+        return cachedETag.getETag(encoding);
+    }
+
+
+    /**
+     * Clear the cache
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+
+    /**
+     * Get the number of cached ETags
+     *
+     * @return the number of entries
+     */
+    public int getEntryCount() {
+        return entries.size();
+    }
+
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "ETagCache [maxEntries=" + maxEntries + ", entries=" + entries.size() + "]";
+    }
+
+
+    /**
+     * Create the ETag of the content, it consists of the length and the CRC32C of the content
+     *
+     * @param resource the resource
+     * @return the ETag
+     * @throws IOException In case of an I/O error
+     */
+    protected ETag createETag(Resource resource) throws IOException {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Compute the ETag of [" + resource.getPath() + "].");
+        }
+
+        CRC32C checksum = new CRC32C();
+        long length = 0;
+        if (resource.getFilePath() != null) {
+            ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+            try (FileChannel channel = FileChannel.open(resource.getFilePath(), StandardOpenOption.READ)) {
+                while (channel.read(buffer) >= 0) {
+                    buffer.flip();
+                    length += buffer.remaining();
+                    checksum.update(buffer);
+                    buffer.clear();
+                }
+            }
+        } else if (resource.getUrl() != null) {
+            byte[] buffer = new byte[BUFFER_SIZE];
+            try (InputStream inputStream = resource.getUrl().openStream()) {
+                int count;
+                while ((count = inputStream.read(buffer)) >= 0) {
+                    length += count;
+                    checksum.update(buffer, 0, count);
+                }
+            }
+        } else {
+            throw new IOException("Could not access content of resource [" + resource.getPath() + "].");
+        }
+
+        return new ETag(false, Long.toHexString(length) + "-" + Long.toHexString(checksum.getValue()));
+    }
+}
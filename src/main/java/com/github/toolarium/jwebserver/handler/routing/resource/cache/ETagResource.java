@@ -0,0 +1,48 @@
+/*
+ * ETagResource.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.cache;
+
+import com.github.toolarium.jwebserver.handler.routing.resource.DelegatingResource;
+import io.undertow.server.handlers.resource.Resource;
+import io.undertow.util.ETag;
+
+
+/**
+ * Resource with a strong ETag of its content from the {@link ETagCache}. A content encoded variant of the same
+ * resource gets its own tag by a suffix of the encoding.
+ *
+ * @author patrick
+ */
+public class ETagResource extends DelegatingResource {
+    private final ETagCache etagCache;
+    private final String key;
+    private final String encoding;
+
+
+    /**
+     * Constructor for ETagResource
+     *
+     * @param delegate the underlying resource
+     * @param etagCache the ETag cache
+     * @param key the key of the content
+     * @param encoding the content encoding of the served variant or null
+     */
+    public ETagResource(final Resource delegate, final ETagCache etagCache, final String key, final String encoding) {
+        super(delegate);
+        this.etagCache = etagCache;
+        this.key = key;
+        this.encoding = encoding;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.DelegatingResource#getETag()
+     */
+    @Override
+    public ETag getETag() {
+        return etagCache.get(key, getDelegate(), encoding);
+    }
+}
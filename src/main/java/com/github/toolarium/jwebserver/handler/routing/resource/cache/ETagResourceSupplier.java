@@ -0,0 +1,83 @@
+/*
+ * ETagResourceSupplier.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.cache;
+
+import com.github.toolarium.jwebserver.handler.routing.resource.archive.ArchiveResource;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.resource.Resource;
+import io.undertow.server.handlers.resource.ResourceSupplier;
+import io.undertow.util.ETag;
+import io.undertow.util.Headers;
+import java.io.IOException;
+
+
+/**
+ * Resource supplier which gives the resources of the underlying suppliers a strong ETag of their content. The
+ * conditional requests (If-None-Match, If-Modified-Since) are answered by the resource handler from the cached tag
+ * and the last modified time, the content is not read again. The ETag header is set before the resource handler
+ * answers a conditional request, so a 304 response carries it as well.
+ *
+ * @author patrick
+ */
+public class ETagResourceSupplier implements ResourceSupplier {
+    private static final String GZIP = "gzip";
+    private final ResourceSupplier delegate;
+    private final ETagCache etagCache;
+
+
+    /**
+     * Constructor for ETagResourceSupplier
+     *
+     * @param delegate the underlying resource supplier
+     * @param etagCache the ETag cache
+     */
+    public ETagResourceSupplier(final ResourceSupplier delegate, final ETagCache etagCache) {
+        this.delegate = delegate;
+        this.etagCache = etagCache;
+    }
+
+
+    /**
+     * Get the ETag cache
+     *
+     * @return the ETag cache
+     */
+    public ETagCache getETagCache() {
+        return etagCache;
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.ResourceSupplier#getResource(io.undertow.server.HttpServerExchange, java.lang.String)
+     */
+    @Override
+    public Resource getResource(HttpServerExchange exchange, String path) throws IOException {
+        Resource resource = delegate.getResource(exchange, path);
+        if (resource == null || resource.isDirectory()) {
+            return resource;
+        }
+
+        String key = resource.getCacheKey();
+        if (key == null) {
+            key = resource.getPath();
+        }
+
+        // a content encoded variant is a different representation
+        String encoding = exchange.getResponseHeaders().getFirst(Headers.CONTENT_ENCODING);
+        if (encoding == null && resource instanceof CachedResource && ((CachedResource) resource).isGzipServed(exchange)) {
+            encoding = GZIP;
+        } else if (encoding == null && resource instanceof ArchiveResource && ((ArchiveResource) resource).isGzipServed(exchange)) {
+            encoding = GZIP;
+        }
+
+        ETagResource etagResource = new ETagResource(resource, etagCache, key, encoding);
+        ETag etag = etagResource.getETag();
+        if (etag != null) {
+            exchange.getResponseHeaders().put(Headers.ETAG, etag.toString());
+        }
+        return etagResource;
+    }
+}
@@ -0,0 +1,457 @@
+/*
+ * IoThreadResponseHandler.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.cache;
+
+import com.github.toolarium.jwebserver.config.IResourceServerConfiguration;
+import com.github.toolarium.jwebserver.config.IWebServerConfiguration;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.resource.Resource;
+import io.undertow.server.handlers.resource.ResourceChangeEvent;
+import io.undertow.server.handlers.resource.ResourceChangeListener;
+import io.undertow.server.handlers.resource.ResourceManager;
+import io.undertow.util.CanonicalPathUtils;
+import io.undertow.util.DateUtils;
+import io.undertow.util.ETag;
+import io.undertow.util.ETagUtils;
+import io.undertow.util.HeaderMap;
+import io.undertow.util.HeaderValues;
+import io.undertow.util.Headers;
+import io.undertow.util.HttpString;
+import io.undertow.util.Methods;
+import io.undertow.util.StatusCodes;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Handler which writes the responses of the resources in the content cache directly from the IO thread. The resource
+ * handler of undertow dispatches every request to a worker thread because the resource managers may block. A response
+ * which was served once from the content cache is recorded with the headers the resource handler has set and replayed
+ * on the IO thread, including the conditional requests by If-None-Match and If-Modified-Since. The cache misses, the
+ * range requests, the large and the memory mapped files are served by the worker threads as before.
+ *
+ * <p>A recorded response is dropped in case its content is no longer in the content cache, on any change of the file
+ * system and after the time to live, the next request validates the resource again on a worker thread. The number of
+ * recorded responses is bounded, a response which was not replayed since the last pass of the clock is evicted. The
+ * Expires header is not replayed as recorded, it is computed from the request time.</p>
+ *
+ * @author patrick
+ */
+public class IoThreadResponseHandler implements HttpHandler, ResourceChangeListener {
+    private static final Logger LOG = LoggerFactory.getLogger(IoThreadResponseHandler.class);
+    private static final int MAX_ENTRIES = 4096;
+    private static final Set<HttpString> NOT_RECORDED_HEADERS = Set.of(Headers.DATE, Headers.EXPIRES, Headers.CONNECTION, Headers.KEEP_ALIVE, Headers.TRANSFER_ENCODING, Headers.SET_COOKIE);
+    private static final Set<HttpString> NOT_MODIFIED_EXCLUDED_HEADERS = Set.of(Headers.CONTENT_LENGTH, Headers.CONTENT_TYPE, Headers.CONTENT_ENCODING);
+    private final HttpHandler next;
+    private final ResourceManager resourceManager;
+    private final ContentCache contentCache;
+    private final long timeToLive;
+    private final ConcurrentHashMap<String, RecordedResponse> responses;
+    private final ConcurrentLinkedQueue<RecordedResponse> clock;
+    private final AtomicInteger clockSize;
+
+
+    /**
+     * Constructor for IoThreadResponseHandler
+     *
+     * @param next the next handler
+     * @param resourceManager the resource manager
+     * @param contentCache the content cache
+     * @param timeToLive the time to live in milliseconds of a recorded response
+     */
+    public IoThreadResponseHandler(final HttpHandler next, final ResourceManager resourceManager, final ContentCache contentCache, final long timeToLive) {
+        this.next = next;
+        this.resourceManager = resourceManager;
+        this.contentCache = contentCache;
+        this.timeToLive = timeToLive;
+        this.responses = new ConcurrentHashMap<>();
+        this.clock = new ConcurrentLinkedQueue<>();
+        this.clockSize = new AtomicInteger();
+
+        if (resourceManager.isResourceChangeListenerSupported()) {
+            // drop the recorded responses on any change of the file system
+            resourceManager.registerResourceChangeListener(this);
+        }
+    }
+
+
+    /**
+     * Add the handler in case the cached responses are written from the IO thread
+     *
+     * @param webServerConfiguration the web server configuration
+     * @param resourceHandler the resource handler
+     * @param next the next handler
+     * @return the handler
+     */
+    public static HttpHandler addHandler(final IWebServerConfiguration webServerConfiguration, final io.undertow.server.handlers.resource.ResourceHandler resourceHandler, final HttpHandler next) {
+        IResourceServerConfiguration configuration = webServerConfiguration.getResourceServerConfiguration();
+        if (!configuration.isServeFromIoThread() || !(resourceHandler.getResourceManager() instanceof ContentCacheResourceManager)) {
+            // without a content cache every resource has to be read by a worker thread
+            return next;
+        }
+
+        ContentCacheResourceManager resourceManager = (ContentCacheResourceManager) resourceHandler.getResourceManager();
+        return new IoThreadResponseHandler(next, resourceManager, resourceManager.getContentCache(), configuration.getIoThreadTimeToLive());
+    }
+
+
+    /**
+     * @see io.undertow.server.HttpHandler#handleRequest(io.undertow.server.HttpServerExchange)
+     */
+    @Override
+    public void handleRequest(HttpServerExchange exchange) throws Exception {
+        boolean head = Methods.HEAD.equals(exchange.getRequestMethod());
+        if ((!head && !Methods.GET.equals(exchange.getRequestMethod())) || !isReplayable(exchange)) {
+            next.handleRequest(exchange);
+            return;
+        }
+
+        String key = getKey(exchange);
+        RecordedResponse response = responses.get(key);
+        if (response != null && !isValid(response)) {
+            responses.remove(key, response);
+            response = null;
+        }
+
+        if (response != null) {
+            response.referenced = true;
+            serve(exchange, response, head);
+            return;
+        }
+
+        if (exchange.isInIoThread()) {
+            // the resource manager may block
+            exchange.dispatch(this);
+            return;
+        }
+
+        record(exchange, key);
+        next.handleRequest(exchange);
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.ResourceChangeListener#handleChanges(java.util.Collection)
+     */
+    @Override
+    public void handleChanges(Collection<ResourceChangeEvent> changes) {
+        responses.clear();
+    }
+
+
+    /**
+     * Get the number of recorded responses
+     *
+     * @return the number of recorded responses
+     */
+    public int getResponseCount() {
+        return responses.size();
+    }
+
+
+    /**
+     * Check if a request can be answered by a recorded response, the range and the other conditional requests are served by the resource handler
+     *
+     * @param exchange the http server exchange
+     * @return true if the request can be answered by a recorded response
+     */
+    protected boolean isReplayable(HttpServerExchange exchange) {
+        HeaderMap requestHeaders = exchange.getRequestHeaders();
+        return !requestHeaders.contains(Headers.RANGE) && !requestHeaders.contains(Headers.IF_RANGE)
+                && !requestHeaders.contains(Headers.IF_MATCH) && !requestHeaders.contains(Headers.IF_UNMODIFIED_SINCE);
+    }
+
+
+    /**
+     * Check if a recorded response is still valid
+     *
+     * @param response the recorded response
+     * @return true if it is valid
+     */
+    protected boolean isValid(RecordedResponse response) {
+        if (System.currentTimeMillis() > response.expires) {
+            return false;
+        }
+
+        // the content is still the cached content and not evicted or replaced by a modified content
+        return contentCache.get(response.cachedContent.getKey(), response.cachedContent.getLastModified()) == response.cachedContent;
+    }
+
+
+    /**
+     * Write a recorded response from the current thread
+     *
+     * @param exchange the http server exchange
+     * @param response the recorded response
+     * @param head true if it is a head request
+     */
+    protected void serve(HttpServerExchange exchange, RecordedResponse response, boolean head) {
+        HeaderMap responseHeaders = exchange.getResponseHeaders();
+        boolean notModified = (response.etag != null && exchange.getRequestHeaders().contains(Headers.IF_NONE_MATCH) && !ETagUtils.handleIfNoneMatch(exchange, response.etag, true))
+                || (response.lastModified != null && !exchange.getRequestHeaders().contains(Headers.IF_NONE_MATCH) && !DateUtils.handleIfModifiedSince(exchange, response.lastModified));
+
+        for (int i = 0; i < response.headerNames.size(); i++) {
+            if (!notModified || !NOT_MODIFIED_EXCLUDED_HEADERS.contains(response.headerNames.get(i))) {
+                responseHeaders.putAll(response.headerNames.get(i), response.headerValues.get(i));
+            }
+        }
+
+        if (response.expiresOffset != null) {
+            responseHeaders.put(Headers.EXPIRES, DateUtils.toDateString(new Date(System.currentTimeMillis() + response.expiresOffset)));
+        }
+
+        if (notModified) {
+            exchange.setStatusCode(StatusCodes.NOT_MODIFIED);
+            exchange.endExchange();
+            return;
+        }
+
+        exchange.setStatusCode(StatusCodes.OK);
+        if (head) {
+            exchange.endExchange();
+            return;
+        }
+
+        exchange.getResponseSender().send(response.content.duplicate());
+    }
+
+
+    /**
+     * Record the response of a resource from the content cache once the exchange is complete
+     *
+     * @param exchange the http server exchange
+     * @param key the key of the response
+     */
+    protected void record(HttpServerExchange exchange, String key) {
+        final CachedResource resource = getCachedResource(CanonicalPathUtils.canonicalize(exchange.getRelativePath()));
+        if (resource == null) {
+            // not servable from memory, e.g. a missing or a large file
+            return;
+        }
+
+        final Set<HttpString> existingHeaders = new HashSet<>(exchange.getResponseHeaders().getHeaderNames());
+        final CachedContent cachedContent = resource.getContent();
+        exchange.addExchangeCompleteListener((completedExchange, nextListener) -> {
+            try {
+                if (completedExchange.getStatusCode() == StatusCodes.OK) {
+                    RecordedResponse response = createResponse(key, completedExchange.getResponseHeaders(), existingHeaders, cachedContent);
+                    if (response != null) {
+                        putResponse(key, response);
+                    }
+                }
+            } finally {
+                nextListener.proceed();
+            }
+        });
+    }
+
+
+    /**
+     * Create the recorded response of a served content
+     *
+     * @param key the key of the response
+     * @param responseHeaders the response headers
+     * @param existingHeaders the names of the headers which were set before the resource handler
+     * @param cachedContent the cached content
+     * @return the recorded response or null in case the response was not served from the cached content
+     */
+    protected RecordedResponse createResponse(String key, HeaderMap responseHeaders, Set<HttpString> existingHeaders, CachedContent cachedContent) {
+        ByteBuffer content = null;
+        String contentEncoding = responseHeaders.getFirst(Headers.CONTENT_ENCODING);
+        if (contentEncoding == null) {
+            content = cachedContent.getContent();
+        } else if ("gzip".equals(contentEncoding)) {
+            content = cachedContent.getGzipContent();
+        }
+
+        // e.g. a deflate variant of the compressed resource cache
+        String contentLength = responseHeaders.getFirst(Headers.CONTENT_LENGTH);
+        if (content == null || contentLength == null || !contentLength.equals(String.valueOf(content.remaining()))) {
+            return null;
+        }
+
+        List<HttpString> headerNames = new ArrayList<>();
+        List<List<String>> headerValues = new ArrayList<>();
+        for (HeaderValues values : responseHeaders) {
+            if (!existingHeaders.contains(values.getHeaderName()) && !NOT_RECORDED_HEADERS.contains(values.getHeaderName())) {
+                headerNames.add(values.getHeaderName());
+                headerValues.add(new ArrayList<>(values));
+            }
+        }
+
+        ETag etag = null;
+        String etagValue = responseHeaders.getFirst(Headers.ETAG);
+        if (etagValue != null) {
+            List<ETag> etags = ETagUtils.parseETagList(etagValue);
+            if (etags != null && !etags.isEmpty()) {
+                etag = etags.get(0);
+            }
+        }
+
+        Date lastModified = null;
+        String lastModifiedValue = responseHeaders.getFirst(Headers.LAST_MODIFIED);
+        if (lastModifiedValue != null) {
+            lastModified = DateUtils.parseDate(lastModifiedValue);
+        }
+
+        // the Expires header is relative to the request time
+        Long expiresOffset = null;
+        String expiresValue = responseHeaders.getFirst(Headers.EXPIRES);
+        if (expiresValue != null && !existingHeaders.contains(Headers.EXPIRES)) {
+            Date expires = DateUtils.parseDate(expiresValue);
+            if (expires != null) {
+                expiresOffset = expires.getTime() - System.currentTimeMillis();
+            }
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Record response of [" + cachedContent.getKey() + "] " + headerNames + ".");
+        }
+
+        return new RecordedResponse(key, cachedContent, content, headerNames, headerValues, etag, lastModified, expiresOffset, System.currentTimeMillis() + timeToLive);
+    }
+
+
+    /**
+     * Get the resource in case its content is in the content cache, the memory mapped files are excluded
+     *
+     * @param path the path
+     * @return the cached resource or null
+     */
+    protected CachedResource getCachedResource(String path) {
+        try {
+            Resource resource = resourceManager.getResource(path);
+            if (resource instanceof CachedResource && !(resource instanceof MappedResource) && ((CachedResource) resource).getContent() != null) {
+                return (CachedResource) resource;
+            }
+        } catch (IOException e) {
+            LOG.debug("Could not resolve [" + path + "]: " + e.getMessage(), e);
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Get the key of the recorded response, the variant depends on the accepted encodings
+     *
+     * @param exchange the http server exchange
+     * @return the key
+     */
+    protected String getKey(HttpServerExchange exchange) {
+        String acceptEncoding = exchange.getRequestHeaders().getFirst(Headers.ACCEPT_ENCODING);
+        if (acceptEncoding == null) {
+            return exchange.getRelativePath();
+        }
+
+        return exchange.getRelativePath() + '\n' + acceptEncoding;
+    }
+
+
+    /**
+     * Put a recorded response
+     *
+     * @param key the key
+     * @param response the recorded response
+     */
+    private void putResponse(String key, RecordedResponse response) {
+        responses.put(key, response);
+        clock.offer(response);
+        if (clockSize.incrementAndGet() > 2 * MAX_ENTRIES || responses.size() > MAX_ENTRIES) {
+            evict();
+        }
+    }
+
+
+    /**
+     * Evict the responses which were not replayed since the last pass of the clock until the limit is reached
+     */
+    private synchronized void evict() {
+        if (clockSize.get() > 2 * MAX_ENTRIES) {
+            // the responses which were replaced, expired or cleared are still in the clock
+            clock.removeIf(response -> responses.get(response.key) != response);
+            clockSize.set(clock.size());
+        }
+
+        while (responses.size() > MAX_ENTRIES) {
+            RecordedResponse response = clock.poll();
+            if (response == null) {
+                return;
+            }
+            clockSize.decrementAndGet();
+
+            if (responses.get(response.key) != response) {
+                continue;
+            }
+
+            if (response.referenced) {
+                // second chance
+                response.referenced = false;
+                clock.offer(response);
+                clockSize.incrementAndGet();
+            } else {
+                responses.remove(response.key, response);
+            }
+        }
+    }
+
+
+    /**
+     * Defines a recorded response
+     */
+    protected static class RecordedResponse {
+        private final String key;
+        private final CachedContent cachedContent;
+        private final ByteBuffer content;
+        private final List<HttpString> headerNames;
+        private final List<List<String>> headerValues;
+        private final ETag etag;
+        private final Date lastModified;
+        private final Long expiresOffset;
+        private final long expires;
+        private volatile boolean referenced;
+
+
+        /**
+         * Constructor for RecordedResponse
+         *
+         * @param key the key
+         * @param cachedContent the cached content
+         * @param content the content of the served variant
+         * @param headerNames the names of the recorded headers
+         * @param headerValues the values of the recorded headers
+         * @param etag the ETag or null
+         * @param lastModified the last modified time or null
+         * @param expiresOffset the offset in milliseconds of the Expires header to the request time or null
+         * @param expires the time in milliseconds when the response has to be validated again
+         */
+        RecordedResponse(final String key, final CachedContent cachedContent, final ByteBuffer content, final List<HttpString> headerNames, final List<List<String>> headerValues,
+                final ETag etag, final Date lastModified, final Long expiresOffset, final long expires) {
+            this.key = key;
+            this.cachedContent = cachedContent;
+            this.content = content;
+            this.headerNames = headerNames;
+            this.headerValues = headerValues;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.expiresOffset = expiresOffset;
+            this.expires = expires;
+            this.referenced = false;
+        }
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * MappedFileResourceManager.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.cache;
+
+import io.undertow.server.handlers.resource.Resource;
+import io.undertow.server.handlers.resource.ResourceChangeListener;
+import io.undertow.server.handlers.resource.ResourceManager;
+import java.io.IOException;
+
+
+/**
+ * Resource manager which serves the mid-size files of an underlying resource manager from memory mapped files. Smaller
+ * files are served as they are, bigger files are sent by a zero-copy transfer of the underlying resource.
+ *
+ * @author patrick
+ */
+public class MappedFileResourceManager implements ResourceManager {
+    private final ResourceManager delegate;
+    private final ContentCache contentCache;
+    private final long minSize;
+
+
+    /**
+     * Constructor for MappedFileResourceManager
+     *
+     * @param delegate the underlying resource manager
+     * @param contentCache the content cache of the mapped files, its max entry size is the max size of a mapped file
+     * @param minSize the min size in bytes of a file to be mapped
+     */
+    public MappedFileResourceManager(final ResourceManager delegate, final ContentCache contentCache, final long minSize) {
+        this.delegate = delegate;
+        this.contentCache = contentCache;
+        this.minSize = minSize;
+    }
+
+
+    /**
+     * Get the content cache of the mapped files
+     *
+     * @return the content cache
+     */
+    public ContentCache getContentCache() {
+        return contentCache;
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.ResourceManager#getResource(java.lang.String)
+     */
+    @Override
+    public Resource getResource(String path) throws IOException {
+        Resource resource = delegate.getResource(path);
+        if (resource == null) {
+            // the file was removed, its mapping must not wait for the eviction
+            contentCache.invalidatePath(path);
+            return null;
+        }
+
+        if (resource.isDirectory() || resource.getFilePath() == null) {
+            return resource;
+        }
+
+        Long contentLength = resource.getContentLength();
+        if (contentLength == null || contentLength.longValue() < minSize || contentLength.longValue() > contentCache.getMaxEntrySize()) {
+            return resource;
+        }
+
+        MappedResource cachedResource = new MappedResource(resource, contentCache);
+        contentCache.registerPath(path, resource.getPath(), cachedResource.getKey());
+        return cachedResource;
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.ResourceManager#isResourceChangeListenerSupported()
+     */
+    @Override
+    public boolean isResourceChangeListenerSupported() {
+        return delegate.isResourceChangeListenerSupported();
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.ResourceManager#registerResourceChangeListener(io.undertow.server.handlers.resource.ResourceChangeListener)
+     */
+    @Override
+    public void registerResourceChangeListener(ResourceChangeListener listener) {
+        delegate.registerResourceChangeListener(listener);
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.ResourceManager#removeResourceChangeListener(io.undertow.server.handlers.resource.ResourceChangeListener)
+     */
+    @Override
+    public void removeResourceChangeListener(ResourceChangeListener listener) {
+        delegate.removeResourceChangeListener(listener);
+    }
+
+
+    /**
+     * @see java.io.Closeable#close()
+     */
+    @Override
+    public void close() throws IOException {
+        contentCache.clear();
+        delegate.close();
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * MappedResource.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.cache;
+
+import io.undertow.server.handlers.resource.Resource;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+
+/**
+ * Resource which serves its content from a memory mapped file. The file is mapped once and the mapping is shared
+ * across the requests, it is kept in the {@link ContentCache} until the file is modified or the mapping is evicted.
+ *
+ * @author patrick
+ */
+public class MappedResource extends CachedResource {
+
+    /**
+     * Constructor for MappedResource
+     *
+     * @param delegate the underlying file resource
+     * @param contentCache the content cache of the mapped files
+     */
+    public MappedResource(final Resource delegate, final ContentCache contentCache) {
+        super(delegate, contentCache);
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.cache.CachedResource#isCompressionEnabled()
+     */
+    @Override
+    public boolean isCompressionEnabled() {
+        return false;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.cache.CachedResource#loadContent(java.lang.String, long)
+     */
+    @Override
+    protected CachedContent loadContent(String key, long lastModified) throws IOException {
+        try (FileChannel channel = FileChannel.open(getFilePath(), StandardOpenOption.READ)) {
+            // the mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return getContentCache().put(key, lastModified, buffer);
+        }
+    }
+}
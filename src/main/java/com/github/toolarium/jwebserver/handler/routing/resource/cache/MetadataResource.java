@@ -0,0 +1,79 @@
+/*
+ * MetadataResource.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.cache;
+
+import com.github.toolarium.jwebserver.handler.routing.resource.DelegatingResource;
+import java.util.Date;
+
+
+/**
+ * Resource which answers its type, size and last modified time from the {@link ResourceMetadata} instead of the file system.
+ *
+ * @author patrick
+ */
+public class MetadataResource extends DelegatingResource {
+    private final ResourceMetadata metadata;
+
+
+    /**
+     * Constructor for MetadataResource
+     *
+     * @param metadata the metadata of an existing file
+     */
+    public MetadataResource(final ResourceMetadata metadata) {
+        super(metadata.getResource());
+        this.metadata = metadata;
+    }
+
+
+    /**
+     * Get the metadata
+     *
+     * @return the metadata
+     */
+    public ResourceMetadata getMetadata() {
+        return metadata;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.DelegatingResource#isDirectory()
+     */
+    @Override
+    public boolean isDirectory() {
+        return metadata.isDirectory();
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.DelegatingResource#getLastModified()
+     */
+    @Override
+    public Date getLastModified() {
+        return metadata.getLastModified();
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.DelegatingResource#getLastModifiedString()
+     */
+    @Override
+    public String getLastModifiedString() {
+        return metadata.getLastModifiedString();
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.DelegatingResource#getContentLength()
+     */
+    @Override
+    public Long getContentLength() {
+        if (metadata.isDirectory()) {
+            return null;
+        }
+        return Long.valueOf(metadata.getSize());
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * ResourceHeaders.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.cache;
+
+import io.undertow.server.handlers.resource.Resource;
+import io.undertow.util.DateUtils;
+import io.undertow.util.MimeMappings;
+import java.util.Date;
+
+
+/**
+ * Defines the precomputed response header values of a cached content. They are computed once per content and applied
+ * on every request without a mime lookup, a file system access or a date formatting.
+ *
+ * @author patrick
+ */
+public class ResourceHeaders {
+    private final String contentType;
+    private final Long contentLength;
+    private final Date lastModified;
+    private final String lastModifiedString;
+
+
+    /**
+     * Constructor for ResourceHeaders
+     *
+     * @param contentType the content type by the default mime mappings or null
+     * @param contentLength the content length
+     * @param lastModified the last modified time or null
+     */
+    public ResourceHeaders(final String contentType, final long contentLength, final Date lastModified) {
+        this.contentType = contentType;
+        this.contentLength = Long.valueOf(contentLength);
+        this.lastModified = lastModified;
+        if (lastModified != null) {
+            this.lastModifiedString = DateUtils.toDateString(lastModified);
+        } else {
+            this.lastModifiedString = null;
+        }
+    }
+
+
+    /**
+     * Create the header values of a cached content
+     *
+     * @param resource the resource
+     * @param content the cached content of the resource
+     * @return the header values
+     */
+    public static ResourceHeaders create(Resource resource, CachedContent content) {
+        Date lastModified = null;
+        if (content.getLastModified() >= 0) {
+            lastModified = new Date(content.getLastModified());
+        }
+
+        return new ResourceHeaders(resource.getContentType(MimeMappings.DEFAULT), content.getSize(), lastModified);
+    }
+
+
+    /**
+     * Get the content type by the default mime mappings
+     *
+     * @return the content type or null
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+
+    /**
+     * Get the content length of the identity variant
+     *
+     * @return the content length
+     */
+    public Long getContentLength() {
+        return contentLength;
+    }
+
+
+    /**
+     * Get the last modified time
+     *
+     * @return the last modified time or null
+     */
+    public Date getLastModified() {
+        return lastModified;
+    }
+
+
+    /**
+     * Get the formatted last modified time
+     *
+     * @return the formatted last modified time or null
+     */
+    public String getLastModifiedString() {
+        return lastModifiedString;
+    }
+
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "ResourceHeaders [contentType=" + contentType + ", contentLength=" + contentLength + ", lastModified=" + lastModifiedString + "]";
+    }
+}
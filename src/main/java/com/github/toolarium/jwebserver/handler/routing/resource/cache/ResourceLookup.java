@@ -0,0 +1,69 @@
+/*
+ * ResourceLookup.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.cache;
+
+
+/**
+ * Defines the result of a resource lookup which is kept in the {@link ResourceLookupCache}.
+ *
+ * @author patrick
+ */
+public class ResourceLookup {
+    private final String resolvedPath;
+    private final long expires;
+
+
+    /**
+     * Constructor for ResourceLookup
+     *
+     * @param resolvedPath the resolved path or null if the resource was not found
+     * @param expires the expire time in milliseconds
+     */
+    public ResourceLookup(final String resolvedPath, final long expires) {
+        this.resolvedPath = resolvedPath;
+        this.expires = expires;
+    }
+
+
+    /**
+     * Check if the resource was found
+     *
+     * @return true if the resource was found
+     */
+    public boolean isFound() {
+        return resolvedPath != null;
+    }
+
+
+    /**
+     * Get the path the requested path was resolved to
+     *
+     * @return the resolved path or null if the resource was not found
+     */
+    public String getResolvedPath() {
+        return resolvedPath;
+    }
+
+
+    /**
+     * Check if the lookup is expired
+     *
+     * @param now the current time in milliseconds
+     * @return true if it is expired
+     */
+    public boolean isExpired(long now) {
+        return now >= expires;
+    }
+
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "ResourceLookup [resolvedPath=" + resolvedPath + ", expires=" + expires + "]";
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * ResourceLookupCache.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.cache;
+
+import io.undertow.server.handlers.resource.Resource;
+import io.undertow.server.handlers.resource.ResourceChangeEvent;
+import io.undertow.server.handlers.resource.ResourceChangeListener;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Bounded cache of resource lookups. It keeps the requested paths which could not be found and the paths which
+ * were resolved by a supported file extension or a parent welcome file, so a repeated lookup costs one hash lookup
+ * instead of several file system or class loader probes. The entries expire after the time to live and the whole
+ * cache is cleared on any file system change.
+ *
+ * @author patrick
+ */
+public class ResourceLookupCache implements ResourceChangeListener {
+    private static final Logger LOG = LoggerFactory.getLogger(ResourceLookupCache.class);
+    private final int maxEntries;
+    private final long timeToLive;
+    private final ConcurrentHashMap<String, ResourceLookup> entries;
+    private volatile long nextPurge;
+
+
+    /**
+     * Constructor for ResourceLookupCache
+     *
+     * @param maxEntries the max number of entries
+     * @param timeToLive the time to live of an entry in milliseconds
+     */
+    public ResourceLookupCache(final int maxEntries, final long timeToLive) {
+        this.maxEntries = maxEntries;
+        this.timeToLive = timeToLive;
+        this.entries = new ConcurrentHashMap<>();
+        this.nextPurge = 0;
+    }
+
+
+    /**
+     * Get a lookup
+     *
+     * @param path the requested path
+     * @return the lookup or null if the path is not cached
+     */
+    public ResourceLookup get(String path) {
+        ResourceLookup lookup = entries.get(path);
+        if (lookup == null) {
+            return null;
+        }
+
+        if (lookup.isExpired(System.currentTimeMillis())) {
+            entries.remove(path, lookup);
+            return null;
+        }
+
+        return lookup;
+    }
+
+
+    /**
+     * Put the result of a lookup. A resource which was found directly under the requested path is not cached.
+     *
+     * @param path the requested path
+     * @param resource the resolved resource or null if it was not found
+     */
+    public void put(String path, Resource resource) {
+        String resolvedPath = null;
+        if (resource != null) {
+            resolvedPath = resource.getPath();
+            if (resolvedPath == null || isSamePath(path, resolvedPath)) {
+                return;
+            }
+        }
+
+        final long now = System.currentTimeMillis();
+        if (entries.size() >= maxEntries) {
+            purge(now);
+            if (entries.size() >= maxEntries) {
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Lookup cache is full, ignore [" + path + "].");
+                }
+                return;
+            }
+        }
+
+        entries.put(path, new ResourceLookup(resolvedPath, now + timeToLive));
+    }
+
+
+    /**
+     * Invalidate a lookup
+     *
+     * @param path the requested path
+     */
+    public void invalidate(String path) {
+        entries.remove(path);
+    }
+
+
+    /**
+     * Clear the cache
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+
+    /**
+     * Get the number of cached lookups
+     *
+     * @return the number of entries
+     */
+    public int getEntryCount() {
+        return entries.size();
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.ResourceChangeListener#handleChanges(java.util.Collection)
+     */
+    @Override
+    public void handleChanges(Collection<ResourceChangeEvent> changes) {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Clear lookup cache, resources changed: " + changes);
+        }
+
+        clear();
+    }
+
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "ResourceLookupCache [maxEntries=" + maxEntries + ", timeToLive=" + timeToLive + ", entries=" + entries.size() + "]";
+    }
+
+
+    /**
+     * Remove the expired entries, at most once per time to live
+     *
+     * @param now the current time in milliseconds
+     */
+    private void purge(long now) {
+        if (now < nextPurge) {
+            return;
+        }
+
+        nextPurge = now + timeToLive;
+        for (Map.Entry<String, ResourceLookup> entry : entries.entrySet()) {
+            if (entry.getValue().isExpired(now)) {
+                entries.remove(entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+
+    /**
+     * Check if the requested and the resolved path are the same, the leading slash is ignored
+     *
+     * @param path the requested path
+     * @param resolvedPath the resolved path
+     * @return true if they are the same
+     */
+    private boolean isSamePath(String path, String resolvedPath) {
+        int pathOffset = 0;
+        if (path.startsWith("/")) {
+            pathOffset = 1;
+        }
+
+        int resolvedPathOffset = 0;
+        if (resolvedPath.startsWith("/")) {
+            resolvedPathOffset = 1;
+        }
+
+        return path.length() - pathOffset == resolvedPath.length() - resolvedPathOffset
+                && path.regionMatches(pathOffset, resolvedPath, resolvedPathOffset, path.length() - pathOffset);
+    }
+}
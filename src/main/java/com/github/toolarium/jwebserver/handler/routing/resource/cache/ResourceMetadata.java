@@ -0,0 +1,159 @@
+/*
+ * ResourceMetadata.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.cache;
+
+import io.undertow.server.handlers.resource.Resource;
+import io.undertow.util.DateUtils;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Date;
+
+
+/**
+ * Defines the metadata of a file which is kept in the {@link ResourceMetadataCache}: the resolved resource or the
+ * information that the file does not exist, its type, size and last modified time. It is read by a single stat.
+ *
+ * @author patrick
+ */
+public class ResourceMetadata {
+    private final Resource resource;
+    private final boolean directory;
+    private final long size;
+    private final Date lastModified;
+    private final String lastModifiedString;
+    private final long loadTime;
+
+
+    /**
+     * Constructor for ResourceMetadata
+     *
+     * @param resource the resource or null if the file does not exist
+     * @param directory true if it is a directory
+     * @param size the size in bytes
+     * @param lastModified the last modified time or null
+     * @param loadTime the time in milliseconds when the metadata was read
+     */
+    public ResourceMetadata(final Resource resource, final boolean directory, final long size, final Date lastModified, final long loadTime) {
+        this.resource = resource;
+        this.directory = directory;
+        this.size = size;
+        this.lastModified = lastModified;
+        if (lastModified != null) {
+            this.lastModifiedString = DateUtils.toDateString(lastModified);
+        } else {
+            this.lastModifiedString = null;
+        }
+        this.loadTime = loadTime;
+    }
+
+
+    /**
+     * Read the metadata of a resource
+     *
+     * @param resource the resource or null if it does not exist
+     * @return the metadata
+     */
+    public static ResourceMetadata read(Resource resource) {
+        final long now = System.currentTimeMillis();
+        Path filePath = null;
+        if (resource != null) {
+            filePath = resource.getFilePath();
+        }
+
+        if (filePath == null) {
+            return new ResourceMetadata(resource, false, 0, null, now);
+        }
+
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(filePath, BasicFileAttributes.class);
+            return new ResourceMetadata(resource, attributes.isDirectory(), attributes.size(), new Date(attributes.lastModifiedTime().toMillis()), now);
+        } catch (IOException e) {
+            // removed in the meantime
+            return new ResourceMetadata(null, false, 0, null, now);
+        }
+    }
+
+
+    /**
+     * Check if the file exists
+     *
+     * @return true if it exists
+     */
+    public boolean exists() {
+        return resource != null;
+    }
+
+
+    /**
+     * Get the resource
+     *
+     * @return the resource or null if the file does not exist
+     */
+    public Resource getResource() {
+        return resource;
+    }
+
+
+    /**
+     * Check if it is a directory
+     *
+     * @return true if it is a directory
+     */
+    public boolean isDirectory() {
+        return directory;
+    }
+
+
+    /**
+     * Get the size in bytes
+     *
+     * @return the size
+     */
+    public long getSize() {
+        return size;
+    }
+
+
+    /**
+     * Get the last modified time
+     *
+     * @return the last modified time or null
+     */
+    public Date getLastModified() {
+        return lastModified;
+    }
+
+
+    /**
+     * Get the formatted last modified time
+     *
+     * @return the formatted last modified time or null
+     */
+    public String getLastModifiedString() {
+        return lastModifiedString;
+    }
+
+
+    /**
+     * Get the time in milliseconds when the metadata was read
+     *
+     * @return the load time
+     */
+    public long getLoadTime() {
+        return loadTime;
+    }
+
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "ResourceMetadata [exists=" + exists() + ", directory=" + directory + ", size=" + size + ", lastModified=" + lastModifiedString + ", loadTime=" + loadTime + "]";
+    }
+}
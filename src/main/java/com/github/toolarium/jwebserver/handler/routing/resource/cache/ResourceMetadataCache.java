@@ -0,0 +1,207 @@
+/*
+ * ResourceMetadataCache.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.cache;
+
+import io.undertow.server.handlers.resource.ResourceChangeEvent;
+import io.undertow.server.handlers.resource.ResourceChangeListener;
+import java.io.Closeable;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Bounded cache of the file metadata, e.g. of a content directory on a network file system where every stat is a
+ * round-trip. A path is read by the request only the first time. After the time to live the cached metadata is still
+ * answered while a background thread reads it again (stale-while-revalidate). An entry which was not refreshed for ten
+ * times the time to live, e.g. because the path was not requested anymore, is read again by the request. The whole
+ * cache is cleared on any file system change.
+ *
+ * @author patrick
+ */
+public class ResourceMetadataCache implements ResourceChangeListener, Closeable {
+    private static final Logger LOG = LoggerFactory.getLogger(ResourceMetadataCache.class);
+    private static final int MAX_STALE_FACTOR = 10;
+    private final int maxEntries;
+    private final long timeToLive;
+    private final long maxStale;
+    private final ConcurrentHashMap<String, ResourceMetadata> entries;
+    private final Set<String> refreshing;
+    private final ExecutorService refreshExecutor;
+    private final AtomicLong generation;
+
+
+    /**
+     * Constructor for ResourceMetadataCache
+     *
+     * @param maxEntries the max number of entries
+     * @param timeToLive the time to live of an entry in milliseconds
+     */
+    public ResourceMetadataCache(final int maxEntries, final long timeToLive) {
+        this.maxEntries = maxEntries;
+        this.timeToLive = timeToLive;
+        this.maxStale = timeToLive * MAX_STALE_FACTOR;
+        this.entries = new ConcurrentHashMap<>();
+        this.refreshing = ConcurrentHashMap.newKeySet();
+        this.refreshExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "jwebserver-metadata-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.generation = new AtomicLong(0);
+    }
+
+
+    /**
+     * Get the metadata of a path. In case it is not cached it is read by the loader on the current thread, in case it
+     * is expired the cached metadata is returned and a refresh by the loader is scheduled.
+     *
+     * @param path the path
+     * @param loader the loader which reads the metadata of a path
+     * @return the metadata
+     */
+    public ResourceMetadata get(final String path, final Function<String, ResourceMetadata> loader) {
+        final long now = System.currentTimeMillis();
+        ResourceMetadata metadata = entries.get(path);
+        if (metadata != null) {
+            long age = now - metadata.getLoadTime();
+            if (age <= timeToLive) {
+                return metadata;
+            }
+
+            if (age <= maxStale) {
+                refresh(path, loader);
+                return metadata;
+            }
+        }
+
+        final long currentGeneration = generation.get();
+        metadata = loader.apply(path);
+        put(path, metadata, currentGeneration);
+        return metadata;
+    }
+
+
+    /**
+     * Invalidate the metadata of a path
+     *
+     * @param path the path
+     */
+    public void invalidate(String path) {
+        entries.remove(path);
+    }
+
+
+    /**
+     * Clear the cache
+     */
+    public void clear() {
+        generation.incrementAndGet();
+        entries.clear();
+    }
+
+
+    /**
+     * Get the number of cached entries
+     *
+     * @return the number of entries
+     */
+    public int getEntryCount() {
+        return entries.size();
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.ResourceChangeListener#handleChanges(java.util.Collection)
+     */
+    @Override
+    public void handleChanges(Collection<ResourceChangeEvent> changes) {
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Clear metadata cache, resources changed: " + changes);
+        }
+
+        clear();
+    }
+
+
+    /**
+     * @see java.io.Closeable#close()
+     */
+    @Override
+    public void close() {
+        refreshExecutor.shutdownNow();
+        clear();
+    }
+
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "ResourceMetadataCache [maxEntries=" + maxEntries + ", timeToLive=" + timeToLive + ", entries=" + entries.size() + "]";
+    }
+
+
+    /**
+     * Schedule the refresh of a path, a path is refreshed at most once at a time
+     *
+     * @param path the path
+     * @param loader the loader
+     */
+    private void refresh(final String path, final Function<String, ResourceMetadata> loader) {
+        if (!refreshing.add(path)) {
+            return;
+        }
+
+        final long currentGeneration = generation.get();
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    put(path, loader.apply(path), currentGeneration);
+                } catch (RuntimeException e) {
+                    LOG.debug("Could not refresh the metadata of [" + path + "]: " + e.getMessage(), e);
+                } finally {
+                    refreshing.remove(path);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(path);
+        }
+    }
+
+
+    /**
+     * Put the metadata of a path, in case the cache is full an arbitrary entry is removed. The metadata which was read
+     * before a clear of the cache is dropped.
+     *
+     * @param path the path
+     * @param metadata the metadata
+     * @param readGeneration the generation of the cache when the metadata was read
+     */
+    private void put(String path, ResourceMetadata metadata, long readGeneration) {
+        if (readGeneration != generation.get()) {
+            return;
+        }
+
+        if (entries.size() >= maxEntries && !entries.containsKey(path)) {
+            Iterator<String> iterator = entries.keySet().iterator();
+            if (iterator.hasNext()) {
+                entries.remove(iterator.next());
+            }
+        }
+
+        entries.put(path, metadata);
+    }
+}
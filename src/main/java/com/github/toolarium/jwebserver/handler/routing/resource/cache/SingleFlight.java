@@ -0,0 +1,146 @@
+/*
+ * SingleFlight.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.cache;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+
+/**
+ * Coalesces the concurrent loads of the same key into a single load, e.g. after a cache flush when many requests miss
+ * the same large resource at once. The first caller loads, the others await its result. The loads of different keys
+ * don't block each other: the in-flight loads are kept in a concurrent map and no lock is held while loading.
+ *
+ * @param <V> the value type
+ * @author patrick
+ */
+public class SingleFlight<V> {
+    private final ConcurrentHashMap<String, CompletableFuture<V>> inFlight;
+
+
+    /**
+     * Constructor for SingleFlight
+     */
+    public SingleFlight() {
+        this.inFlight = new ConcurrentHashMap<>();
+    }
+
+
+    /**
+     * Load the value of a key. In case a load of the same key is in flight its result is awaited instead.
+     *
+     * @param key the key
+     * @param loader the loader
+     * @return the loaded value
+     * @throws IOException In case of an I/O error of the load
+     */
+    public V load(String key, ILoader<V> loader) throws IOException {
+        return load(key, -1, loader);
+    }
+
+
+    /**
+     * Load the value of a key. In case a load of the same key is in flight its result is awaited at most the timeout,
+     * after it the caller loads the value on its own, e.g. in case the load in flight hangs.
+     *
+     * @param key the key
+     * @param timeout the max time in milliseconds to await a load in flight, a negative timeout awaits it without limit
+     * @param loader the loader
+     * @return the loaded value
+     * @throws IOException In case of an I/O error of the load
+     */
+    public V load(String key, long timeout, ILoader<V> loader) throws IOException {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            try {
+                return await(running, timeout);
+            } catch (TimeoutException e) {
+                return loader.load();
+            }
+        }
+
+        try {
+            V value = loader.load();
+            future.complete(value);
+            return value;
+        } catch (Throwable e) {
+            // the waiters must not hang on any failure of the load, e.g. an OutOfMemoryError
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+
+    /**
+     * Get the number of loads in flight
+     *
+     * @return the number of loads
+     */
+    public int getInFlightCount() {
+        return inFlight.size();
+    }
+
+
+    /**
+     * Await the result of a load in flight
+     *
+     * @param running the running load
+     * @param timeout the max time in milliseconds to await the load, a negative timeout awaits it without limit
+     * @return the loaded value
+     * @throws IOException In case of an I/O error of the load
+     * @throws TimeoutException In case the load takes longer than the timeout
+     */
+    private V await(CompletableFuture<V> running, long timeout) throws IOException, TimeoutException {
+        try {
+            if (timeout < 0) {
+                return running.get();
+            }
+            return running.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the load.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+
+            throw new IOException(e.getCause());
+        }
+    }
+
+
+    /**
+     * Defines the load of a value
+     *
+     * @param <V> the value type
+     */
+    @FunctionalInterface
+    public interface ILoader<V> {
+        /**
+         * Load the value
+         *
+         * @return the value
+         * @throws IOException In case of an I/O error
+         */
+        V load() throws IOException;
+    }
+}
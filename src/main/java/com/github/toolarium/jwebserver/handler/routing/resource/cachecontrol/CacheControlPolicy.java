@@ -0,0 +1,235 @@
+/*
+ * CacheControlPolicy.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.cachecontrol;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Defines the Cache-Control policy of the static resources. It is built once at startup from the configured rules,
+ * the first matching rule wins. A resource with a content hash in its file name (e.g. app.3f2a1b9c.js or
+ * index-BQ4a1x9Z.js) can't change and is immutable in case it is enabled.
+ *
+ * @author patrick
+ */
+public class CacheControlPolicy {
+    /** The Cache-Control header value of an immutable resource */
+    public static final String IMMUTABLE = "public, max-age=31536000, immutable";
+    private static final Logger LOG = LoggerFactory.getLogger(CacheControlPolicy.class);
+    private static final String RULE_SEPARATOR = ";";
+    private static final int MIN_HASH_LENGTH = 8;
+    private static final int MAX_HASH_LENGTH = 64;
+    private final List<CacheControlRule> rules;
+    private final CacheControlRule immutableRule;
+
+
+    /**
+     * Constructor for CacheControlPolicy
+     *
+     * @param rules the rules
+     * @param immutable true if the resources with a content hash in the file name are immutable
+     */
+    public CacheControlPolicy(final List<CacheControlRule> rules, final boolean immutable) {
+        if (rules != null) {
+            this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+        } else {
+            this.rules = Collections.emptyList();
+        }
+
+        if (immutable) {
+            this.immutableRule = new CacheControlRule("/**", IMMUTABLE);
+        } else {
+            this.immutableRule = null;
+        }
+    }
+
+
+    /**
+     * Parse the rules, they are separated by a semicolon and consist of a selector and a value separated by a colon,
+     * e.g. <code>*.html: no-cache; image/*: public, max-age=86400</code>. Invalid rules are ignored.
+     *
+     * @param cacheControl the rules
+     * @return the parsed rules
+     */
+    public static List<CacheControlRule> parseRules(String cacheControl) {
+        List<CacheControlRule> result = new ArrayList<>();
+        if (cacheControl == null || cacheControl.isBlank()) {
+            return result;
+        }
+
+        for (String rule : cacheControl.split(RULE_SEPARATOR)) {
+            if (rule.isBlank()) {
+                continue;
+            }
+
+            int index = rule.indexOf(':');
+            if (index < 0) {
+                LOG.warn("Ignore invalid Cache-Control rule [" + rule.trim() + "], expected <selector>: <value>.");
+                continue;
+            }
+
+            try {
+                result.add(new CacheControlRule(rule.substring(0, index), rule.substring(index + 1)));
+            } catch (IllegalArgumentException e) {
+                LOG.warn("Ignore Cache-Control rule: " + e.getMessage());
+            }
+        }
+
+        return result;
+    }
+
+
+    /**
+     * Check if the policy has any rule
+     *
+     * @return true if it is empty
+     */
+    public boolean isEmpty() {
+        return rules.isEmpty() && immutableRule == null;
+    }
+
+
+    /**
+     * Get the rules
+     *
+     * @return the rules
+     */
+    public List<CacheControlRule> getRules() {
+        return rules;
+    }
+
+
+    /**
+     * Get the matching rule of a resource
+     *
+     * @param path the requested path
+     * @param name the name of the resource
+     * @param contentType the content type or null
+     * @return the rule or null
+     */
+    public CacheControlRule getRule(String path, String name, String contentType) {
+        if (immutableRule != null && isFingerprinted(name)) {
+            return immutableRule;
+        }
+
+        String extension = getExtension(name);
+        for (CacheControlRule rule : rules) {
+            if (rule.matches(path, extension, contentType)) {
+                return rule;
+            }
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Check if a file name contains a content hash. One of the name parts between the base name and the extension
+     * (separated by a dot or a dash) has to be a hex hash or a mixed case alphanumeric hash of at least 8 characters.
+     *
+     * @param name the file name
+     * @return true if it contains a content hash
+     */
+    public boolean isFingerprinted(String name) {
+        if (name == null) {
+            return false;
+        }
+
+        int end = name.lastIndexOf('.');
+        if (end <= 0) {
+            return false;
+        }
+
+        int start = 0;
+        for (int i = 0; i <= end; i++) {
+            char c = name.charAt(i);
+            if (c == '.' || c == '-') {
+                if (start > 0 && isHash(name, start, i)) {
+                    return true;
+                }
+                start = i + 1;
+            }
+        }
+
+        return false;
+    }
+
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "CacheControlPolicy [rules=" + rules + ", immutable=" + (immutableRule != null) + "]";
+    }
+
+
+    /**
+     * Check if a part of a name is a hash
+     *
+     * @param name the name
+     * @param start the start index
+     * @param end the end index (exclusive)
+     * @return true if it is a hash
+     */
+    private boolean isHash(String name, int start, int end) {
+        int length = end - start;
+        if (length < MIN_HASH_LENGTH || length > MAX_HASH_LENGTH) {
+            return false;
+        }
+
+        boolean digit = false;
+        boolean lowerHex = false;
+        boolean lower = false;
+        boolean upper = false;
+        for (int i = start; i < end; i++) {
+            char c = name.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digit = true;
+            } else if (c >= 'a' && c <= 'f') {
+                lowerHex = true;
+            } else if (c >= 'g' && c <= 'z') {
+                lower = true;
+            } else if (c >= 'A' && c <= 'Z') {
+                upper = true;
+            } else if (c != '_') {
+                return false;
+            }
+        }
+
+        // e.g. 3f2a1b9c (hex) or BQ4a1x9Z (base64url)
+        if (digit && lowerHex && !lower && !upper) {
+            return true;
+        }
+
+        return digit && upper && (lower || lowerHex);
+    }
+
+
+    /**
+     * Get the lower case extension of a name
+     *
+     * @param name the name
+     * @return the extension or null
+     */
+    private String getExtension(String name) {
+        if (name == null) {
+            return null;
+        }
+
+        int index = name.lastIndexOf('.');
+        if (index < 0 || index == name.length() - 1) {
+            return null;
+        }
+
+        return name.substring(index + 1).toLowerCase(Locale.ROOT);
+    }
+}
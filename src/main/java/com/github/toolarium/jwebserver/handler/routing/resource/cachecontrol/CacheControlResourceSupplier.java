@@ -0,0 +1,57 @@
+/*
+ * CacheControlResourceSupplier.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.cachecontrol;
+
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.resource.Resource;
+import io.undertow.server.handlers.resource.ResourceSupplier;
+import io.undertow.util.Headers;
+import io.undertow.util.MimeMappings;
+import java.io.IOException;
+
+
+/**
+ * Resource supplier which adds the Cache-Control and Expires header of the {@link CacheControlPolicy} to the responses
+ * of the static resources. The headers are set before the resource handler answers a conditional request, so a 304
+ * response carries them as well.
+ *
+ * @author patrick
+ */
+public class CacheControlResourceSupplier implements ResourceSupplier {
+    private final ResourceSupplier delegate;
+    private final CacheControlPolicy cacheControlPolicy;
+
+
+    /**
+     * Constructor for CacheControlResourceSupplier
+     *
+     * @param delegate the underlying resource supplier
+     * @param cacheControlPolicy the Cache-Control policy
+     */
+    public CacheControlResourceSupplier(final ResourceSupplier delegate, final CacheControlPolicy cacheControlPolicy) {
+        this.delegate = delegate;
+        this.cacheControlPolicy = cacheControlPolicy;
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.ResourceSupplier#getResource(io.undertow.server.HttpServerExchange, java.lang.String)
+     */
+    @Override
+    public Resource getResource(HttpServerExchange exchange, String path) throws IOException {
+        Resource resource = delegate.getResource(exchange, path);
+        if (resource == null || resource.isDirectory() || exchange.getResponseHeaders().contains(Headers.CACHE_CONTROL)) {
+            return resource;
+        }
+
+        CacheControlRule rule = cacheControlPolicy.getRule(path, resource.getName(), resource.getContentType(MimeMappings.DEFAULT));
+        if (rule != null) {
+            rule.apply(exchange.getResponseHeaders());
+        }
+
+        return resource;
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * CacheControlRule.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.cachecontrol;
+
+import io.undertow.util.DateUtils;
+import io.undertow.util.HeaderMap;
+import io.undertow.util.Headers;
+import java.util.Date;
+import java.util.Locale;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+
+/**
+ * Defines a Cache-Control rule. The selector is a path glob (starts with a slash, * matches within a path segment and
+ * ** across segments), an extension (*.css or .css) or a mime type (text/css or image/*). The header values are built
+ * once, the Expires header of a rule with a max-age is formatted at most once per second.
+ *
+ * @author patrick
+ */
+public class CacheControlRule {
+    private static final Pattern MAX_AGE = Pattern.compile("max-age\\s*=\\s*(\\d+)");
+    private static final char SLASH = '/';
+    private static final String WILDCARD = "*";
+    private final String selector;
+    private final String value;
+    private final long maxAge;
+    private final Pattern pathPattern;
+    private final String extension;
+    private final String mimeType;
+    private volatile long expiresSecond;
+    private volatile String expires;
+
+
+    /**
+     * Constructor for CacheControlRule
+     *
+     * @param selector the selector
+     * @param value the Cache-Control header value
+     * @throws IllegalArgumentException In case of an invalid selector or value
+     */
+    public CacheControlRule(final String selector, final String value) {
+        if (selector == null || selector.isBlank() || value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Invalid Cache-Control rule [" + selector + ": " + value + "]!");
+        }
+
+        this.selector = selector.trim();
+        this.value = value.trim();
+
+        Matcher matcher = MAX_AGE.matcher(this.value);
+        if (matcher.find()) {
+            this.maxAge = Long.parseLong(matcher.group(1));
+        } else {
+            this.maxAge = -1;
+        }
+
+        if (this.selector.charAt(0) == SLASH) {
+            this.pathPattern = compileGlob(this.selector);
+            this.extension = null;
+            this.mimeType = null;
+        } else if (this.selector.startsWith("*.") || this.selector.charAt(0) == '.') {
+            this.pathPattern = null;
+            this.extension = this.selector.substring(this.selector.indexOf('.') + 1).toLowerCase(Locale.ROOT);
+            this.mimeType = null;
+        } else if (this.selector.indexOf(SLASH) > 0) {
+            this.pathPattern = null;
+            this.extension = null;
+            this.mimeType = this.selector.toLowerCase(Locale.ROOT);
+        } else {
+            throw new IllegalArgumentException("Invalid Cache-Control selector [" + this.selector + "], expected a path, an extension or a mime type!");
+        }
+
+        this.expiresSecond = -1;
+        this.expires = null;
+    }
+
+
+    /**
+     * Get the selector
+     *
+     * @return the selector
+     */
+    public String getSelector() {
+        return selector;
+    }
+
+
+    /**
+     * Get the Cache-Control header value
+     *
+     * @return the header value
+     */
+    public String getValue() {
+        return value;
+    }
+
+
+    /**
+     * Get the max-age of the header value
+     *
+     * @return the max-age in seconds or -1
+     */
+    public long getMaxAge() {
+        return maxAge;
+    }
+
+
+    /**
+     * Check if the rule matches a resource
+     *
+     * @param path the requested path
+     * @param extension the lower case extension of the resource name or null
+     * @param contentType the content type or null
+     * @return true if it matches
+     */
+    public boolean matches(String path, String extension, String contentType) {
+        if (pathPattern != null) {
+            return path != null && pathPattern.matcher(path).matches();
+        }
+
+        if (this.extension != null) {
+            return this.extension.equals(extension);
+        }
+
+        if (contentType == null) {
+            return false;
+        }
+
+        String type = contentType;
+        int index = type.indexOf(';');
+        if (index >= 0) {
+            type = type.substring(0, index);
+        }
+        type = type.trim().toLowerCase(Locale.ROOT);
+
+        if (mimeType.endsWith(SLASH + WILDCARD)) {
+            return type.startsWith(mimeType.substring(0, mimeType.length() - 1));
+        }
+
+        return mimeType.equals(type);
+    }
+
+
+    /**
+     * Apply the rule to the response headers
+     *
+     * @param responseHeaders the response headers
+     */
+    public void apply(HeaderMap responseHeaders) {
+        responseHeaders.put(Headers.CACHE_CONTROL, value);
+        if (maxAge >= 0) {
+            responseHeaders.put(Headers.EXPIRES, getExpires());
+        }
+    }
+
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return selector + ": " + value;
+    }
+
+
+    /**
+     * Get the Expires header value, it is formatted at most once per second
+     *
+     * @return the Expires header value
+     */
+    private String getExpires() {
+        final long now = System.currentTimeMillis();
+        final long second = now / 1000;
+        if (second == expiresSecond) {
+            String result = expires;
+            if (result != null) {
+                return result;
+            }
+        }
+
+        String result = DateUtils.toDateString(new Date(second * 1000 + maxAge * 1000));
+        expires = result;
+        expiresSecond = second;
+        return result;
+    }
+
+
+    /**
+     * Compile a path glob
+     *
+     * @param glob the glob
+     * @return the pattern
+     */
+    private static Pattern compileGlob(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < glob.length(); i++) {
+            char c = glob.charAt(i);
+            if (c == '*') {
+                if (i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+                    regex.append(".*");
+                    i++;
+                } else {
+                    regex.append("[^/]*");
+                }
+            } else if (c == '?') {
+                regex.append("[^/]");
+            } else {
+                regex.append(Pattern.quote(String.valueOf(c)));
+            }
+        }
+
+        return Pattern.compile(regex.toString());
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * CompressedResource.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.compression;
+
+import com.github.toolarium.jwebserver.handler.routing.resource.DelegatingResource;
+import com.github.toolarium.jwebserver.handler.routing.resource.cache.CachedContent;
+import io.undertow.io.IoCallback;
+import io.undertow.io.Sender;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.resource.Resource;
+import io.undertow.util.ETag;
+
+
+/**
+ * A resource which serves the compressed content of the underlying resource from memory. Ranges are not supported
+ * and there is no entity tag because the content differs from the one of the underlying resource.
+ *
+ * @author patrick
+ */
+public class CompressedResource extends DelegatingResource {
+    private final CachedContent content;
+
+
+    /**
+     * Constructor for CompressedResource
+     *
+     * @param delegate the underlying resource
+     * @param content the compressed content
+     */
+    public CompressedResource(final Resource delegate, final CachedContent content) {
+        super(delegate);
+        this.content = content;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.DelegatingResource#getContentLength()
+     */
+    @Override
+    public Long getContentLength() {
+        return Long.valueOf(content.getSize());
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.DelegatingResource#getETag()
+     */
+    @Override
+    public ETag getETag() {
+        return null;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.DelegatingResource#serve(io.undertow.io.Sender, io.undertow.server.HttpServerExchange, io.undertow.io.IoCallback)
+     */
+    @Override
+    public void serve(Sender sender, HttpServerExchange exchange, IoCallback completionCallback) {
+        exchange.setResponseContentLength(content.getSize());
+        sender.send(content.getContent(), completionCallback);
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.DelegatingResource#isRangeSupported()
+     */
+    @Override
+    public boolean isRangeSupported() {
+        return false;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.DelegatingResource#serveRange(io.undertow.io.Sender, io.undertow.server.HttpServerExchange, long, long, io.undertow.io.IoCallback)
+     */
+    @Override
+    public void serveRange(Sender sender, HttpServerExchange exchange, long start, long end, IoCallback completionCallback) {
+        serve(sender, exchange, completionCallback);
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * CompressedResourceSupplier.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.compression;
+
+import com.github.toolarium.jwebserver.handler.compression.CompressiblePredicate;
+import com.github.toolarium.jwebserver.handler.compression.IContentEncoder;
+import com.github.toolarium.jwebserver.handler.routing.resource.cache.CachedContent;
+import com.github.toolarium.jwebserver.handler.routing.resource.cache.CachedResource;
+import com.github.toolarium.jwebserver.handler.routing.resource.cache.ContentCache;
+import com.github.toolarium.jwebserver.util.ResourceUtil;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.resource.Resource;
+import io.undertow.server.handlers.resource.ResourceSupplier;
+import io.undertow.util.HeaderValues;
+import io.undertow.util.Headers;
+import io.undertow.util.MimeMappings;
+import java.io.IOException;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Resource supplier which compresses the static resources once and keeps the compressed content in a {@link ContentCache}.
+ * The entries are keyed by the encoding and the path and are replaced as soon as the last modified time of the resource
+ * changes. A resource which is already encoded by the underlying supplier is returned unchanged.
+ *
+ * @author patrick
+ */
+public class CompressedResourceSupplier implements ResourceSupplier {
+    private static final Logger LOG = LoggerFactory.getLogger(CompressedResourceSupplier.class);
+    private final ResourceSupplier delegate;
+    private final List<IContentEncoder> contentEncoders;
+    private final CompressiblePredicate compressiblePredicate;
+    private final int level;
+    private final ContentCache compressedContentCache;
+
+
+    /**
+     * Constructor for CompressedResourceSupplier
+     *
+     * @param delegate the underlying resource supplier
+     * @param contentEncoders the content encoders ordered by their priority
+     * @param compressiblePredicate the compressible predicate
+     * @param level the compression level
+     * @param compressedContentCache the cache of the compressed content
+     */
+    public CompressedResourceSupplier(final ResourceSupplier delegate, final List<IContentEncoder> contentEncoders, final CompressiblePredicate compressiblePredicate, 
+                                      final int level, final ContentCache compressedContentCache) {
+        this.delegate = delegate;
+        this.contentEncoders = contentEncoders;
+        this.compressiblePredicate = compressiblePredicate;
+        this.level = level;
+        this.compressedContentCache = compressedContentCache;
+    }
+
+
+    /**
+     * Get the cache of the compressed content
+     *
+     * @return the cache of the compressed content
+     */
+    public ContentCache getCompressedContentCache() {
+        return compressedContentCache;
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.ResourceSupplier#getResource(io.undertow.server.HttpServerExchange, java.lang.String)
+     */
+    @Override
+    public Resource getResource(HttpServerExchange exchange, String path) throws IOException {
+        Resource resource = delegate.getResource(exchange, path);
+        if (resource == null || resource.isDirectory() || exchange.getResponseHeaders().contains(Headers.CONTENT_ENCODING)) {
+            return resource;
+        }
+
+        // the content cache keeps its own gzip variant
+        if (resource instanceof CachedResource && ((CachedResource) resource).isCompressionEnabled()) {
+            return resource;
+        }
+
+        Long contentLength = resource.getContentLength();
+        if (contentLength == null || contentLength.longValue() < compressiblePredicate.getMinSize() || contentLength.longValue() > compressedContentCache.getMaxEntrySize() 
+                || !compressiblePredicate.isCompressible(resource.getContentType(MimeMappings.DEFAULT))) {
+            return resource;
+        }
+
+        ResourceUtil.getInstance().addVaryAcceptEncoding(exchange.getResponseHeaders());
+        HeaderValues acceptEncoding = exchange.getRequestHeaders().get(Headers.ACCEPT_ENCODING);
+        for (IContentEncoder contentEncoder : contentEncoders) {
+            if (ResourceUtil.getInstance().acceptsEncoding(acceptEncoding, contentEncoder.getName())) {
+                CachedContent content = getCompressedContent(resource, path, contentEncoder);
+                if (content == null) {
+                    exchange.putAttachment(CompressiblePredicate.NOT_COMPRESSIBLE, Boolean.TRUE);
+                    return resource;
+                }
+
+                exchange.getResponseHeaders().put(Headers.CONTENT_ENCODING, contentEncoder.getName());
+                return new CompressedResource(resource, content);
+            }
+        }
+
+        return resource;
+    }
+
+
+    /**
+     * Get the compressed content of a resource, it is compressed in case it is not cached or outdated
+     *
+     * @param resource the resource
+     * @param path the path
+     * @param contentEncoder the content encoder
+     * @return the compressed content or null if it could not be compressed or the compressed content is not smaller
+     */
+    protected CachedContent getCompressedContent(Resource resource, String path, IContentEncoder contentEncoder) {
+        // the file path of a resource distinguishes the same path in different content generations
+        String resourceKey = resource.getCacheKey();
+        if (resourceKey == null) {
+            resourceKey = path;
+        }
+        final String key = contentEncoder.getName() + ":" + resourceKey;
+        final long lastModified = ResourceUtil.getInstance().getLastModified(resource);
+        try {
+            // the concurrent requests of a missing variant await a single compression
+            return toCompressedContent(compressedContentCache.get(key, lastModified, () -> {
+                byte[] data = ResourceUtil.getInstance().readContent(resource);
+                byte[] compressedData = contentEncoder.encode(data, level);
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Compressed [" + path + "] with " + contentEncoder.getName() + ": " + data.length + " -> " + compressedData.length + " bytes.");
+                }
+
+                if (compressedData.length >= data.length) {
+                    // remember that the compression is not worth it
+                    compressedData = new byte[0];
+                }
+
+                return compressedContentCache.put(key, lastModified, compressedData);
+            }));
+        } catch (IOException e) {
+            LOG.debug("Could not compress [" + path + "]: " + e.getMessage(), e);
+            return null;
+        }
+    }
+
+
+    /**
+     * Get the compressed content
+     *
+     * @param content the cached content, an empty content marks a resource which is not worth to be compressed
+     * @return the compressed content or null
+     */
+    private CachedContent toCompressedContent(CachedContent content) {
+        if (content == null || content.getSize() == 0) {
+            return null;
+        }
+        return content;
+    }
+}
@@ -0,0 +1,61 @@
+/*
+ * PreCompressedResource.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.compression;
+
+import com.github.toolarium.jwebserver.handler.routing.resource.DelegatingResource;
+import io.undertow.server.handlers.resource.Resource;
+import io.undertow.util.MimeMappings;
+
+
+/**
+ * A precompressed sidecar file which is served in place of the original resource. The content is the one of the
+ * sidecar file, the name and the content type are the ones of the original resource.
+ *
+ * @author patrick
+ */
+public class PreCompressedResource extends DelegatingResource {
+    private final Resource original;
+
+
+    /**
+     * Constructor for PreCompressedResource
+     *
+     * @param compressed the compressed sidecar resource
+     * @param original the original resource
+     */
+    public PreCompressedResource(final Resource compressed, final Resource original) {
+        super(compressed);
+        this.original = original;
+    }
+
+
+    /**
+     * Get the original resource
+     *
+     * @return the original resource
+     */
+    public Resource getOriginal() {
+        return original;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.DelegatingResource#getName()
+     */
+    @Override
+    public String getName() {
+        return original.getName();
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.DelegatingResource#getContentType(io.undertow.util.MimeMappings)
+     */
+    @Override
+    public String getContentType(MimeMappings mimeMappings) {
+        return original.getContentType(mimeMappings);
+    }
+}
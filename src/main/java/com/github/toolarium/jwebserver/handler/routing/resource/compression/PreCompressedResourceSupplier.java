@@ -0,0 +1,204 @@
+/*
+ * PreCompressedResourceSupplier.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.compression;
+
+import com.github.toolarium.jwebserver.util.ResourceUtil;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.resource.Resource;
+import io.undertow.server.handlers.resource.ResourceChangeEvent;
+import io.undertow.server.handlers.resource.ResourceChangeListener;
+import io.undertow.server.handlers.resource.ResourceManager;
+import io.undertow.server.handlers.resource.ResourceSupplier;
+import io.undertow.util.HeaderValues;
+import io.undertow.util.Headers;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Resource supplier which serves precompressed sidecar files, e.g. <code>app.js.br</code> or <code>app.js.gz</code>
+ * next to <code>app.js</code>. The sidecar files are chosen in the order of the configured encodings as far as the
+ * client accepts them. Which sidecar files exist is probed once per resource and kept until the resource manager
+ * reports a change.
+ *
+ * @author patrick
+ */
+public class PreCompressedResourceSupplier implements ResourceSupplier, ResourceChangeListener {
+    private static final Logger LOG = LoggerFactory.getLogger(PreCompressedResourceSupplier.class);
+    private static final Map<String, String> EXTENSIONS = Map.of("br", ".br", "gzip", ".gz", "x-gzip", ".gz", "zstd", ".zst");
+    private static final String[] NONE = new String[0];
+    private final ResourceManager resourceManager;
+    private final String[] encodings;
+    private final Map<String, String[]> variants;
+
+
+    /**
+     * Constructor for PreCompressedResourceSupplier
+     *
+     * @param resourceManager the resource manager
+     * @param encodings the encodings in the order of preference, e.g. br, zstd, gzip
+     */
+    public PreCompressedResourceSupplier(final ResourceManager resourceManager, final String[] encodings) {
+        this.resourceManager = resourceManager;
+        this.encodings = encodings;
+        this.variants = new ConcurrentHashMap<>();
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.ResourceSupplier#getResource(io.undertow.server.HttpServerExchange, java.lang.String)
+     */
+    @Override
+    public Resource getResource(HttpServerExchange exchange, String path) throws IOException {
+        Resource resource = resourceManager.getResource(path);
+        if (resource == null || resource.isDirectory() || !isSamePath(path, resource.getPath())) {
+            return resource;
+        }
+
+        String[] availableEncodings = variants.get(path);
+        if (availableEncodings == null) {
+            availableEncodings = probe(path);
+            variants.put(path, availableEncodings);
+        }
+
+        if (availableEncodings.length == 0) {
+            return resource;
+        }
+
+        ResourceUtil.getInstance().addVaryAcceptEncoding(exchange.getResponseHeaders());
+        HeaderValues acceptEncoding = exchange.getRequestHeaders().get(Headers.ACCEPT_ENCODING);
+        for (String encoding : availableEncodings) {
+            if (ResourceUtil.getInstance().acceptsEncoding(acceptEncoding, encoding)) {
+                Resource compressed = getCompressedResource(path, encoding);
+                if (compressed != null) {
+                    exchange.getResponseHeaders().put(Headers.CONTENT_ENCODING, encoding);
+                    return new PreCompressedResource(compressed, resource);
+                }
+
+                // the sidecar file disappeared, probe again on the next request
+                variants.remove(path);
+            }
+        }
+
+        return resource;
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.ResourceChangeListener#handleChanges(java.util.Collection)
+     */
+    @Override
+    public void handleChanges(Collection<ResourceChangeEvent> changes) {
+        variants.clear();
+    }
+
+
+    /**
+     * Get the number of resources of which the sidecar files are known
+     *
+     * @return the number of resources
+     */
+    public int getEntryCount() {
+        return variants.size();
+    }
+
+
+    /**
+     * Get the file extension of an encoding
+     *
+     * @param encoding the encoding
+     * @return the file extension
+     */
+    public static String getExtension(String encoding) {
+        String extension = EXTENSIONS.get(encoding.toLowerCase());
+        if (extension == null) {
+            extension = "." + encoding.toLowerCase();
+        }
+        return extension;
+    }
+
+
+    /**
+     * Probe which sidecar files of a resource exist
+     *
+     * @param path the path of the resource
+     * @return the encodings of the existing sidecar files
+     * @throws IOException In case of an I/O error
+     */
+    private String[] probe(String path) throws IOException {
+        List<String> result = new ArrayList<>();
+        for (String encoding : encodings) {
+            if (getCompressedResource(path, encoding) != null) {
+                result.add(encoding);
+            }
+        }
+
+        if (result.isEmpty()) {
+            return NONE;
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Found precompressed variants of [" + path + "]: " + result);
+        }
+        return result.toArray(new String[result.size()]);
+    }
+
+
+    /**
+     * Get the sidecar file of a resource
+     *
+     * @param path the path of the resource
+     * @param encoding the encoding
+     * @return the sidecar resource or null if it does not exist
+     * @throws IOException In case of an I/O error
+     */
+    private Resource getCompressedResource(String path, String encoding) throws IOException {
+        String compressedPath = path + getExtension(encoding);
+        Resource compressed = resourceManager.getResource(compressedPath);
+
+        // a resolved parent resource is not a sidecar file
+        if (compressed == null || compressed.isDirectory() || !isSamePath(compressedPath, compressed.getPath())) {
+            return null;
+        }
+        return compressed;
+    }
+
+
+    /**
+     * Check if a resource was resolved for the requested path
+     *
+     * @param path the requested path
+     * @param resourcePath the path of the resource
+     * @return true if it is the same path
+     */
+    private boolean isSamePath(String path, String resourcePath) {
+        if (resourcePath == null) {
+            return false;
+        }
+
+        return stripSlash(path).equals(stripSlash(resourcePath));
+    }
+
+
+    /**
+     * Remove the leading slash
+     *
+     * @param path the path
+     * @return the path without leading slash
+     */
+    private String stripSlash(String path) {
+        if (path.startsWith("/")) {
+            return path.substring(1);
+        }
+        return path;
+    }
+}
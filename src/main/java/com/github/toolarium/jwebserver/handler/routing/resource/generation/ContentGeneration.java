@@ -0,0 +1,118 @@
+/*
+ * ContentGeneration.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.generation;
+
+import io.undertow.server.handlers.resource.ResourceManager;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+
+
+/**
+ * Defines a content generation: the resolved real path of the content directory and the resource manager with its
+ * own index and lookup caches. A request resolves all its resources from one generation.
+ *
+ * @author patrick
+ */
+public class ContentGeneration implements Closeable {
+    private final long id;
+    private final Path root;
+    private final ResourceManager resourceManager;
+    private final long createTime;
+    private volatile long retireTime;
+
+
+    /**
+     * Constructor for ContentGeneration
+     *
+     * @param id the id of the generation
+     * @param root the real path of the content directory
+     * @param resourceManager the resource manager of the content directory
+     */
+    public ContentGeneration(final long id, final Path root, final ResourceManager resourceManager) {
+        this.id = id;
+        this.root = root;
+        this.resourceManager = resourceManager;
+        this.createTime = System.currentTimeMillis();
+        this.retireTime = 0;
+    }
+
+
+    /**
+     * Get the id of the generation, it is counted up with every switch
+     *
+     * @return the id
+     */
+    public long getId() {
+        return id;
+    }
+
+
+    /**
+     * Get the real path of the content directory
+     *
+     * @return the real path
+     */
+    public Path getRoot() {
+        return root;
+    }
+
+
+    /**
+     * Get the resource manager
+     *
+     * @return the resource manager
+     */
+    public ResourceManager getResourceManager() {
+        return resourceManager;
+    }
+
+
+    /**
+     * Get the time in milliseconds when the generation was created
+     *
+     * @return the create time
+     */
+    public long getCreateTime() {
+        return createTime;
+    }
+
+
+    /**
+     * Get the time in milliseconds when the generation was replaced by a newer one
+     *
+     * @return the retire time or 0 if it is the current generation
+     */
+    public long getRetireTime() {
+        return retireTime;
+    }
+
+
+    /**
+     * Mark the generation as replaced by a newer one
+     */
+    public void retire() {
+        this.retireTime = System.currentTimeMillis();
+    }
+
+
+    /**
+     * @see java.io.Closeable#close()
+     */
+    @Override
+    public void close() throws IOException {
+        resourceManager.close();
+    }
+
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "ContentGeneration [id=" + id + ", root=" + root + "]";
+    }
+}
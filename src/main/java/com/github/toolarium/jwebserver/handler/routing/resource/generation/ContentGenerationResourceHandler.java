@@ -0,0 +1,54 @@
+/*
+ * ContentGenerationResourceHandler.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.generation;
+
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.resource.ResourceHandler;
+import io.undertow.server.handlers.resource.ResourceManager;
+
+
+/**
+ * Resource handler which pins the current content generation to a request. The resources of a request, e.g. the
+ * requested file, its welcome file and its precompressed variant, are all resolved from the same generation even if
+ * a new generation is swapped in meanwhile.
+ *
+ * @author patrick
+ */
+public class ContentGenerationResourceHandler extends ResourceHandler {
+    private final ContentGenerationResourceManager generationResourceManager;
+
+
+    /**
+     * Constructor for ContentGenerationResourceHandler
+     *
+     * @param resourceManager the resource manager
+     * @param generationResourceManager the content generation resource manager in the chain of the resource manager
+     */
+    public ContentGenerationResourceHandler(final ResourceManager resourceManager, final ContentGenerationResourceManager generationResourceManager) {
+        super(resourceManager);
+        this.generationResourceManager = generationResourceManager;
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.ResourceHandler#handleRequest(io.undertow.server.HttpServerExchange)
+     */
+    @Override
+    public void handleRequest(HttpServerExchange exchange) throws Exception {
+        if (exchange.isInIoThread()) {
+            // the resources are resolved on the worker thread, the generation is pinned to it
+            exchange.dispatch(this);
+            return;
+        }
+
+        generationResourceManager.pin();
+        try {
+            super.handleRequest(exchange);
+        } finally {
+            generationResourceManager.unpin();
+        }
+    }
+}
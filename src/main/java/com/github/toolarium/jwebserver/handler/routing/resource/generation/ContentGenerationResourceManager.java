@@ -0,0 +1,330 @@
+/*
+ * ContentGenerationResourceManager.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.generation;
+
+import com.github.toolarium.jwebserver.handler.routing.RoutingHandler;
+import com.github.toolarium.jwebserver.handler.routing.resource.cache.CachedResource;
+import com.github.toolarium.jwebserver.handler.routing.resource.cache.ContentCache;
+import io.undertow.server.handlers.resource.Resource;
+import io.undertow.server.handlers.resource.ResourceChangeEvent;
+import io.undertow.server.handlers.resource.ResourceChangeListener;
+import io.undertow.server.handlers.resource.ResourceManager;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Serves a content directory as content generations, e.g. a symbolic link which is switched from one release
+ * directory to the next (blue/green deployment). The real path of the directory is checked periodically or on demand.
+ * A new real path is prepared in the background: its resource manager is created with its own index and lookup caches
+ * and the hot resources of the former generation are loaded into the content cache. Afterwards it is swapped in
+ * atomically and the change listeners are notified. A request resolves all its resources from the generation which
+ * was current when it started, the former generation is closed after a grace period.
+ *
+ * @author patrick
+ */
+public class ContentGenerationResourceManager implements ResourceManager, Runnable {
+    private static final Logger LOG = LoggerFactory.getLogger(ContentGenerationResourceManager.class);
+    private static final long RETIRE_DELAY = 30000L;
+    private final Path directory;
+    private final IContentGenerationFactory factory;
+    private final long checkInterval;
+    private final List<ResourceChangeListener> listeners;
+    private final List<ContentGeneration> retiredGenerations;
+    private final ThreadLocal<ContentGeneration> pinnedGeneration;
+    private volatile ContentGeneration generation;
+    private volatile ContentCache contentCache;
+    private Thread watcherThread;
+    private boolean closed;
+
+
+    /**
+     * Constructor for ContentGenerationResourceManager
+     *
+     * @param directory the content directory, e.g. a symbolic link
+     * @param factory the factory of the resource manager of a generation
+     * @param checkInterval the interval in milliseconds in which the real path of the directory is checked, 0 to check only on demand
+     */
+    public ContentGenerationResourceManager(final Path directory, final IContentGenerationFactory factory, final long checkInterval) {
+        this.directory = directory.toAbsolutePath().normalize();
+        this.factory = factory;
+        this.checkInterval = checkInterval;
+        this.listeners = new CopyOnWriteArrayList<>();
+        this.retiredGenerations = new CopyOnWriteArrayList<>();
+        this.pinnedGeneration = new ThreadLocal<>();
+        this.generation = null;
+        this.contentCache = null;
+        this.watcherThread = null;
+        this.closed = false;
+    }
+
+
+    /**
+     * Create the first generation and start checking the real path of the directory
+     *
+     * @throws IOException In case the content directory can't be read
+     */
+    public synchronized void start() throws IOException {
+        Path root = directory.toRealPath();
+        generation = new ContentGeneration(1, root, factory.create(root));
+        LOG.info("Serve content generation " + generation.getId() + " from [" + root + "].");
+
+        if (checkInterval > 0) {
+            watcherThread = new Thread(this, "jwebserver-generation-watcher");
+            watcherThread.setDaemon(true);
+            watcherThread.start();
+        }
+    }
+
+
+    /**
+     * Set the content cache which is warmed with the hot resources of the former generation before a switch
+     *
+     * @param contentCache the content cache or null
+     */
+    public void setContentCache(ContentCache contentCache) {
+        this.contentCache = contentCache;
+    }
+
+
+    /**
+     * Get the current generation
+     *
+     * @return the current generation
+     */
+    public ContentGeneration getGeneration() {
+        return generation;
+    }
+
+
+    /**
+     * Pin the current generation to the request of the current thread, all its resources are resolved from it
+     *
+     * @return the pinned generation
+     */
+    public ContentGeneration pin() {
+        ContentGeneration current = generation;
+        pinnedGeneration.set(current);
+        return current;
+    }
+
+
+    /**
+     * Release the pinned generation of the current thread
+     */
+    public void unpin() {
+        pinnedGeneration.remove();
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.ResourceManager#getResource(java.lang.String)
+     */
+    @Override
+    public Resource getResource(String path) throws IOException {
+        ContentGeneration current = pinnedGeneration.get();
+        if (current == null) {
+            current = generation;
+        }
+        return current.getResourceManager().getResource(path);
+    }
+
+
+    /**
+     * Check the real path of the directory, in case it changed a new generation is prepared and swapped in. This is
+     * the trigger of a switch, e.g. by an administrator after a deployment.
+     *
+     * @return true if a new generation was swapped in
+     */
+    public synchronized boolean checkGeneration() {
+        if (closed) {
+            return false;
+        }
+
+        Path root;
+        try {
+            root = directory.toRealPath();
+        } catch (IOException e) {
+            LOG.debug("Content directory [" + directory + "] is missing, keep serving generation " + generation.getId() + ".");
+            return false;
+        }
+
+        if (root.equals(generation.getRoot())) {
+            return false;
+        }
+
+        final long start = System.currentTimeMillis();
+        ContentGeneration next;
+        try {
+            next = new ContentGeneration(generation.getId() + 1, root, factory.create(root));
+        } catch (IOException | RuntimeException e) {
+            LOG.warn("Could not prepare the content generation of [" + root + "], keep serving generation " + generation.getId() + ": " + e.getMessage());
+            return false;
+        }
+
+        int count = warmUp(generation, next);
+
+        ContentGeneration previous = generation;
+        generation = next;
+        previous.retire();
+        retiredGenerations.add(previous);
+        LOG.info("Switched to content generation " + next.getId() + " from [" + root + "], " + count + " resources warmed up in " + (System.currentTimeMillis() - start) + "ms.");
+
+        for (ResourceChangeListener listener : listeners) {
+            listener.handleChanges(Collections.singletonList(new ResourceChangeEvent("", ResourceChangeEvent.Type.MODIFIED)));
+        }
+
+        return true;
+    }
+
+
+    /**
+     * @see java.lang.Runnable#run()
+     */
+    @Override
+    public void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.sleep(checkInterval);
+                checkGeneration();
+                closeRetiredGenerations(System.currentTimeMillis() - RETIRE_DELAY);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.ResourceManager#isResourceChangeListenerSupported()
+     */
+    @Override
+    public boolean isResourceChangeListenerSupported() {
+        return true;
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.ResourceManager#registerResourceChangeListener(io.undertow.server.handlers.resource.ResourceChangeListener)
+     */
+    @Override
+    public void registerResourceChangeListener(ResourceChangeListener listener) {
+        listeners.add(listener);
+    }
+
+
+    /**
+     * @see io.undertow.server.handlers.resource.ResourceManager#removeResourceChangeListener(io.undertow.server.handlers.resource.ResourceChangeListener)
+     */
+    @Override
+    public void removeResourceChangeListener(ResourceChangeListener listener) {
+        listeners.remove(listener);
+    }
+
+
+    /**
+     * @see java.io.Closeable#close()
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+        if (watcherThread != null) {
+            watcherThread.interrupt();
+            watcherThread = null;
+        }
+
+        closeRetiredGenerations(Long.MAX_VALUE);
+        if (generation != null) {
+            generation.close();
+        }
+    }
+
+
+    /**
+     * Load the resources of the former generation which are in the content cache from the next generation
+     *
+     * @param previous the former generation
+     * @param next the next generation
+     * @return the number of loaded resources
+     */
+    protected int warmUp(ContentGeneration previous, ContentGeneration next) {
+        final ContentCache cache = contentCache;
+        if (cache == null) {
+            return 0;
+        }
+
+        // the content is cached by the file path, the keys of the former generation are below its root
+        final String prefix = previous.getRoot().toString() + File.separator;
+        int count = 0;
+        for (String key : cache.getKeys()) {
+            if (!key.startsWith(prefix)) {
+                continue;
+            }
+
+            String path = RoutingHandler.SLASH + key.substring(prefix.length()).replace(File.separatorChar, '/');
+            try {
+                Resource resource = next.getResourceManager().getResource(path);
+                if (resource == null || resource.isDirectory() || resource.getContentLength() == null || resource.getContentLength().longValue() > cache.getMaxEntrySize()) {
+                    continue;
+                }
+
+                if (new CachedResource(resource, cache).getContent() != null) {
+                    count++;
+                }
+            } catch (IOException e) {
+                LOG.debug("Could not warm up [" + path + "]: " + e.getMessage(), e);
+            }
+        }
+
+        return count;
+    }
+
+
+    /**
+     * Close the retired generations and remove their content from the content cache
+     *
+     * @param retiredBefore the time in milliseconds before the generations were retired
+     */
+    protected void closeRetiredGenerations(long retiredBefore) {
+        for (ContentGeneration retiredGeneration : retiredGenerations) {
+            if (retiredGeneration.getRetireTime() > retiredBefore || !retiredGenerations.remove(retiredGeneration)) {
+                continue;
+            }
+
+            final ContentCache cache = contentCache;
+            if (cache != null) {
+                final String prefix = retiredGeneration.getRoot().toString() + File.separator;
+                for (String key : cache.getKeys()) {
+                    if (key.startsWith(prefix)) {
+                        cache.invalidate(key);
+                    }
+                }
+            }
+
+            try {
+                retiredGeneration.close();
+                LOG.debug("Closed content generation " + retiredGeneration.getId() + " of [" + retiredGeneration.getRoot() + "].");
+            } catch (IOException e) {
+                LOG.debug("Could not close content generation " + retiredGeneration.getId() + ": " + e.getMessage(), e);
+            }
+        }
+    }
+
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "ContentGenerationResourceManager [directory=" + directory + ", generation=" + generation + ", checkInterval=" + checkInterval + "]";
+    }
+}
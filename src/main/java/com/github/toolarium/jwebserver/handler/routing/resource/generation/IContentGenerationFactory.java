@@ -0,0 +1,28 @@
+/*
+ * IContentGenerationFactory.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.generation;
+
+import io.undertow.server.handlers.resource.ResourceManager;
+import java.io.IOException;
+import java.nio.file.Path;
+
+
+/**
+ * Defines the factory of the resource manager of a content generation
+ *
+ * @author patrick
+ */
+public interface IContentGenerationFactory {
+
+    /**
+     * Create the resource manager of a content directory, e.g. with its index and lookup caches
+     *
+     * @param root the real path of the content directory
+     * @return the resource manager
+     * @throws IOException In case the content directory can't be read
+     */
+    ResourceManager create(Path root) throws IOException;
+}
@@ -0,0 +1,237 @@
+/*
+ * AbstractResourceIndex.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.index;
+
+import io.undertow.util.MimeMappings;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+
+/**
+ * Base implementation of the {@link IResourceIndex}. The entries are kept in an immutable map which is replaced
+ * as a whole on every update, the readers never lock.
+ *
+ * @author patrick
+ */
+public abstract class AbstractResourceIndex implements IResourceIndex {
+    /** The path separator of the keys */
+    protected static final char SEPARATOR = '/';
+    private final List<String> welcomeFiles;
+    private final List<Runnable> changeListeners;
+    private volatile Map<String, ResourceIndexEntry> entries;
+
+
+    /**
+     * Constructor for AbstractResourceIndex
+     *
+     * @param welcomeFiles the welcome files
+     */
+    protected AbstractResourceIndex(final List<String> welcomeFiles) {
+        if (welcomeFiles != null) {
+            this.welcomeFiles = welcomeFiles;
+        } else {
+            this.welcomeFiles = Collections.emptyList();
+        }
+        this.changeListeners = new CopyOnWriteArrayList<>();
+        this.entries = Collections.emptyMap();
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.index.IResourceIndex#get(java.lang.String)
+     */
+    @Override
+    public ResourceIndexEntry get(String path) {
+        return entries.get(toKey(path));
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.index.IResourceIndex#resolveWelcomeFile(java.lang.String)
+     */
+    @Override
+    public ResourceIndexEntry resolveWelcomeFile(String path) {
+        final Map<String, ResourceIndexEntry> snapshot = entries;
+        String key = toKey(path);
+        while (true) {
+            ResourceIndexEntry entry = snapshot.get(key);
+            if (entry != null && entry.getWelcomeFile() != null) {
+                return snapshot.get(entry.getWelcomeFile());
+            }
+
+            if (key.isEmpty()) {
+                return null;
+            }
+
+            key = getParentKey(key);
+        }
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.index.IResourceIndex#getEntries()
+     */
+    @Override
+    public Collection<ResourceIndexEntry> getEntries() {
+        return entries.values();
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.index.IResourceIndex#size()
+     */
+    @Override
+    public int size() {
+        return entries.size();
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.index.IResourceIndex#addChangeListener(java.lang.Runnable)
+     */
+    @Override
+    public void addChangeListener(Runnable listener) {
+        changeListeners.add(listener);
+    }
+
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return getClass().getSimpleName() + " [entries=" + entries.size() + "]";
+    }
+
+
+    /**
+     * Get the current entries
+     *
+     * @return the entries, they must not be modified
+     */
+    protected Map<String, ResourceIndexEntry> getEntryMap() {
+        return entries;
+    }
+
+
+    /**
+     * Swap the entries. The map must not be modified after this call.
+     *
+     * @param entries the new entries
+     */
+    protected void setEntryMap(Map<String, ResourceIndexEntry> entries) {
+        this.entries = Collections.unmodifiableMap(entries);
+        for (Runnable listener : changeListeners) {
+            listener.run();
+        }
+    }
+
+
+    /**
+     * Update the welcome files of the given directories
+     *
+     * @param entries the entries to update
+     * @param directoryKeys the keys of the directories
+     */
+    protected void updateWelcomeFiles(Map<String, ResourceIndexEntry> entries, Collection<String> directoryKeys) {
+        for (String directoryKey : directoryKeys) {
+            ResourceIndexEntry directory = entries.get(directoryKey);
+            if (directory == null || !directory.isDirectory()) {
+                continue;
+            }
+
+            String welcomeFile = null;
+            for (String possibility : welcomeFiles) {
+                String key = getChildKey(directoryKey, possibility);
+                if (entries.containsKey(key)) {
+                    welcomeFile = key;
+                    break;
+                }
+            }
+
+            if (!Objects.equals(welcomeFile, directory.getWelcomeFile())) {
+                entries.put(directoryKey, directory.withWelcomeFile(welcomeFile));
+            }
+        }
+    }
+
+
+    /**
+     * Get the content type of a file
+     *
+     * @param name the name of the file
+     * @return the content type or null
+     */
+    protected String getContentType(String name) {
+        int index = name.lastIndexOf('.');
+        if (index < 0 || index == name.length() - 1) {
+            return null;
+        }
+
+        return MimeMappings.DEFAULT.getMimeType(name.substring(index + 1));
+    }
+
+
+    /**
+     * Convert a path into a key, the leading and trailing slash is removed
+     *
+     * @param path the path
+     * @return the key
+     */
+    public static String toKey(String path) {
+        if (path == null) {
+            return "";
+        }
+
+        int start = 0;
+        if (path.length() > 0 && path.charAt(0) == SEPARATOR) {
+            start = 1;
+        }
+
+        int end = path.length();
+        if (end > start && path.charAt(end - 1) == SEPARATOR) {
+            end--;
+        }
+
+        return path.substring(start, end);
+    }
+
+
+    /**
+     * Get the key of the parent
+     *
+     * @param key the key
+     * @return the key of the parent, the root is an empty string
+     */
+    public static String getParentKey(String key) {
+        int index = key.lastIndexOf(SEPARATOR);
+        if (index < 0) {
+            return "";
+        }
+
+        return key.substring(0, index);
+    }
+
+
+    /**
+     * Get the key of a child
+     *
+     * @param parentKey the key of the parent
+     * @param name the name of the child
+     * @return the key of the child
+     */
+    public static String getChildKey(String parentKey, String name) {
+        if (parentKey.isEmpty()) {
+            return name;
+        }
+
+        return parentKey + SEPARATOR + name;
+    }
+}
@@ -0,0 +1,304 @@
+/*
+ * ClassPathResourceIndex.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.index;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.InvalidPathException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Index of the resources below a classpath prefix. The directories and archives of the class loader are scanned once,
+ * the size and last modified time of the archive entries are taken from the zip entries. In case a resource exists in
+ * several classpath roots the first one wins like in {@link ClassLoader#getResource(String)}.
+ *
+ * @author patrick
+ */
+public class ClassPathResourceIndex extends AbstractResourceIndex {
+    private static final Logger LOG = LoggerFactory.getLogger(ClassPathResourceIndex.class);
+    private static final String JAR_PROTOCOL = "jar";
+    private static final String FILE_PROTOCOL = "file";
+    private static final String JAR_SEPARATOR = "!/";
+    private final ClassLoader classLoader;
+    private final String prefix;
+
+
+    /**
+     * Constructor for ClassPathResourceIndex
+     *
+     * @param classLoader the class loader
+     * @param prefix the classpath prefix
+     * @param welcomeFiles the welcome files
+     */
+    public ClassPathResourceIndex(final ClassLoader classLoader, final String prefix, final List<String> welcomeFiles) {
+        super(welcomeFiles);
+        this.classLoader = classLoader;
+
+        String key = toKey(prefix);
+        if (key.isEmpty()) {
+            this.prefix = key;
+        } else {
+            this.prefix = key + SEPARATOR;
+        }
+    }
+
+
+    /**
+     * Build the index
+     *
+     * @throws IOException In case of an I/O error
+     */
+    public void build() throws IOException {
+        final long start = System.currentTimeMillis();
+        Map<String, ResourceIndexEntry> entries = new HashMap<>();
+        Set<String> directoryKeys = new HashSet<>();
+        for (Path root : getRoots()) {
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("Index classpath root [" + root + "].");
+            }
+
+            if (Files.isDirectory(root)) {
+                scanDirectory(root.resolve(prefix), entries, directoryKeys);
+            } else {
+                scanArchive(root, entries, directoryKeys);
+            }
+        }
+
+        updateWelcomeFiles(entries, directoryKeys);
+        setEntryMap(entries);
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Indexed " + entries.size() + " classpath entries of [" + prefix + "] in " + (System.currentTimeMillis() - start) + "ms.");
+        }
+    }
+
+
+    /**
+     * @see java.io.Closeable#close()
+     */
+    @Override
+    public void close() {
+        setEntryMap(Collections.emptyMap());
+    }
+
+
+    /**
+     * Get the classpath roots (directories and archives) in the order of the class loader. The archives don't need to
+     * contain directory entries, therefore the roots are taken from the class loaders and not only from {@link ClassLoader#getResources(String)}.
+     *
+     * @return the roots
+     * @throws IOException In case of an I/O error
+     */
+    protected Set<Path> getRoots() throws IOException {
+        List<ClassLoader> classLoaders = new ArrayList<>();
+        for (ClassLoader loader = classLoader; loader != null; loader = loader.getParent()) {
+            classLoaders.add(0, loader);
+        }
+
+        Set<Path> roots = new LinkedHashSet<>();
+        for (ClassLoader loader : classLoaders) {
+            if (loader instanceof URLClassLoader) {
+                for (URL url : ((URLClassLoader) loader).getURLs()) {
+                    addRoot(roots, toPath(url.toString()));
+                }
+            }
+
+            if (loader == ClassLoader.getSystemClassLoader()) {
+                for (String entry : System.getProperty("java.class.path", "").split(File.pathSeparator)) {
+                    if (!entry.isBlank()) {
+                        try {
+                            addRoot(roots, Paths.get(entry).toAbsolutePath());
+                        } catch (InvalidPathException e) {
+                            LOG.debug("Invalid classpath entry [" + entry + "]: " + e.getMessage());
+                        }
+                    }
+                }
+            }
+        }
+
+        // other class loaders, e.g. a directory which contains the prefix
+        if (!prefix.isEmpty()) {
+            Enumeration<URL> resources = classLoader.getResources(prefix.substring(0, prefix.length() - 1));
+            while (resources.hasMoreElements()) {
+                URL url = resources.nextElement();
+                if (FILE_PROTOCOL.equals(url.getProtocol())) {
+                    Path root = toPath(url.toString());
+                    for (int i = 0; root != null && i < prefix.split(String.valueOf(SEPARATOR)).length; i++) {
+                        root = root.getParent();
+                    }
+                    addRoot(roots, root);
+                } else if (JAR_PROTOCOL.equals(url.getProtocol()) && url.getPath().indexOf(JAR_SEPARATOR) > 0) {
+                    addRoot(roots, toPath(url.getPath().substring(0, url.getPath().indexOf(JAR_SEPARATOR))));
+                } else {
+                    LOG.debug("Unsupported classpath location [" + url + "], it is not indexed.");
+                }
+            }
+        }
+
+        return roots;
+    }
+
+
+    /**
+     * Scan a directory
+     *
+     * @param start the directory which corresponds to the prefix
+     * @param entries the entries
+     * @param directoryKeys the keys of the directories
+     * @throws IOException In case of an I/O error
+     */
+    private void scanDirectory(final Path start, final Map<String, ResourceIndexEntry> entries, final Set<String> directoryKeys) throws IOException {
+        if (start == null || !Files.isDirectory(start)) {
+            return;
+        }
+
+        Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+            /**
+             * @see java.nio.file.SimpleFileVisitor#preVisitDirectory(java.lang.Object, java.nio.file.attribute.BasicFileAttributes)
+             */
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) throws IOException {
+                String key = getKey(start, dir);
+                entries.putIfAbsent(key, new ResourceIndexEntry(key, true, 0, attributes.lastModifiedTime().toMillis(), null, null, dir.toUri().toURL()));
+                directoryKeys.add(key);
+                return FileVisitResult.CONTINUE;
+            }
+
+            /**
+             * @see java.nio.file.SimpleFileVisitor#visitFile(java.lang.Object, java.nio.file.attribute.BasicFileAttributes)
+             */
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) throws IOException {
+                String key = getKey(start, file);
+                entries.putIfAbsent(key, new ResourceIndexEntry(key, false, attributes.size(), attributes.lastModifiedTime().toMillis(), getContentType(file.getFileName().toString()), null, file.toUri().toURL()));
+                return FileVisitResult.CONTINUE;
+            }
+
+            /**
+             * @see java.nio.file.SimpleFileVisitor#visitFileFailed(java.lang.Object, java.io.IOException)
+             */
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                LOG.debug("Could not index [" + file + "]: " + e.getMessage());
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+
+    /**
+     * Scan an archive
+     *
+     * @param archive the archive
+     * @param entries the entries
+     * @param directoryKeys the keys of the directories
+     * @throws IOException In case of an I/O error
+     */
+    private void scanArchive(final Path archive, final Map<String, ResourceIndexEntry> entries, final Set<String> directoryKeys) throws IOException {
+        if (archive == null || !Files.isRegularFile(archive)) {
+            return;
+        }
+
+        final String base = JAR_PROTOCOL + ":" + archive.toUri() + JAR_SEPARATOR;
+        try (ZipFile zipFile = new ZipFile(archive.toFile())) {
+            Enumeration<? extends ZipEntry> zipEntries = zipFile.entries();
+            while (zipEntries.hasMoreElements()) {
+                ZipEntry zipEntry = zipEntries.nextElement();
+                if (!zipEntry.getName().startsWith(prefix)) {
+                    continue;
+                }
+
+                String key = toKey(zipEntry.getName().substring(prefix.length()));
+                if (zipEntry.isDirectory()) {
+                    entries.putIfAbsent(key, new ResourceIndexEntry(key, true, 0, zipEntry.getTime(), null, null, new URL(base + zipEntry.getName())));
+                    directoryKeys.add(key);
+                } else {
+                    String name = key.substring(key.lastIndexOf(SEPARATOR) + 1);
+                    entries.putIfAbsent(key, new ResourceIndexEntry(key, false, zipEntry.getSize(), zipEntry.getTime(), getContentType(name), null, new URL(base + zipEntry.getName())));
+                }
+
+                // the directory entries are optional in an archive
+                String parentKey = key;
+                while (!parentKey.isEmpty()) {
+                    parentKey = getParentKey(parentKey);
+                    if (directoryKeys.add(parentKey)) {
+                        String directoryName = prefix + parentKey;
+                        if (!parentKey.isEmpty()) {
+                            directoryName += SEPARATOR;
+                        }
+                        entries.putIfAbsent(parentKey, new ResourceIndexEntry(parentKey, true, 0, zipEntry.getTime(), null, null, new URL(base + directoryName)));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            LOG.debug("Could not index archive [" + archive + "]: " + e.getMessage());
+        }
+    }
+
+
+    /**
+     * Get the key of a file
+     *
+     * @param start the directory which corresponds to the prefix
+     * @param file the file
+     * @return the key
+     */
+    private String getKey(Path start, Path file) {
+        return start.relativize(file).toString().replace(File.separatorChar, SEPARATOR);
+    }
+
+
+    /**
+     * Add a classpath root
+     *
+     * @param roots the roots
+     * @param root the root to add
+     */
+    private void addRoot(Set<Path> roots, Path root) {
+        if (root != null && Files.exists(root)) {
+            roots.add(root.toAbsolutePath().normalize());
+        }
+    }
+
+
+    /**
+     * Convert an url into a path
+     *
+     * @param url the url
+     * @return the path or null
+     */
+    private Path toPath(String url) {
+        try {
+            return Paths.get(new URI(url));
+        } catch (URISyntaxException | IllegalArgumentException e) {
+            LOG.debug("Unsupported classpath location [" + url + "]: " + e.getMessage());
+            return null;
+        }
+    }
+}
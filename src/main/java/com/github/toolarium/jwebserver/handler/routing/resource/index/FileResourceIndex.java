@@ -0,0 +1,319 @@
+/*
+ * FileResourceIndex.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.index;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Index of a directory. It is built at startup and kept current by the events of a {@link WatchService}. Every
+ * batch of events is applied on a copy of the entries which is swapped in afterwards. The base directory is indexed by
+ * its real path, symbolic links below it are not indexed.
+ *
+ * @author patrick
+ */
+public class FileResourceIndex extends AbstractResourceIndex implements Runnable {
+    private static final Logger LOG = LoggerFactory.getLogger(FileResourceIndex.class);
+    private final Path base;
+    private WatchService watchService;
+    private Thread watcherThread;
+
+
+    /**
+     * Constructor for FileResourceIndex
+     *
+     * @param base the base directory
+     * @param welcomeFiles the welcome files
+     */
+    public FileResourceIndex(final Path base, final List<String> welcomeFiles) {
+        super(welcomeFiles);
+        this.base = toRealPath(base);
+        this.watchService = null;
+        this.watcherThread = null;
+    }
+
+
+    /**
+     * Get the base directory
+     *
+     * @return the base directory
+     */
+    public Path getBase() {
+        return base;
+    }
+
+
+    /**
+     * Build the index and start watching the directory
+     *
+     * @throws IOException In case of an I/O error
+     */
+    public synchronized void start() throws IOException {
+        final long start = System.currentTimeMillis();
+        watchService = base.getFileSystem().newWatchService();
+        rebuild();
+
+        watcherThread = new Thread(this, "jwebserver-resource-index");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Indexed " + size() + " entries of [" + base + "] in " + (System.currentTimeMillis() - start) + "ms.");
+        }
+    }
+
+
+    /**
+     * @see java.lang.Runnable#run()
+     */
+    @Override
+    public void run() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                handleEvents(watchService.take());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // NOP, the index was closed
+        }
+    }
+
+
+    /**
+     * @see java.io.Closeable#close()
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (watcherThread != null) {
+            watcherThread.interrupt();
+            watcherThread = null;
+        }
+
+        if (watchService != null) {
+            watchService.close();
+            watchService = null;
+        }
+    }
+
+
+    /**
+     * Rebuild the whole index
+     *
+     * @throws IOException In case of an I/O error
+     */
+    protected void rebuild() throws IOException {
+        Map<String, ResourceIndexEntry> entries = new HashMap<>();
+        Set<String> directoryKeys = new HashSet<>();
+        scan(base, entries, directoryKeys);
+        updateWelcomeFiles(entries, directoryKeys);
+        setEntryMap(entries);
+    }
+
+
+    /**
+     * Apply the events of a watch key on a copy of the index and swap it in
+     *
+     * @param watchKey the watch key
+     */
+    protected void handleEvents(WatchKey watchKey) {
+        final Path directory = (Path) watchKey.watchable();
+        final List<WatchEvent<?>> events = watchKey.pollEvents();
+        watchKey.reset();
+
+        try {
+            Map<String, ResourceIndexEntry> entries = new HashMap<>(getEntryMap());
+            Set<String> directoryKeys = new HashSet<>();
+            for (WatchEvent<?> event : events) {
+                if (event.kind() == StandardWatchEventKinds.OVERFLOW) {
+                    LOG.debug("Lost file system events, rebuild index of [" + base + "].");
+                    rebuild();
+                    return;
+                }
+
+                Path file = directory.resolve((Path) event.context());
+                String key = getKey(file);
+                directoryKeys.add(getParentKey(key));
+
+                if (LOG.isDebugEnabled()) {
+                    LOG.debug("Update index [" + key + "]: " + event.kind().name());
+                }
+
+                if (event.kind() == StandardWatchEventKinds.ENTRY_DELETE) {
+                    remove(entries, key);
+                } else {
+                    update(entries, file, key, directoryKeys);
+                }
+            }
+
+            updateWelcomeFiles(entries, directoryKeys);
+            setEntryMap(entries);
+        } catch (IOException e) {
+            LOG.warn("Could not update index of [" + base + "]: " + e.getMessage(), e);
+        }
+    }
+
+
+    /**
+     * Scan a directory tree into the entries
+     *
+     * @param start the start directory
+     * @param entries the entries
+     * @param directoryKeys the keys of the scanned directories
+     * @throws IOException In case of an I/O error
+     */
+    private void scan(Path start, Map<String, ResourceIndexEntry> entries, Collection<String> directoryKeys) throws IOException {
+        Files.walkFileTree(start, new SimpleFileVisitor<Path>() {
+            /**
+             * @see java.nio.file.SimpleFileVisitor#preVisitDirectory(java.lang.Object, java.nio.file.attribute.BasicFileAttributes)
+             */
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attributes) throws IOException {
+                String key = getKey(dir);
+                entries.put(key, createEntry(key, dir, attributes));
+                directoryKeys.add(key);
+                if (watchService != null) {
+                    dir.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE, StandardWatchEventKinds.ENTRY_MODIFY);
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            /**
+             * @see java.nio.file.SimpleFileVisitor#visitFile(java.lang.Object, java.nio.file.attribute.BasicFileAttributes)
+             */
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attributes) {
+                if (!attributes.isSymbolicLink()) {
+                    String key = getKey(file);
+                    entries.put(key, createEntry(key, file, attributes));
+                }
+                return FileVisitResult.CONTINUE;
+            }
+
+            /**
+             * @see java.nio.file.SimpleFileVisitor#visitFileFailed(java.lang.Object, java.io.IOException)
+             */
+            @Override
+            public FileVisitResult visitFileFailed(Path file, IOException e) {
+                LOG.debug("Could not index [" + file + "]: " + e.getMessage());
+                return FileVisitResult.CONTINUE;
+            }
+        });
+    }
+
+
+    /**
+     * Update a created or modified file
+     *
+     * @param entries the entries
+     * @param file the file
+     * @param key the key
+     * @param directoryKeys the keys of the directories which have to be updated
+     * @throws IOException In case of an I/O error
+     */
+    private void update(Map<String, ResourceIndexEntry> entries, Path file, String key, Collection<String> directoryKeys) throws IOException {
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        } catch (NoSuchFileException e) {
+            remove(entries, key);
+            return;
+        }
+
+        if (attributes.isSymbolicLink()) {
+            remove(entries, key);
+        } else if (attributes.isDirectory()) {
+            ResourceIndexEntry existing = entries.get(key);
+            if (existing != null && existing.isDirectory()) {
+                entries.put(key, createEntry(key, file, attributes).withWelcomeFile(existing.getWelcomeFile()));
+            } else {
+                remove(entries, key);
+                scan(file, entries, directoryKeys);
+            }
+        } else {
+            entries.put(key, createEntry(key, file, attributes));
+        }
+    }
+
+
+    /**
+     * Remove an entry and all its children
+     *
+     * @param entries the entries
+     * @param key the key
+     */
+    private void remove(Map<String, ResourceIndexEntry> entries, String key) {
+        ResourceIndexEntry entry = entries.remove(key);
+        if (entry != null && entry.isDirectory()) {
+            final String prefix = key + SEPARATOR;
+            entries.keySet().removeIf(k -> k.startsWith(prefix));
+        }
+    }
+
+
+    /**
+     * Create an entry
+     *
+     * @param key the key
+     * @param file the file
+     * @param attributes the attributes
+     * @return the entry
+     */
+    private ResourceIndexEntry createEntry(String key, Path file, BasicFileAttributes attributes) {
+        if (attributes.isDirectory()) {
+            return new ResourceIndexEntry(key, true, 0, attributes.lastModifiedTime().toMillis(), null, null);
+        }
+
+        return new ResourceIndexEntry(key, false, attributes.size(), attributes.lastModifiedTime().toMillis(), getContentType(file.getFileName().toString()), null);
+    }
+
+
+    /**
+     * Get the real path of the base directory, in case it is a symbolic link the walk would not enter it
+     *
+     * @param base the base directory
+     * @return the real path or the normalized absolute path in case it can't be resolved
+     */
+    private static Path toRealPath(Path base) {
+        try {
+            return base.toRealPath();
+        } catch (IOException e) {
+            return base.toAbsolutePath().normalize();
+        }
+    }
+
+
+    /**
+     * Get the key of a file
+     *
+     * @param file the file
+     * @return the key
+     */
+    private String getKey(Path file) {
+        return base.relativize(file.toAbsolutePath().normalize()).toString().replace(File.separatorChar, SEPARATOR);
+    }
+}
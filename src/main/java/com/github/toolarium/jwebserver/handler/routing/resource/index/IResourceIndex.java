@@ -0,0 +1,59 @@
+/*
+ * IResourceIndex.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.index;
+
+import java.io.Closeable;
+import java.util.Collection;
+
+
+/**
+ * Defines an in-memory index of the served resources. The lookups never access the file system or the class loader.
+ *
+ * @author patrick
+ */
+public interface IResourceIndex extends Closeable {
+
+    /**
+     * Get an entry
+     *
+     * @param path the requested path, a leading or trailing slash is ignored
+     * @return the entry or null if it does not exist
+     */
+    ResourceIndexEntry get(String path);
+
+
+    /**
+     * Resolve the welcome file of a directory. In case the directory has no welcome file the parent directories are tested.
+     *
+     * @param path the path of the directory
+     * @return the entry of the welcome file or null
+     */
+    ResourceIndexEntry resolveWelcomeFile(String path);
+
+
+    /**
+     * Get all entries
+     *
+     * @return the entries
+     */
+    Collection<ResourceIndexEntry> getEntries();
+
+
+    /**
+     * Get the number of entries
+     *
+     * @return the number of entries
+     */
+    int size();
+
+
+    /**
+     * Add a listener which is called after the entries were replaced
+     *
+     * @param listener the listener
+     */
+    void addChangeListener(Runnable listener);
+}
@@ -0,0 +1,111 @@
+/*
+ * IndexedResource.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.index;
+
+import com.github.toolarium.jwebserver.handler.routing.resource.DelegatingResource;
+import io.undertow.server.handlers.resource.Resource;
+import io.undertow.util.DateUtils;
+import io.undertow.util.MimeMappings;
+import java.util.Date;
+
+
+/**
+ * Resource which answers the meta data from its {@link ResourceIndexEntry} instead of opening a connection to the underlying resource.
+ *
+ * @author patrick
+ */
+public class IndexedResource extends DelegatingResource {
+    private final ResourceIndexEntry entry;
+
+
+    /**
+     * Constructor for IndexedResource
+     *
+     * @param delegate the underlying resource
+     * @param entry the index entry
+     */
+    public IndexedResource(final Resource delegate, final ResourceIndexEntry entry) {
+        super(delegate);
+        this.entry = entry;
+    }
+
+
+    /**
+     * Get the index entry
+     *
+     * @return the index entry
+     */
+    public ResourceIndexEntry getEntry() {
+        return entry;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.DelegatingResource#isDirectory()
+     */
+    @Override
+    public boolean isDirectory() {
+        return entry.isDirectory();
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.DelegatingResource#getContentType(io.undertow.util.MimeMappings)
+     */
+    @Override
+    public String getContentType(MimeMappings mimeMappings) {
+        // the index resolved the content type with the default mappings
+        if (mimeMappings == MimeMappings.DEFAULT && entry.getContentType() != null) {
+            return entry.getContentType();
+        }
+
+        return super.getContentType(mimeMappings);
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.DelegatingResource#getContentLength()
+     */
+    @Override
+    public Long getContentLength() {
+        if (entry.isDirectory()) {
+            return null;
+        }
+
+        if (entry.getSize() < 0) {
+            return super.getContentLength();
+        }
+
+        return entry.getSize();
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.DelegatingResource#getLastModified()
+     */
+    @Override
+    public Date getLastModified() {
+        if (entry.getLastModified() <= 0) {
+            return super.getLastModified();
+        }
+
+        return new Date(entry.getLastModified());
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.DelegatingResource#getLastModifiedString()
+     */
+    @Override
+    public String getLastModifiedString() {
+        Date lastModified = getLastModified();
+        if (lastModified == null) {
+            return null;
+        }
+
+        return DateUtils.toDateString(lastModified);
+    }
+}
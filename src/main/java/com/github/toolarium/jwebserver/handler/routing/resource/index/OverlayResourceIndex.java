@@ -0,0 +1,109 @@
+/*
+ * OverlayResourceIndex.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.index;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Merged index of ordered resource layers. Every path is mapped to the first layer which contains it, therefore a
+ * lookup is a single hash probe instead of a sequential miss on every layer. The welcome files are resolved across the
+ * layers, e.g. a directory of an override layer can have the welcome file of the content layer. The merged index is
+ * rebuilt whenever the index of a layer changes.
+ *
+ * @author patrick
+ */
+public class OverlayResourceIndex extends AbstractResourceIndex {
+    private static final Logger LOG = LoggerFactory.getLogger(OverlayResourceIndex.class);
+    private final List<IResourceIndex> layers;
+
+
+    /**
+     * Constructor for OverlayResourceIndex
+     *
+     * @param layers the indexes of the layers in the order of precedence
+     * @param welcomeFiles the welcome files
+     */
+    public OverlayResourceIndex(final List<IResourceIndex> layers, final List<String> welcomeFiles) {
+        super(welcomeFiles);
+        this.layers = layers;
+    }
+
+
+    /**
+     * Build the merged index and follow the changes of the layers
+     */
+    public void build() {
+        rebuild();
+        for (IResourceIndex layer : layers) {
+            layer.addChangeListener(this::rebuild);
+        }
+    }
+
+
+    /**
+     * Get the number of layers
+     *
+     * @return the number of layers
+     */
+    public int getLayerCount() {
+        return layers.size();
+    }
+
+
+    /**
+     * @see java.io.Closeable#close()
+     */
+    @Override
+    public void close() throws IOException {
+        IOException exception = null;
+        for (IResourceIndex layer : layers) {
+            try {
+                layer.close();
+            } catch (IOException e) {
+                exception = e;
+            }
+        }
+
+        if (exception != null) {
+            throw exception;
+        }
+    }
+
+
+    /**
+     * Merge the entries of the layers, the first layer which contains a path wins
+     */
+    protected synchronized void rebuild() {
+        final long start = System.currentTimeMillis();
+        Map<String, ResourceIndexEntry> entries = new HashMap<>();
+        Set<String> directoryKeys = new HashSet<>();
+        for (int i = 0; i < layers.size(); i++) {
+            for (ResourceIndexEntry entry : layers.get(i).getEntries()) {
+                if (!entries.containsKey(entry.getPath())) {
+                    entries.put(entry.getPath(), new OverlayResourceIndexEntry(entry, null, i));
+                    if (entry.isDirectory()) {
+                        directoryKeys.add(entry.getPath());
+                    }
+                }
+            }
+        }
+
+        updateWelcomeFiles(entries, directoryKeys);
+        setEntryMap(entries);
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Merged " + entries.size() + " entries of " + layers.size() + " layers in " + (System.currentTimeMillis() - start) + "ms.");
+        }
+    }
+}
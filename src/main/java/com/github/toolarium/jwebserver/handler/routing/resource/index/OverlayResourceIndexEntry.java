@@ -0,0 +1,57 @@
+/*
+ * OverlayResourceIndexEntry.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.index;
+
+
+/**
+ * Entry of the {@link OverlayResourceIndex}, it keeps the layer which serves the path.
+ *
+ * @author patrick
+ */
+public class OverlayResourceIndexEntry extends ResourceIndexEntry {
+    private final int layer;
+
+
+    /**
+     * Constructor for OverlayResourceIndexEntry
+     *
+     * @param entry the entry of the layer
+     * @param welcomeFile the key of the welcome file or null
+     * @param layer the position of the layer
+     */
+    public OverlayResourceIndexEntry(final ResourceIndexEntry entry, final String welcomeFile, final int layer) {
+        super(entry.getPath(), entry.isDirectory(), entry.getSize(), entry.getLastModified(), entry.getContentType(), welcomeFile, entry.getUrl());
+        this.layer = layer;
+    }
+
+
+    /**
+     * Get the position of the layer which serves the path
+     *
+     * @return the position of the layer
+     */
+    public int getLayer() {
+        return layer;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.index.ResourceIndexEntry#withWelcomeFile(java.lang.String)
+     */
+    @Override
+    public ResourceIndexEntry withWelcomeFile(String welcomeFile) {
+        return new OverlayResourceIndexEntry(this, welcomeFile, layer);
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.index.ResourceIndexEntry#toString()
+     */
+    @Override
+    public String toString() {
+        return "OverlayResourceIndexEntry [layer=" + layer + ", " + super.toString() + "]";
+    }
+}
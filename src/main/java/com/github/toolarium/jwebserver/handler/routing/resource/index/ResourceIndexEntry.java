@@ -0,0 +1,152 @@
+/*
+ * ResourceIndexEntry.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.index;
+
+import java.net.URL;
+
+
+/**
+ * Defines an immutable entry of the {@link IResourceIndex}.
+ *
+ * @author patrick
+ */
+public class ResourceIndexEntry {
+    private final String path;
+    private final boolean directory;
+    private final long size;
+    private final long lastModified;
+    private final String contentType;
+    private final String welcomeFile;
+    private final URL url;
+
+
+    /**
+     * Constructor for ResourceIndexEntry
+     *
+     * @param path the path relative to the index root, without leading and trailing slash
+     * @param directory true if it is a directory
+     * @param size the size in bytes
+     * @param lastModified the last modified time in milliseconds
+     * @param contentType the content type or null
+     * @param welcomeFile the path of the welcome file of a directory or null
+     */
+    public ResourceIndexEntry(final String path, final boolean directory, final long size, final long lastModified, final String contentType, final String welcomeFile) {
+        this(path, directory, size, lastModified, contentType, welcomeFile, null);
+    }
+
+
+    /**
+     * Constructor for ResourceIndexEntry
+     *
+     * @param path the path relative to the index root, without leading and trailing slash
+     * @param directory true if it is a directory
+     * @param size the size in bytes
+     * @param lastModified the last modified time in milliseconds
+     * @param contentType the content type or null
+     * @param welcomeFile the path of the welcome file of a directory or null
+     * @param url the url of the resource or null
+     */
+    public ResourceIndexEntry(final String path, final boolean directory, final long size, final long lastModified, final String contentType, final String welcomeFile, final URL url) {
+        this.path = path;
+        this.directory = directory;
+        this.size = size;
+        this.lastModified = lastModified;
+        this.contentType = contentType;
+        this.welcomeFile = welcomeFile;
+        this.url = url;
+    }
+
+
+    /**
+     * Get the path relative to the index root, without leading and trailing slash
+     *
+     * @return the path
+     */
+    public String getPath() {
+        return path;
+    }
+
+
+    /**
+     * Check if it is a directory
+     *
+     * @return true if it is a directory
+     */
+    public boolean isDirectory() {
+        return directory;
+    }
+
+
+    /**
+     * Get the size in bytes
+     *
+     * @return the size
+     */
+    public long getSize() {
+        return size;
+    }
+
+
+    /**
+     * Get the last modified time in milliseconds
+     *
+     * @return the last modified time
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+
+    /**
+     * Get the content type
+     *
+     * @return the content type or null
+     */
+    public String getContentType() {
+        return contentType;
+    }
+
+
+    /**
+     * Get the path of the welcome file of a directory
+     *
+     * @return the path of the welcome file or null
+     */
+    public String getWelcomeFile() {
+        return welcomeFile;
+    }
+
+
+    /**
+     * Get the url of the resource
+     *
+     * @return the url or null
+     */
+    public URL getUrl() {
+        return url;
+    }
+
+
+    /**
+     * Create a copy with another welcome file
+     *
+     * @param welcomeFile the path of the welcome file or null
+     * @return the new entry
+     */
+    public ResourceIndexEntry withWelcomeFile(String welcomeFile) {
+        return new ResourceIndexEntry(path, directory, size, lastModified, contentType, welcomeFile, url);
+    }
+
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "ResourceIndexEntry [path=" + path + ", directory=" + directory + ", size=" + size + ", lastModified=" + lastModified
+                + ", contentType=" + contentType + ", welcomeFile=" + welcomeFile + ", url=" + url + "]";
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * DirectoryListing.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.listing;
+
+
+/**
+ * Defines a sorted directory listing which is kept in the {@link DirectoryListingCache}.
+ *
+ * @author patrick
+ */
+public class DirectoryListing {
+    private final long lastModified;
+    private final DirectoryListingEntry[] entries;
+
+
+    /**
+     * Constructor for DirectoryListing
+     *
+     * @param lastModified the last modified time of the directory
+     * @param entries the sorted entries
+     */
+    public DirectoryListing(final long lastModified, final DirectoryListingEntry[] entries) {
+        this.lastModified = lastModified;
+        this.entries = entries;
+    }
+
+
+    /**
+     * Get the last modified time of the directory the listing was read of
+     *
+     * @return the last modified time
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+
+    /**
+     * Get the sorted entries, they must not be modified
+     *
+     * @return the entries
+     */
+    public DirectoryListingEntry[] getEntries() {
+        return entries;
+    }
+
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "DirectoryListing [lastModified=" + lastModified + ", entries=" + entries.length + "]";
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * DirectoryListingCache.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.listing;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Bounded cache of sorted directory listings. A listing is read once per directory, sort order and last modified
+ * time of the directory, the following pages are served from the cache. In case the cache is full an arbitrary
+ * listing is replaced.
+ *
+ * @author patrick
+ */
+public class DirectoryListingCache {
+    private static final Logger LOG = LoggerFactory.getLogger(DirectoryListingCache.class);
+    private final int maxEntries;
+    private final ConcurrentHashMap<String, DirectoryListing> entries;
+
+
+    /**
+     * Constructor for DirectoryListingCache
+     *
+     * @param maxEntries the max number of cached listings
+     */
+    public DirectoryListingCache(final int maxEntries) {
+        this.maxEntries = maxEntries;
+        this.entries = new ConcurrentHashMap<>();
+    }
+
+
+    /**
+     * Get the sorted listing of a directory, in case it is not cached or the directory was modified it is read again
+     *
+     * @param directory the directory
+     * @param sort the name of the sort order
+     * @param comparator the comparator of the sort order
+     * @return the listing
+     * @throws IOException In case of an I/O error
+     */
+    public DirectoryListing get(Path directory, String sort, Comparator<DirectoryListingEntry> comparator) throws IOException {
+        final String key = directory.toString() + '|' + sort;
+        final long lastModified = Files.getLastModifiedTime(directory).toMillis();
+        DirectoryListing listing = entries.get(key);
+        if (listing != null && listing.getLastModified() == lastModified) {
+            return listing;
+        }
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Read directory listing [" + directory + "] sorted by " + sort + ".");
+        }
+
+        List<DirectoryListingEntry> result = new ArrayList<>();
+        try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(directory)) {
+            for (Path file : directoryStream) {
+                try {
+                    result.add(DirectoryListingEntry.create(file));
+                } catch (IOException e) {
+                    LOG.debug("Could not read [" + file + "]: " + e.getMessage());
+                }
+            }
+        }
+        result.sort(comparator);
+        listing = new DirectoryListing(lastModified, result.toArray(new DirectoryListingEntry[result.size()]));
+
+        if (maxEntries > 0) {
+            if (!entries.containsKey(key) && entries.size() >= maxEntries) {
+                Iterator<String> iterator = entries.keySet().iterator();
+                if (iterator.hasNext()) {
+                    entries.remove(iterator.next());
+                }
+            }
+            entries.put(key, listing);
+        }
+
+        return listing;
+    }
+
+
+    /**
+     * Clear the cache
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "DirectoryListingCache [maxEntries=" + maxEntries + ", entries=" + entries.size() + "]";
+    }
+}
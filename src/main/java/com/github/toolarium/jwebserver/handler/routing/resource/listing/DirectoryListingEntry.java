@@ -0,0 +1,116 @@
+/*
+ * DirectoryListingEntry.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.listing;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Comparator;
+
+
+/**
+ * Defines an entry of a directory listing
+ *
+ * @author patrick
+ */
+public class DirectoryListingEntry {
+    /** Compare by name */
+    public static final Comparator<DirectoryListingEntry> NAME_COMPARATOR = Comparator.comparing(DirectoryListingEntry::getName);
+
+    /** Compare by size, the directories first */
+    public static final Comparator<DirectoryListingEntry> SIZE_COMPARATOR = Comparator.comparingLong(DirectoryListingEntry::getSize).thenComparing(NAME_COMPARATOR);
+
+    /** Compare by last modified time */
+    public static final Comparator<DirectoryListingEntry> LAST_MODIFIED_COMPARATOR = Comparator.comparingLong(DirectoryListingEntry::getLastModified).thenComparing(NAME_COMPARATOR);
+
+    private final String name;
+    private final boolean directory;
+    private final long size;
+    private final long lastModified;
+
+
+    /**
+     * Constructor for DirectoryListingEntry
+     *
+     * @param name the name
+     * @param directory true if it is a directory
+     * @param size the size in bytes
+     * @param lastModified the last modified time in milliseconds
+     */
+    public DirectoryListingEntry(final String name, final boolean directory, final long size, final long lastModified) {
+        this.name = name;
+        this.directory = directory;
+        this.size = size;
+        this.lastModified = lastModified;
+    }
+
+
+    /**
+     * Create an entry of a file
+     *
+     * @param file the file
+     * @return the entry
+     * @throws IOException In case of an I/O error
+     */
+    public static DirectoryListingEntry create(Path file) throws IOException {
+        BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        if (attributes.isDirectory()) {
+            return new DirectoryListingEntry(file.getFileName().toString(), true, -1, attributes.lastModifiedTime().toMillis());
+        }
+
+        return new DirectoryListingEntry(file.getFileName().toString(), false, attributes.size(), attributes.lastModifiedTime().toMillis());
+    }
+
+
+    /**
+     * Get the name
+     *
+     * @return the name
+     */
+    public String getName() {
+        return name;
+    }
+
+
+    /**
+     * Check if it is a directory
+     *
+     * @return true if it is a directory
+     */
+    public boolean isDirectory() {
+        return directory;
+    }
+
+
+    /**
+     * Get the size
+     *
+     * @return the size in bytes or -1 for a directory
+     */
+    public long getSize() {
+        return size;
+    }
+
+
+    /**
+     * Get the last modified time
+     *
+     * @return the last modified time in milliseconds
+     */
+    public long getLastModified() {
+        return lastModified;
+    }
+
+
+    /**
+     * @see java.lang.Object#toString()
+     */
+    @Override
+    public String toString() {
+        return "DirectoryListingEntry [name=" + name + ", directory=" + directory + ", size=" + size + ", lastModified=" + lastModified + "]";
+    }
+}
@@ -0,0 +1,314 @@
+/*
+ * DirectoryListingHandler.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.listing;
+
+import com.github.toolarium.jwebserver.config.IResourceServerConfiguration;
+import com.github.toolarium.jwebserver.config.IWebServerConfiguration;
+import com.github.toolarium.jwebserver.handler.routing.RoutingHandler;
+import io.undertow.server.HttpHandler;
+import io.undertow.server.HttpServerExchange;
+import io.undertow.server.handlers.resource.Resource;
+import io.undertow.server.handlers.resource.ResourceManager;
+import io.undertow.util.CanonicalPathUtils;
+import io.undertow.util.Headers;
+import io.undertow.util.Methods;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Deque;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Streams the directory listings of the file system instead of building the whole page in memory. The entries are 
+ * written while the directory is read, a page is selected with the query parameters <code>offset</code> and 
+ * <code>limit</code>. The parameters <code>sort=name|size|modified</code> and <code>order=asc|desc</code> sort the 
+ * listing, the sorted listings are cached as long as the directory is not modified. In case the request accepts 
+ * <code>application/json</code> the listing is rendered as json.
+ *
+ * @author patrick
+ */
+public class DirectoryListingHandler implements HttpHandler {
+    private static final Logger LOG = LoggerFactory.getLogger(DirectoryListingHandler.class);
+    private static final String[] DEFAULT_WELCOME_FILES = {"index.html", "index.htm", "default.html", "default.htm"};
+    private static final String OFFSET = "offset";
+    private static final String LIMIT = "limit";
+    private static final String SORT = "sort";
+    private static final String ORDER = "order";
+    private static final String SORT_NAME = "name";
+    private static final String SORT_SIZE = "size";
+    private static final String SORT_MODIFIED = "modified";
+    private static final String ORDER_DESC = "desc";
+    private static final int WRITER_BUFFER_SIZE = 8192;
+    private final io.undertow.server.handlers.resource.ResourceHandler next;
+    private final String[] welcomeFiles;
+    private final int pageSize;
+    private final DirectoryListingCache directoryListingCache;
+    private final IDirectoryListingRenderer htmlRenderer;
+    private final IDirectoryListingRenderer jsonRenderer;
+
+
+    /**
+     * Constructor for DirectoryListingHandler
+     *
+     * @param next the resource handler
+     * @param welcomeFiles the welcome files
+     * @param pageSize the default and max number of entries of a page
+     * @param directoryListingCache the cache of the sorted listings
+     */
+    public DirectoryListingHandler(final io.undertow.server.handlers.resource.ResourceHandler next, final String[] welcomeFiles, final int pageSize, final DirectoryListingCache directoryListingCache) {
+        this.next = next;
+        if (welcomeFiles != null) {
+            this.welcomeFiles = welcomeFiles;
+        } else {
+            this.welcomeFiles = DEFAULT_WELCOME_FILES;
+        }
+        this.pageSize = pageSize;
+        this.directoryListingCache = directoryListingCache;
+        this.htmlRenderer = new HtmlDirectoryListingRenderer();
+        this.jsonRenderer = new JsonDirectoryListingRenderer();
+    }
+
+
+    /**
+     * Add the directory listing handler
+     *
+     * @param webServerConfiguration the web server configuration
+     * @param resourceHandler the resource handler to wrap
+     * @return the handler
+     */
+    public static HttpHandler addHandler(final IWebServerConfiguration webServerConfiguration, final io.undertow.server.handlers.resource.ResourceHandler resourceHandler) {
+        IResourceServerConfiguration configuration = webServerConfiguration.getResourceServerConfiguration();
+        if (!configuration.isDirectoryListingEnabled() || configuration.readFromClasspath() || configuration.getDirectoryListingPageSize() <= 0) {
+            // the classpath has no file system directories, it keeps the listing of undertow
+            return resourceHandler;
+        }
+
+        return new DirectoryListingHandler(resourceHandler, configuration.getWelcomeFiles(), configuration.getDirectoryListingPageSize(), new DirectoryListingCache(configuration.getDirectoryListingCacheSize()));
+    }
+
+
+    /**
+     * @see io.undertow.server.HttpHandler#handleRequest(io.undertow.server.HttpServerExchange)
+     */
+    @Override
+    public void handleRequest(HttpServerExchange exchange) throws Exception {
+        final String path = CanonicalPathUtils.canonicalize(exchange.getRelativePath());
+        if (!path.endsWith(RoutingHandler.SLASH) || !(exchange.getRequestMethod().equals(Methods.GET) || exchange.getRequestMethod().equals(Methods.HEAD))) {
+            next.handleRequest(exchange);
+            return;
+        }
+
+        final ResourceManager resourceManager = next.getResourceManager();
+        final Resource resource = resourceManager.getResource(path);
+        if (resource == null || !resource.isDirectory() || resource.getFilePath() == null || hasWelcomeFile(resourceManager, path)) {
+            next.handleRequest(exchange);
+            return;
+        }
+
+        if (exchange.isInIoThread()) {
+            // the directory is read with blocking I/O
+            exchange.dispatch(this);
+            return;
+        }
+
+        IDirectoryListingRenderer renderer = htmlRenderer;
+        final String accept = exchange.getRequestHeaders().getFirst(Headers.ACCEPT);
+        if (accept != null && accept.contains(JsonDirectoryListingRenderer.CONTENT_TYPE)) {
+            renderer = jsonRenderer;
+        }
+
+        exchange.getResponseHeaders().put(Headers.CONTENT_TYPE, renderer.getContentType());
+        exchange.getResponseHeaders().add(Headers.VARY, Headers.ACCEPT_STRING);
+        if (exchange.getRequestMethod().equals(Methods.HEAD)) {
+            exchange.endExchange();
+            return;
+        }
+
+        final int offset = Math.max(0, getParameter(exchange, OFFSET, 0));
+        int limit = getParameter(exchange, LIMIT, pageSize);
+        if (limit <= 0 || limit > pageSize) {
+            limit = pageSize;
+        }
+
+        final String sort = getParameter(exchange, SORT);
+        final boolean descending = ORDER_DESC.equals(getParameter(exchange, ORDER));
+        final Comparator<DirectoryListingEntry> comparator = getComparator(sort);
+
+        if (LOG.isDebugEnabled()) {
+            LOG.debug("Directory listing [" + path + "] offset " + offset + ", limit " + limit + ", sort " + sort + ".");
+        }
+
+        exchange.startBlocking();
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(exchange.getOutputStream(), StandardCharsets.UTF_8), WRITER_BUFFER_SIZE)) {
+            renderer.writeHeader(writer, path, offset, limit);
+            if (comparator == null) {
+                writeUnsorted(writer, renderer, resource.getFilePath(), offset, limit);
+            } else {
+                writeSorted(writer, renderer, directoryListingCache.get(resource.getFilePath(), sort, comparator), offset, limit, sort, descending);
+            }
+        }
+    }
+
+
+    /**
+     * Write a page in the order of the directory stream. The entries are written while the directory is read.
+     *
+     * @param writer the writer
+     * @param renderer the renderer
+     * @param directory the directory
+     * @param offset the offset
+     * @param limit the limit
+     * @throws IOException In case of an I/O error
+     */
+    private void writeUnsorted(Writer writer, IDirectoryListingRenderer renderer, Path directory, int offset, int limit) throws IOException {
+        int index = 0;
+        int count = 0;
+        boolean more = false;
+        try (DirectoryStream<Path> directoryStream = Files.newDirectoryStream(directory)) {
+            for (Path file : directoryStream) {
+                if (index++ < offset) {
+                    continue;
+                }
+
+                if (count >= limit) {
+                    more = true;
+                    break;
+                }
+
+                try {
+                    renderer.writeEntry(writer, DirectoryListingEntry.create(file), count == 0);
+                    count++;
+                } catch (IOException e) {
+                    // e.g. the file was deleted in the meantime
+                    LOG.debug("Could not read [" + file + "]: " + e.getMessage());
+                }
+            }
+        }
+
+        renderer.writeFooter(writer, offset, limit, count, more, "");
+    }
+
+
+    /**
+     * Write a page of a sorted listing
+     *
+     * @param writer the writer
+     * @param renderer the renderer
+     * @param directoryListing the sorted listing
+     * @param offset the offset
+     * @param limit the limit
+     * @param sort the sort order
+     * @param descending true to write the listing in descending order
+     * @throws IOException In case of an I/O error
+     */
+    private void writeSorted(Writer writer, IDirectoryListingRenderer renderer, DirectoryListing directoryListing, int offset, int limit, String sort, boolean descending) throws IOException {
+        final DirectoryListingEntry[] entries = directoryListing.getEntries();
+        final int end = (int) Math.min(entries.length, (long) offset + limit);
+        int count = 0;
+        for (int i = offset; i < end; i++) {
+            if (descending) {
+                renderer.writeEntry(writer, entries[entries.length - 1 - i], count == 0);
+            } else {
+                renderer.writeEntry(writer, entries[i], count == 0);
+            }
+            count++;
+        }
+
+        String sortParameters = "&amp;" + SORT + "=" + sort;
+        if (descending) {
+            sortParameters += "&amp;" + ORDER + "=" + ORDER_DESC;
+        }
+
+        renderer.writeFooter(writer, offset, limit, count, end < entries.length, sortParameters);
+    }
+
+
+    /**
+     * Check if the directory has a welcome file, in this case it is served by the resource handler
+     *
+     * @param resourceManager the resource manager
+     * @param path the path of the directory
+     * @return true if a welcome file exists
+     * @throws IOException In case of an I/O error
+     */
+    private boolean hasWelcomeFile(ResourceManager resourceManager, String path) throws IOException {
+        for (String welcomeFile : welcomeFiles) {
+            Resource welcomeResource = resourceManager.getResource(path + welcomeFile);
+            if (welcomeResource != null && !welcomeResource.isDirectory()) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+
+    /**
+     * Get the comparator of a sort order
+     *
+     * @param sort the sort order
+     * @return the comparator or null to keep the order of the directory stream
+     */
+    private Comparator<DirectoryListingEntry> getComparator(String sort) {
+        if (SORT_NAME.equals(sort)) {
+            return DirectoryListingEntry.NAME_COMPARATOR;
+        } else if (SORT_SIZE.equals(sort)) {
+            return DirectoryListingEntry.SIZE_COMPARATOR;
+        } else if (SORT_MODIFIED.equals(sort)) {
+            return DirectoryListingEntry.LAST_MODIFIED_COMPARATOR;
+        }
+
+        return null;
+    }
+
+
+    /**
+     * Get a query parameter
+     *
+     * @param exchange the exchange
+     * @param name the name
+     * @return the value or null
+     */
+    private String getParameter(HttpServerExchange exchange, String name) {
+        Deque<String> values = exchange.getQueryParameters().get(name);
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+
+        return values.getFirst();
+    }
+
+
+    /**
+     * Get a numeric query parameter
+     *
+     * @param exchange the exchange
+     * @param name the name
+     * @param defaultValue the default value
+     * @return the value or the default value if it is missing or invalid
+     */
+    private int getParameter(HttpServerExchange exchange, String name, int defaultValue) {
+        String value = getParameter(exchange, name);
+        if (value == null || value.isBlank()) {
+            return defaultValue;
+        }
+
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            LOG.debug("Invalid query parameter " + name + " [" + value + "].");
+            return defaultValue;
+        }
+    }
+}
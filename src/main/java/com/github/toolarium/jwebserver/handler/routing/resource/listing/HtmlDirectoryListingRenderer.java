@@ -0,0 +1,115 @@
+/*
+ * HtmlDirectoryListingRenderer.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.listing;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+
+/**
+ * Renders a directory listing as html page with the links to the previous and the next page.
+ *
+ * @author patrick
+ */
+public class HtmlDirectoryListingRenderer implements IDirectoryListingRenderer {
+    /** The content type */
+    public static final String CONTENT_TYPE = "text/html; charset=UTF-8";
+    private static final String SLASH = "/";
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.listing.IDirectoryListingRenderer#getContentType()
+     */
+    @Override
+    public String getContentType() {
+        return CONTENT_TYPE;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.listing.IDirectoryListingRenderer#writeHeader(java.io.Writer, java.lang.String, int, int)
+     */
+    @Override
+    public void writeHeader(Writer writer, String path, int offset, int limit) throws IOException {
+        writer.write("<!DOCTYPE html>\n<html>\n<head>\n<meta charset=\"utf-8\">\n<title>Index of ");
+        writeEscaped(writer, path);
+        writer.write("</title>\n<style>body { font-family: sans-serif; } td { padding: 0 1em 0 0; } td.size { text-align: right; }</style>\n</head>\n<body>\n<h1>Index of ");
+        writeEscaped(writer, path);
+        writer.write("</h1>\n<table>\n<tr><th><a href=\"?sort=name\">Name</a></th><th><a href=\"?sort=size\">Size</a></th><th><a href=\"?sort=modified\">Last modified</a></th></tr>\n");
+        if (!SLASH.equals(path)) {
+            writer.write("<tr><td><a href=\"../\">../</a></td><td></td><td></td></tr>\n");
+        }
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.listing.IDirectoryListingRenderer#writeEntry(java.io.Writer, com.github.toolarium.jwebserver.handler.routing.resource.listing.DirectoryListingEntry, boolean)
+     */
+    @Override
+    public void writeEntry(Writer writer, DirectoryListingEntry entry, boolean first) throws IOException {
+        writer.write("<tr><td><a href=\"");
+        writer.write(URLEncoder.encode(entry.getName(), StandardCharsets.UTF_8).replace("+", "%20"));
+        if (entry.isDirectory()) {
+            writer.write(SLASH);
+        }
+        writer.write("\">");
+        writeEscaped(writer, entry.getName());
+        if (entry.isDirectory()) {
+            writer.write(SLASH);
+        }
+        writer.write("</a></td><td class=\"size\">");
+        if (!entry.isDirectory()) {
+            writer.write(Long.toString(entry.getSize()));
+        }
+        writer.write("</td><td>");
+        writer.write(Instant.ofEpochMilli(entry.getLastModified()).toString());
+        writer.write("</td></tr>\n");
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.listing.IDirectoryListingRenderer#writeFooter(java.io.Writer, int, int, int, boolean, java.lang.String)
+     */
+    @Override
+    public void writeFooter(Writer writer, int offset, int limit, int count, boolean more, String sortParameters) throws IOException {
+        writer.write("</table>\n<p>");
+        if (offset > 0) {
+            writer.write("<a href=\"?offset=" + Math.max(0, offset - limit) + "&amp;limit=" + limit + sortParameters + "\">previous</a> ");
+        }
+        if (more) {
+            writer.write("<a href=\"?offset=" + (offset + count) + "&amp;limit=" + limit + sortParameters + "\">next</a>");
+        }
+        writer.write("</p>\n</body>\n</html>\n");
+    }
+
+
+    /**
+     * Write an html escaped value
+     *
+     * @param writer the writer
+     * @param value the value
+     * @throws IOException In case of an I/O error
+     */
+    private void writeEscaped(Writer writer, String value) throws IOException {
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '<') {
+                writer.write("&lt;");
+            } else if (c == '>') {
+                writer.write("&gt;");
+            } else if (c == '&') {
+                writer.write("&amp;");
+            } else if (c == '"') {
+                writer.write("&quot;");
+            } else {
+                writer.write(c);
+            }
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * IDirectoryListingRenderer.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.listing;
+
+import java.io.IOException;
+import java.io.Writer;
+
+
+/**
+ * Defines the renderer of a directory listing. The entries are written one by one while the directory is read.
+ *
+ * @author patrick
+ */
+public interface IDirectoryListingRenderer {
+
+    /**
+     * Get the content type of the listing
+     *
+     * @return the content type
+     */
+    String getContentType();
+
+
+    /**
+     * Write the header of the listing
+     *
+     * @param writer the writer
+     * @param path the requested path of the directory
+     * @param offset the offset of the page
+     * @param limit the max number of entries of the page
+     * @throws IOException In case of an I/O error
+     */
+    void writeHeader(Writer writer, String path, int offset, int limit) throws IOException;
+
+
+    /**
+     * Write an entry
+     *
+     * @param writer the writer
+     * @param entry the entry
+     * @param first true if it is the first entry of the page
+     * @throws IOException In case of an I/O error
+     */
+    void writeEntry(Writer writer, DirectoryListingEntry entry, boolean first) throws IOException;
+
+
+    /**
+     * Write the footer of the listing
+     *
+     * @param writer the writer
+     * @param offset the offset of the page
+     * @param limit the max number of entries of the page
+     * @param count the number of written entries
+     * @param more true if there are more entries after the page
+     * @param sortParameters the sort query parameters of the links to the other pages, e.g. <code>&amp;sort=name</code>
+     * @throws IOException In case of an I/O error
+     */
+    void writeFooter(Writer writer, int offset, int limit, int count, boolean more, String sortParameters) throws IOException;
+}
@@ -0,0 +1,108 @@
+/*
+ * JsonDirectoryListingRenderer.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.handler.routing.resource.listing;
+
+import java.io.IOException;
+import java.io.Writer;
+
+
+/**
+ * Renders a directory listing as json, e.g.
+ * <pre>
+ * {"path":"/data/","offset":0,"limit":1000,"entries":[{"name":"a.txt","directory":false,"size":10,"lastModified":1700000000000}],"count":1,"more":false}
+ * </pre>
+ *
+ * @author patrick
+ */
+public class JsonDirectoryListingRenderer implements IDirectoryListingRenderer {
+    /** The content type */
+    public static final String CONTENT_TYPE = "application/json";
+    private static final char QUOTE = '"';
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.listing.IDirectoryListingRenderer#getContentType()
+     */
+    @Override
+    public String getContentType() {
+        return CONTENT_TYPE;
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.listing.IDirectoryListingRenderer#writeHeader(java.io.Writer, java.lang.String, int, int)
+     */
+    @Override
+    public void writeHeader(Writer writer, String path, int offset, int limit) throws IOException {
+        writer.write("{\"path\":");
+        writeString(writer, path);
+        writer.write(",\"offset\":");
+        writer.write(Integer.toString(offset));
+        writer.write(",\"limit\":");
+        writer.write(Integer.toString(limit));
+        writer.write(",\"entries\":[");
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.listing.IDirectoryListingRenderer#writeEntry(java.io.Writer, com.github.toolarium.jwebserver.handler.routing.resource.listing.DirectoryListingEntry, boolean)
+     */
+    @Override
+    public void writeEntry(Writer writer, DirectoryListingEntry entry, boolean first) throws IOException {
+        if (!first) {
+            writer.write(',');
+        }
+
+        writer.write("{\"name\":");
+        writeString(writer, entry.getName());
+        writer.write(",\"directory\":");
+        writer.write(Boolean.toString(entry.isDirectory()));
+        if (!entry.isDirectory()) {
+            writer.write(",\"size\":");
+            writer.write(Long.toString(entry.getSize()));
+        }
+        writer.write(",\"lastModified\":");
+        writer.write(Long.toString(entry.getLastModified()));
+        writer.write('}');
+    }
+
+
+    /**
+     * @see com.github.toolarium.jwebserver.handler.routing.resource.listing.IDirectoryListingRenderer#writeFooter(java.io.Writer, int, int, int, boolean, java.lang.String)
+     */
+    @Override
+    public void writeFooter(Writer writer, int offset, int limit, int count, boolean more, String sortParameters) throws IOException {
+        writer.write("],\"count\":");
+        writer.write(Integer.toString(count));
+        writer.write(",\"more\":");
+        writer.write(Boolean.toString(more));
+        writer.write('}');
+    }
+
+
+    /**
+     * Write an escaped json string
+     *
+     * @param writer the writer
+     * @param value the value
+     * @throws IOException In case of an I/O error
+     */
+    private void writeString(Writer writer, String value) throws IOException {
+        writer.write(QUOTE);
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == QUOTE || c == '\\') {
+                writer.write('\\');
+                writer.write(c);
+            } else if (c < 0x20) {
+                writer.write(String.format("\\u%04x", (int) c));
+            } else {
+                writer.write(c);
+            }
+        }
+        writer.write(QUOTE);
+    }
+}
@@ -9,6 +9,7 @@ import com.github.toolarium.jwebserver.Version;
 import com.github.toolarium.jwebserver.config.IResourceServerConfiguration;
 import com.github.toolarium.jwebserver.config.IWebServerConfiguration;
 import com.github.toolarium.jwebserver.handler.routing.RoutingHandler;
+import com.github.toolarium.jwebserver.handler.routing.proxy.ProxyHandler;
 import com.github.toolarium.jwebserver.logger.ansi.ColoredStackTraceWriter;
 import com.github.toolarium.jwebserver.util.ConfigurationUtil;
 import io.undertow.Undertow.ListenerInfo;
@@ -17,7 +18,9 @@ import java.io.StringWriter;
 import java.net.Inet6Address;
 import java.net.InetAddress;
 import java.net.InetSocketAddress;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import picocli.CommandLine.Help;
 import picocli.CommandLine.Help.ColorScheme;
 
@@ -32,6 +35,7 @@ public class LifecycleLogger {
     private static final String LINE = "----------------------------------------------------------------------------------------";
     private static final String APP = "jwebserver v" + Version.VERSION;
     private ColorScheme colorSchema = Help.defaultColorScheme(Help.Ansi.AUTO);
+    private final Map<String, String> startupInformation = new LinkedHashMap<>();
 
 
     /**
@@ -61,6 +65,17 @@ public class LifecycleLogger {
     }
     
     
+    /**
+     * Add an information which is printed at the server startup
+     *
+     * @param tag the tag, max 10 characters
+     * @param information the information
+     */
+    public void addStartupInformation(String tag, String information) {
+        startupInformation.put(tag, information);
+    }
+
+    
     /**
      * Print server startup
      *
@@ -116,13 +131,104 @@ public class LifecycleLogger {
             if (webServerConfiguration.hasBasicAuthentication()) {
                 prepareHeader(message, "Basic Auth").append("enabled").append(NL);
             }
+
+            if (webServerConfiguration.getCompressionConfiguration().isEnabled()) {
+                prepareHeader(message, "Compress").append("level ").append(webServerConfiguration.getCompressionConfiguration().getLevel())
+                    .append(" (min ").append(webServerConfiguration.getCompressionConfiguration().getMinSize()).append(" bytes)").append(NL);
+            }
     
             if (webServerConfiguration.isProxyServer()) {
-                // NOP
+                prepareHeader(message, "Balancing").append(webServerConfiguration.getProxyServerConfiguration().getBalancingStrategy());
+                if (ProxyHandler.CONSISTENT_HASH.equalsIgnoreCase(webServerConfiguration.getProxyServerConfiguration().getBalancingStrategy())) {
+                    message.append(" (").append(webServerConfiguration.getProxyServerConfiguration().getHashKey()).append(")");
+                } else if (ProxyHandler.STICKY.equalsIgnoreCase(webServerConfiguration.getProxyServerConfiguration().getBalancingStrategy())) {
+                    message.append(" (cookie ").append(webServerConfiguration.getProxyServerConfiguration().getStickyCookie()).append(")");
+                }
+                message.append(NL);
+                if (webServerConfiguration.getProxyServerConfiguration().getHealthCheckPath() != null) {
+                    prepareHeader(message, "Probe").append(commandText(webServerConfiguration.getProxyServerConfiguration().getHealthCheckPath()))
+                        .append(" every ").append(webServerConfiguration.getProxyServerConfiguration().getHealthCheckInterval()).append("ms (eject ")
+                        .append(webServerConfiguration.getProxyServerConfiguration().getUnhealthyThreshold()).append(", admit ")
+                        .append(webServerConfiguration.getProxyServerConfiguration().getHealthyThreshold()).append(")").append(NL);
+                }
+
+                if (webServerConfiguration.getProxyServerConfiguration().getCacheSize() > 0) {
+                    prepareHeader(message, "Cache").append(webServerConfiguration.getProxyServerConfiguration().getCacheSize()).append(" bytes (max entry ")
+                        .append(webServerConfiguration.getProxyServerConfiguration().getCacheMaxEntrySize()).append(" bytes)");
+                    if (webServerConfiguration.getProxyServerConfiguration().getCacheDirectory() != null) {
+                        message.append(", disk ").append(webServerConfiguration.getProxyServerConfiguration().getCacheDiskSize()).append(" MB in ")
+                            .append(webServerConfiguration.getProxyServerConfiguration().getCacheDirectory());
+                    }
+                    if (webServerConfiguration.getProxyServerConfiguration().getCollapseTimeout() > 0) {
+                        message.append(", collapse ").append(webServerConfiguration.getProxyServerConfiguration().getCollapseTimeout()).append("ms");
+                    }
+                    message.append(NL);
+                }
             } else {
+                if (webServerConfiguration.getResourceServerConfiguration().getResourceLayers() != null && webServerConfiguration.getResourceServerConfiguration().getResourceLayers().length > 0) {
+                    prepareHeader(message, "Layers").append(ConfigurationUtil.getInstance().formatArrayAsString(webServerConfiguration.getResourceServerConfiguration().getResourceLayers())).append(NL);
+                }
+                
+                if (webServerConfiguration.getResourceServerConfiguration().getSpaIndex() != null) {
+                    prepareHeader(message, "SPA").append(webServerConfiguration.getResourceServerConfiguration().getSpaIndex()).append(NL);
+                }
+                
                 if (webServerConfiguration.getResourceServerConfiguration().isDirectoryListingEnabled()) {
-                    prepareHeader(message, "Listing").append("enabled").append(NL);
+                    prepareHeader(message, "Listing").append("enabled (page size ").append(webServerConfiguration.getResourceServerConfiguration().getDirectoryListingPageSize()).append(")").append(NL);
+                }
+                
+                if (webServerConfiguration.getResourceServerConfiguration().getCacheSize() > 0) {
+                    prepareHeader(message, "Cache").append(webServerConfiguration.getResourceServerConfiguration().getCacheSize()).append(" bytes (max entry ")
+                        .append(webServerConfiguration.getResourceServerConfiguration().getCacheMaxEntrySize()).append(" bytes)").append(NL);
                 }
+
+                if (webServerConfiguration.getResourceServerConfiguration().isServeFromIoThread() && webServerConfiguration.getResourceServerConfiguration().getCacheSize() > 0) {
+                    prepareHeader(message, "IO Thread").append("cached responses (ttl ")
+                        .append(webServerConfiguration.getResourceServerConfiguration().getIoThreadTimeToLive()).append(" ms)").append(NL);
+                }
+
+                if (webServerConfiguration.getResourceServerConfiguration().getMappedCacheSize() > 0 && !webServerConfiguration.getResourceServerConfiguration().readFromClasspath()) {
+                    prepareHeader(message, "Mapped").append(webServerConfiguration.getResourceServerConfiguration().getMappedCacheSize()).append(" bytes (files ")
+                        .append(webServerConfiguration.getResourceServerConfiguration().getMappedFileMinSize()).append(" - ")
+                        .append(webServerConfiguration.getResourceServerConfiguration().getMappedFileMaxSize()).append(" bytes)").append(NL);
+                }
+
+                if (webServerConfiguration.getResourceServerConfiguration().isResourceIndexEnabled()) {
+                    prepareHeader(message, "Index").append("enabled").append(NL);
+                }
+                
+                if (webServerConfiguration.getResourceServerConfiguration().getPrecompressedEncodings() != null && webServerConfiguration.getResourceServerConfiguration().getPrecompressedEncodings().length > 0) {
+                    prepareHeader(message, "Compressed").append(ConfigurationUtil.getInstance().formatArrayAsString(webServerConfiguration.getResourceServerConfiguration().getPrecompressedEncodings())).append(NL);
+                }
+                
+                if (webServerConfiguration.getResourceServerConfiguration().getETagCacheSize() > 0) {
+                    prepareHeader(message, "ETag").append("content hash (").append(webServerConfiguration.getResourceServerConfiguration().getETagCacheSize()).append(" entries)").append(NL);
+                }
+                
+                if (webServerConfiguration.getResourceServerConfiguration().getCacheControl() != null) {
+                    prepareHeader(message, "Cache-Ctrl").append(webServerConfiguration.getResourceServerConfiguration().getCacheControl()).append(NL);
+                }
+
+                if (webServerConfiguration.getResourceServerConfiguration().isCacheControlImmutable()) {
+                    prepareHeader(message, "Immutable").append("fingerprinted resources").append(NL);
+                }
+                
+                if (webServerConfiguration.getResourceServerConfiguration().getLookupCacheSize() > 0) {
+                    prepareHeader(message, "Lookup").append(webServerConfiguration.getResourceServerConfiguration().getLookupCacheSize()).append(" entries (ttl ")
+                        .append(webServerConfiguration.getResourceServerConfiguration().getLookupCacheTimeToLive()).append(" ms)").append(NL);
+                }
+                if (webServerConfiguration.getResourceServerConfiguration().getGenerationCheckInterval() > 0) {
+                    prepareHeader(message, "Generation").append("switched content directory detected every ")
+                        .append(webServerConfiguration.getResourceServerConfiguration().getGenerationCheckInterval()).append(" ms").append(NL);
+                }
+                if (webServerConfiguration.getResourceServerConfiguration().getMetadataCacheSize() > 0) {
+                    prepareHeader(message, "Metadata").append(webServerConfiguration.getResourceServerConfiguration().getMetadataCacheSize()).append(" entries (ttl ")
+                        .append(webServerConfiguration.getResourceServerConfiguration().getMetadataCacheTimeToLive()).append(" ms, refreshed in background)").append(NL);
+                }
+            }
+            
+            for (Map.Entry<String, String> entry : startupInformation.entrySet()) {
+                prepareHeader(message, entry.getKey()).append(entry.getValue()).append(NL);
             }
         }
         
@@ -5,6 +5,14 @@
  */
 package com.github.toolarium.jwebserver.util;
 
+import io.undertow.server.handlers.resource.Resource;
+import io.undertow.util.HeaderMap;
+import io.undertow.util.HeaderValues;
+import io.undertow.util.Headers;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.Date;
 
 /**
  * Resource utility.
@@ -75,7 +83,10 @@ public final class ResourceUtil {
      * @param input the input
      * @param size the size of the string
      * @return the prepared string
+     * @deprecated the parent directories are walked on a single path buffer, use {@link #createPathBuffer(String, int)}, 
+     * {@link #getParentEnd(CharSequence, int)} and {@link #resolve(StringBuilder, int, String)}
      */
+    @Deprecated
     public String prepareString(String[] input, int size) {
         if (input == null || input.length == 0 || size == 0) {
             return "/";
@@ -88,7 +99,164 @@ public final class ResourceUtil {
         }
         return builder.toString();
     }
+
+    
+    /**
+     * Create a path buffer for a walk over a directory and its parents. The buffer contains the canonicalized path with
+     * a trailing slash and has room for the longest name which is resolved in the directories.
+     *
+     * @param path the path of the directory
+     * @param maxNameLength the max length of a name which is resolved
+     * @return the path buffer
+     */
+    public StringBuilder createPathBuffer(String path, int maxNameLength) {
+        String directoryPath = canonicalize(path);
+        StringBuilder pathBuffer = new StringBuilder(directoryPath.length() + 1 + maxNameLength);
+        pathBuffer.append(directoryPath);
+        if (pathBuffer.length() == 0 || pathBuffer.charAt(pathBuffer.length() - 1) != '/') {
+            pathBuffer.append('/');
+        }
+        return pathBuffer;
+    }
+
+
+    /**
+     * Get the end of the parent directory in a path. The directories are defined by their end offset which includes
+     * the trailing slash, e.g. for <code>/a/b/</code> the parents end at 3 (<code>/a/</code>) and 1 (<code>/</code>).
+     *
+     * @param path the path
+     * @param directoryEnd the end of the directory, including its trailing slash
+     * @return the end of the parent directory or -1 if the directory is the root
+     */
+    public int getParentEnd(CharSequence path, int directoryEnd) {
+        for (int i = directoryEnd - 2; i >= 0; i--) {
+            if (path.charAt(i) == '/') {
+                return i + 1;
+            }
+        }
+
+        if (directoryEnd > 1) {
+            // relative path, the parent is the root
+            return 0;
+        }
+        
+        return -1;
+    }
+
+
+    /**
+     * Resolve a name in a directory of a path buffer. The buffer is truncated to the directory and the name is appended.
+     *
+     * @param pathBuffer the path buffer
+     * @param directoryEnd the end of the directory, including its trailing slash
+     * @param name the name
+     * @return the resolved path
+     */
+    public String resolve(StringBuilder pathBuffer, int directoryEnd, String name) {
+        pathBuffer.setLength(directoryEnd);
+        pathBuffer.append(name);
+        return pathBuffer.toString();
+    }
+    
+    
+    /**
+     * Get the last modified time of a resource in milliseconds
+     *
+     * @param resource the resource
+     * @return the last modified time or -1 if it is not known
+     */
+    public long getLastModified(Resource resource) {
+        if (resource == null) {
+            return -1L;
+        }
+        
+        Date lastModified = resource.getLastModified();
+        if (lastModified == null) {
+            return -1L;
+        }
+        
+        return lastModified.getTime();
+    }
+
+    
+    /**
+     * Read the content of a resource
+     *
+     * @param resource the resource
+     * @return the content
+     * @throws IOException In case of an I/O error
+     */
+    public byte[] readContent(Resource resource) throws IOException {
+        if (resource.getFilePath() != null) {
+            return Files.readAllBytes(resource.getFilePath());
+        }
+        
+        if (resource.getUrl() == null) {
+            throw new IOException("Could not access content of resource [" + resource.getPath() + "].");
+        }
+        
+        try (InputStream inputStream = resource.getUrl().openStream()) {
+            return inputStream.readAllBytes();
+        }
+    }
+    
+    
+    /**
+     * Check if an encoding is accepted by the values of an accept encoding header
+     *
+     * @param acceptEncodingHeaders the values of the accept encoding header or null
+     * @param encoding the encoding, e.g. gzip
+     * @return true if the encoding is accepted
+     */
+    public boolean acceptsEncoding(Iterable<String> acceptEncodingHeaders, String encoding) {
+        if (acceptEncodingHeaders == null) {
+            return false;
+        }
+        
+        boolean acceptsAny = false;
+        for (String header : acceptEncodingHeaders) {
+            for (String token : header.split(",")) {
+                String name = token;
+                boolean accepted = true;
+                int index = token.indexOf(';');
+                if (index >= 0) {
+                    name = token.substring(0, index);
+                    accepted = !isZeroQuality(token.substring(index + 1));
+                }
+                
+                name = name.trim();
+                if (name.equalsIgnoreCase(encoding)) {
+                    return accepted;
+                }
+                
+                if ("*".equals(name)) {
+                    acceptsAny = accepted;
+                }
+            }
+        }
+        
+        return acceptsAny;
+    }
+
     
+    /**
+     * Add the accept encoding to the vary header if it is not already present
+     *
+     * @param responseHeaders the response headers
+     */
+    public void addVaryAcceptEncoding(HeaderMap responseHeaders) {
+        HeaderValues values = responseHeaders.get(Headers.VARY);
+        if (values != null) {
+            for (String value : values) {
+                if (value.toLowerCase().contains("accept-encoding")) {
+                    return;
+                }
+            }
+        }
+        
+        responseHeaders.add(Headers.VARY, Headers.ACCEPT_ENCODING.toString());
+    }
+
     
     /**
      * Convert a resource into a string
@@ -121,4 +289,26 @@ public final class ResourceUtil {
     
         return builder.toString();
     }
+
+    
+    /**
+     * Check if the parameters of an encoding define a quality of zero
+     *
+     * @param parameters the parameters, e.g. q=0
+     * @return true if the quality is zero
+     */
+    private boolean isZeroQuality(String parameters) {
+        for (String parameter : parameters.split(";")) {
+            String value = parameter.trim();
+            if (value.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(value.substring(2).trim()) <= 0;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
+            }
+        }
+        
+        return false;
+    }
 }
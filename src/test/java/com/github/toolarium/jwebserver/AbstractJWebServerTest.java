@@ -6,6 +6,8 @@
 package com.github.toolarium.jwebserver;
 
 import com.github.toolarium.jwebserver.config.WebServerConfiguration;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * Base test class
@@ -58,4 +60,20 @@ public abstract class AbstractJWebServerTest {
     protected int getNewPort() {
         return ++port;
     }
+
+
+    /**
+     * Get the alive background threads of the webservers
+     *
+     * @return the threads
+     */
+    protected Set<Thread> getBackgroundThreads() {
+        Set<Thread> threads = new HashSet<>();
+        for (Thread thread : Thread.getAllStackTraces().keySet()) {
+            if (thread.isAlive() && thread.getName().startsWith("jwebserver-")) {
+                threads.add(thread);
+            }
+        }
+        return threads;
+    }
 }
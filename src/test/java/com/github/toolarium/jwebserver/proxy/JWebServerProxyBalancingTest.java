@@ -0,0 +1,154 @@
+/*
+ * JWebServerProxyBalancingTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.proxy;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.toolarium.jwebserver.AbstractJWebServerTest;
+import com.github.toolarium.jwebserver.config.ProxyServerConfiguration;
+import com.github.toolarium.jwebserver.config.WebServerConfiguration;
+import com.github.toolarium.jwebserver.handler.routing.proxy.ProxyHandler;
+import com.github.toolarium.jwebserver.handler.routing.proxy.ProxyHost;
+import com.github.toolarium.jwebserver.handler.routing.proxy.balancing.ConsistentHashBalancingStrategy;
+import com.github.toolarium.jwebserver.handler.routing.proxy.balancing.IBalancingStrategy;
+import com.github.toolarium.jwebserver.handler.routing.proxy.balancing.LeastOutstandingBalancingStrategy;
+import com.github.toolarium.jwebserver.handler.routing.proxy.balancing.PeakEwmaBalancingStrategy;
+import com.github.toolarium.jwebserver.handler.routing.proxy.balancing.PowerOfTwoChoicesBalancingStrategy;
+import com.github.toolarium.jwebserver.handler.routing.proxy.balancing.RoundRobinBalancingStrategy;
+import com.github.toolarium.jwebserver.handler.routing.proxy.balancing.StickyBalancingStrategy;
+import io.restassured.RestAssured;
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * JWebServer proxy balancing tests
+ *
+ * @author patrick
+ */
+public class JWebServerProxyBalancingTest extends AbstractJWebServerTest {
+    private static final String HEALTH_PATH = "/q/health";
+
+
+    /**
+     * Test the proxy with the balancing strategies.
+     */
+    @Test void testProxy() {
+        WebServerConfiguration upstreamConfiguration1 = newConfiguration();
+        upstreamConfiguration1.setHealthPath(HEALTH_PATH);
+        run(upstreamConfiguration1);
+        WebServerConfiguration upstreamConfiguration2 = newConfiguration();
+        upstreamConfiguration2.setHealthPath(HEALTH_PATH);
+        run(upstreamConfiguration2);
+
+        for (String strategy : new String[] {ProxyHandler.LEAST_OUTSTANDING, ProxyHandler.PEAK_EWMA, ProxyHandler.POWER_OF_TWO}) {
+            WebServerConfiguration configuration = newConfiguration();
+            configuration.getProxyServerConfiguration().setProxyHostNames("http://localhost:" + upstreamConfiguration1.getPort() + ",http://localhost:" + upstreamConfiguration2.getPort());
+            configuration.getProxyServerConfiguration().setBalancingStrategy(strategy);
+            run(configuration);
+
+            RestAssured.port = configuration.getPort();
+            for (int i = 0; i < 4; i++) {
+                given().when().get(HEALTH_PATH).then().statusCode(200).body(is("{ \"status\": \"UP\" }"));
+            }
+        }
+    }
+
+
+    /**
+     * Test the creation of the balancing strategies.
+     */
+    @Test void testCreateBalancingStrategy() {
+        assertTrue(createBalancingStrategy(null) instanceof RoundRobinBalancingStrategy);
+        assertTrue(createBalancingStrategy("unknown") instanceof RoundRobinBalancingStrategy);
+        assertTrue(createBalancingStrategy(ProxyHandler.LEAST_OUTSTANDING) instanceof LeastOutstandingBalancingStrategy);
+        assertTrue(createBalancingStrategy(" Peak-EWMA ") instanceof PeakEwmaBalancingStrategy);
+        assertTrue(createBalancingStrategy(ProxyHandler.POWER_OF_TWO) instanceof PowerOfTwoChoicesBalancingStrategy);
+        assertTrue(createBalancingStrategy(ProxyHandler.CONSISTENT_HASH) instanceof ConsistentHashBalancingStrategy);
+        assertTrue(createBalancingStrategy(ProxyHandler.STICKY) instanceof StickyBalancingStrategy);
+    }
+
+
+    /**
+     * Test the selection of the host with the fewest outstanding requests.
+     */
+    @Test void testLeastOutstanding() {
+        ProxyHost[] hosts = createHosts(3);
+        hosts[0].requestStarted();
+        hosts[0].requestStarted();
+        hosts[2].requestStarted();
+        hosts[2].requestStarted();
+        hosts[1].requestStarted();
+
+        IBalancingStrategy strategy = new LeastOutstandingBalancingStrategy();
+        for (int i = 0; i < 10; i++) {
+            assertSame(hosts[1], strategy.select(hosts, null));
+        }
+
+        // the most loaded host loses every choice of two
+        hosts[2].requestStarted();
+        strategy = new PowerOfTwoChoicesBalancingStrategy();
+        for (int i = 0; i < 100; i++) {
+            assertNotSame(hosts[2], strategy.select(hosts, null));
+        }
+    }
+
+
+    /**
+     * Test the selection of the host with the lowest peak EWMA latency.
+     */
+    @Test void testPeakEwma() {
+        ProxyHost[] hosts = createHosts(2);
+        hosts[0].requestStarted();
+        hosts[0].requestFinished(TimeUnit.MILLISECONDS.toNanos(100));
+        hosts[1].requestStarted();
+        hosts[1].requestFinished(TimeUnit.MILLISECONDS.toNanos(10));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), Math.round(hosts[0].getLatency()));
+
+        IBalancingStrategy strategy = new PeakEwmaBalancingStrategy();
+        for (int i = 0; i < 10; i++) {
+            assertSame(hosts[1], strategy.select(hosts, null));
+        }
+
+        // the fast host is saturated
+        for (int i = 0; i < 20; i++) {
+            hosts[1].requestStarted();
+        }
+        assertSame(hosts[0], strategy.select(hosts, null));
+    }
+
+
+    /**
+     * Create a balancing strategy
+     *
+     * @param name the name of the strategy
+     * @return the balancing strategy
+     */
+    private IBalancingStrategy createBalancingStrategy(String name) {
+        return ProxyHandler.createBalancingStrategy(new ProxyServerConfiguration().setBalancingStrategy(name));
+    }
+
+
+    /**
+     * Create hosts
+     *
+     * @param count the number of hosts
+     * @return the hosts
+     */
+    private ProxyHost[] createHosts(int count) {
+        ProxyHost[] hosts = new ProxyHost[count];
+        for (int i = 0; i < count; i++) {
+            hosts[i] = new ProxyHost(URI.create("http://host" + i), null);
+        }
+        return hosts;
+    }
+}
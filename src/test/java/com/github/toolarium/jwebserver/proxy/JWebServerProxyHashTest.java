@@ -0,0 +1,142 @@
+/*
+ * JWebServerProxyHashTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.proxy;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.toolarium.jwebserver.AbstractJWebServerTest;
+import com.github.toolarium.jwebserver.config.WebServerConfiguration;
+import com.github.toolarium.jwebserver.handler.routing.proxy.ProxyHandler;
+import com.github.toolarium.jwebserver.handler.routing.proxy.ProxyHost;
+import com.github.toolarium.jwebserver.handler.routing.proxy.balancing.HashRing;
+import io.restassured.RestAssured;
+import io.restassured.response.Response;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+/**
+ * JWebServer proxy consistent hash and sticky session tests
+ *
+ * @author patrick
+ */
+public class JWebServerProxyHashTest extends AbstractJWebServerTest {
+    private static final String HOST_TXT = "/host.txt";
+
+
+    /**
+     * Test the routing by a header.
+     *
+     * @param directory the temp directory
+     * @throws Exception In case of an error
+     */
+    @Test void testConsistentHash(@TempDir Path directory) throws Exception {
+        WebServerConfiguration configuration = newProxyConfiguration(directory, ProxyHandler.CONSISTENT_HASH);
+        configuration.getProxyServerConfiguration().setHashKey("header:X-User");
+        run(configuration);
+
+        RestAssured.port = configuration.getPort();
+        Map<String, String> users = new HashMap<>();
+        for (int i = 0; i < 3; i++) {
+            for (int user = 0; user < 10; user++) {
+                String body = given().header("X-User", "user" + user).when().get(HOST_TXT).then().statusCode(200).extract().asString();
+                String previous = users.put("user" + user, body);
+                assertTrue(previous == null || previous.equals(body));
+            }
+        }
+    }
+
+
+    /**
+     * Test the sticky session cookie.
+     *
+     * @param directory the temp directory
+     * @throws Exception In case of an error
+     */
+    @Test void testSticky(@TempDir Path directory) throws Exception {
+        WebServerConfiguration configuration = newProxyConfiguration(directory, ProxyHandler.STICKY);
+        run(configuration);
+
+        RestAssured.port = configuration.getPort();
+        final String cookieName = configuration.getProxyServerConfiguration().getStickyCookie();
+        Response response = given().when().get(HOST_TXT).then().statusCode(200).cookie(cookieName, notNullValue()).extract().response();
+        final String route = response.getCookie(cookieName);
+        final String body = response.asString();
+        for (int i = 0; i < 5; i++) {
+            given().cookie(cookieName, route).when().get(HOST_TXT).then().statusCode(200).body(is(body));
+        }
+    }
+
+
+    /**
+     * Test that only the keys of a removed host are moved.
+     */
+    @Test void testHashRing() {
+        ProxyHost[] hosts = new ProxyHost[5];
+        for (int i = 0; i < hosts.length; i++) {
+            hosts[i] = new ProxyHost(URI.create("http://host" + i + ":8080"), null);
+        }
+        ProxyHost[] remainingHosts = new ProxyHost[] {hosts[0], hosts[1], hosts[3], hosts[4]};
+
+        HashRing ring = new HashRing(hosts, 160);
+        HashRing remainingRing = new HashRing(remainingHosts, 160);
+        Map<ProxyHost, Integer> distribution = new HashMap<>();
+        for (int i = 0; i < 10000; i++) {
+            String key = "user" + i;
+            ProxyHost host = ring.get(key);
+            distribution.merge(host, 1, Integer::sum);
+            if (host == hosts[2]) {
+                assertNotSame(hosts[2], remainingRing.get(key));
+            } else {
+                assertEquals(host, remainingRing.get(key));
+            }
+        }
+
+        for (ProxyHost host : hosts) {
+            assertTrue(distribution.get(host) > 1000, "Uneven distribution: " + distribution);
+        }
+    }
+
+
+    /**
+     * Create the proxy configuration with two upstream servers, each of them serves its name in the file host.txt
+     *
+     * @param directory the temp directory
+     * @param balancingStrategy the balancing strategy
+     * @return the proxy configuration
+     * @throws Exception In case of an error
+     */
+    private WebServerConfiguration newProxyConfiguration(Path directory, String balancingStrategy) throws Exception {
+        StringBuilder hostNames = new StringBuilder();
+        for (String name : new String[] {"a", "b"}) {
+            Path upstreamDirectory = Files.createDirectory(directory.resolve(name));
+            Files.writeString(upstreamDirectory.resolve(HOST_TXT.substring(1)), name, StandardCharsets.UTF_8);
+            WebServerConfiguration upstreamConfiguration = newConfiguration();
+            upstreamConfiguration.getResourceServerConfiguration().setDirectory(upstreamDirectory.toString());
+            run(upstreamConfiguration);
+            if (hostNames.length() > 0) {
+                hostNames.append(",");
+            }
+            hostNames.append("http://localhost:").append(upstreamConfiguration.getPort());
+        }
+
+        WebServerConfiguration configuration = newConfiguration();
+        configuration.getProxyServerConfiguration().setProxyHostNames(hostNames.toString());
+        configuration.getProxyServerConfiguration().setBalancingStrategy(balancingStrategy);
+        return configuration;
+    }
+}
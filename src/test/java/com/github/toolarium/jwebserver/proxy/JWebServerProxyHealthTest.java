@@ -0,0 +1,128 @@
+/*
+ * JWebServerProxyHealthTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.proxy;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.toolarium.jwebserver.AbstractJWebServerTest;
+import com.github.toolarium.jwebserver.JWebServer;
+import com.github.toolarium.jwebserver.config.WebServerConfiguration;
+import com.github.toolarium.jwebserver.handler.routing.proxy.ProxyHost;
+import io.restassured.RestAssured;
+import java.net.URI;
+import java.nio.file.Path;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+/**
+ * JWebServer proxy health check tests
+ *
+ * @author patrick
+ */
+public class JWebServerProxyHealthTest extends AbstractJWebServerTest {
+    private static final String HEALTH_PATH = "/q/health";
+    private static final String PROXY_HEALTH_PATH = "/health";
+    
+    
+    /**
+     * Test the ejection of a proxy host which is down.
+     *
+     * @throws Exception In case of an error
+     */
+    @Test void testEjectProxyHost() throws Exception {
+        WebServerConfiguration upstreamConfiguration = newConfiguration();
+        upstreamConfiguration.setHealthPath(HEALTH_PATH);
+        run(upstreamConfiguration);
+        final String upstream = "http://localhost:" + upstreamConfiguration.getPort();
+        final String down = "http://localhost:" + getNewPort();
+
+        WebServerConfiguration configuration = newConfiguration();
+        configuration.setHealthPath(PROXY_HEALTH_PATH);
+        configuration.getProxyServerConfiguration().setProxyHostNames(upstream + "," + down);
+        configuration.getProxyServerConfiguration().setHealthCheckPath(HEALTH_PATH);
+        configuration.getProxyServerConfiguration().setHealthCheckInterval(50);
+        configuration.getProxyServerConfiguration().setUnhealthyThreshold(2);
+        configuration.getProxyServerConfiguration().setHealthyThreshold(1);
+        run(configuration);
+
+        RestAssured.port = configuration.getPort();
+        final String expected = "{ \"status\": \"UP\", \"checks\": [ { \"name\": \"proxy\", \"status\": \"UP\", \"data\": { \"" + upstream + "\": \"UP\", \"" + down + "\": \"EJECTED\" } } ] }";
+        String body = null;
+        for (int i = 0; i < 100 && !expected.equals(body); i++) {
+            Thread.sleep(50);
+            body = given().when().get(PROXY_HEALTH_PATH).then().statusCode(200).extract().asString();
+        }
+        assertEquals(expected, body);
+
+        // the ejected host is not selected anymore
+        for (int i = 0; i < 4; i++) {
+            given().when().get(HEALTH_PATH).then().statusCode(200).body(is("{ \"status\": \"UP\" }"));
+        }
+    }
+
+
+    /**
+     * Test the thresholds of a proxy host.
+     */
+    @Test void testThresholds() {
+        ProxyHost host = new ProxyHost(URI.create("http://localhost"), null);
+        assertTrue(host.isAvailable());
+        assertFalse(host.recordProbe(false, 3, 2));
+        assertFalse(host.recordProbe(false, 3, 2));
+        assertFalse(host.recordProbe(true, 3, 2));
+        assertFalse(host.recordProbe(false, 3, 2));
+        assertFalse(host.recordProbe(false, 3, 2));
+        assertTrue(host.recordProbe(false, 3, 2));
+        assertFalse(host.isAvailable());
+
+        assertFalse(host.recordProbe(true, 3, 2));
+        assertFalse(host.recordProbe(false, 3, 2));
+        assertFalse(host.recordProbe(true, 3, 2));
+        assertTrue(host.recordProbe(true, 3, 2));
+        assertTrue(host.isAvailable());
+        assertEquals("ProxyHost [uri=http://localhost, available=true, outstanding=0, latency=0]", host.toString());
+    }
+
+
+    /**
+     * Test that the health check and the proxy cache are stopped with the server.
+     *
+     * @param directory the temp directory
+     * @throws Exception In case of an error
+     */
+    @Test void testStop(@TempDir Path directory) throws Exception {
+        WebServerConfiguration upstreamConfiguration = newConfiguration();
+        upstreamConfiguration.setHealthPath(HEALTH_PATH);
+        run(upstreamConfiguration);
+        Set<Thread> threads = getBackgroundThreads();
+
+        WebServerConfiguration configuration = newConfiguration();
+        configuration.getProxyServerConfiguration().setProxyHostNames("http://localhost:" + upstreamConfiguration.getPort());
+        configuration.getProxyServerConfiguration().setHealthCheckPath(HEALTH_PATH);
+        configuration.getProxyServerConfiguration().setHealthCheckInterval(50);
+        configuration.getProxyServerConfiguration().setCacheSize(1024 * 1024).setCacheDirectory(directory.toString());
+        JWebServer jwebserver = run(configuration);
+
+        RestAssured.port = configuration.getPort();
+        given().when().get(HEALTH_PATH).then().statusCode(200);
+
+        Set<Thread> startedThreads = getBackgroundThreads();
+        startedThreads.removeAll(threads);
+        assertFalse(startedThreads.isEmpty());
+
+        jwebserver.stop();
+        for (Thread thread : startedThreads) {
+            thread.join(1000);
+            assertFalse(thread.isAlive(), thread.getName());
+        }
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * JWebServerArchiveTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.resource;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.toolarium.jwebserver.AbstractJWebServerTest;
+import com.github.toolarium.jwebserver.config.WebServerConfiguration;
+import com.github.toolarium.jwebserver.handler.routing.resource.archive.ArchiveIndex;
+import com.github.toolarium.jwebserver.handler.routing.resource.archive.ArchiveResourceManager;
+import io.restassured.RestAssured;
+import io.restassured.config.DecoderConfig;
+import io.restassured.config.RestAssuredConfig;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipException;
+import java.util.zip.ZipOutputStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+/**
+ * JWebServer archive tests
+ *
+ * @author patrick
+ */
+public class JWebServerArchiveTest extends AbstractJWebServerTest {
+    private static final String ACCEPT_ENCODING = "Accept-Encoding";
+    private static final String CONTENT_ENCODING = "Content-Encoding";
+    private static final String INDEX_CONTENT = "<html><body>index</body></html>";
+
+
+    /**
+     * Test the resources of an archive.
+     *
+     * @param directory the temp directory
+     * @throws IOException In case of an I/O error
+     * @throws InterruptedException In case of an interrupt
+     */
+    @Test void testArchive(@TempDir Path directory) throws IOException, InterruptedException {
+        Path archive = directory.resolve("site.zip");
+        writeArchive(archive, "stored");
+
+        WebServerConfiguration configuration = newConfiguration();
+        configuration.getResourceServerConfiguration().setDirectory(archive.toString());
+        run(configuration);
+
+        RestAssured.port = configuration.getPort();
+        RestAssuredConfig config = RestAssured.config().decoderConfig(DecoderConfig.decoderConfig().noContentDecoders());
+        given().config(config).when().header(ACCEPT_ENCODING, "gzip").get("/stored.txt").then().statusCode(200).header(CONTENT_ENCODING, nullValue()).body(is("stored"));
+        given().config(config).when().header(ACCEPT_ENCODING, "gzip").get("/index.html").then().statusCode(200).header(CONTENT_ENCODING, is("gzip"));
+        given().config(config).when().header(ACCEPT_ENCODING, "identity").get("/index.html").then().statusCode(200).header(CONTENT_ENCODING, nullValue()).body(is(INDEX_CONTENT));
+        given().when().get("/index.html").then().statusCode(200).body(is(INDEX_CONTENT));
+        given().when().get("/").then().statusCode(200).body(is(INDEX_CONTENT));
+        given().when().get("/sub/a.txt").then().statusCode(200).body(is("a"));
+        given().when().get("/sub").then().statusCode(200).body(is(INDEX_CONTENT));
+        given().when().get("/missing.txt").then().statusCode(404);
+
+        // replace the archive
+        Path replacement = directory.resolve("site.zip.tmp");
+        writeArchive(replacement, "replaced");
+        Files.move(replacement, archive, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        for (int i = 0; i < 100 && !"replaced".equals(given().when().get("/stored.txt").body().asString()); i++) {
+            Thread.sleep(100);
+        }
+        given().when().get("/stored.txt").then().statusCode(200).body(is("replaced"));
+    }
+
+
+    /**
+     * Test the detection of an archive and the validation of a malformed archive.
+     *
+     * @param directory the temp directory
+     * @throws IOException In case of an I/O error
+     */
+    @Test void testInvalidArchive(@TempDir Path directory) throws IOException {
+        Path text = directory.resolve("index.html");
+        Files.writeString(text, INDEX_CONTENT, StandardCharsets.UTF_8);
+        assertFalse(ArchiveResourceManager.isArchive(text));
+
+        Path archive = directory.resolve("site");
+        writeArchive(archive, "stored");
+        assertTrue(ArchiveResourceManager.isArchive(archive));
+
+        // the name length of the first central directory header points behind the central directory
+        byte[] data = Files.readAllBytes(archive);
+        ByteBuffer buffer = ByteBuffer.wrap(data).order(ByteOrder.LITTLE_ENDIAN);
+        int centralDirectoryOffset = buffer.getInt(data.length - 22 + 16);
+        buffer.putShort(centralDirectoryOffset + 28, (short) 0xffff);
+        Path malformed = directory.resolve("malformed.zip");
+        Files.write(malformed, data);
+        assertThrows(ZipException.class, () -> ArchiveIndex.open(malformed));
+    }
+
+
+    /**
+     * Write an archive with a stored and deflated entries.
+     *
+     * @param archive the archive
+     * @param storedContent the content of the stored entry
+     * @throws IOException In case of an I/O error
+     */
+    private void writeArchive(Path archive, String storedContent) throws IOException {
+        try (OutputStream outputStream = Files.newOutputStream(archive); ZipOutputStream zipOutputStream = new ZipOutputStream(outputStream)) {
+            byte[] stored = storedContent.getBytes(StandardCharsets.UTF_8);
+            CRC32 crc = new CRC32();
+            crc.update(stored);
+            ZipEntry storedEntry = new ZipEntry("stored.txt");
+            storedEntry.setMethod(ZipEntry.STORED);
+            storedEntry.setSize(stored.length);
+            storedEntry.setCrc(crc.getValue());
+            zipOutputStream.putNextEntry(storedEntry);
+            zipOutputStream.write(stored);
+            zipOutputStream.closeEntry();
+
+            zipOutputStream.putNextEntry(new ZipEntry("index.html"));
+            zipOutputStream.write(INDEX_CONTENT.getBytes(StandardCharsets.UTF_8));
+            zipOutputStream.closeEntry();
+
+            zipOutputStream.putNextEntry(new ZipEntry("sub/a.txt"));
+            zipOutputStream.write("a".getBytes(StandardCharsets.UTF_8));
+            zipOutputStream.closeEntry();
+        }
+    }
+}
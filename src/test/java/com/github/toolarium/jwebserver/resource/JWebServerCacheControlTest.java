@@ -0,0 +1,80 @@
+/*
+ * JWebServerCacheControlTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.resource;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.toolarium.jwebserver.AbstractJWebServerTest;
+import com.github.toolarium.jwebserver.config.WebServerConfiguration;
+import com.github.toolarium.jwebserver.handler.routing.resource.cachecontrol.CacheControlPolicy;
+import io.restassured.RestAssured;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+/**
+ * JWebServer Cache-Control tests
+ *
+ * @author patrick
+ */
+public class JWebServerCacheControlTest extends AbstractJWebServerTest {
+    private static final String CACHE_CONTROL = "Cache-Control";
+
+
+    /**
+     * Test the Cache-Control rules.
+     *
+     * @param directory the temp directory
+     * @throws IOException In case of an I/O error
+     */
+    @Test void testCacheControl(@TempDir Path directory) throws IOException {
+        Files.createDirectories(directory.resolve("assets"));
+        Files.writeString(directory.resolve("index.html"), "<html></html>", StandardCharsets.UTF_8);
+        Files.writeString(directory.resolve("app.3f2a1b9c.js"), "var a;", StandardCharsets.UTF_8);
+        Files.writeString(directory.resolve("app.js"), "var a;", StandardCharsets.UTF_8);
+        Files.writeString(directory.resolve("assets/site.css"), "a {}", StandardCharsets.UTF_8);
+        Files.writeString(directory.resolve("data.txt"), "data", StandardCharsets.UTF_8);
+        Files.writeString(directory.resolve("data.unknown"), "data", StandardCharsets.UTF_8);
+
+        WebServerConfiguration configuration = newConfiguration();
+        configuration.getResourceServerConfiguration().setDirectory(directory.toString());
+        configuration.getResourceServerConfiguration().setCacheControl("*.html: no-cache; /assets/**: public, max-age=3600; *.js: public, max-age=60; text/plain: private, max-age=10")
+            .setCacheControlImmutable(Boolean.TRUE);
+        run(configuration);
+
+        RestAssured.port = configuration.getPort();
+        given().when().get("/index.html").then().statusCode(200).header(CACHE_CONTROL, is("no-cache")).header("Expires", nullValue());
+        given().when().get("/app.3f2a1b9c.js").then().statusCode(200).header(CACHE_CONTROL, is(CacheControlPolicy.IMMUTABLE)).header("Expires", notNullValue());
+        given().when().get("/app.js").then().statusCode(200).header(CACHE_CONTROL, is("public, max-age=60"));
+        given().when().get("/assets/site.css").then().statusCode(200).header(CACHE_CONTROL, is("public, max-age=3600"));
+        given().when().get("/data.txt").then().statusCode(200).header(CACHE_CONTROL, is("private, max-age=10"));
+        given().when().get("/data.unknown").then().statusCode(200).header(CACHE_CONTROL, nullValue());
+    }
+
+
+    /**
+     * Test the detection of fingerprinted file names.
+     */
+    @Test void testFingerprinted() {
+        CacheControlPolicy cacheControlPolicy = new CacheControlPolicy(null, true);
+        assertTrue(cacheControlPolicy.isFingerprinted("main.3f2a1b9c.js"));
+        assertTrue(cacheControlPolicy.isFingerprinted("index-BQ4a1x9Z.js"));
+        assertTrue(cacheControlPolicy.isFingerprinted("styles.5d41402abc4b2a76b9719d911017c592.min.css"));
+        assertFalse(cacheControlPolicy.isFingerprinted("jquery-3.7.1.min.js"));
+        assertFalse(cacheControlPolicy.isFingerprinted("base64decoder.js"));
+        assertFalse(cacheControlPolicy.isFingerprinted("my-component-library.js"));
+        assertFalse(cacheControlPolicy.isFingerprinted("app.20250318.log"));
+    }
+}
@@ -0,0 +1,26 @@
+/*
+ * JWebServerClasspathIndexAccessTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.resource;
+
+import com.github.toolarium.jwebserver.config.WebServerConfiguration;
+
+
+/**
+ * JWebServer classpath tests with an enabled resource index
+ *
+ * @author patrick
+ */
+public class JWebServerClasspathIndexAccessTest extends JWebServerClasspathAccessTest {
+
+    /**
+     * @see com.github.toolarium.jwebserver.resource.JWebServerClasspathAccessTest#setDirectory(com.github.toolarium.jwebserver.config.WebServerConfiguration)
+     */
+    @Override
+    protected void setDirectory(WebServerConfiguration configuration) {
+        super.setDirectory(configuration);
+        configuration.getResourceServerConfiguration().setResourceIndexEnabled(Boolean.TRUE);
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * JWebServerCompressionTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.resource;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.toolarium.jwebserver.AbstractJWebServerTest;
+import com.github.toolarium.jwebserver.config.WebServerConfiguration;
+import com.github.toolarium.jwebserver.handler.compression.CompressiblePredicate;
+import io.restassured.RestAssured;
+import io.restassured.config.DecoderConfig;
+import io.restassured.config.RestAssuredConfig;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+/**
+ * JWebServer response compression tests
+ *
+ * @author patrick
+ */
+public class JWebServerCompressionTest extends AbstractJWebServerTest {
+    private static final String ACCEPT_ENCODING = "Accept-Encoding";
+    private static final String CONTENT_ENCODING = "Content-Encoding";
+
+
+    /**
+     * Test the compression of static resources.
+     *
+     * @param directory the temp directory
+     * @throws IOException In case of an I/O error
+     */
+    @Test void testCompression(@TempDir Path directory) throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            content.append("function f").append(i).append("() { return ").append(i).append("; }\n");
+        }
+        Files.writeString(directory.resolve("app.js"), content.toString(), StandardCharsets.UTF_8);
+        Files.writeString(directory.resolve("small.js"), "var a = 1;", StandardCharsets.UTF_8);
+
+        WebServerConfiguration configuration = newConfiguration();
+        configuration.getResourceServerConfiguration().setDirectory(directory.toString());
+        configuration.getCompressionConfiguration().setEnabled(Boolean.TRUE);
+        run(configuration);
+
+        // keep the content encoding of the responses
+        RestAssured.port = configuration.getPort();
+        RestAssuredConfig config = RestAssured.config().decoderConfig(DecoderConfig.decoderConfig().noContentDecoders());
+        given().config(config).when().header(ACCEPT_ENCODING, "gzip").get("/app.js").then().statusCode(200).header(CONTENT_ENCODING, is("gzip")).header("Vary", containsString(ACCEPT_ENCODING));
+        given().config(config).when().header(ACCEPT_ENCODING, "gzip").get("/app.js").then().statusCode(200).header(CONTENT_ENCODING, is("gzip"));
+        given().config(config).when().header(ACCEPT_ENCODING, "deflate").get("/app.js").then().statusCode(200).header(CONTENT_ENCODING, is("deflate"));
+        given().config(config).when().header(ACCEPT_ENCODING, "identity").get("/app.js").then().statusCode(200).header(CONTENT_ENCODING, nullValue()).body(is(content.toString()));
+        given().config(config).when().header(ACCEPT_ENCODING, "gzip").get("/small.js").then().statusCode(200).header(CONTENT_ENCODING, nullValue());
+    }
+
+
+    /**
+     * Test the compressible mime types.
+     */
+    @Test void testCompressibleMimeTypes() {
+        CompressiblePredicate compressiblePredicate = new CompressiblePredicate(new String[] {"text/*", "application/json", "*+json"}, 0);
+        assertTrue(compressiblePredicate.isCompressible("text/html; charset=UTF-8"));
+        assertTrue(compressiblePredicate.isCompressible("application/json"));
+        assertTrue(compressiblePredicate.isCompressible("application/problem+json"));
+        assertFalse(compressiblePredicate.isCompressible("image/png"));
+        assertFalse(compressiblePredicate.isCompressible(null));
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * JWebServerContentCacheTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.resource;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.startsWith;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.toolarium.jwebserver.AbstractJWebServerTest;
+import com.github.toolarium.jwebserver.config.WebServerConfiguration;
+import com.github.toolarium.jwebserver.handler.routing.resource.cache.CachedContent;
+import com.github.toolarium.jwebserver.handler.routing.resource.cache.CachedResource;
+import com.github.toolarium.jwebserver.handler.routing.resource.cache.ContentCache;
+import com.github.toolarium.jwebserver.handler.routing.resource.cache.SingleFlight;
+import io.restassured.RestAssured;
+import io.undertow.server.handlers.resource.PathResourceManager;
+import io.undertow.server.handlers.resource.Resource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+/**
+ * JWebServer content cache tests
+ *
+ * @author patrick
+ */
+public class JWebServerContentCacheTest extends AbstractJWebServerTest {
+    private static final String CACHED_JSON = "cached.json";
+    private static final String LAST_MODIFIED = "Last-Modified";
+
+
+    /**
+     * Test the cached resource delivery and the invalidation by the last modified time.
+     *
+     * @param directory the temp directory
+     * @throws IOException In case of an I/O error
+     */
+    @Test void testCachedResource(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve(CACHED_JSON);
+        Files.writeString(file, "{ \"a\": \"b\" }", StandardCharsets.UTF_8);
+
+        WebServerConfiguration configuration = newConfiguration();
+        configuration.getResourceServerConfiguration().setDirectory(directory.toString());
+        configuration.getResourceServerConfiguration().setCacheSize(1024 * 1024);
+        run(configuration);
+
+        RestAssured.port = configuration.getPort();
+        given().when().get("/" + CACHED_JSON).then().statusCode(200).body("a", is("b"));
+        given().when().get("/" + CACHED_JSON).then().statusCode(200).body("a", is("b"));
+        given().when().header("Range", "bytes=0-0").get("/" + CACHED_JSON).then().statusCode(206).body(is("{"));
+
+        Files.writeString(file, "{ \"a\": \"c\" }", StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 10000));
+        given().when().get("/" + CACHED_JSON).then().statusCode(200).body("a", is("c"));
+    }
+
+
+    /**
+     * Test the precomputed header values of a cached resource.
+     *
+     * @param directory the temp directory
+     * @throws IOException In case of an I/O error
+     */
+    @Test void testPrecomputedHeaders(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve(CACHED_JSON);
+        Files.writeString(file, "{ \"a\": \"b\" }", StandardCharsets.UTF_8);
+
+        WebServerConfiguration configuration = newConfiguration();
+        configuration.getResourceServerConfiguration().setDirectory(directory.toString());
+        configuration.getResourceServerConfiguration().setCacheSize(1024 * 1024);
+        run(configuration);
+
+        RestAssured.port = configuration.getPort();
+        String lastModified = given().when().get("/" + CACHED_JSON).then().statusCode(200).header("Content-Type", startsWith("application/json")).header("Content-Length", is("12")).extract().header(LAST_MODIFIED);
+        assertNotNull(lastModified);
+        given().when().get("/" + CACHED_JSON).then().statusCode(200).header(LAST_MODIFIED, is(lastModified)).header("Content-Length", is("12"));
+        given().when().header("If-Modified-Since", lastModified).get("/" + CACHED_JSON).then().statusCode(304);
+
+        Files.writeString(file, "{ \"a\": \"cd\" }", StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 10000));
+        given().when().get("/" + CACHED_JSON).then().statusCode(200).header(LAST_MODIFIED, not(lastModified)).header("Content-Length", is("13")).body("a", is("cd"));
+    }
+
+
+    /**
+     * Test the eviction of the content cache.
+     */
+    @Test void testEviction() {
+        ContentCache contentCache = new ContentCache(10, 6);
+        assertNull(contentCache.put("too-big", 1, new byte[7]));
+        assertNotNull(contentCache.put("a", 1, new byte[5]));
+        assertNotNull(contentCache.put("b", 1, new byte[5]));
+        assertNotNull(contentCache.get("a", 1));
+        assertNotNull(contentCache.put("c", 1, new byte[5]));
+
+        assertEquals(10, contentCache.getCurrentSize());
+        assertNotNull(contentCache.get("a", 1));
+        assertNull(contentCache.get("b", 1));
+        assertNull(contentCache.get("a", 2));
+        assertEquals(5, contentCache.getCurrentSize());
+
+        // the content of a removed resource is invalidated by its path
+        contentCache.registerPath("/c", "c", "c");
+        contentCache.invalidatePath("/c");
+        assertNull(contentCache.get("c", 1));
+        assertEquals(0, contentCache.getCurrentSize());
+
+        // a path resolved to another resource, e.g. to a welcome file, is not remembered
+        assertNotNull(contentCache.put("d", 1, new byte[5]));
+        contentCache.registerPath("/unknown", "/d", "d");
+        contentCache.invalidatePath("/unknown");
+        assertNotNull(contentCache.get("d", 1));
+    }
+
+
+    /**
+     * Test that the concurrent requests of a missing content read it once from the disk.
+     *
+     * @param directory the temp directory
+     * @throws Exception In case of an error
+     */
+    @Test void testSingleFlightLoad(@TempDir Path directory) throws Exception {
+        Files.write(directory.resolve("large.bin"), new byte[512 * 1024]);
+        Files.write(directory.resolve("other.bin"), new byte[1024]);
+
+        final ContentCache contentCache = new ContentCache(1024 * 1024, 1024 * 1024);
+        final AtomicInteger reads = new AtomicInteger();
+        final String[] paths = {"/large.bin", "/other.bin"};
+        final int threads = 32;
+        final CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (PathResourceManager resourceManager = new PathResourceManager(directory)) {
+            List<Future<CachedContent>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                final String path = paths[i % paths.length];
+                results.add(executor.submit(() -> {
+                    CachedResource resource = new CountingCachedResource(resourceManager.getResource(path), contentCache, reads);
+                    start.await();
+                    return resource.getContent();
+                }));
+            }
+            start.countDown();
+
+            for (int i = 0; i < threads; i++) {
+                assertNotNull(results.get(i).get());
+                assertSame(results.get(i % paths.length).get(), results.get(i).get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // one read per key
+        assertEquals(2, reads.get());
+        assertEquals(2, contentCache.getEntryCount());
+    }
+
+
+    /**
+     * Test that the loads of different keys are not serialized.
+     *
+     * @throws Exception In case of an error
+     */
+    @Test void testSingleFlightKeysInParallel() throws Exception {
+        final ContentCache contentCache = new ContentCache(1024, 1024);
+        final CountDownLatch otherLoadStarted = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Boolean> first = executor.submit(() -> {
+                final AtomicBoolean parallel = new AtomicBoolean();
+                contentCache.get("a", 1, () -> {
+                    try {
+                        // waits for the load of the other key while it holds its own load
+                        parallel.set(otherLoadStarted.await(10, TimeUnit.SECONDS));
+                    } catch (InterruptedException e) {
+                        throw new IOException(e);
+                    }
+                    return contentCache.put("a", 1, new byte[1]);
+                });
+                return parallel.get();
+            });
+            Future<CachedContent> second = executor.submit(() -> contentCache.get("b", 1, () -> {
+                otherLoadStarted.countDown();
+                return contentCache.put("b", 1, new byte[1]);
+            }));
+
+            assertTrue(first.get(20, TimeUnit.SECONDS));
+            assertNotNull(second.get(20, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+
+    /**
+     * Test that the waiters of a load which fails with an error don't hang.
+     *
+     * @throws Exception In case of an error
+     */
+    @Test void testSingleFlightError() throws Exception {
+        final SingleFlight<String> singleFlight = new SingleFlight<>();
+        final CountDownLatch loadStarted = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<String> first = executor.submit(() -> singleFlight.load("a", () -> {
+                loadStarted.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    throw new IOException(e);
+                }
+                throw new AssertionError("load failed");
+            }));
+
+            assertTrue(loadStarted.await(10, TimeUnit.SECONDS));
+            Future<String> second = executor.submit(() -> singleFlight.load("a", () -> "second"));
+            Thread.sleep(100);
+            release.countDown();
+
+            ExecutionException firstException = assertThrows(ExecutionException.class, () -> first.get(10, TimeUnit.SECONDS));
+            assertTrue(firstException.getCause() instanceof AssertionError);
+            ExecutionException secondException = assertThrows(ExecutionException.class, () -> second.get(10, TimeUnit.SECONDS));
+            assertTrue(secondException.getCause() instanceof AssertionError);
+            assertEquals(0, singleFlight.getInFlightCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+
+    /**
+     * Cached resource which counts the reads of the underlying resource
+     */
+    private static class CountingCachedResource extends CachedResource {
+        private final AtomicInteger reads;
+
+
+        /**
+         * Constructor for CountingCachedResource
+         *
+         * @param delegate the underlying resource
+         * @param contentCache the content cache
+         * @param reads the read counter
+         */
+        CountingCachedResource(final Resource delegate, final ContentCache contentCache, final AtomicInteger reads) {
+            super(delegate, contentCache);
+            this.reads = reads;
+        }
+
+
+        /**
+         * @see com.github.toolarium.jwebserver.handler.routing.resource.cache.CachedResource#loadContent(java.lang.String, long)
+         */
+        @Override
+        protected CachedContent loadContent(String key, long lastModified) throws IOException {
+            reads.incrementAndGet();
+            try {
+                // a slow disk, the other requests arrive while the content is read
+                Thread.sleep(200);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return super.loadContent(key, lastModified);
+        }
+    }
+}
@@ -0,0 +1,142 @@
+/*
+ * JWebServerContentGenerationTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.resource;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.toolarium.jwebserver.AbstractJWebServerTest;
+import com.github.toolarium.jwebserver.config.WebServerConfiguration;
+import com.github.toolarium.jwebserver.handler.routing.resource.cache.CachedResource;
+import com.github.toolarium.jwebserver.handler.routing.resource.cache.ContentCache;
+import com.github.toolarium.jwebserver.handler.routing.resource.generation.ContentGenerationResourceManager;
+import io.restassured.RestAssured;
+import io.undertow.server.handlers.resource.PathResourceManager;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+/**
+ * JWebServer content generation tests
+ *
+ * @author patrick
+ */
+public class JWebServerContentGenerationTest extends AbstractJWebServerTest {
+    private static final String INDEX_HTML = "index.html";
+
+
+    /**
+     * Test the switch of a symbolic link to a new release directory.
+     *
+     * @param directory the temp directory
+     * @throws Exception In case of an error
+     */
+    @Test void testSwitchContentDirectory(@TempDir Path directory) throws Exception {
+        Path current = createReleases(directory);
+
+        WebServerConfiguration configuration = newConfiguration();
+        configuration.getResourceServerConfiguration().setDirectory(current.toString());
+        configuration.getResourceServerConfiguration().setCacheSize(1024 * 1024);
+        configuration.getResourceServerConfiguration().setGenerationCheckInterval(50);
+        run(configuration);
+
+        RestAssured.port = configuration.getPort();
+        given().when().get("/" + INDEX_HTML).then().statusCode(200).body(is("v1"));
+        given().when().get("/" + INDEX_HTML).then().statusCode(200).body(is("v1"));
+
+        switchLink(directory, current, "v2");
+        String body = "v1";
+        for (int i = 0; i < 100 && "v1".equals(body); i++) {
+            Thread.sleep(50);
+            body = given().when().get("/" + INDEX_HTML).then().statusCode(200).extract().asString();
+        }
+        assertEquals("v2", body);
+        given().when().get("/only-v2.txt").then().statusCode(200).body(is("new"));
+    }
+
+
+    /**
+     * Test the warm up of the content cache, the notification of the listeners and the pinned generation of a request.
+     *
+     * @param directory the temp directory
+     * @throws Exception In case of an error
+     */
+    @Test void testGeneration(@TempDir Path directory) throws Exception {
+        Path current = createReleases(directory);
+        ContentCache contentCache = new ContentCache(1024 * 1024, 1024);
+        AtomicInteger changes = new AtomicInteger();
+
+        ContentGenerationResourceManager resourceManager = new ContentGenerationResourceManager(current, root -> new PathResourceManager(root), 0);
+        try {
+            resourceManager.start();
+            resourceManager.setContentCache(contentCache);
+            resourceManager.registerResourceChangeListener(events -> changes.incrementAndGet());
+            assertEquals(1, resourceManager.getGeneration().getId());
+            assertFalse(resourceManager.checkGeneration());
+
+            // the hot resource of the first generation
+            new CachedResource(resourceManager.getResource("/" + INDEX_HTML), contentCache).getContent();
+            assertEquals(1, contentCache.getEntryCount());
+
+            // a request which started before the switch
+            resourceManager.pin();
+            switchLink(directory, current, "v2");
+            assertTrue(resourceManager.checkGeneration());
+            assertEquals(2, resourceManager.getGeneration().getId());
+            assertEquals(1, changes.get());
+            assertEquals(2, contentCache.getEntryCount());
+            assertTrue(resourceManager.getResource("/" + INDEX_HTML).getFilePath().startsWith(directory.resolve("v1").toRealPath()));
+            assertNull(resourceManager.getResource("/only-v2.txt"));
+
+            resourceManager.unpin();
+            assertEquals(directory.resolve("v2").toRealPath(), resourceManager.getGeneration().getRoot());
+            assertEquals(3L, resourceManager.getResource("/only-v2.txt").getContentLength().longValue());
+        } finally {
+            resourceManager.close();
+        }
+    }
+
+
+    /**
+     * Create the release directories v1 and v2 and the symbolic link to v1
+     *
+     * @param directory the directory
+     * @return the symbolic link
+     * @throws IOException In case of an I/O error
+     */
+    private Path createReleases(Path directory) throws IOException {
+        Files.createDirectory(directory.resolve("v1"));
+        Files.writeString(directory.resolve("v1").resolve(INDEX_HTML), "v1", StandardCharsets.UTF_8);
+        Files.createDirectory(directory.resolve("v2"));
+        Files.writeString(directory.resolve("v2").resolve(INDEX_HTML), "v2", StandardCharsets.UTF_8);
+        Files.writeString(directory.resolve("v2").resolve("only-v2.txt"), "new", StandardCharsets.UTF_8);
+        return Files.createSymbolicLink(directory.resolve("current"), directory.resolve("v1"));
+    }
+
+
+    /**
+     * Switch the symbolic link atomically to a release directory
+     *
+     * @param directory the directory
+     * @param link the symbolic link
+     * @param release the release directory
+     * @throws IOException In case of an I/O error
+     */
+    private void switchLink(Path directory, Path link, String release) throws IOException {
+        Path newLink = Files.createSymbolicLink(directory.resolve("current.new"), directory.resolve(release));
+        Files.move(newLink, link, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * JWebServerDirectoryListingTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.resource;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.equalTo;
+import static org.hamcrest.CoreMatchers.not;
+
+import com.github.toolarium.jwebserver.AbstractJWebServerTest;
+import com.github.toolarium.jwebserver.config.WebServerConfiguration;
+import io.restassured.RestAssured;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+/**
+ * JWebServer directory listing tests
+ *
+ * @author patrick
+ */
+public class JWebServerDirectoryListingTest extends AbstractJWebServerTest {
+    private static final String JSON = "application/json";
+
+
+    /**
+     * Test the json listing with paging and sorting.
+     *
+     * @param directory the temp directory
+     * @throws IOException In case of an I/O error
+     */
+    @Test void testJsonListing(@TempDir Path directory) throws IOException {
+        createFiles(directory);
+        WebServerConfiguration configuration = newListingConfiguration(directory);
+        run(configuration);
+
+        RestAssured.port = configuration.getPort();
+        given().when().header("Accept", JSON).get("/?sort=name&limit=2").then().statusCode(200)
+            .header("Vary", containsString("Accept"))
+            .body("entries.name", equalTo(Arrays.asList("a.txt", "b.txt")))
+            .body("count", equalTo(2))
+            .body("more", equalTo(true));
+
+        given().when().header("Accept", JSON).get("/?sort=name&offset=2&limit=2").then().statusCode(200)
+            .body("entries.name", equalTo(Arrays.asList("c.txt", "sub")))
+            .body("entries[1].directory", equalTo(true))
+            .body("more", equalTo(false));
+
+        given().when().header("Accept", JSON).get("/?sort=size&order=desc").then().statusCode(200)
+            .body("entries.name", equalTo(Arrays.asList("b.txt", "c.txt", "a.txt", "sub")))
+            .body("entries[0].size", equalTo(3));
+
+        // the order of the directory stream
+        given().when().header("Accept", JSON).get("/?limit=3").then().statusCode(200)
+            .body("count", equalTo(3))
+            .body("more", equalTo(true));
+    }
+
+
+    /**
+     * Test the html listing.
+     *
+     * @param directory the temp directory
+     * @throws IOException In case of an I/O error
+     */
+    @Test void testHtmlListing(@TempDir Path directory) throws IOException {
+        createFiles(directory);
+        Files.write(directory.resolve("sub").resolve("a <b>.txt"), "x".getBytes(StandardCharsets.UTF_8));
+        WebServerConfiguration configuration = newListingConfiguration(directory);
+        run(configuration);
+
+        RestAssured.port = configuration.getPort();
+        given().when().get("/?sort=name&limit=2").then().statusCode(200)
+            .header("Content-Type", containsString("text/html"))
+            .body(containsString("href=\"a.txt\""))
+            .body(containsString("offset=2&amp;limit=2&amp;sort=name"))
+            .body(not(containsString("c.txt")));
+
+        given().when().get("/sub/").then().statusCode(200)
+            .body(containsString("href=\"a%20%3Cb%3E.txt\""))
+            .body(containsString("a &lt;b&gt;.txt"))
+            .body(containsString("href=\"../\""));
+    }
+
+
+    /**
+     * Create the test files
+     *
+     * @param directory the directory
+     * @throws IOException In case of an I/O error
+     */
+    private void createFiles(Path directory) throws IOException {
+        Files.write(directory.resolve("a.txt"), "a".getBytes(StandardCharsets.UTF_8));
+        Files.write(directory.resolve("b.txt"), "bbb".getBytes(StandardCharsets.UTF_8));
+        Files.write(directory.resolve("c.txt"), "cc".getBytes(StandardCharsets.UTF_8));
+        Files.createDirectory(directory.resolve("sub"));
+    }
+
+
+    /**
+     * Create the configuration with an enabled directory listing
+     *
+     * @param directory the directory
+     * @return the configuration
+     */
+    private WebServerConfiguration newListingConfiguration(Path directory) {
+        WebServerConfiguration configuration = newConfiguration();
+        configuration.getResourceServerConfiguration().setDirectory(directory.toString());
+        configuration.getResourceServerConfiguration().setDirectoryListingEnabled(Boolean.TRUE).setDirectoryListingPageSize(10);
+        return configuration;
+    }
+}
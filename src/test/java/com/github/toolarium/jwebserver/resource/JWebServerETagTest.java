@@ -0,0 +1,70 @@
+/*
+ * JWebServerETagTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.resource;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import com.github.toolarium.jwebserver.AbstractJWebServerTest;
+import com.github.toolarium.jwebserver.config.WebServerConfiguration;
+import io.restassured.RestAssured;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+/**
+ * JWebServer strong ETag tests
+ *
+ * @author patrick
+ */
+public class JWebServerETagTest extends AbstractJWebServerTest {
+    private static final String INDEX_HTML = "/index.html";
+    private static final String ETAG = "ETag";
+
+
+    /**
+     * Test the strong ETags and the conditional requests.
+     *
+     * @param directory the temp directory
+     * @throws IOException In case of an I/O error
+     */
+    @Test void testETag(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("index.html");
+        Files.writeString(file, "<html>a</html>", StandardCharsets.UTF_8);
+        Files.writeString(directory.resolve("copy.html"), "<html>a</html>", StandardCharsets.UTF_8);
+
+        WebServerConfiguration configuration = newConfiguration();
+        configuration.getResourceServerConfiguration().setDirectory(directory.toString());
+        configuration.getResourceServerConfiguration().setETagCacheSize(100);
+        run(configuration);
+
+        RestAssured.port = configuration.getPort();
+        String etag = given().when().get(INDEX_HTML).then().statusCode(200).extract().header(ETAG);
+        assertFalse(etag.startsWith("W/"));
+
+        // same content, same tag
+        assertEquals(etag, given().when().get("/copy.html").then().statusCode(200).extract().header(ETAG));
+
+        given().when().header("If-None-Match", etag).get(INDEX_HTML).then().statusCode(304);
+        String lastModified = given().when().get(INDEX_HTML).then().statusCode(200).extract().header("Last-Modified");
+        given().when().header("If-Modified-Since", lastModified).get(INDEX_HTML).then().statusCode(304);
+
+        // a modified content gets a new tag
+        Files.writeString(file, "<html>b</html>", StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 10000));
+        String newETag = given().when().header("If-None-Match", etag).get(INDEX_HTML).then().statusCode(200).header(ETAG, not(is(etag))).extract().header(ETAG);
+        assertNotEquals(etag, newETag);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * JWebServerIoThreadTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.resource;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.not;
+import static org.hamcrest.CoreMatchers.notNullValue;
+
+import com.github.toolarium.jwebserver.AbstractJWebServerTest;
+import com.github.toolarium.jwebserver.config.WebServerConfiguration;
+import io.restassured.RestAssured;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+/**
+ * JWebServer tests of the cached responses written from the IO thread
+ *
+ * @author patrick
+ */
+public class JWebServerIoThreadTest extends AbstractJWebServerTest {
+    private static final String APP_JS = "app.js";
+    private static final String ETAG = "ETag";
+    private static final String EXPIRES = "Expires";
+
+
+    /**
+     * Test the recorded responses and their validation.
+     *
+     * @param directory the temp directory
+     * @throws IOException In case of an I/O error
+     * @throws InterruptedException In case of an interrupt
+     */
+    @Test void testIoThreadResponses(@TempDir Path directory) throws IOException, InterruptedException {
+        Path file = directory.resolve(APP_JS);
+        Files.writeString(file, "var a = 1;", StandardCharsets.UTF_8);
+
+        WebServerConfiguration configuration = newConfiguration();
+        configuration.getResourceServerConfiguration().setDirectory(directory.toString());
+        configuration.getResourceServerConfiguration().setCacheSize(1024 * 1024);
+        configuration.getResourceServerConfiguration().setETagCacheSize(100);
+        configuration.getResourceServerConfiguration().setServeFromIoThread(Boolean.TRUE);
+        configuration.getResourceServerConfiguration().setIoThreadTimeToLive(1000);
+        run(configuration);
+
+        RestAssured.port = configuration.getPort();
+        String etag = given().when().get("/" + APP_JS).then().statusCode(200).header(ETAG, notNullValue()).body(is("var a = 1;")).extract().header(ETAG);
+        given().when().get("/" + APP_JS).then().statusCode(200).header(ETAG, is(etag)).header("Content-Length", is("10")).body(is("var a = 1;"));
+        given().when().head("/" + APP_JS).then().statusCode(200).header(ETAG, is(etag));
+        given().when().header("If-None-Match", etag).get("/" + APP_JS).then().statusCode(304).header(ETAG, is(etag));
+
+        // the expired recorded response is validated again by the resource handler, its 304 carries the same ETag
+        Thread.sleep(1100);
+        given().when().header("If-None-Match", etag).get("/" + APP_JS).then().statusCode(304).header(ETAG, is(etag));
+        given().when().header("If-None-Match", etag).get("/" + APP_JS).then().statusCode(304).header(ETAG, is(etag));
+        given().when().header("Range", "bytes=0-2").get("/" + APP_JS).then().statusCode(206).body(is("var"));
+        given().when().get("/missing.js").then().statusCode(404);
+        given().when().get("/missing.js").then().statusCode(404);
+
+        Files.writeString(file, "var a = 2;", StandardCharsets.UTF_8);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(Files.getLastModifiedTime(file).toMillis() + 10000));
+        Thread.sleep(300);
+        given().when().get("/" + APP_JS).then().statusCode(200).body(is("var a = 2;"));
+    }
+
+
+    /**
+     * Test that the Expires header of a replayed response is computed from the request time.
+     *
+     * @param directory the temp directory
+     * @throws IOException In case of an I/O error
+     * @throws InterruptedException In case of an interrupt
+     */
+    @Test void testExpires(@TempDir Path directory) throws IOException, InterruptedException {
+        Files.writeString(directory.resolve(APP_JS), "var a = 1;", StandardCharsets.UTF_8);
+
+        WebServerConfiguration configuration = newConfiguration();
+        configuration.getResourceServerConfiguration().setDirectory(directory.toString()).setCacheControl("*.js: public, max-age=60");
+        configuration.getResourceServerConfiguration().setCacheSize(1024 * 1024);
+        configuration.getResourceServerConfiguration().setServeFromIoThread(Boolean.TRUE);
+        run(configuration);
+
+        RestAssured.port = configuration.getPort();
+        String expires = given().when().get("/" + APP_JS).then().statusCode(200).header(EXPIRES, notNullValue()).extract().header(EXPIRES);
+        Thread.sleep(1100);
+        given().when().get("/" + APP_JS).then().statusCode(200).header(EXPIRES, not(is(expires))).body(is("var a = 1;"));
+    }
+}
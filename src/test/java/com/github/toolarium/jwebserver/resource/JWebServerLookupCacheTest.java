@@ -0,0 +1,82 @@
+/*
+ * JWebServerLookupCacheTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.resource;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.github.toolarium.jwebserver.AbstractJWebServerTest;
+import com.github.toolarium.jwebserver.config.WebServerConfiguration;
+import com.github.toolarium.jwebserver.handler.routing.resource.cache.ResourceLookupCache;
+import io.restassured.RestAssured;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+/**
+ * JWebServer resource lookup cache tests
+ *
+ * @author patrick
+ */
+public class JWebServerLookupCacheTest extends AbstractJWebServerTest {
+
+    /**
+     * Test the resolution of missing and resolved resources with an enabled lookup cache.
+     *
+     * @param directory the temp directory
+     * @throws IOException In case of an I/O error
+     */
+    @Test void testLookupCache(@TempDir Path directory) throws IOException {
+        Files.writeString(directory.resolve("data.json"), "{ \"a\": \"b\" }", StandardCharsets.UTF_8);
+
+        WebServerConfiguration configuration = newConfiguration();
+        configuration.getResourceServerConfiguration().setDirectory(directory.toString());
+        configuration.getResourceServerConfiguration().setSupportedFileExtensions(".json");
+        configuration.getResourceServerConfiguration().setResolveParentResourceIfNotFound(Boolean.FALSE);
+        configuration.getResourceServerConfiguration().setLookupCacheSize(100);
+        run(configuration);
+
+        RestAssured.port = configuration.getPort();
+        for (int i = 0; i < 3; i++) {
+            given().when().get("/data").then().statusCode(200).body("a", is("b"));
+            given().when().get("/missing").then().statusCode(404);
+        }
+    }
+
+
+    /**
+     * Test the lookup cache.
+     *
+     * @throws InterruptedException In case of an interrupt
+     */
+    @Test void testLookupCacheEntries() throws InterruptedException {
+        ResourceLookupCache lookupCache = new ResourceLookupCache(1, 60000);
+        assertNull(lookupCache.get("/missing"));
+        lookupCache.put("/missing", null);
+        assertNotNull(lookupCache.get("/missing"));
+        assertFalse(lookupCache.get("/missing").isFound());
+
+        // full
+        lookupCache.put("/other", null);
+        assertNull(lookupCache.get("/other"));
+
+        lookupCache.handleChanges(null);
+        assertEquals(0, lookupCache.getEntryCount());
+
+        lookupCache = new ResourceLookupCache(10, 1);
+        lookupCache.put("/missing", null);
+        Thread.sleep(5);
+        assertNull(lookupCache.get("/missing"));
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * JWebServerMappedFileTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.resource;
+
+import static io.restassured.RestAssured.given;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+import com.github.toolarium.jwebserver.AbstractJWebServerTest;
+import com.github.toolarium.jwebserver.config.WebServerConfiguration;
+import io.restassured.RestAssured;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+/**
+ * JWebServer memory mapped file tests
+ *
+ * @author patrick
+ */
+public class JWebServerMappedFileTest extends AbstractJWebServerTest {
+    private static final String DATA_BIN = "data.bin";
+
+
+    /**
+     * Test the full and the range requests of a memory mapped file.
+     *
+     * @param directory the temp directory
+     * @throws IOException In case of an I/O error
+     */
+    @Test void testMappedFile(@TempDir Path directory) throws IOException {
+        byte[] data = new byte[100 * 1024];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (i % 251);
+        }
+        Files.write(directory.resolve(DATA_BIN), data);
+        Files.write(directory.resolve("small.bin"), Arrays.copyOf(data, 100));
+
+        WebServerConfiguration configuration = newConfiguration();
+        configuration.getResourceServerConfiguration().setDirectory(directory.toString());
+        configuration.getResourceServerConfiguration().setMappedCacheSize(1024 * 1024).setMappedFileMinSize(64 * 1024).setTransferMinSize(512);
+        run(configuration);
+
+        RestAssured.port = configuration.getPort();
+        for (int i = 0; i < 2; i++) {
+            assertArrayEquals(data, given().when().get("/" + DATA_BIN).then().statusCode(200).extract().asByteArray());
+        }
+
+        byte[] range = given().when().header("Range", "bytes=1000-1999").get("/" + DATA_BIN).then().statusCode(206).extract().asByteArray();
+        assertArrayEquals(Arrays.copyOfRange(data, 1000, 2000), range);
+        assertArrayEquals(Arrays.copyOf(data, 100), given().when().get("/small.bin").then().statusCode(200).extract().asByteArray());
+    }
+}
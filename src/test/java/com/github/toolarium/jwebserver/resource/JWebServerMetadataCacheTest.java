@@ -0,0 +1,97 @@
+/*
+ * JWebServerMetadataCacheTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.resource;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.toolarium.jwebserver.AbstractJWebServerTest;
+import com.github.toolarium.jwebserver.config.WebServerConfiguration;
+import com.github.toolarium.jwebserver.handler.routing.resource.cache.ResourceMetadata;
+import com.github.toolarium.jwebserver.handler.routing.resource.cache.ResourceMetadataCache;
+import io.restassured.RestAssured;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+/**
+ * JWebServer resource metadata cache tests
+ *
+ * @author patrick
+ */
+public class JWebServerMetadataCacheTest extends AbstractJWebServerTest {
+
+    /**
+     * Test the resolution of resources with an enabled metadata cache.
+     *
+     * @param directory the temp directory
+     * @throws IOException In case of an I/O error
+     */
+    @Test void testMetadataCache(@TempDir Path directory) throws IOException {
+        Files.writeString(directory.resolve("data.json"), "{ \"a\": \"b\" }", StandardCharsets.UTF_8);
+        Files.createDirectory(directory.resolve("sub"));
+        Files.writeString(directory.resolve("sub").resolve("index.html"), "<html>sub</html>", StandardCharsets.UTF_8);
+
+        WebServerConfiguration configuration = newConfiguration();
+        configuration.getResourceServerConfiguration().setDirectory(directory.toString());
+        configuration.getResourceServerConfiguration().setSupportedFileExtensions(".json");
+        configuration.getResourceServerConfiguration().setMetadataCacheSize(100);
+        run(configuration);
+
+        RestAssured.port = configuration.getPort();
+        for (int i = 0; i < 3; i++) {
+            given().when().get("/data").then().statusCode(200).header("Content-Length", is("12")).body("a", is("b"));
+            given().when().get("/sub").then().statusCode(200).body(is("<html>sub</html>"));
+            given().when().get("/missing").then().statusCode(404);
+        }
+    }
+
+
+    /**
+     * Test that a fresh entry is not read again, an expired entry is answered and refreshed in the background and an
+     * entry which is too old is read by the request.
+     *
+     * @throws InterruptedException In case of an interrupt
+     */
+    @Test void testMetadataCacheEntries() throws InterruptedException {
+        final AtomicInteger loads = new AtomicInteger();
+        Function<String, ResourceMetadata> loader = path -> new ResourceMetadata(null, false, loads.incrementAndGet(), null, System.currentTimeMillis());
+
+        ResourceMetadataCache metadataCache = new ResourceMetadataCache(10, 50);
+        try {
+            assertFalse(metadataCache.get("/missing", loader).exists());
+            assertEquals(1, metadataCache.get("/missing", loader).getSize());
+            assertEquals(1, loads.get());
+
+            // stale: the old metadata is answered, the refresh runs in the background
+            Thread.sleep(100);
+            assertEquals(1, metadataCache.get("/missing", loader).getSize());
+            for (int i = 0; i < 100 && metadataCache.get("/missing", loader).getSize() == 1; i++) {
+                Thread.sleep(10);
+            }
+            assertEquals(2, metadataCache.get("/missing", loader).getSize());
+
+            // too old: read by the request
+            Thread.sleep(600);
+            assertEquals(3, metadataCache.get("/missing", loader).getSize());
+
+            metadataCache.handleChanges(null);
+            assertEquals(0, metadataCache.getEntryCount());
+            assertTrue(metadataCache.get("/missing", loader).getSize() > 3);
+        } finally {
+            metadataCache.close();
+        }
+    }
+}
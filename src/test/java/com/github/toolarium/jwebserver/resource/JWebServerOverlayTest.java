@@ -0,0 +1,99 @@
+/*
+ * JWebServerOverlayTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.resource;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.github.toolarium.jwebserver.AbstractJWebServerTest;
+import com.github.toolarium.jwebserver.config.WebServerConfiguration;
+import com.github.toolarium.jwebserver.handler.routing.resource.index.FileResourceIndex;
+import com.github.toolarium.jwebserver.handler.routing.resource.index.IResourceIndex;
+import com.github.toolarium.jwebserver.handler.routing.resource.index.OverlayResourceIndex;
+import com.github.toolarium.jwebserver.handler.routing.resource.index.OverlayResourceIndexEntry;
+import io.restassured.RestAssured;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+/**
+ * JWebServer resource layer tests
+ *
+ * @author patrick
+ */
+public class JWebServerOverlayTest extends AbstractJWebServerTest {
+    private static final String APP_CSS = "app.css";
+
+
+    /**
+     * Test the resolution of the resources across an override directory, a content directory and a classpath layer.
+     *
+     * @param override the override directory
+     * @param content the content directory
+     * @throws IOException In case of an I/O error
+     */
+    @Test void testOverlay(@TempDir Path override, @TempDir Path content) throws IOException {
+        Files.writeString(override.resolve(APP_CSS), "override", StandardCharsets.UTF_8);
+        Files.createDirectories(override.resolve("docs"));
+        Files.writeString(override.resolve("docs/extra.txt"), "extra", StandardCharsets.UTF_8);
+        Files.writeString(content.resolve(APP_CSS), "content", StandardCharsets.UTF_8);
+        Files.writeString(content.resolve("only.txt"), "only", StandardCharsets.UTF_8);
+        Files.createDirectories(content.resolve("docs"));
+        Files.writeString(content.resolve("docs/index.html"), "docs", StandardCharsets.UTF_8);
+
+        WebServerConfiguration configuration = newConfiguration();
+        configuration.getResourceServerConfiguration().setResourceLayers(new String[] {override.toString(), content.toString(), "classpath:mypath"});
+        run(configuration);
+
+        RestAssured.port = configuration.getPort();
+        given().when().get("/" + APP_CSS).then().statusCode(200).body(is("override"));
+        given().when().get("/only.txt").then().statusCode(200).body(is("only"));
+        given().when().get("/docs/extra.txt").then().statusCode(200).body(is("extra"));
+        given().when().get("/docs/").then().statusCode(200).body(is("docs"));
+        given().when().get("/subpath/my.json").then().statusCode(200);
+        given().when().get("/missing.txt").then().statusCode(404);
+    }
+
+
+    /**
+     * Test the update of the merged index by the changes of a layer.
+     *
+     * @param override the override directory
+     * @param content the content directory
+     * @throws IOException In case of an I/O error
+     * @throws InterruptedException In case of an interrupt
+     */
+    @Test void testOverlayIndexUpdate(@TempDir Path override, @TempDir Path content) throws IOException, InterruptedException {
+        Files.writeString(content.resolve(APP_CSS), "content", StandardCharsets.UTF_8);
+
+        FileResourceIndex overrideIndex = new FileResourceIndex(override, null);
+        FileResourceIndex contentIndex = new FileResourceIndex(content, null);
+        overrideIndex.start();
+        contentIndex.start();
+        try (OverlayResourceIndex resourceIndex = new OverlayResourceIndex(Arrays.<IResourceIndex>asList(overrideIndex, contentIndex), Arrays.asList("index.html"))) {
+            resourceIndex.build();
+            assertEquals(1, ((OverlayResourceIndexEntry) resourceIndex.get("/" + APP_CSS)).getLayer());
+
+            Files.writeString(override.resolve(APP_CSS), "override", StandardCharsets.UTF_8);
+            for (int i = 0; i < 100 && ((OverlayResourceIndexEntry) resourceIndex.get("/" + APP_CSS)).getLayer() != 0; i++) {
+                Thread.sleep(100);
+            }
+            assertEquals(0, ((OverlayResourceIndexEntry) resourceIndex.get("/" + APP_CSS)).getLayer());
+
+            Files.delete(override.resolve(APP_CSS));
+            for (int i = 0; i < 100 && ((OverlayResourceIndexEntry) resourceIndex.get("/" + APP_CSS)).getLayer() != 1; i++) {
+                Thread.sleep(100);
+            }
+            assertEquals(1, ((OverlayResourceIndexEntry) resourceIndex.get("/" + APP_CSS)).getLayer());
+        }
+    }
+}
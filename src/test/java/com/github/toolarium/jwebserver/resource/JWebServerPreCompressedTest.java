@@ -0,0 +1,66 @@
+/*
+ * JWebServerPreCompressedTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.resource;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+
+import com.github.toolarium.jwebserver.AbstractJWebServerTest;
+import com.github.toolarium.jwebserver.config.WebServerConfiguration;
+import com.github.toolarium.jwebserver.handler.compression.GzipContentEncoder;
+import io.restassured.RestAssured;
+import io.restassured.config.DecoderConfig;
+import io.restassured.config.RestAssuredConfig;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+/**
+ * JWebServer precompressed sidecar file tests
+ *
+ * @author patrick
+ */
+public class JWebServerPreCompressedTest extends AbstractJWebServerTest {
+    private static final String APP_JS = "app.js";
+    private static final String CONTENT = "function app() { return 'app'; }";
+    private static final String ACCEPT_ENCODING = "Accept-Encoding";
+    private static final String CONTENT_ENCODING = "Content-Encoding";
+
+
+    /**
+     * Test the content negotiation of the sidecar files.
+     *
+     * @param directory the temp directory
+     * @throws IOException In case of an I/O error
+     */
+    @Test void testPreCompressed(@TempDir Path directory) throws IOException {
+        Files.writeString(directory.resolve(APP_JS), CONTENT, StandardCharsets.UTF_8);
+        Files.write(directory.resolve(APP_JS + ".gz"), new GzipContentEncoder().encode(CONTENT.getBytes(StandardCharsets.UTF_8), 6));
+        Files.write(directory.resolve(APP_JS + ".br"), new byte[] {1, 2, 3});
+        Files.writeString(directory.resolve("plain.js"), CONTENT, StandardCharsets.UTF_8);
+
+        WebServerConfiguration configuration = newConfiguration();
+        configuration.getResourceServerConfiguration().setDirectory(directory.toString());
+        configuration.getResourceServerConfiguration().setPrecompressedEncodings("br, gzip");
+        run(configuration);
+
+        // keep the content encoding of the responses
+        RestAssured.port = configuration.getPort();
+        RestAssuredConfig config = RestAssured.config().decoderConfig(DecoderConfig.decoderConfig().noContentDecoders());
+        given().config(config).when().header(ACCEPT_ENCODING, "gzip").get("/" + APP_JS).then().statusCode(200)
+            .header(CONTENT_ENCODING, is("gzip")).header("Vary", containsString(ACCEPT_ENCODING)).header("Content-Type", containsString("javascript"));
+        given().config(config).when().header(ACCEPT_ENCODING, "gzip, br").get("/" + APP_JS).then().statusCode(200).header(CONTENT_ENCODING, is("br")).header("Content-Length", is("3"));
+        given().config(config).when().header(ACCEPT_ENCODING, "br;q=0, gzip").get("/" + APP_JS).then().statusCode(200).header(CONTENT_ENCODING, is("gzip"));
+        given().config(config).when().header(ACCEPT_ENCODING, "identity").get("/" + APP_JS).then().statusCode(200).header(CONTENT_ENCODING, nullValue()).body(is(CONTENT));
+        given().config(config).when().header(ACCEPT_ENCODING, "gzip").get("/plain.js").then().statusCode(200).header(CONTENT_ENCODING, nullValue()).body(is(CONTENT));
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * JWebServerPreloadTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.resource;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.toolarium.jwebserver.AbstractJWebServerTest;
+import com.github.toolarium.jwebserver.config.WebServerConfiguration;
+import com.github.toolarium.jwebserver.util.ResourceUtil;
+import io.restassured.RestAssured;
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * JWebServer warm mode tests
+ *
+ * @author patrick
+ */
+public class JWebServerPreloadTest extends AbstractJWebServerTest {
+
+    /**
+     * Test the access of preloaded classpath resources.
+     */
+    @Test void testPreload() {
+        WebServerConfiguration configuration = newConfiguration();
+        configuration.getResourceServerConfiguration().setDirectory("mypath", Boolean.TRUE);
+        configuration.getResourceServerConfiguration().setPreloadSize(1024 * 1024);
+        run(configuration);
+
+        RestAssured.port = configuration.getPort();
+        given().when().header("Accept-Encoding", "gzip").get("/index.json").then().statusCode(200).body("a", is("b"));
+        given().when().header("Accept-Encoding", "identity").get("/subpath/my.json").then().statusCode(200).body("c", is("d"));
+        given().when().get("/subpath/missing.json").then().statusCode(404);
+    }
+
+
+    /**
+     * Test that a classpath resource which is not in the index of the preload is resolved by the class loader.
+     *
+     * @throws IOException In case of an I/O error
+     * @throws URISyntaxException In case of an invalid uri
+     */
+    @Test void testPreloadWithoutResourceIndex() throws IOException, URISyntaxException {
+        Path file = Paths.get(getClass().getResource("/mypath/index.json").toURI()).resolveSibling("late.json");
+        WebServerConfiguration configuration = newConfiguration();
+        configuration.getResourceServerConfiguration().setDirectory("mypath", Boolean.TRUE);
+        configuration.getResourceServerConfiguration().setPreloadSize(1024 * 1024);
+        run(configuration);
+
+        try {
+            // the resource is added after the index was built
+            Files.writeString(file, "{ \"e\": \"f\" }", StandardCharsets.UTF_8);
+            RestAssured.port = configuration.getPort();
+            given().when().get("/late.json").then().statusCode(200).body("e", is("f"));
+            given().when().get("/index.json").then().statusCode(200).body("a", is("b"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+
+    /**
+     * Test the accept encoding negotiation.
+     */
+    @Test void testAcceptsEncoding() {
+        assertTrue(ResourceUtil.getInstance().acceptsEncoding(Arrays.asList("gzip, deflate, br"), "gzip"));
+        assertTrue(ResourceUtil.getInstance().acceptsEncoding(Arrays.asList("deflate", "gzip;q=0.5"), "gzip"));
+        assertTrue(ResourceUtil.getInstance().acceptsEncoding(Arrays.asList("*"), "gzip"));
+        assertFalse(ResourceUtil.getInstance().acceptsEncoding(Arrays.asList("gzip;q=0"), "gzip"));
+        assertFalse(ResourceUtil.getInstance().acceptsEncoding(Arrays.asList("*;q=0"), "gzip"));
+        assertFalse(ResourceUtil.getInstance().acceptsEncoding(Arrays.asList("identity"), "gzip"));
+        assertFalse(ResourceUtil.getInstance().acceptsEncoding(null, "gzip"));
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * JWebServerResourceIndexTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.resource;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.toolarium.jwebserver.AbstractJWebServerTest;
+import com.github.toolarium.jwebserver.JWebServer;
+import com.github.toolarium.jwebserver.config.WebServerConfiguration;
+import com.github.toolarium.jwebserver.handler.routing.resource.index.FileResourceIndex;
+import io.restassured.RestAssured;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+/**
+ * JWebServer resource index tests
+ *
+ * @author patrick
+ */
+public class JWebServerResourceIndexTest extends AbstractJWebServerTest {
+
+    /**
+     * Test the resolution of the resources from the index.
+     *
+     * @param directory the temp directory
+     * @throws IOException In case of an I/O error
+     */
+    @Test void testResourceIndex(@TempDir Path directory) throws IOException {
+        Files.writeString(directory.resolve("data.json"), "{ \"a\": \"b\" }", StandardCharsets.UTF_8);
+        Files.createDirectories(directory.resolve("sub/empty"));
+        Files.writeString(directory.resolve("sub/index.html"), "sub", StandardCharsets.UTF_8);
+
+        WebServerConfiguration configuration = newConfiguration();
+        configuration.getResourceServerConfiguration().setDirectory(directory.toString());
+        configuration.getResourceServerConfiguration().setSupportedFileExtensions(".json");
+        configuration.getResourceServerConfiguration().setResourceIndexEnabled(Boolean.TRUE);
+        run(configuration);
+
+        RestAssured.port = configuration.getPort();
+        given().when().get("/data.json").then().statusCode(200).body("a", is("b"));
+        given().when().get("/data").then().statusCode(200).body("a", is("b"));
+        given().when().get("/missing").then().statusCode(404);
+        given().when().get("/sub/").then().statusCode(200).body(is("sub"));
+        given().when().get("/sub/empty").then().statusCode(200).body(is("sub"));
+    }
+
+
+    /**
+     * Test the update of the index by file system events.
+     *
+     * @param directory the temp directory
+     * @throws IOException In case of an I/O error
+     * @throws InterruptedException In case of an interrupt
+     */
+    @Test void testIndexUpdate(@TempDir Path directory) throws IOException, InterruptedException {
+        try (FileResourceIndex resourceIndex = new FileResourceIndex(directory, Arrays.asList("index.html"))) {
+            resourceIndex.start();
+            assertEquals(1, resourceIndex.size());
+            assertNull(resourceIndex.get("/sub/index.html"));
+
+            Files.createDirectories(directory.resolve("sub"));
+            Files.writeString(directory.resolve("sub/index.html"), "sub", StandardCharsets.UTF_8);
+            for (int i = 0; i < 100 && (resourceIndex.get("/sub/index.html") == null || resourceIndex.resolveWelcomeFile("/sub") == null); i++) {
+                Thread.sleep(100);
+            }
+
+            assertNotNull(resourceIndex.get("/sub/index.html"));
+            assertTrue(resourceIndex.get("/sub").isDirectory());
+            assertEquals("sub/index.html", resourceIndex.resolveWelcomeFile("/sub").getPath());
+
+            Files.delete(directory.resolve("sub/index.html"));
+            for (int i = 0; i < 100 && resourceIndex.get("/sub/index.html") != null; i++) {
+                Thread.sleep(100);
+            }
+
+            assertNull(resourceIndex.get("/sub/index.html"));
+            assertNull(resourceIndex.resolveWelcomeFile("/sub"));
+        }
+    }
+
+
+    /**
+     * Test the index of a base directory which is a symbolic link.
+     *
+     * @param directory the temp directory
+     * @throws IOException In case of an I/O error
+     */
+    @Test void testSymbolicLinkBase(@TempDir Path directory) throws IOException {
+        Files.createDirectories(directory.resolve("content"));
+        Files.writeString(directory.resolve("content/index.html"), "content", StandardCharsets.UTF_8);
+        Path link = Files.createSymbolicLink(directory.resolve("link"), directory.resolve("content"));
+
+        try (FileResourceIndex resourceIndex = new FileResourceIndex(link, Arrays.asList("index.html"))) {
+            resourceIndex.start();
+            assertNotNull(resourceIndex.get("/index.html"));
+            assertEquals(7, resourceIndex.get("/index.html").getSize());
+            assertEquals("text/html", resourceIndex.get("/index.html").getContentType());
+        }
+
+        WebServerConfiguration configuration = newConfiguration();
+        configuration.getResourceServerConfiguration().setDirectory(link.toString());
+        configuration.getResourceServerConfiguration().setResourceIndexEnabled(Boolean.TRUE);
+        run(configuration);
+
+        RestAssured.port = configuration.getPort();
+        given().when().get("/index.html").then().statusCode(200).header("Content-Length", is("7")).body(is("content"));
+    }
+
+
+    /**
+     * Test that the watcher threads of the resource managers are stopped with the server.
+     *
+     * @param directory the temp directory
+     * @throws IOException In case of an I/O error
+     * @throws InterruptedException In case of an interrupt
+     */
+    @Test void testStop(@TempDir Path directory) throws IOException, InterruptedException {
+        Files.writeString(directory.resolve("index.html"), "<html>index</html>", StandardCharsets.UTF_8);
+        Set<Thread> threads = getBackgroundThreads();
+
+        WebServerConfiguration configuration = newConfiguration();
+        configuration.getResourceServerConfiguration().setDirectory(directory.toString());
+        configuration.getResourceServerConfiguration().setResourceIndexEnabled(true);
+        configuration.getResourceServerConfiguration().setMetadataCacheSize(100);
+        configuration.getResourceServerConfiguration().setGenerationCheckInterval(50);
+        JWebServer jwebserver = run(configuration);
+
+        RestAssured.port = configuration.getPort();
+        given().when().get("/index.html").then().statusCode(200).body(is("<html>index</html>"));
+
+        Set<Thread> startedThreads = getBackgroundThreads();
+        startedThreads.removeAll(threads);
+        assertFalse(startedThreads.isEmpty());
+
+        jwebserver.stop();
+        for (Thread thread : startedThreads) {
+            thread.join(1000);
+            assertFalse(thread.isAlive(), thread.getName());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * JWebServerSpaTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.resource;
+
+import static io.restassured.RestAssured.given;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.github.toolarium.jwebserver.AbstractJWebServerTest;
+import com.github.toolarium.jwebserver.config.WebServerConfiguration;
+import com.github.toolarium.jwebserver.handler.routing.resource.SpaResourceManager;
+import io.restassured.RestAssured;
+import io.restassured.config.DecoderConfig;
+import io.restassured.config.RestAssuredConfig;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+
+/**
+ * JWebServer single-page application tests
+ *
+ * @author patrick
+ */
+public class JWebServerSpaTest extends AbstractJWebServerTest {
+    private static final String ETAG = "ETag";
+
+
+    /**
+     * Test the routes of a single-page application.
+     *
+     * @param directory the temp directory
+     * @throws IOException In case of an I/O error
+     */
+    @Test void testSpa(@TempDir Path directory) throws IOException {
+        StringBuilder content = new StringBuilder("<html><body>");
+        for (int i = 0; i < 100; i++) {
+            content.append("<div id=\"app-").append(i).append("\"></div>");
+        }
+        content.append("</body></html>");
+        Files.writeString(directory.resolve("index.html"), content.toString(), StandardCharsets.UTF_8);
+        Files.createDirectories(directory.resolve("assets"));
+        Files.writeString(directory.resolve("assets/app.js"), "var a = 1;", StandardCharsets.UTF_8);
+
+        WebServerConfiguration configuration = newConfiguration();
+        configuration.getResourceServerConfiguration().setDirectory(directory.toString());
+        configuration.getResourceServerConfiguration().setSpaIndex("index.html");
+        configuration.getResourceServerConfiguration().setETagCacheSize(100);
+        run(configuration);
+
+        RestAssured.port = configuration.getPort();
+        given().when().get("/assets/app.js").then().statusCode(200).body(is("var a = 1;"));
+        given().when().get("/users/42").then().statusCode(200).body(is(content.toString()));
+        given().when().get("/assets/missing.js").then().statusCode(404);
+
+        RestAssuredConfig config = RestAssured.config().decoderConfig(DecoderConfig.decoderConfig().noContentDecoders());
+        String etag = given().config(config).when().header("Accept-Encoding", "gzip").get("/users/42/settings").then().statusCode(200).header("Content-Encoding", is("gzip")).header(ETAG, notNullValue()).extract().header(ETAG);
+        given().config(config).when().header("Accept-Encoding", "gzip").header("If-None-Match", etag).get("/orders").then().statusCode(304);
+        given().config(config).when().header("Accept-Encoding", "gzip").get("/orders/7").then().statusCode(200).header(ETAG, is(etag));
+    }
+
+
+    /**
+     * Test the asset paths.
+     */
+    @Test void testAsset() {
+        assertTrue(SpaResourceManager.isAsset("/assets/app.js"));
+        assertTrue(SpaResourceManager.isAsset("/favicon.ico"));
+        assertFalse(SpaResourceManager.isAsset("/users/42"));
+        assertFalse(SpaResourceManager.isAsset("/v1.2/users"));
+        assertFalse(SpaResourceManager.isAsset("/"));
+        assertFalse(SpaResourceManager.isAsset(null));
+    }
+}
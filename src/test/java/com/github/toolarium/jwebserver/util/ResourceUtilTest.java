@@ -0,0 +1,50 @@
+/*
+ * ResourceUtilTest.java
+ *
+ * Copyright by toolarium, all rights reserved.
+ */
+package com.github.toolarium.jwebserver.util;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+
+/**
+ * Test the path walk of the {@link ResourceUtil}.
+ *
+ * @author patrick
+ */
+public class ResourceUtilTest {
+
+    /**
+     * Test the walk over the parents of a directory.
+     */
+    @Test void testParentWalk() {
+        assertEquals(List.of("/a/b/c/index.html", "/a/b/index.html", "/a/index.html", "/index.html"), walk("/a/b/c", "index.html"));
+        assertEquals(List.of("/a/b/index.html", "/a/index.html", "/index.html"), walk("/a/b/", "index.html"));
+        assertEquals(List.of("/a/index.html", "/index.html"), walk("/a/./b/..", "index.html"));
+        assertEquals(List.of("/index.html"), walk("/", "index.html"));
+        assertEquals(List.of("/index.html"), walk("", "index.html"));
+        assertEquals(List.of("a/b/index.html", "a/index.html", "index.html"), walk("a/b", "index.html"));
+    }
+
+
+    /**
+     * Walk over the parents of a directory
+     *
+     * @param path the path
+     * @param name the name to resolve
+     * @return the resolved paths
+     */
+    private List<String> walk(String path, String name) {
+        List<String> result = new ArrayList<>();
+        StringBuilder pathBuffer = ResourceUtil.getInstance().createPathBuffer(path, name.length());
+        for (int directoryEnd = pathBuffer.length(); directoryEnd >= 0; directoryEnd = ResourceUtil.getInstance().getParentEnd(pathBuffer, directoryEnd)) {
+            result.add(ResourceUtil.getInstance().resolve(pathBuffer, directoryEnd, name));
+        }
+        return result;
+    }
+}